@@ -0,0 +1,39 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model;
+
+import de.osmembrane.Application;
+
+/**
+ * Initiates the models of the {@link ModelProxy} once per benchmark JVM, the
+ * views and the controller are not needed.
+ * 
+ * @author agent
+ */
+public class BenchmarkModels {
+
+    private static boolean initiated = false;
+
+    private BenchmarkModels() {
+    }
+
+    /**
+     * Initiates the settings, the function prototypes and the presets, if not
+     * already done.
+     */
+    public static synchronized void initiate() {
+        if (!initiated) {
+            new Application().createModels();
+            initiated = true;
+        }
+    }
+}
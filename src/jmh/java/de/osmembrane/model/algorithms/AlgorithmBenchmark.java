@@ -0,0 +1,82 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.osmembrane.model.BenchmarkModels;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.Pipeline;
+import de.osmembrane.model.pipeline.PipelineGenerator;
+
+/**
+ * Benchmarks of the graph algorithms on generated pipelines:
+ * {@link TarjanAlgorithm}, {@link Pipeline#hasLoop()} and
+ * {@link GraphPlanarizer#planarize()}.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AlgorithmBenchmark {
+
+    @Param({ "10", "1000", "10000" })
+    public int size;
+
+    private Pipeline pipeline;
+
+    private List<AbstractFunction> functions;
+
+    @Setup
+    public void setUp() {
+        BenchmarkModels.initiate();
+
+        pipeline = new PipelineGenerator(PipelineGenerator.DEFAULT_SEED)
+                .generatePipeline(size);
+        functions = Arrays.asList(pipeline.getFunctions());
+    }
+
+    @Benchmark
+    public List<List<AbstractFunction>> tarjan() {
+        TarjanAlgorithm tarjan = new TarjanAlgorithm(functions);
+        tarjan.run();
+        return tarjan.getSCC();
+    }
+
+    @Benchmark
+    public boolean hasLoop() {
+        return pipeline.hasLoop();
+    }
+
+    @Benchmark
+    public void planarize() {
+        new GraphPlanarizer(functions).planarize();
+    }
+}
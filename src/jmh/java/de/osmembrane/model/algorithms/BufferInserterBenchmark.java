@@ -0,0 +1,226 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.osmembrane.model.BenchmarkModels;
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.ConnectorException;
+import de.osmembrane.model.pipeline.Pipeline;
+import de.osmembrane.resources.Constants;
+
+/**
+ * Compares the wall-clock time of "read-pbf -> bounding-polygon -> write-xml"
+ * with and without the buffers the {@link BufferInserter} puts into it. A
+ * synthetic stand-in for osmosis spends the same CPU work on every entity in
+ * every task, it runs the tasks between two buffers in one thread and
+ * connects these threads by bounded queues with the capacity of the buffers,
+ * like osmosis does.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BufferInserterBenchmark {
+
+    /**
+     * Entities passed through the synthetic pipeline.
+     */
+    private static final int ENTITY_COUNT = 20000;
+
+    /**
+     * Work units every synthetic task spends on one entity.
+     */
+    private static final int WORK_PER_ENTITY = 2000;
+
+    /**
+     * Marks the end of the synthetic stream.
+     */
+    private static final long END_OF_STREAM = Long.MIN_VALUE;
+
+    /**
+     * Number of tasks run by each thread without buffers.
+     */
+    private List<Integer> unbuffered;
+
+    /**
+     * Number of tasks run by each thread with the inserted buffers.
+     */
+    private List<Integer> buffered;
+
+    /**
+     * Capacity of the inserted buffers.
+     */
+    private int capacity;
+
+    @Setup
+    public void setUp() throws ConnectorException {
+        BenchmarkModels.initiate();
+
+        Pipeline pipeline = new Pipeline(true, true);
+        AbstractFunction read = createFunction(pipeline, "read-pbf");
+        AbstractFunction polygon = createFunction(pipeline,
+                "bounding-polygon");
+        AbstractFunction write = createFunction(pipeline, "write-xml");
+        read.addConnectionTo(polygon);
+        polygon.addConnectionTo(write);
+
+        List<AbstractFunction> functions = Arrays.asList(pipeline
+                .getFunctions());
+        unbuffered = getThreads(functions);
+        buffered = getThreads(new BufferInserter(functions,
+                Constants.DEFAULT_BUFFER_MEMORY_BUDGET).insertBuffers());
+    }
+
+    @Benchmark
+    public long withoutBuffers() throws InterruptedException {
+        return run(unbuffered);
+    }
+
+    @Benchmark
+    public long withBuffers() throws InterruptedException {
+        return run(buffered);
+    }
+
+    /**
+     * Splits the chain of functions at its buffers and returns the number of
+     * other tasks between them, which osmosis runs in one thread.
+     */
+    private List<Integer> getThreads(List<AbstractFunction> functions) {
+        List<Integer> threads = new ArrayList<Integer>();
+        int tasks = 0;
+        for (AbstractFunction function : PipelineCopier
+                .getTopologicalOrder(functions)) {
+            if (!function.getActiveTask().getName().equals("buffer")) {
+                tasks++;
+                continue;
+            }
+
+            threads.add(tasks);
+            tasks = 0;
+            for (AbstractParameter param : function.getActiveTask()
+                    .getParameters()) {
+                if (param.getName().equals("bufferCapacity")) {
+                    capacity = Integer.parseInt(param.getValue());
+                }
+            }
+        }
+        threads.add(tasks);
+        return threads;
+    }
+
+    /**
+     * Runs the synthetic stand-in with the given number of tasks per thread,
+     * the last thread is the current one.
+     * 
+     * @return a checksum of the entities
+     */
+    private long run(List<Integer> threads) throws InterruptedException {
+        List<Thread> started = new ArrayList<Thread>();
+        BlockingQueue<Long> input = null;
+        for (int i = 0; i < threads.size() - 1; i++) {
+            final BlockingQueue<Long> from = input;
+            final BlockingQueue<Long> to = new ArrayBlockingQueue<Long>(
+                    capacity);
+            final int tasks = threads.get(i);
+
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        if (from == null) {
+                            for (long entity = 0; entity < ENTITY_COUNT; entity++) {
+                                to.put(work(entity, tasks));
+                            }
+                        } else {
+                            long value;
+                            while ((value = from.take()) != END_OF_STREAM) {
+                                to.put(work(value, tasks));
+                            }
+                        }
+                        to.put(END_OF_STREAM);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            };
+            thread.start();
+            started.add(thread);
+            input = to;
+        }
+
+        long checksum = 0;
+        int tasks = threads.get(threads.size() - 1);
+        if (input == null) {
+            for (long entity = 0; entity < ENTITY_COUNT; entity++) {
+                checksum += work(entity, tasks);
+            }
+        } else {
+            long value;
+            while ((value = input.take()) != END_OF_STREAM) {
+                checksum += work(value, tasks);
+            }
+        }
+
+        for (Thread thread : started) {
+            thread.join();
+        }
+        return checksum;
+    }
+
+    /**
+     * Synthetic CPU work of the given number of tasks for one entity, never
+     * returns {@link #END_OF_STREAM}.
+     */
+    private static long work(long value, int tasks) {
+        for (int task = 0; task < tasks; task++) {
+            long x = value ^ 0x5DEECE66DL;
+            for (int i = 0; i < WORK_PER_ENTITY; i++) {
+                x ^= x << 13;
+                x ^= x >>> 7;
+                x ^= x << 17;
+            }
+            value = x & Long.MAX_VALUE;
+        }
+        return value;
+    }
+
+    private AbstractFunction createFunction(Pipeline pipeline, String taskName) {
+        AbstractFunction function = ModelProxy.getInstance().getFunctions()
+                .getMatchingFunctionForTaskName(taskName);
+        pipeline.addFunction(function);
+        return function;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.parser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.osmembrane.model.BenchmarkModels;
+import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.persistence.PipelinePersistenceObject;
+import de.osmembrane.model.pipeline.PipelineGenerator;
+import de.osmembrane.model.pipeline.PipelineSettings;
+
+/**
+ * Benchmarks of {@link CommandlineParser#parseString(String)} and
+ * {@link CommandlineParser#parsePipeline(PipelinePersistenceObject)} for Bash
+ * and Cmd scripts of generated pipelines.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CommandlineParserBenchmark {
+
+    @Param({ "BASH", "CMD" })
+    public FileType type;
+
+    @Param({ "10", "1000", "10000" })
+    public int size;
+
+    private IParser parser;
+
+    private PipelinePersistenceObject pipeline;
+
+    private String script;
+
+    @Setup
+    public void setUp() {
+        BenchmarkModels.initiate();
+
+        pipeline = new PipelinePersistenceObject(new PipelineGenerator(
+                PipelineGenerator.DEFAULT_SEED).generate(size),
+                new PipelineSettings());
+
+        parser = ParserFactory.getInstance().getParser(type.getParserClass());
+        script = parser.parsePipeline(pipeline);
+    }
+
+    @Benchmark
+    public PipelinePersistenceObject parseString() throws ParseException {
+        return parser.parseString(script);
+    }
+
+    @Benchmark
+    public String parsePipeline() {
+        return parser.parsePipeline(pipeline);
+    }
+}
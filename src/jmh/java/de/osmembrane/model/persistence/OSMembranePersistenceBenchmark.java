@@ -0,0 +1,89 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.osmembrane.model.BenchmarkModels;
+import de.osmembrane.model.pipeline.PipelineGenerator;
+import de.osmembrane.model.pipeline.PipelineSettings;
+
+/**
+ * Benchmarks saving and loading generated pipelines with the
+ * {@link OSMembranePersistence}.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OSMembranePersistenceBenchmark {
+
+    @Param({ "10", "1000", "10000" })
+    public int size;
+
+    private OSMembranePersistence persistence;
+
+    private PipelinePersistenceObject pipeline;
+
+    private File file;
+
+    private URL url;
+
+    @Setup
+    public void setUp() throws IOException, FileException {
+        BenchmarkModels.initiate();
+
+        persistence = new OSMembranePersistence();
+        pipeline = new PipelinePersistenceObject(new PipelineGenerator(
+                PipelineGenerator.DEFAULT_SEED).generate(size),
+                new PipelineSettings());
+
+        file = File.createTempFile("benchmark", ".osmembrane");
+        url = file.toURI().toURL();
+        persistence.save(url, pipeline);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public void save() throws FileException {
+        persistence.save(url, pipeline);
+    }
+
+    @Benchmark
+    public Object load() throws FileException {
+        return persistence.load(url);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.pipeline;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.osmembrane.model.BenchmarkModels;
+import de.osmembrane.resources.Resource;
+
+/**
+ * Benchmarks {@link FunctionPrototype#initiate(java.net.URL)} with the
+ * osmosis structure shipped with OSMembrane.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FunctionPrototypeBenchmark {
+
+    @Setup
+    public void setUp() {
+        BenchmarkModels.initiate();
+    }
+
+    @Benchmark
+    public AbstractFunctionPrototype initiate() {
+        FunctionPrototype prototype = new FunctionPrototype();
+        prototype.initiate(Resource.OSMEMBRANE_XML.getURL());
+        return prototype;
+    }
+}
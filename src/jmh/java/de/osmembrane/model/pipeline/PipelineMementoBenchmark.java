@@ -0,0 +1,70 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.pipeline;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.osmembrane.model.BenchmarkModels;
+
+/**
+ * Benchmarks the deep copies of the {@link PipelineMemento}, which are made
+ * for every undo step and every restored one.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PipelineMementoBenchmark {
+
+    @Param({ "10", "1000", "10000" })
+    public int size;
+
+    private List<AbstractFunction> functions;
+
+    private PipelineMemento memento;
+
+    @Setup
+    public void setUp() {
+        BenchmarkModels.initiate();
+
+        functions = new PipelineGenerator(PipelineGenerator.DEFAULT_SEED)
+                .generate(size);
+        memento = new PipelineMemento(functions, false);
+    }
+
+    @Benchmark
+    public PipelineMemento save() {
+        return new PipelineMemento(functions, false);
+    }
+
+    @Benchmark
+    public List<AbstractFunction> restore() {
+        return memento.getFunctions();
+    }
+}
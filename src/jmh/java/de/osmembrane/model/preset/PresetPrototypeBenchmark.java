@@ -0,0 +1,76 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.preset;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.osmembrane.model.BenchmarkModels;
+import de.osmembrane.model.ModelProxy;
+
+/**
+ * Benchmarks the filtered queries of the {@link PresetPrototype}, which are
+ * run on every key stroke in the list dialog.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PresetPrototypeBenchmark {
+
+    @Param({ "", "h", "highway", "no match at all" })
+    public String filter;
+
+    private AbstractPresetPrototype presets;
+
+    @Setup
+    public void setUp() {
+        BenchmarkModels.initiate();
+
+        presets = ModelProxy.getInstance().getPreset();
+    }
+
+    @Benchmark
+    public PresetItem[] filteredNodes() {
+        return presets.getFilteredNodes(filter);
+    }
+
+    @Benchmark
+    public PresetItem[] filteredNodeKeys() {
+        return presets.getFilteredNodeKeys(filter);
+    }
+
+    @Benchmark
+    public PresetItem[] filteredWays() {
+        return presets.getFilteredWays(filter);
+    }
+
+    @Benchmark
+    public PresetItem[] filteredWayKeys() {
+        return presets.getFilteredWayKeys(filter);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.view.panels;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.osmembrane.model.BenchmarkModels;
+import de.osmembrane.model.pipeline.ConnectorType;
+
+/**
+ * Benchmarks one repaint of 5,000 {@link PipelineLink}s of a
+ * {@link PipelinePanel} into an image: painting the shapes cached when the
+ * links are arranged, and creating the shapes as every paint did before
+ * they were cached.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PipelineLinkPaintBenchmark {
+
+    private static final int LINKS = 5000;
+    private static final int SIZE = 2048;
+    private static final int MAX_LINK_LENGTH = 300;
+
+    private PipelinePanel pipeline;
+    private PipelineLink[] links;
+    private Graphics2D g;
+
+    @Setup
+    public void setUp() {
+        BenchmarkModels.initiate();
+        pipeline = new PipelinePanel(new InspectorPanel(), null);
+
+        ConnectorType[] types = ConnectorType.values();
+        Random random = new Random(42);
+        links = new PipelineLink[LINKS];
+        for (int i = 0; i < LINKS; i++) {
+            int x = random.nextInt(SIZE);
+            int y = random.nextInt(SIZE);
+
+            PipelineLink link = new PipelineLink(pipeline);
+            link.color = types[i % types.length].getColor();
+            link.highlightColor = PipelineLink.highlight(link.color);
+            link.line = new Line2D.Double(x, y, x
+                    + random.nextInt(2 * MAX_LINK_LENGTH) - MAX_LINK_LENGTH, y
+                    + random.nextInt(2 * MAX_LINK_LENGTH) - MAX_LINK_LENGTH);
+            link.shape = link.createShape();
+            links[i] = link;
+        }
+
+        g = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB)
+                .createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public void paintCached() {
+        for (PipelineLink link : links) {
+            link.paintComponent(g);
+        }
+    }
+
+    @Benchmark
+    public void paintPerFrame() {
+        for (PipelineLink link : links) {
+            link.shape = link.createShape();
+            link.paintComponent(g);
+        }
+    }
+
+    @Benchmark
+    public void createShapes(Blackhole blackhole) {
+        for (PipelineLink link : links) {
+            blackhole.consume(link.createShape());
+        }
+    }
+}
@@ -22,6 +22,7 @@ import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.util.Locale;
 
+import javax.management.JMException;
 import javax.swing.InputMap;
 import javax.swing.JOptionPane;
 import javax.swing.KeyStroke;
@@ -30,18 +31,25 @@ import javax.swing.UIManager;
 import de.osmembrane.controller.ActionRegistry;
 import de.osmembrane.exceptions.ControlledException;
 import de.osmembrane.exceptions.ExceptionSeverity;
+import de.osmembrane.model.EventBus;
+import de.osmembrane.model.EventBus.Delivery;
 import de.osmembrane.model.ModelProxy;
 import de.osmembrane.model.persistence.FileException;
 import de.osmembrane.model.persistence.PipelineBackup;
 import de.osmembrane.model.settings.SettingType;
+import de.osmembrane.model.settings.SettingsObserverObject;
 import de.osmembrane.resources.Constants;
 import de.osmembrane.resources.Resource;
+import de.osmembrane.tools.EventDispatchWatchdog;
 import de.osmembrane.tools.I18N;
+import de.osmembrane.tools.IconLoader.Size;
+import de.osmembrane.tools.Instrumentation;
 import de.osmembrane.tools.Tools;
 import de.osmembrane.view.ViewRegistry;
 import de.osmembrane.view.dialogs.AboutDialog;
 import de.osmembrane.view.dialogs.BoundingBoxDialog;
 import de.osmembrane.view.dialogs.CommandLineDialog;
+import de.osmembrane.view.dialogs.DiagnosticsDialog;
 import de.osmembrane.view.dialogs.ExceptionDialog;
 import de.osmembrane.view.dialogs.ExecutionStateDialog;
 import de.osmembrane.view.dialogs.FunctionPresetDialog;
@@ -89,7 +97,8 @@ public class Application {
     public void initiate() {
         try {
             // connect model and view
-            ModelProxy.getInstance().addObserver(ViewRegistry.getInstance());
+            EventBus.getInstance().subscribe(SettingsObserverObject.class,
+                    ViewRegistry.getInstance(), Delivery.EVENT_DISPATCH_THREAD);
 
             // guarantee the View is initialized
             ViewRegistry.getInstance();
@@ -131,6 +140,23 @@ public class Application {
         }
     }
 
+    /**
+     * Starts loading the big images of the views in the background, while the
+     * controller and the views are set up.
+     */
+    public void preloadImages() {
+        Resource.PROGRAM_ICON.preloadImageIcon("new_pipeline.png", Size.BIG);
+        Resource.PROGRAM_ICON.preloadImageIcon("load_pipeline.png", Size.BIG);
+        Resource.PROGRAM_ICON.preloadImageIcon("quickstarttutorial.png",
+                Size.BIG);
+
+        Resource.CURSOR_ICON.preloadImageIcon("cursor-magic.png", Size.NORMAL);
+        Resource.CURSOR_ICON.preloadImageIcon("cursor-select.png", Size.NORMAL);
+        Resource.CURSOR_ICON.preloadImageIcon("cursor-move.png", Size.NORMAL);
+        Resource.CURSOR_ICON.preloadImageIcon("cursor-connect.png",
+                Size.NORMAL);
+    }
+
     /**
      * Sets the active locale.
      */
@@ -334,9 +360,29 @@ public class Application {
                 "released");
     }
 
+    /**
+     * Publishes the instrumentation of the model operations over JMX.
+     */
+    void registerInstrumentation() {
+        try {
+            Instrumentation.getInstance().registerMBean();
+        } catch (JMException e) {
+            Application.handleException(new ControlledException(this,
+                    ExceptionSeverity.WARNING, e, I18N.getInstance().getString(
+                            "Application.InstrumentationNotPublished")));
+        }
+    }
+
+    /**
+     * Watches the event dispatch thread for stalls while the instrumentation
+     * is enabled.
+     */
+    void installEventDispatchWatchdog() {
+        EventDispatchWatchdog.getInstance().install();
+    }
+
     void initializeBackup() {
         pipelineBackup = new PipelineBackup();
-        ModelProxy.getInstance().getPipeline().addObserver(pipelineBackup);
         pipelineBackup.start();
     }
 
@@ -347,6 +393,7 @@ public class Application {
         vr.register(new AboutDialog(mf));
         vr.register(new BoundingBoxDialog(mf));
         vr.register(new CommandLineDialog(mf));
+        vr.register(new DiagnosticsDialog(mf));
         vr.register(new ExceptionDialog(mf));
         vr.register(new ExecutionStateDialog(mf));
         vr.register(new FunctionPresetDialog(mf));
@@ -41,6 +41,13 @@ public class Main {
         // create the models
         application.createModels();
 
+        // publish the instrumentation over JMX
+        application.registerInstrumentation();
+        application.installEventDispatchWatchdog();
+
+        // load the big images in the background
+        application.preloadImages();
+
         // set the correct locale
         application.setLocale();
 
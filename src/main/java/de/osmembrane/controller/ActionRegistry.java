@@ -15,14 +15,13 @@ import java.io.File;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Observable;
-import java.util.Observer;
 
 import javax.swing.Action;
 
 import de.osmembrane.controller.actions.AddConnectionAction;
 import de.osmembrane.controller.actions.AddFunctionAction;
 import de.osmembrane.controller.actions.ArrangePipelineAction;
+import de.osmembrane.controller.actions.CacheFunctionResultAction;
 import de.osmembrane.controller.actions.ChangePipelineSettingsAction;
 import de.osmembrane.controller.actions.ChangeSettingsAction;
 import de.osmembrane.controller.actions.DeleteSelectionAction;
@@ -33,6 +32,7 @@ import de.osmembrane.controller.actions.EditFilePropertyAction;
 import de.osmembrane.controller.actions.EditListPropertyAction;
 import de.osmembrane.controller.actions.EditPropertyAction;
 import de.osmembrane.controller.actions.ExecutePipelineAction;
+import de.osmembrane.controller.actions.ExecuteShardedPipelineAction;
 import de.osmembrane.controller.actions.ExitAction;
 import de.osmembrane.controller.actions.ExportPipelineAction;
 import de.osmembrane.controller.actions.GeneratePipelineAction;
@@ -41,6 +41,7 @@ import de.osmembrane.controller.actions.LoadFunctionPresetAction;
 import de.osmembrane.controller.actions.LoadPipelineAction;
 import de.osmembrane.controller.actions.MoveFunctionAction;
 import de.osmembrane.controller.actions.NewPipelineAction;
+import de.osmembrane.controller.actions.OptimizePipelineAction;
 import de.osmembrane.controller.actions.PreviewPipelineAction;
 import de.osmembrane.controller.actions.RedoAction;
 import de.osmembrane.controller.actions.ResetViewAction;
@@ -48,14 +49,19 @@ import de.osmembrane.controller.actions.SaveAsPipelineAction;
 import de.osmembrane.controller.actions.SaveFunctionPresetAction;
 import de.osmembrane.controller.actions.SavePipelineAction;
 import de.osmembrane.controller.actions.ShowAboutAction;
+import de.osmembrane.controller.actions.ShowDiagnosticsAction;
 import de.osmembrane.controller.actions.ShowHelpAction;
 import de.osmembrane.controller.actions.ShowQuickstartAction;
 import de.osmembrane.controller.actions.UndoAction;
 import de.osmembrane.controller.actions.ViewAllAction;
 import de.osmembrane.controller.actions.ZoomInAction;
 import de.osmembrane.controller.actions.ZoomOutAction;
+import de.osmembrane.model.EventBus;
+import de.osmembrane.model.EventBus.Delivery;
+import de.osmembrane.model.ModelEventListener;
 import de.osmembrane.model.ModelProxy;
 import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.pipeline.PipelineObserverObject;
 import de.osmembrane.tools.I18N;
 import de.osmembrane.view.ViewRegistry;
 import de.osmembrane.view.interfaces.IView;
@@ -67,7 +73,8 @@ import de.osmembrane.view.interfaces.IView;
  * @author tobias_kuhn
  * 
  */
-public class ActionRegistry implements Observer {
+public class ActionRegistry implements
+        ModelEventListener<PipelineObserverObject> {
     /**
      * implements the Singleton pattern
      */
@@ -84,7 +91,8 @@ public class ActionRegistry implements Observer {
      */
     private ActionRegistry() {
         initialize();
-        ModelProxy.getInstance().getPipeline().addObserver(this);
+        EventBus.getInstance().subscribe(PipelineObserverObject.class, this,
+                Delivery.EVENT_DISPATCH_THREAD);
     }
 
     /**
@@ -100,14 +108,17 @@ public class ActionRegistry implements Observer {
         register(new ImportPipelineAction());
         register(new GeneratePipelineAction());
         register(new ExecutePipelineAction());
+        register(new ExecuteShardedPipelineAction());
         register(new PreviewPipelineAction());
         register(new ArrangePipelineAction());
+        register(new OptimizePipelineAction());
         register(new ChangePipelineSettingsAction());
 
         // function actions
         register(new AddFunctionAction());
         register(new MoveFunctionAction());
         register(new DuplicateFunctionAction());
+        register(new CacheFunctionResultAction());
         register(new DeleteSelectionAction());
 
         // connection actions
@@ -139,10 +150,11 @@ public class ActionRegistry implements Observer {
         register(new ShowQuickstartAction());
         register(new ShowAboutAction());
         register(new ChangeSettingsAction());
+        register(new ShowDiagnosticsAction());
         register(new ExitAction());
 
         // set setEnabled() values
-        update(null, null);
+        modelChanged(null);
     }
 
     /**
@@ -184,7 +196,7 @@ public class ActionRegistry implements Observer {
     }
 
     @Override
-    public void update(Observable o, Object arg) {
+    public void modelChanged(PipelineObserverObject poo) {
         // update all actions and their enabled state
 
         boolean pipelineFull = (ModelProxy.getInstance().getPipeline()
@@ -198,7 +210,9 @@ public class ActionRegistry implements Observer {
         get(SaveAsPipelineAction.class).setEnabled(pipelineFull);
         get(SavePipelineAction.class).setEnabled(!isSaved && pipelineFull);
         get(ArrangePipelineAction.class).setEnabled(pipelineFull);
+        get(OptimizePipelineAction.class).setEnabled(pipelineFull);
         get(ExecutePipelineAction.class).setEnabled(pipelineFull);
+        get(ExecuteShardedPipelineAction.class).setEnabled(pipelineFull);
         get(ExportPipelineAction.class).setEnabled(pipelineFull);
         get(PreviewPipelineAction.class).setEnabled(pipelineFull);
         get(GeneratePipelineAction.class).setEnabled(pipelineFull);
@@ -207,7 +221,7 @@ public class ActionRegistry implements Observer {
         String fileName;
 
         // if not call from initializer
-        if (o != null) {
+        if (poo != null) {
 
             if (url == null) {
                 fileName = I18N.getInstance().getString(
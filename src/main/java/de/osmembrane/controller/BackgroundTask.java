@@ -0,0 +1,123 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.controller;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.SwingWorker;
+
+import de.osmembrane.Application;
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.statusbar.StatusbarEntry;
+
+/**
+ * Runs a heavy operation of an action off the event dispatch thread. The
+ * operation works on a snapshot or on data read by itself and must not change
+ * the model, its result is applied to the model in
+ * {@link #succeeded(Object)} on the event dispatch thread, in one step.
+ * While the task runs, a {@link StatusbarEntry} shows its progress, set with
+ * {@link #setProgress(int)}, and lets the user cancel it. A cancelled task
+ * never calls {@link #succeeded(Object)}.
+ * 
+ * @author agent
+ * 
+ * @param <T>
+ *            type of the result of the operation
+ */
+public abstract class BackgroundTask<T> extends SwingWorker<T, Void> {
+
+    /**
+     * the entry showing the progress in the statusbar
+     */
+    private final StatusbarEntry entry;
+
+    /**
+     * Creates a new {@link BackgroundTask}.
+     * 
+     * @param message
+     *            the message shown in the statusbar while the task runs
+     */
+    public BackgroundTask(String message) {
+        entry = new StatusbarEntry(message, true);
+        entry.setCancelable(true);
+        entry.addObserver(new Observer() {
+            @Override
+            public void update(Observable o, Object arg) {
+                if (entry.isCancelled()) {
+                    cancel(true);
+                }
+            }
+        });
+
+        addPropertyChangeListener(new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent evt) {
+                if ("progress".equals(evt.getPropertyName())) {
+                    entry.setProgress((Integer) evt.getNewValue() / 100.0);
+                }
+            }
+        });
+    }
+
+    /**
+     * Shows the task in the statusbar and starts it, must be called on the
+     * event dispatch thread.
+     */
+    public void start() {
+        ModelProxy.getInstance().getStatusbar().addStatusbarEntry(entry);
+        execute();
+    }
+
+    /**
+     * Applies the result of the operation, called on the event dispatch
+     * thread.
+     * 
+     * @param result
+     *            the result of {@link #doInBackground()}
+     */
+    protected abstract void succeeded(T result);
+
+    /**
+     * Reports an exception thrown by {@link #doInBackground()}, called on the
+     * event dispatch thread. Override it to show a more specific message.
+     * 
+     * @param cause
+     *            the exception
+     */
+    protected void failed(Throwable cause) {
+        Application.handleException(cause);
+    }
+
+    @Override
+    protected final void done() {
+        ModelProxy.getInstance().getStatusbar().removeStatusbarEntry(entry);
+
+        if (isCancelled()) {
+            return;
+        }
+
+        T result;
+        try {
+            result = get();
+        } catch (InterruptedException e) {
+            return;
+        } catch (ExecutionException e) {
+            failed(e.getCause());
+            return;
+        }
+        succeeded(result);
+    }
+}
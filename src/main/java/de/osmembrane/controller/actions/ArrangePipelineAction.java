@@ -13,19 +13,25 @@ package de.osmembrane.controller.actions;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
+import java.awt.geom.Point2D;
+import java.util.Map;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.KeyStroke;
 
+import de.osmembrane.controller.BackgroundTask;
 import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.PipelineSnapshot;
 import de.osmembrane.resources.Resource;
 import de.osmembrane.tools.HeadlessSafe;
 import de.osmembrane.tools.I18N;
 import de.osmembrane.tools.IconLoader.Size;
 
 /**
- * Action to arrange the pipeline.
+ * Action to arrange the pipeline. The arrangement is calculated on a snapshot
+ * of the pipeline in a {@link BackgroundTask} and applied in one step.
  * 
  * @author jakob_jarosch
  * 
@@ -58,6 +64,23 @@ public class ArrangePipelineAction extends AbstractAction {
 
     @Override
     public void actionPerformed(ActionEvent e) {
-        ModelProxy.getInstance().getPipeline().arrangePipeline();
+        final PipelineSnapshot snapshot = ModelProxy.getInstance()
+                .getPipeline().getSnapshot();
+
+        new BackgroundTask<Map<AbstractFunction, Point2D>>(I18N.getInstance()
+                .getString("Controller.Actions.ArrangePipeline.Progress")) {
+
+            @Override
+            protected Map<AbstractFunction, Point2D> doInBackground() {
+                return snapshot.arrange();
+            }
+
+            @Override
+            protected void succeeded(
+                    Map<AbstractFunction, Point2D> coordinates) {
+                ModelProxy.getInstance().getPipeline()
+                        .moveFunctions(coordinates);
+            }
+        }.start();
     }
 }
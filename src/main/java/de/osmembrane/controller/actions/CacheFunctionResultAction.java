@@ -0,0 +1,71 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.controller.actions;
+
+import java.awt.event.ActionEvent;
+
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.resources.Resource;
+import de.osmembrane.tools.I18N;
+import de.osmembrane.tools.IconLoader.Size;
+import de.osmembrane.view.ViewRegistry;
+import de.osmembrane.view.frames.MainFrame;
+import de.osmembrane.view.interfaces.IMainFrame;
+import de.osmembrane.view.panels.PipelineFunction;
+
+/**
+ * Action to switch the caching of the result of a function on or off. Receives
+ * no specific event, has to look for the currently selected object in the
+ * view.
+ * 
+ * @author agent
+ * 
+ */
+public class CacheFunctionResultAction extends AbstractAction {
+
+    private static final long serialVersionUID = 2011031915200001L;
+
+    /**
+     * Creates a new {@link CacheFunctionResultAction}
+     */
+    public CacheFunctionResultAction() {
+        putValue(
+                Action.NAME,
+                I18N.getInstance().getString(
+                        "Controller.Actions.CacheFunctionResult.Name"));
+        putValue(
+                Action.SHORT_DESCRIPTION,
+                I18N.getInstance().getString(
+                        "Controller.Actions.CacheFunctionResult.Description"));
+        putValue(Action.SMALL_ICON, Resource.PROGRAM_ICON.getImageIcon(
+                "save_pipeline.png", Size.SMALL));
+        putValue(Action.LARGE_ICON_KEY, Resource.PROGRAM_ICON.getImageIcon(
+                "save_pipeline.png", Size.NORMAL));
+        setEnabled(false);
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        IMainFrame mainFrame = ViewRegistry.getInstance().getCasted(
+                MainFrame.class, IMainFrame.class);
+        Object selected = mainFrame.getSelected();
+
+        if (selected instanceof PipelineFunction) {
+            AbstractFunction function = ((PipelineFunction) selected)
+                    .getModelFunction();
+            function.setResultCached(!function.isResultCached());
+        }
+    }
+}
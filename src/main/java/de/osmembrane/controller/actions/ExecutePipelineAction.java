@@ -13,7 +13,9 @@ package de.osmembrane.controller.actions;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.swing.AbstractAction;
@@ -22,11 +24,24 @@ import javax.swing.JOptionPane;
 import javax.swing.KeyStroke;
 
 import de.osmembrane.Application;
+import de.osmembrane.controller.BackgroundTask;
 import de.osmembrane.exceptions.ControlledException;
 import de.osmembrane.exceptions.ExceptionSeverity;
 import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.algorithms.BufferInserter;
+import de.osmembrane.model.algorithms.PipelineEstimate;
+import de.osmembrane.model.algorithms.PipelineEstimator;
+import de.osmembrane.model.algorithms.ResultCache;
+import de.osmembrane.model.parser.ParserFactory;
 import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.persistence.PipelinePersistenceObject;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.ConnectorException;
+import de.osmembrane.model.pipeline.PipelineSnapshot;
 import de.osmembrane.model.settings.SettingType;
+import de.osmembrane.model.settings.SettingsSnapshot;
+import de.osmembrane.resources.Constants;
 import de.osmembrane.resources.Resource;
 import de.osmembrane.tools.HeadlessSafe;
 import de.osmembrane.tools.I18N;
@@ -46,6 +61,8 @@ public class ExecutePipelineAction extends AbstractAction {
 
     private static final long serialVersionUID = -173334958831335922L;
 
+    private static final long MEGABYTE = 1024 * 1024;
+
     /**
      * Creates a new {@link ExecutePipelineAction}
      */
@@ -85,9 +102,46 @@ public class ExecutePipelineAction extends AbstractAction {
             }
         }
 
-        FileType type = FileType.EXECUTION_FILETYPE;
-        String pipeline = ModelProxy.getInstance().getPipeline().generate(type);
+        /* Warn if the pipeline might exceed the available resources */
+        PipelineEstimate estimate = new PipelineEstimator(
+                Arrays.asList(ModelProxy.getInstance().getPipeline()
+                        .getFunctions())).estimate();
+        String warnings = getEstimateWarnings(estimate);
+        if (warnings.length() > 0) {
+            if (!(JOptionPane.showConfirmDialog(
+                    null,
+                    I18N.getInstance().getString(
+                            "Controller.Actions.ExecutePipeline.Estimate",
+                            warnings),
+                    I18N.getInstance().getString(
+                            "Controller.Actions.ExecutePipeline.Estimate.Title"),
+                    JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE) == JOptionPane.YES_OPTION)) {
+                return;
+            }
+        }
+
+        Class<? extends Action> action;
+        if (e.getSource() instanceof Action) {
+            action = (Class<? extends Action>) e.getSource().getClass();
+        } else {
+            action = null;
+        }
+
+        /* start from the cached results of former executions */
+        ResultCache resultCache = createResultCache();
+        if (resultCache != null) {
+            prepareResultCache(resultCache, estimate, action);
+        } else {
+            startExecution(generate(Arrays.asList(ModelProxy.getInstance()
+                    .getPipeline().getFunctions())), null, estimate, action);
+        }
+    }
 
+    /**
+     * Executes the generated pipeline and shows its progress.
+     */
+    private void startExecution(String pipeline, ResultCache resultCache,
+            PipelineEstimate estimate, Class<? extends Action> action) {
         /* the path to osmosis */
         final String osmosisPath = (String) ModelProxy.getInstance()
                 .getSettings().getValue(SettingType.DEFAULT_OSMOSIS_PATH);
@@ -111,18 +165,18 @@ public class ExecutePipelineAction extends AbstractAction {
 
         /* clear the contents of the exectuion window */
         dialog.clear();
-
-        Class<? extends Action> action;
-        if (e.getSource() instanceof Action) {
-            action = (Class<? extends Action>) e.getSource().getClass();
-        } else {
-            action = null;
+        if (resultCache != null) {
+            for (String line : resultCache.getReport()) {
+                dialog.addOutputLine(line);
+            }
         }
 
         try {
             PipelineExecutor executor = new PipelineExecutor(osmosisPath,
                     workingDirectory, parameters, dialog);
             executor.setCallbackAction(action);
+            executor.setEstimatedCost(estimate.getCost());
+            executor.setResultCache(resultCache);
             executor.start();
             dialog.showWindow();
         } catch (IllegalArgumentException e1) {
@@ -136,4 +190,126 @@ public class ExecutePipelineAction extends AbstractAction {
         }
 
     }
+
+    /**
+     * Returns a new result cache if the result of any function should be
+     * cached, otherwise null.
+     */
+    private ResultCache createResultCache() {
+        for (AbstractFunction function : ModelProxy.getInstance().getPipeline()
+                .getFunctions()) {
+            if (function.isResultCached()) {
+                return new ResultCache(Constants.RESULT_CACHE_DIRECTORY,
+                        (Integer) ModelProxy.getInstance().getSettings()
+                                .getValue(SettingType.RESULT_CACHE_SIZE));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Prepares the result cache on a copy of the pipeline in the background,
+     * because the input files may have to be hashed, and executes the
+     * pipeline with the cached results in place of their sub-pipelines. If
+     * the cache could not be prepared, the pipeline is executed without it.
+     */
+    private void prepareResultCache(final ResultCache resultCache,
+            final PipelineEstimate estimate,
+            final Class<? extends Action> action) {
+        final PipelineSnapshot snapshot = ModelProxy.getInstance()
+                .getPipeline().getSnapshot();
+
+        new BackgroundTask<List<AbstractFunction>>(I18N.getInstance()
+                .getString(
+                        "Controller.Actions.ExecutePipeline.ResultCacheProgress")) {
+
+            @Override
+            protected List<AbstractFunction> doInBackground() throws Exception {
+                return resultCache.prepare(snapshot.copy().getFunctions());
+            }
+
+            @Override
+            protected void succeeded(List<AbstractFunction> result) {
+                startExecution(generate(result), resultCache, estimate,
+                        action);
+            }
+
+            @Override
+            protected void failed(Throwable cause) {
+                Application.handleException(new ControlledException(
+                        ExecutePipelineAction.this, ExceptionSeverity.WARNING,
+                        cause, I18N.getInstance().getString(
+                                "Controller.Actions.ExecutePipeline.ResultCacheFailed")));
+                startExecution(generate(Arrays.asList(ModelProxy
+                        .getInstance().getPipeline().getFunctions())), null,
+                        estimate, action);
+            }
+        }.start();
+    }
+
+    /**
+     * Generates the executed pipeline of the functions, with buffers between
+     * the CPU-heavy tasks if the automatic buffer insertion is enabled.
+     */
+    private String generate(List<AbstractFunction> functions) {
+        SettingsSnapshot options = ModelProxy.getInstance().getSettings()
+                .getSnapshot();
+
+        /* let osmosis run the CPU-heavy tasks in separate threads */
+        if (options.isAutomaticBufferInsertion()) {
+            try {
+                functions = new BufferInserter(functions,
+                        options.getBufferMemoryBudget()).insertBuffers();
+            } catch (ConnectorException e) {
+                Application.handleException(new ControlledException(this,
+                        ExceptionSeverity.WARNING, e, I18N.getInstance()
+                                .getString(
+                                        "Controller.Actions.ExecutePipeline.BufferInsertionFailed")));
+            }
+        }
+
+        return ParserFactory
+                .getInstance()
+                .getParser(FileType.EXECUTION_FILETYPE.getParserClass())
+                .parsePipeline(
+                        new PipelinePersistenceObject(functions, ModelProxy
+                                .getInstance().getPipeline().getSettings()));
+    }
+
+    /**
+     * Returns one html line for every estimated resource which exceeds its
+     * threshold, an empty string if none does.
+     */
+    private String getEstimateWarnings(PipelineEstimate estimate) {
+        StringBuilder warnings = new StringBuilder();
+
+        long memory = estimate.getPeakMemory() / MEGABYTE;
+        if (memory > Constants.ESTIMATE_WARNING_MEMORY) {
+            warnings.append("<br/>- ").append(
+                    I18N.getInstance().getString(
+                            "Controller.Actions.ExecutePipeline.Estimate.Memory",
+                            memory, Constants.ESTIMATE_WARNING_MEMORY));
+        }
+
+        /* osmosis writes its temporary files to the temporary directory */
+        long usable = new File(System.getProperty("java.io.tmpdir"))
+                .getUsableSpace() / MEGABYTE;
+        long tempDisk = estimate.getTempDisk() / MEGABYTE;
+        if (tempDisk > usable) {
+            warnings.append("<br/>- ").append(
+                    I18N.getInstance().getString(
+                            "Controller.Actions.ExecutePipeline.Estimate.TempDisk",
+                            tempDisk, usable));
+        }
+
+        double minutes = estimate.getDuration() / 60.0;
+        if (minutes > Constants.ESTIMATE_WARNING_DURATION) {
+            warnings.append("<br/>- ").append(
+                    I18N.getInstance().getString(
+                            "Controller.Actions.ExecutePipeline.Estimate.Duration",
+                            minutes));
+        }
+
+        return warnings.toString();
+    }
 }
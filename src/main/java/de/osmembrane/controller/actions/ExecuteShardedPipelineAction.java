@@ -0,0 +1,259 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.controller.actions;
+
+import java.awt.event.ActionEvent;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+
+import de.osmembrane.Application;
+import de.osmembrane.exceptions.ControlledException;
+import de.osmembrane.exceptions.ExceptionSeverity;
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.algorithms.PipelineSharder;
+import de.osmembrane.model.algorithms.ShardingException;
+import de.osmembrane.model.parser.ParserFactory;
+import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.persistence.PipelinePersistenceObject;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.BoundingBox;
+import de.osmembrane.model.settings.SettingType;
+import de.osmembrane.resources.Resource;
+import de.osmembrane.tools.I18N;
+import de.osmembrane.tools.IconLoader.Size;
+import de.osmembrane.tools.ShardedPipelineExecutor;
+import de.osmembrane.view.ViewRegistry;
+import de.osmembrane.view.dialogs.BoundingBoxDialog;
+import de.osmembrane.view.dialogs.ExecutionStateDialog;
+import de.osmembrane.view.interfaces.IBoundingBoxDialog;
+import de.osmembrane.view.interfaces.IExecutionStateDialog;
+
+/**
+ * Action to split the pipeline into bounding box or polygon shards which are
+ * executed as parallel osmosis processes and merged afterwards.
+ * 
+ * @author agent
+ * 
+ */
+public class ExecuteShardedPipelineAction extends AbstractAction {
+
+    private static final long serialVersionUID = 2011031518120001L;
+
+    /**
+     * Creates a new {@link ExecuteShardedPipelineAction}
+     */
+    public ExecuteShardedPipelineAction() {
+        putValue(
+                Action.NAME,
+                I18N.getInstance().getString(
+                        "Controller.Actions.ExecuteShardedPipeline.Name"));
+        putValue(
+                Action.SHORT_DESCRIPTION,
+                I18N.getInstance().getString(
+                        "Controller.Actions.ExecuteShardedPipeline.Description"));
+        putValue(Action.SMALL_ICON, Resource.PROGRAM_ICON.getImageIcon(
+                "execute_pipeline.png", Size.SMALL));
+        putValue(Action.LARGE_ICON_KEY, Resource.PROGRAM_ICON.getImageIcon(
+                "execute_pipeline.png", Size.NORMAL));
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        AbstractPipeline pipeline = ModelProxy.getInstance().getPipeline();
+
+        /* Check if the pipeline is complete */
+        if (!pipeline.isComplete()) {
+            if (!(JOptionPane.showConfirmDialog(
+                    null,
+                    I18N.getInstance().getString(
+                            "Controller.Actions.PipelineNotComplete"),
+                    I18N.getInstance().getString(
+                            "Controller.Actions.PipelineNotComplete.Title"),
+                    JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE) == JOptionPane.YES_OPTION)) {
+                return;
+            }
+        }
+
+        /* the path to osmosis */
+        final String osmosisPath = (String) ModelProxy.getInstance()
+                .getSettings().getValue(SettingType.DEFAULT_OSMOSIS_PATH);
+
+        /* the working directory */
+        final String workingDirectory = (String) ModelProxy.getInstance()
+                .getSettings().getValue(SettingType.DEFAULT_WORKING_DIRECTORY);
+
+        try {
+            PipelineSharder sharder = new PipelineSharder(
+                    Arrays.asList(pipeline.getFunctions()));
+
+            /* ask how the working area is split */
+            String tiles = I18N.getInstance().getString(
+                    "Controller.Actions.ExecuteShardedPipeline.Mode.Tiles");
+            String polygons = I18N.getInstance().getString(
+                    "Controller.Actions.ExecuteShardedPipeline.Mode.Polygons");
+            int mode = JOptionPane.showOptionDialog(null, I18N.getInstance()
+                    .getString("Controller.Actions.ExecuteShardedPipeline.Mode"),
+                    I18N.getInstance().getString(
+                            "Controller.Actions.ExecuteShardedPipeline.Name"),
+                    JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE,
+                    null, new Object[] { tiles, polygons }, tiles);
+
+            List<List<AbstractFunction>> shards;
+            if (mode == 0) {
+                shards = shardByTiles(sharder);
+            } else if (mode == 1) {
+                shards = shardByPolygons(sharder);
+            } else {
+                return;
+            }
+            if (shards == null) {
+                return;
+            }
+
+            List<List<String>> shardParameters = new ArrayList<List<String>>();
+            for (List<AbstractFunction> shard : shards) {
+                shardParameters.add(generateParameters(pipeline, shard));
+            }
+            List<String> mergeParameters = generateParameters(pipeline,
+                    sharder.createMergePipeline(shardParameters.size()));
+
+            IExecutionStateDialog dialog = ViewRegistry.getInstance()
+                    .getCasted(ExecutionStateDialog.class,
+                            IExecutionStateDialog.class);
+
+            /* clear the contents of the exectuion window */
+            dialog.clear();
+
+            ShardedPipelineExecutor executor = new ShardedPipelineExecutor(
+                    osmosisPath, workingDirectory, shardParameters,
+                    mergeParameters, dialog);
+            executor.start();
+            dialog.showWindow();
+        } catch (ShardingException e1) {
+            Application.handleException(new ControlledException(this,
+                    ExceptionSeverity.WARNING, e1, e1.getMessage()));
+        } catch (IllegalArgumentException e1) {
+            Application
+                    .handleException(new ControlledException(
+                            this,
+                            ExceptionSeverity.WARNING,
+                            I18N.getInstance()
+                                    .getString(
+                                            "Controller.Actions.ExecutePipeline.OsmosisNotFound")));
+        }
+    }
+
+    /**
+     * Asks for the number of shards and the working area, which is split into
+     * tiles.
+     * 
+     * @return the shards, null if the user cancelled
+     */
+    private List<List<AbstractFunction>> shardByTiles(PipelineSharder sharder)
+            throws ShardingException {
+        /* ask for the number of shards */
+        Object input = JOptionPane.showInputDialog(null, I18N.getInstance()
+                .getString("Controller.Actions.ExecuteShardedPipeline.Count"),
+                I18N.getInstance().getString(
+                        "Controller.Actions.ExecuteShardedPipeline.Name"),
+                JOptionPane.QUESTION_MESSAGE, null, null, Runtime.getRuntime()
+                        .availableProcessors());
+        if (input == null) {
+            return null;
+        }
+
+        int count;
+        try {
+            count = Integer.parseInt(input.toString().trim());
+        } catch (NumberFormatException e) {
+            count = 0;
+        }
+
+        /* ask for the working area, which is split into tiles */
+        IBoundingBoxDialog bboxDialog = ViewRegistry.getInstance().getCasted(
+                BoundingBoxDialog.class, IBoundingBoxDialog.class);
+        bboxDialog.setBoundingBox(null);
+        bboxDialog.centerWindow();
+        bboxDialog.showWindow();
+
+        BoundingBox area = bboxDialog.getBoundingBox();
+        if (area == null) {
+            return null;
+        }
+
+        return sharder.shardByTiles(area.getNWLongitude(),
+                area.getSELatitude(), area.getSELongitude(),
+                area.getNWLatitude(), count);
+    }
+
+    /**
+     * Asks for the polygon files, one for each shard.
+     * 
+     * @return the shards, null if the user cancelled
+     */
+    private List<List<AbstractFunction>> shardByPolygons(
+            PipelineSharder sharder) throws ShardingException {
+        String wd = (String) ModelProxy.getInstance().getSettings()
+                .getValue(SettingType.DEFAULT_WORKING_DIRECTORY);
+        if (wd.length() == 0) {
+            wd = null;
+        }
+
+        JFileChooser fileChooser = new JFileChooser(wd);
+        fileChooser.setMultiSelectionEnabled(true);
+
+        if (fileChooser.showOpenDialog(null) != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+
+        List<String> polygonFiles = new ArrayList<String>();
+        for (File file : fileChooser.getSelectedFiles()) {
+            String path = file.getAbsolutePath();
+            if (wd != null) {
+                path = new File(wd).toURI().relativize(new File(path).toURI())
+                        .getPath();
+            }
+            polygonFiles.add(path);
+        }
+
+        return sharder.shardByPolygons(polygonFiles);
+    }
+
+    /**
+     * Generates the osmosis parameters for the given functions.
+     */
+    private List<String> generateParameters(AbstractPipeline pipeline,
+            List<AbstractFunction> functions) {
+        String generated = ParserFactory
+                .getInstance()
+                .getParser(FileType.EXECUTION_FILETYPE.getParserClass())
+                .parsePipeline(
+                        new PipelinePersistenceObject(functions, pipeline
+                                .getSettings()));
+
+        List<String> parameters = new ArrayList<String>();
+        for (String param : generated.split(" +")) {
+            if (param.length() > 0) {
+                parameters.add(param);
+            }
+        }
+        return parameters;
+    }
+}
@@ -20,6 +20,7 @@ import javax.swing.JOptionPane;
 import javax.swing.KeyStroke;
 
 import de.osmembrane.controller.ActionRegistry;
+import de.osmembrane.model.EventBus;
 import de.osmembrane.model.ModelProxy;
 import de.osmembrane.resources.Resource;
 import de.osmembrane.tools.HeadlessSafe;
@@ -84,8 +85,9 @@ public class ExitAction extends AbstractAction {
 
         /*
          * Remove the backup, 'cause otherwise startup will ask to load the
-         * backup everytime.
+         * backup everytime. A pending backup must not write it again.
          */
+        EventBus.getInstance().flush();
         ModelProxy.getInstance().getPipeline().clearBackup();
 
         System.exit(0);
@@ -24,11 +24,13 @@ import javax.swing.JOptionPane;
 import javax.swing.KeyStroke;
 
 import de.osmembrane.Application;
+import de.osmembrane.controller.BackgroundTask;
 import de.osmembrane.exceptions.ControlledException;
 import de.osmembrane.exceptions.ExceptionSeverity;
 import de.osmembrane.model.ModelProxy;
 import de.osmembrane.model.persistence.FileException;
 import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.pipeline.PipelineSnapshot;
 import de.osmembrane.model.settings.SettingType;
 import de.osmembrane.resources.Resource;
 import de.osmembrane.tools.HeadlessSafe;
@@ -37,7 +39,8 @@ import de.osmembrane.tools.IconLoader.Size;
 import de.osmembrane.tools.Tools;
 
 /**
- * Action to export the created pipeline to a file.
+ * Action to export the created pipeline to a file. A snapshot of the pipeline
+ * is exported in a {@link BackgroundTask}.
  * 
  * @author tobias_kuhn
  * 
@@ -143,17 +146,48 @@ public class ExportPipelineAction extends AbstractAction {
                     }
                 }
 
-                ModelProxy.getInstance().getPipeline()
-                        .exportPipeline(file, type);
-            } catch (FileException e1) {
+                export(file, type);
+            } catch (MalformedURLException e1) {
+            }
+        }
+    }
+
+    /**
+     * Exports a snapshot of the pipeline in a {@link BackgroundTask}.
+     */
+    private void export(final URL file, final FileType type) {
+        final PipelineSnapshot snapshot = ModelProxy.getInstance()
+                .getPipeline().getSnapshot();
+
+        new BackgroundTask<Void>(I18N.getInstance().getString(
+                "Controller.Actions.ExportPipeline.Progress")) {
+
+            @Override
+            protected Void doInBackground() throws FileException {
+                snapshot.export(file, type);
+                return null;
+            }
+
+            @Override
+            protected void succeeded(Void result) {
+            }
+
+            @Override
+            protected void failed(Throwable cause) {
+                if (!(cause instanceof FileException)) {
+                    super.failed(cause);
+                    return;
+                }
+
+                FileException e1 = (FileException) cause;
                 String message = I18N.getInstance().getString(
                         "Controller.Actions.Save.Failed." + e1.getType(),
                         e1.getParentException().getMessage());
 
-                Application.handleException(new ControlledException(this,
-                        ExceptionSeverity.WARNING, e1, message));
-            } catch (MalformedURLException e1) {
+                Application.handleException(new ControlledException(
+                        ExportPipelineAction.this, ExceptionSeverity.WARNING,
+                        e1, message));
             }
-        }
+        }.start();
     }
 }
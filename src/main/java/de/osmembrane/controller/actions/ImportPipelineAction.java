@@ -24,12 +24,14 @@ import javax.swing.KeyStroke;
 
 import de.osmembrane.Application;
 import de.osmembrane.controller.ActionRegistry;
+import de.osmembrane.controller.BackgroundTask;
 import de.osmembrane.exceptions.ControlledException;
 import de.osmembrane.exceptions.ExceptionSeverity;
 import de.osmembrane.model.ModelProxy;
 import de.osmembrane.model.persistence.FileException;
 import de.osmembrane.model.persistence.FileException.Type;
 import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.persistence.PipelinePersistenceObject;
 import de.osmembrane.model.settings.SettingType;
 import de.osmembrane.resources.Resource;
 import de.osmembrane.tools.HeadlessSafe;
@@ -37,7 +39,8 @@ import de.osmembrane.tools.I18N;
 import de.osmembrane.tools.IconLoader.Size;
 
 /**
- * Action to import a pipeline from a file that contains a command line.
+ * Action to import a pipeline from a file that contains a command line. The
+ * file is read and parsed in a {@link BackgroundTask}.
  * 
  * @author tobias_kuhn
  * 
@@ -99,31 +102,53 @@ public class ImportPipelineAction extends AbstractAction {
                 file = null;
             }
 
-            try {
-                ModelProxy
-                        .getInstance()
-                        .getPipeline()
-                        .importPipeline(
-                                file,
-                                FileType.fileTypeFor(fileChooser
-                                        .getSelectedFile()));
-
-                ActionRegistry.getInstance().get(ViewAllAction.class)
-                        .actionPerformed(null);
-            } catch (FileException e1) {
-                String message;
-                if (e1.getType() == Type.SYNTAX_PROBLEM) {
-                    message = I18N.getInstance().getString(
-                            "Controller.Actions.Load.Failed." + e1.getType(),
-                            e1.getParentException().getMessage());
-                } else {
-                    message = I18N.getInstance().getString(
-                            "Controller.Actions.Load.Failed." + e1.getType());
+            final URL url = file;
+            final FileType type = FileType.fileTypeFor(fileChooser
+                    .getSelectedFile());
+            new BackgroundTask<PipelinePersistenceObject>(I18N.getInstance()
+                    .getString("Controller.Actions.ImportPipeline.Progress")) {
+
+                @Override
+                protected PipelinePersistenceObject doInBackground()
+                        throws FileException {
+                    return ModelProxy.getInstance().getPipeline()
+                            .readPipeline(url, type);
                 }
 
-                Application.handleException(new ControlledException(this,
-                        ExceptionSeverity.WARNING, e1, message));
-            }
+                @Override
+                protected void succeeded(PipelinePersistenceObject pipeline) {
+                    ModelProxy.getInstance().getPipeline()
+                            .importPipeline(pipeline);
+
+                    ActionRegistry.getInstance().get(ViewAllAction.class)
+                            .actionPerformed(null);
+                }
+
+                @Override
+                protected void failed(Throwable cause) {
+                    if (!(cause instanceof FileException)) {
+                        super.failed(cause);
+                        return;
+                    }
+
+                    FileException e1 = (FileException) cause;
+                    String message;
+                    if (e1.getType() == Type.SYNTAX_PROBLEM) {
+                        message = I18N.getInstance().getString(
+                                "Controller.Actions.Load.Failed."
+                                        + e1.getType(),
+                                e1.getParentException().getMessage());
+                    } else {
+                        message = I18N.getInstance().getString(
+                                "Controller.Actions.Load.Failed."
+                                        + e1.getType());
+                    }
+
+                    Application.handleException(new ControlledException(
+                            ImportPipelineAction.this,
+                            ExceptionSeverity.WARNING, e1, message));
+                }
+            }.start();
         }
     }
 }
@@ -24,11 +24,13 @@ import javax.swing.KeyStroke;
 
 import de.osmembrane.Application;
 import de.osmembrane.controller.ActionRegistry;
+import de.osmembrane.controller.BackgroundTask;
 import de.osmembrane.exceptions.ControlledException;
 import de.osmembrane.exceptions.ExceptionSeverity;
 import de.osmembrane.model.ModelProxy;
 import de.osmembrane.model.persistence.FileException;
 import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.persistence.PipelinePersistenceObject;
 import de.osmembrane.model.settings.SettingType;
 import de.osmembrane.resources.Resource;
 import de.osmembrane.tools.HeadlessSafe;
@@ -36,7 +38,8 @@ import de.osmembrane.tools.I18N;
 import de.osmembrane.tools.IconLoader.Size;
 
 /**
- * Action to load a OSMembrane pipeline stored in a file.
+ * Action to load a OSMembrane pipeline stored in a file. The file is read in
+ * a {@link BackgroundTask}.
  * 
  * @author tobias_kuhn
  * 
@@ -95,18 +98,41 @@ public class LoadPipelineAction extends AbstractAction {
                 file = null;
             }
 
-            try {
-                ModelProxy.getInstance().getPipeline().loadPipeline(file);
-
-                ActionRegistry.getInstance().get(ViewAllAction.class)
-                        .actionPerformed(null);
-            } catch (FileException e1) {
-                Application.handleException(new ControlledException(this,
-                        ExceptionSeverity.WARNING, e1, I18N.getInstance()
-                                .getString(
-                                        "Controller.Actions.Load.Failed."
-                                                + e1.getType())));
-            }
+            final URL url = file;
+            new BackgroundTask<PipelinePersistenceObject>(I18N.getInstance()
+                    .getString("Controller.Actions.LoadPipeline.Progress")) {
+
+                @Override
+                protected PipelinePersistenceObject doInBackground()
+                        throws FileException {
+                    return ModelProxy.getInstance().getPipeline()
+                            .readPipeline(url, FileType.OSMEMBRANE);
+                }
+
+                @Override
+                protected void succeeded(PipelinePersistenceObject pipeline) {
+                    ModelProxy.getInstance().getPipeline()
+                            .loadPipeline(url, pipeline);
+
+                    ActionRegistry.getInstance().get(ViewAllAction.class)
+                            .actionPerformed(null);
+                }
+
+                @Override
+                protected void failed(Throwable cause) {
+                    if (cause instanceof FileException) {
+                        FileException e1 = (FileException) cause;
+                        Application.handleException(new ControlledException(
+                                LoadPipelineAction.this,
+                                ExceptionSeverity.WARNING, e1, I18N
+                                        .getInstance().getString(
+                                                "Controller.Actions.Load.Failed."
+                                                        + e1.getType())));
+                    } else {
+                        super.failed(cause);
+                    }
+                }
+            }.start();
         }
     }
 }
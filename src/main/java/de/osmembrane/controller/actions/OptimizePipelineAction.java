@@ -0,0 +1,182 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.controller.actions;
+
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.event.ActionEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+
+import de.osmembrane.Application;
+import de.osmembrane.exceptions.ControlledException;
+import de.osmembrane.exceptions.ExceptionSeverity;
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.algorithms.PipelineOptimizer;
+import de.osmembrane.model.parser.ParserFactory;
+import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.persistence.PipelinePersistenceObject;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.ConnectorException;
+import de.osmembrane.resources.Resource;
+import de.osmembrane.tools.I18N;
+import de.osmembrane.tools.IconLoader.Size;
+
+/**
+ * Action to optimize the pipeline. The rewrite is shown as a diff of the
+ * generated osmosis tasks and applied in one undoable step after the user
+ * accepted it.
+ * 
+ * @author agent
+ * 
+ */
+public class OptimizePipelineAction extends AbstractAction {
+
+    private static final long serialVersionUID = 2011031614050001L;
+
+    /**
+     * Creates a new {@link OptimizePipelineAction}
+     */
+    public OptimizePipelineAction() {
+        putValue(
+                Action.NAME,
+                I18N.getInstance().getString(
+                        "Controller.Actions.OptimizePipeline.Name"));
+        putValue(
+                Action.SHORT_DESCRIPTION,
+                I18N.getInstance().getString(
+                        "Controller.Actions.OptimizePipeline.Description"));
+        putValue(Action.SMALL_ICON, Resource.PROGRAM_ICON.getImageIcon(
+                "arrange_pipeline.png", Size.SMALL));
+        putValue(Action.LARGE_ICON_KEY, Resource.PROGRAM_ICON.getImageIcon(
+                "arrange_pipeline.png", Size.NORMAL));
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        AbstractPipeline pipeline = ModelProxy.getInstance().getPipeline();
+
+        List<AbstractFunction> optimized;
+        List<String> changes;
+        try {
+            PipelineOptimizer optimizer = new PipelineOptimizer(
+                    Arrays.asList(pipeline.getFunctions()));
+            optimizer.optimize();
+            optimized = optimizer.getFunctions();
+            changes = optimizer.getChanges();
+        } catch (ConnectorException e1) {
+            Application.handleException(new ControlledException(this,
+                    ExceptionSeverity.WARNING, e1, I18N.getInstance()
+                            .getString(
+                                    "Controller.Actions.OptimizePipeline.Failed")));
+            return;
+        }
+
+        if (changes.isEmpty()) {
+            JOptionPane.showMessageDialog(null, I18N.getInstance().getString(
+                    "Controller.Actions.OptimizePipeline.NothingToDo"), I18N
+                    .getInstance().getString(
+                            "Controller.Actions.OptimizePipeline.Name"),
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        /* show the changes and the diff of the generated tasks */
+        StringBuilder review = new StringBuilder();
+        for (String change : changes) {
+            review.append("* ").append(change).append('\n');
+        }
+        review.append('\n');
+        for (String line : diff(splitTasks(generate(pipeline,
+                Arrays.asList(pipeline.getFunctions()))), splitTasks(generate(
+                pipeline, optimized)))) {
+            review.append(line).append('\n');
+        }
+
+        JTextArea reviewArea = new JTextArea(review.toString());
+        reviewArea.setEditable(false);
+        reviewArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JScrollPane reviewPane = new JScrollPane(reviewArea);
+        reviewPane.setPreferredSize(new Dimension(640, 400));
+
+        if (JOptionPane.showConfirmDialog(null, reviewPane, I18N.getInstance()
+                .getString("Controller.Actions.OptimizePipeline.Review"),
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE) == JOptionPane.OK_OPTION) {
+            pipeline.replaceFunctions(optimized);
+        }
+    }
+
+    private String generate(AbstractPipeline pipeline,
+            List<AbstractFunction> functions) {
+        return ParserFactory
+                .getInstance()
+                .getParser(FileType.EXECUTION_FILETYPE.getParserClass())
+                .parsePipeline(
+                        new PipelinePersistenceObject(functions, pipeline
+                                .getSettings()));
+    }
+
+    /**
+     * Splits a generated pipeline into one line per osmosis task.
+     */
+    private List<String> splitTasks(String generated) {
+        List<String> tasks = new ArrayList<String>();
+        for (String task : generated.trim().split(" +(?=--)")) {
+            if (task.length() > 0) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Creates a line diff based on the longest common subsequence, removed
+     * lines are prefixed with "-", added lines with "+".
+     */
+    private List<String> diff(List<String> before, List<String> after) {
+        int[][] lcs = new int[before.size() + 1][after.size() + 1];
+        for (int i = before.size() - 1; i >= 0; i--) {
+            for (int j = after.size() - 1; j >= 0; j--) {
+                if (before.get(i).equals(after.get(j))) {
+                    lcs[i][j] = lcs[i + 1][j + 1] + 1;
+                } else {
+                    lcs[i][j] = Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+                }
+            }
+        }
+
+        List<String> result = new ArrayList<String>();
+        int i = 0;
+        int j = 0;
+        while (i < before.size() || j < after.size()) {
+            if (i < before.size() && j < after.size()
+                    && before.get(i).equals(after.get(j))) {
+                result.add("  " + before.get(i++));
+                j++;
+            } else if (j < after.size()
+                    && (i == before.size() || lcs[i][j + 1] >= lcs[i + 1][j])) {
+                result.add("+ " + after.get(j++));
+            } else {
+                result.add("- " + before.get(i++));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model;
+
+/**
+ * An event which can make earlier events redundant, as long as these have not
+ * been delivered yet. See {@link EventBus}.
+ * 
+ * @author agent
+ */
+public interface CoalescableEvent {
+
+    /**
+     * Returns the group of the event. Only events of the same group can
+     * supersede each other.
+     * 
+     * @return the group, compared with equals
+     */
+    Object getCoalescingGroup();
+
+    /**
+     * Returns the key of the event in its group. The event supersedes the
+     * earlier, not yet delivered events of its group with an equal key. An
+     * event which supersedes none of them returns itself.
+     * 
+     * @return the key, compared with equals
+     */
+    Object getCoalescingKey();
+
+    /**
+     * Returns if the event supersedes all earlier, not yet delivered events of
+     * its group, whatever their key is.
+     * 
+     * @return true if the earlier events of the group can be dropped
+     */
+    boolean supersedesGroup();
+}
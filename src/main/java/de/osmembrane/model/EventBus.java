@@ -0,0 +1,433 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import de.osmembrane.Application;
+
+/**
+ * Delivers the events of the model to the listeners subscribed for their
+ * type. Every listener chooses how it gets its events with a
+ * {@link Delivery}:
+ * <ul>
+ * <li>{@link Delivery#IMMEDIATE} calls the listener directly in the thread
+ * publishing the event.</li>
+ * <li>{@link Delivery#EVENT_DISPATCH_THREAD} calls the listener on the event
+ * dispatch thread, so views are never changed from another thread. Events
+ * published on the event dispatch thread are delivered directly, because the
+ * views read the model state while handling an event and must not lag behind
+ * it. Events from other threads are queued and delivered together in one
+ * task of the event dispatch thread.</li>
+ * <li>{@link Delivery#BACKGROUND} queues the events for a background thread,
+ * for listeners which work on the model without changing it, like the backup.
+ * </li>
+ * </ul>
+ * Queued events are coalesced: a {@link CoalescableEvent} removes the events
+ * it supersedes from the queue of the listener, so the listener only sees the
+ * last of several equivalent events.
+ * 
+ * @author agent
+ */
+public class EventBus {
+
+    /**
+     * How a listener gets its events.
+     */
+    public enum Delivery {
+        /**
+         * In the thread publishing the event.
+         */
+        IMMEDIATE,
+
+        /**
+         * On the event dispatch thread.
+         */
+        EVENT_DISPATCH_THREAD,
+
+        /**
+         * On a background thread.
+         */
+        BACKGROUND
+    }
+
+    /**
+     * Time in seconds {@link #flush()} waits for the background listeners.
+     */
+    private static final long FLUSH_TIMEOUT = 30;
+
+    /**
+     * Instance for the Singleton pattern.
+     */
+    private static EventBus instance = new EventBus();
+
+    /**
+     * All subscriptions.
+     */
+    private List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<Subscription<?>>();
+
+    /**
+     * The subscriptions per event type, including the ones for super types.
+     * Cleared on every change of the subscriptions, filled while holding the
+     * lock of the bus, so no list of old subscriptions is put after a change.
+     */
+    private Map<Class<?>, List<Subscription<?>>> subscriptionsByType = new ConcurrentHashMap<Class<?>, List<Subscription<?>>>();
+
+    private DeliveryQueue eventDispatchQueue = new DeliveryQueue(
+            new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    SwingUtilities.invokeLater(command);
+                }
+            });
+
+    private ExecutorService backgroundExecutor = Executors
+            .newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "OSMembrane EventBus");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private DeliveryQueue backgroundQueue = new DeliveryQueue(
+            backgroundExecutor);
+
+    /**
+     * Private constructor for the Singleton pattern.
+     */
+    private EventBus() {
+    }
+
+    /**
+     * Getter for the Singleton pattern.
+     * 
+     * @return the one and only instance of EventBus
+     */
+    public static EventBus getInstance() {
+        return instance;
+    }
+
+    /**
+     * Subscribes a listener for all events of the given type and its sub
+     * types.
+     * 
+     * @param type
+     *            the type of the events
+     * @param listener
+     *            the listener
+     * @param delivery
+     *            how the listener gets the events
+     */
+    public synchronized <E> void subscribe(Class<E> type,
+            ModelEventListener<? super E> listener, Delivery delivery) {
+        subscriptions.add(new Subscription<E>(type, listener, delivery, false));
+        subscriptionsByType.clear();
+    }
+
+    /**
+     * Subscribes a listener which is only interested in the latest event of
+     * the given type: of the events queued for it, only the last one is
+     * delivered. Events delivered immediately are not affected.
+     * 
+     * @param type
+     *            the type of the events
+     * @param listener
+     *            the listener
+     * @param delivery
+     *            how the listener gets the events
+     */
+    public synchronized <E> void subscribeLatest(Class<E> type,
+            ModelEventListener<? super E> listener, Delivery delivery) {
+        subscriptions.add(new Subscription<E>(type, listener, delivery, true));
+        subscriptionsByType.clear();
+    }
+
+    /**
+     * Removes all subscriptions of a listener. Events already queued for it
+     * are not delivered any more.
+     * 
+     * @param listener
+     *            the listener
+     */
+    public synchronized void unsubscribe(ModelEventListener<?> listener) {
+        for (Subscription<?> subscription : subscriptions) {
+            if (subscription.listener == listener) {
+                subscription.active = false;
+                subscriptions.remove(subscription);
+            }
+        }
+        subscriptionsByType.clear();
+    }
+
+    /**
+     * Publishes an event to all listeners subscribed for its type.
+     * 
+     * @param event
+     *            the event, null is ignored
+     */
+    public void publish(Object event) {
+        if (event == null) {
+            return;
+        }
+
+        for (Subscription<?> subscription : getSubscriptions(event.getClass())) {
+            switch (subscription.delivery) {
+            case IMMEDIATE:
+                subscription.deliver(event);
+                break;
+            case EVENT_DISPATCH_THREAD:
+                if (SwingUtilities.isEventDispatchThread()
+                        && eventDispatchQueue.isEmpty()) {
+                    subscription.deliver(event);
+                } else {
+                    eventDispatchQueue.enqueue(subscription, event);
+                }
+                break;
+            case BACKGROUND:
+                backgroundQueue.enqueue(subscription, event);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Waits until the background listeners got all events published so far,
+     * for example before the program exits.
+     */
+    public void flush() {
+        try {
+            backgroundExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).get(FLUSH_TIMEOUT, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            /* the background listeners are not essential */
+        }
+    }
+
+    /**
+     * Returns the subscriptions receiving the events of a type.
+     */
+    private List<Subscription<?>> getSubscriptions(Class<?> type) {
+        List<Subscription<?>> result = subscriptionsByType.get(type);
+        if (result == null) {
+            result = findSubscriptions(type);
+        }
+        return result;
+    }
+
+    /**
+     * Collects the subscriptions receiving the events of a type and caches
+     * them until the subscriptions change.
+     */
+    private synchronized List<Subscription<?>> findSubscriptions(Class<?> type) {
+        List<Subscription<?>> result = subscriptionsByType.get(type);
+        if (result == null) {
+            result = new ArrayList<Subscription<?>>();
+            for (Subscription<?> subscription : subscriptions) {
+                if (subscription.type.isAssignableFrom(type)) {
+                    result.add(subscription);
+                }
+            }
+            subscriptionsByType.put(type, result);
+        }
+        return result;
+    }
+
+    /**
+     * A listener subscribed for a type of events.
+     */
+    private static class Subscription<E> {
+
+        private final Class<E> type;
+
+        private final ModelEventListener<? super E> listener;
+
+        private final Delivery delivery;
+
+        /**
+         * True if only the latest queued event is delivered.
+         */
+        private final boolean latestOnly;
+
+        private volatile boolean active = true;
+
+        public Subscription(Class<E> type,
+                ModelEventListener<? super E> listener, Delivery delivery,
+                boolean latestOnly) {
+            this.type = type;
+            this.listener = listener;
+            this.delivery = delivery;
+            this.latestOnly = latestOnly;
+        }
+
+        public void deliver(Object event) {
+            if (active) {
+                listener.modelChanged(type.cast(event));
+            }
+        }
+    }
+
+    /**
+     * An event queued for a subscription.
+     */
+    private static class QueuedEvent {
+
+        private final Subscription<?> subscription;
+
+        private final Object event;
+
+        /**
+         * True if a later event superseded this one.
+         */
+        private boolean dropped = false;
+
+        public QueuedEvent(Subscription<?> subscription, Object event) {
+            this.subscription = subscription;
+            this.event = event;
+        }
+    }
+
+    /**
+     * Events waiting for their delivery by an executor. All events queued
+     * until the executor runs are delivered in one task.
+     */
+    private static class DeliveryQueue {
+
+        private final Executor executor;
+
+        /**
+         * The events in the order they were queued, including the dropped
+         * ones.
+         */
+        private List<QueuedEvent> events = new ArrayList<QueuedEvent>();
+
+        /**
+         * The last event queued for a subscription only interested in the
+         * latest one.
+         */
+        private Map<Subscription<?>, QueuedEvent> latest = new HashMap<Subscription<?>, QueuedEvent>();
+
+        /**
+         * The events per subscription and coalescing group.
+         */
+        private Map<List<?>, List<QueuedEvent>> groups = new HashMap<List<?>, List<QueuedEvent>>();
+
+        /**
+         * The last event per subscription, coalescing group and key.
+         */
+        private Map<List<?>, QueuedEvent> keys = new HashMap<List<?>, QueuedEvent>();
+
+        private boolean scheduled = false;
+
+        public DeliveryQueue(Executor executor) {
+            this.executor = executor;
+        }
+
+        public synchronized boolean isEmpty() {
+            return events.isEmpty();
+        }
+
+        public void enqueue(Subscription<?> subscription, Object event) {
+            boolean schedule;
+            synchronized (this) {
+                QueuedEvent queued = new QueuedEvent(subscription, event);
+                if (subscription.latestOnly) {
+                    drop(latest.put(subscription, queued));
+                } else if (event instanceof CoalescableEvent) {
+                    coalesce(queued, (CoalescableEvent) event);
+                }
+                events.add(queued);
+
+                schedule = !scheduled;
+                scheduled = true;
+            }
+
+            if (schedule) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliver();
+                    }
+                });
+            }
+        }
+
+        /**
+         * Drops the queued events of the subscription the event supersedes
+         * and indexes it for the events following it.
+         */
+        private void coalesce(QueuedEvent queued, CoalescableEvent event) {
+            List<?> group = Arrays.asList(queued.subscription,
+                    event.getCoalescingGroup());
+            List<QueuedEvent> groupEvents = groups.get(group);
+            if (groupEvents == null) {
+                groupEvents = new ArrayList<QueuedEvent>();
+                groups.put(group, groupEvents);
+            } else if (event.supersedesGroup()) {
+                for (QueuedEvent groupEvent : groupEvents) {
+                    drop(groupEvent);
+                }
+                groupEvents.clear();
+            }
+            groupEvents.add(queued);
+
+            drop(keys.put(Arrays.asList(queued.subscription, event
+                    .getCoalescingGroup(), event.getCoalescingKey()), queued));
+        }
+
+        private void drop(QueuedEvent queued) {
+            if (queued != null) {
+                queued.dropped = true;
+            }
+        }
+
+        private void deliver() {
+            List<QueuedEvent> deliverEvents;
+            synchronized (this) {
+                deliverEvents = events;
+                events = new ArrayList<QueuedEvent>();
+                latest.clear();
+                groups.clear();
+                keys.clear();
+                scheduled = false;
+            }
+
+            for (QueuedEvent queued : deliverEvents) {
+                if (queued.dropped) {
+                    continue;
+                }
+                try {
+                    queued.subscription.deliver(queued.event);
+                } catch (RuntimeException e) {
+                    Application.handleException(e);
+                }
+            }
+        }
+    }
+}
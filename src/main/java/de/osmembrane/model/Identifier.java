@@ -11,10 +11,17 @@
 
 package de.osmembrane.model;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 
+import de.osmembrane.model.pipeline.AbstractFunctionPrototype;
+
 /**
- * A simple identifier for pipeline items.
+ * A simple identifier for pipeline items.<br/>
+ * The identifiers of the XML objects also carry a dense index assigned by the
+ * {@link AbstractFunctionPrototype}, which resolves them by that index. Only
+ * the String is saved, because the indexes change with the XML file; loaded
+ * identifiers are replaced by the ones of the prototype.
  * 
  * @author jakob_jarosch
  */
@@ -22,8 +29,15 @@ public class Identifier implements Serializable {
 
     private static final long serialVersionUID = 2011012315340001L;
 
+    /**
+     * Index of identifiers which were not assigned one.
+     */
+    public static final int NO_INDEX = -1;
+
     private String identifier;
 
+    private transient int index;
+
     /**
      * Constructor for the Identifier.
      * 
@@ -31,7 +45,29 @@ public class Identifier implements Serializable {
      *            String which should be used as an Identifier.
      */
     public Identifier(String identifier) {
+        this(identifier, NO_INDEX);
+    }
+
+    /**
+     * Constructor for an Identifier with an index.
+     * 
+     * @param identifier
+     *            String which should be used as an Identifier.
+     * @param index
+     *            the index of the Identifier
+     */
+    public Identifier(String identifier, int index) {
         this.identifier = identifier;
+        this.index = index;
+    }
+
+    /**
+     * Returns the index of the {@link Identifier}.
+     * 
+     * @return the index or {@link #NO_INDEX}
+     */
+    public int getIndex() {
+        return index;
     }
 
     /**
@@ -57,10 +93,21 @@ public class Identifier implements Serializable {
     @Override
     public boolean equals(Object obj1) {
         /* Compares the two identifiers for equality. */
+        if (obj1 == this) {
+            return true;
+        }
         if (obj1 instanceof Identifier) {
             Identifier ident = (Identifier) obj1;
             return identifier.equals(ident.getIdentifier());
         }
         return false;
     }
+
+    private Object readResolve() throws ObjectStreamException {
+        index = NO_INDEX;
+
+        AbstractFunctionPrototype afp = ModelProxy.getInstance().getFunctions();
+        Identifier known = afp.getKnownIdentifier(this);
+        return (known != null) ? known : this;
+    }
 }
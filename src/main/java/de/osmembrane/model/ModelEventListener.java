@@ -0,0 +1,31 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model;
+
+/**
+ * Listener for the events of the model, subscribed at the {@link EventBus}.
+ * 
+ * @param <E>
+ *            type of the events
+ * 
+ * @author agent
+ */
+public interface ModelEventListener<E> {
+
+    /**
+     * Called for every event of the subscribed type.
+     * 
+     * @param event
+     *            the event
+     */
+    void modelChanged(E event);
+}
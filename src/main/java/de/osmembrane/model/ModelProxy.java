@@ -27,11 +27,12 @@ import de.osmembrane.model.statusbar.Statusbar;
 
 /**
  * The ModelProxy is the connection to the whole Model of OSMembrane. A instance
- * can got over {@link ModelProxy#getInstance()}.
+ * can got over {@link ModelProxy#getInstance()}. It publishes the changes of
+ * the models on the {@link EventBus}.
  * 
  * @author jakob_jarosch
  */
-public class ModelProxy extends Observable implements Observer {
+public class ModelProxy implements Observer {
 
     private AbstractSettings settings;
     private AbstractPipeline pipeline;
@@ -119,7 +120,6 @@ public class ModelProxy extends Observable implements Observer {
 
     @Override
     public void update(Observable o, Object arg) {
-        setChanged();
-        notifyObservers(arg);
+        EventBus.getInstance().publish(arg);
     }
 }
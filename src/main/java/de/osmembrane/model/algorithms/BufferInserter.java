@@ -0,0 +1,208 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.ConnectorException;
+
+/**
+ * Osmosis only runs tasks in separate threads when a buffer is placed between
+ * them. The buffer inserter places a buffer behind every CPU-heavy task which
+ * is followed by another CPU-heavy task without a buffer in between. The
+ * buffers are inserted into a copy of the pipeline, so they do not appear in
+ * the pipeline of the user.
+ * 
+ * @author agent
+ */
+public class BufferInserter {
+
+    private static final String BUFFER_TASK = "buffer";
+    private static final String BUFFER_CHANGE_TASK = "buffer-change";
+    private static final String CAPACITY_PARAMETER = "bufferCapacity";
+
+    /**
+     * Tasks which keep a whole CPU core busy, like decoding, encoding and
+     * geometric filtering.
+     */
+    private static final Set<String> CPU_HEAVY_TASKS = new HashSet<String>(
+            Arrays.asList("read-xml", "fast-read-xml", "read-pbf",
+                    "read-pbf-fast", "read-xml-change", "write-xml",
+                    "write-pbf", "write-xml-change", "bounding-polygon",
+                    "tag-transform", "sort", "sort-change", "apply-change",
+                    "derive-change"));
+
+    /**
+     * Estimated memory of one buffered entity (entity with tags, way-nodes or
+     * members and the container around).
+     */
+    static final int BYTES_PER_ENTITY = 512;
+
+    /**
+     * Default capacity of an osmosis buffer, a smaller one is never used.
+     */
+    private static final int MINIMUM_CAPACITY = 100;
+
+    /**
+     * More entities do not improve the throughput any further.
+     */
+    private static final int MAXIMUM_CAPACITY = 1000000;
+
+    private List<AbstractFunction> functions;
+    private int memoryBudget;
+
+    /**
+     * Creates a new buffer inserter.
+     *
+     * @param functions
+     *            functions of the pipeline
+     * @param memoryBudget
+     *            memory in megabytes which is shared by all inserted buffers
+     */
+    public BufferInserter(List<AbstractFunction> functions, int memoryBudget) {
+        this.functions = functions;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Returns a copy of the functions with the inserted buffers.
+     *
+     * @return the functions with buffers, they are not part of any pipeline
+     * @throws ConnectorException
+     *             if a buffer could not be connected
+     */
+    public List<AbstractFunction> insertBuffers() throws ConnectorException {
+        AbstractPipeline pipeline = PipelineCopier.copy(functions);
+
+        List<AbstractFunction> stages = new ArrayList<AbstractFunction>();
+        for (AbstractFunction function : pipeline.getFunctions()) {
+            if (needsBuffer(function)) {
+                stages.add(function);
+            }
+        }
+
+        int capacity = getBufferCapacity(memoryBudget, stages.size());
+        for (AbstractFunction stage : stages) {
+            insertBehind(pipeline, stage, capacity);
+        }
+
+        return PipelineCopier.detach(pipeline);
+    }
+
+    /**
+     * Returns the capacity of each buffer when the memory budget is shared by
+     * the given count of buffers.
+     *
+     * @param memoryBudget
+     *            memory in megabytes
+     * @param bufferCount
+     *            count of buffers sharing the memory
+     * @return capacity in entities
+     */
+    public static int getBufferCapacity(int memoryBudget, int bufferCount) {
+        long capacity = (long) memoryBudget * 1024 * 1024
+                / Math.max(1, bufferCount) / BYTES_PER_ENTITY;
+        return (int) Math.max(MINIMUM_CAPACITY,
+                Math.min(MAXIMUM_CAPACITY, capacity));
+    }
+
+    /**
+     * Checks if the function is CPU-heavy and another CPU-heavy function
+     * follows without a buffer in between.
+     */
+    private boolean needsBuffer(AbstractFunction function) {
+        if (!isCpuHeavy(function) || function.getOutConnectors().length != 1
+                || getBufferTask(function) == null) {
+            return false;
+        }
+
+        LinkedList<AbstractFunction> queue = new LinkedList<AbstractFunction>(
+                PipelineCopier.getSuccessors(function));
+        Set<AbstractFunction> visited = new HashSet<AbstractFunction>(queue);
+        while (!queue.isEmpty()) {
+            AbstractFunction next = queue.poll();
+            if (isBuffer(next)) {
+                continue;
+            }
+            if (isCpuHeavy(next)) {
+                return true;
+            }
+            for (AbstractFunction successor : PipelineCopier
+                    .getSuccessors(next)) {
+                if (visited.add(successor)) {
+                    queue.add(successor);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Puts a buffer between the stage and all functions it is connected to.
+     */
+    private void insertBehind(AbstractPipeline pipeline,
+            AbstractFunction stage, int capacity) throws ConnectorException {
+        AbstractFunction buffer = ModelProxy.getInstance().getFunctions()
+                .getMatchingFunctionForTaskName(getBufferTask(stage));
+        if (buffer == null) {
+            return;
+        }
+
+        for (AbstractParameter param : buffer.getActiveTask().getParameters()) {
+            if (param.getName().equals(CAPACITY_PARAMETER)) {
+                param.setValue(String.valueOf(capacity));
+            }
+        }
+
+        List<AbstractFunction> targets = PipelineCopier.getSuccessors(stage);
+        for (AbstractFunction target : targets) {
+            stage.removeConnectionTo(target);
+        }
+
+        pipeline.addFunction(buffer);
+        stage.addConnectionTo(buffer);
+        for (AbstractFunction target : targets) {
+            buffer.addConnectionTo(target);
+        }
+    }
+
+    private String getBufferTask(AbstractFunction function) {
+        switch (function.getOutConnectors()[0].getType()) {
+        case ENTITY:
+            return BUFFER_TASK;
+        case CHANGE:
+            return BUFFER_CHANGE_TASK;
+        default:
+            return null;
+        }
+    }
+
+    private boolean isCpuHeavy(AbstractFunction function) {
+        return CPU_HEAVY_TASKS.contains(function.getActiveTask().getName());
+    }
+
+    private boolean isBuffer(AbstractFunction function) {
+        String taskName = function.getActiveTask().getName();
+        return taskName.equals(BUFFER_TASK)
+                || taskName.equals(BUFFER_CHANGE_TASK);
+    }
+}
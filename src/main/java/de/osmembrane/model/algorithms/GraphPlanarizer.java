@@ -17,7 +17,6 @@ import java.util.List;
 import de.osmembrane.model.ModelProxy;
 import de.osmembrane.model.pipeline.AbstractConnector;
 import de.osmembrane.model.pipeline.AbstractFunction;
-import de.osmembrane.model.settings.SettingType;
 import de.osmembrane.resources.Constants;
 
 /**
@@ -71,7 +70,7 @@ public class GraphPlanarizer {
      */
     private void resetAllFunctions() {
         for (AbstractFunction function : functions) {
-            function.getCoordinate().setLocation(0.0, 0.0);
+            function.getUnrasteredCoordinate().setLocation(0.0, 0.0);
         }
     }
 
@@ -134,8 +133,8 @@ public class GraphPlanarizer {
      */
     private void calculateGridSize() {
         pipelineRasterSize = Math.max(1.0,
-                new Double((Integer) ModelProxy.getInstance().getSettings()
-                        .getValue(SettingType.PIPELINE_RASTER_SIZE)));
+                ModelProxy.getInstance().getSettings().getSnapshot()
+                        .getPipelineRasterSize());
         X_OFFSET = 0.0;
         Y_OFFSET = 0.0;
 
@@ -0,0 +1,200 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.osmembrane.model.pipeline.AbstractConnector;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.ConnectorException;
+import de.osmembrane.model.pipeline.CopyType;
+import de.osmembrane.model.pipeline.Pipeline;
+
+/**
+ * Helper for the algorithms which rewrite a pipeline without touching the
+ * pipeline of the user.
+ * 
+ * @author agent
+ */
+class PipelineCopier {
+
+    private PipelineCopier() {
+    }
+
+    /**
+     * Creates a copy of the functions with all connections in a silent
+     * pipeline without undo-steps.
+     *
+     * @param functions
+     *            functions which should be copied
+     * @return the pipeline containing the copies
+     * @throws ConnectorException
+     *             if a connection could not be copied
+     */
+    static AbstractPipeline copy(List<AbstractFunction> functions)
+            throws ConnectorException {
+        AbstractPipeline pipeline = new Pipeline(true, true);
+        Map<AbstractFunction, AbstractFunction> copies = new HashMap<AbstractFunction, AbstractFunction>();
+
+        for (AbstractFunction function : functions) {
+            AbstractFunction copy = function.copy(CopyType.COPY_ALL);
+            pipeline.addFunction(copy);
+            copies.put(function, copy);
+        }
+
+        /*
+         * connect in the order of the in-connectors, so every connection ends
+         * at the same connector index as in the original pipeline.
+         */
+        for (AbstractFunction function : functions) {
+            for (AbstractConnector inConnector : function.getInConnectors()) {
+                for (AbstractConnector outConnector : inConnector
+                        .getConnections()) {
+                    copies.get(outConnector.getParent()).addConnectionTo(
+                            copies.get(function));
+                }
+            }
+        }
+
+        return pipeline;
+    }
+
+    /**
+     * Returns the functions of a copied pipeline, they are no longer observed
+     * by the silent pipeline.
+     *
+     * @param pipeline
+     *            pipeline created by {@link #copy(List)}
+     * @return the functions of the pipeline
+     */
+    static List<AbstractFunction> detach(AbstractPipeline pipeline) {
+        List<AbstractFunction> result = new ArrayList<AbstractFunction>();
+        for (AbstractFunction function : pipeline.getFunctions()) {
+            function.deleteObserver(pipeline);
+            result.add(function);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all functions which do not reach a sink. Does nothing if the
+     * pipeline has no sink at all, because then it is still under
+     * construction.
+     *
+     * @param pipeline
+     *            pipeline which should be cleaned up
+     * @return the removed functions
+     */
+    static List<AbstractFunction> removeDeadFunctions(AbstractPipeline pipeline) {
+        List<AbstractFunction> removed = new ArrayList<AbstractFunction>();
+        LinkedList<AbstractFunction> queue = new LinkedList<AbstractFunction>();
+        for (AbstractFunction function : pipeline.getFunctions()) {
+            if (function.getOutConnectors().length == 0) {
+                queue.add(function);
+            }
+        }
+
+        if (queue.isEmpty()) {
+            return removed;
+        }
+
+        /* walk backwards from all sinks */
+        Set<AbstractFunction> alive = new HashSet<AbstractFunction>(queue);
+        while (!queue.isEmpty()) {
+            for (AbstractFunction predecessor : getPredecessors(queue.poll())) {
+                if (alive.add(predecessor)) {
+                    queue.add(predecessor);
+                }
+            }
+        }
+
+        for (AbstractFunction function : pipeline.getFunctions()) {
+            if (!alive.contains(function)) {
+                pipeline.deleteFunction(function);
+                removed.add(function);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Orders the functions so every function comes after all its
+     * predecessors, the pipeline does not contain loops.
+     *
+     * @param functions
+     *            functions which should be ordered
+     * @return the ordered functions
+     */
+    static List<AbstractFunction> getTopologicalOrder(
+            List<AbstractFunction> functions) {
+        Map<AbstractFunction, Integer> pending = new HashMap<AbstractFunction, Integer>();
+        LinkedList<AbstractFunction> queue = new LinkedList<AbstractFunction>();
+        for (AbstractFunction function : functions) {
+            int count = getPredecessors(function).size();
+            pending.put(function, count);
+            if (count == 0) {
+                queue.add(function);
+            }
+        }
+
+        List<AbstractFunction> order = new ArrayList<AbstractFunction>();
+        while (!queue.isEmpty()) {
+            AbstractFunction function = queue.poll();
+            order.add(function);
+            for (AbstractFunction successor : getSuccessors(function)) {
+                Integer count = pending.get(successor);
+                if (count == null) {
+                    continue;
+                }
+                pending.put(successor, count - 1);
+                if (count == 1) {
+                    queue.add(successor);
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Returns the functions connected to the in-connectors, in the order of
+     * the in-connectors.
+     */
+    static List<AbstractFunction> getPredecessors(AbstractFunction function) {
+        List<AbstractFunction> result = new ArrayList<AbstractFunction>();
+        for (AbstractConnector inConnector : function.getInConnectors()) {
+            for (AbstractConnector outConnector : inConnector.getConnections()) {
+                result.add(outConnector.getParent());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the functions connected to the out-connectors.
+     */
+    static List<AbstractFunction> getSuccessors(AbstractFunction function) {
+        List<AbstractFunction> result = new ArrayList<AbstractFunction>();
+        for (AbstractConnector outConnector : function.getOutConnectors()) {
+            for (AbstractConnector inConnector : outConnector.getConnections()) {
+                result.add(inConnector.getParent());
+            }
+        }
+        return result;
+    }
+}
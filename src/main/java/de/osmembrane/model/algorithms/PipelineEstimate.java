@@ -0,0 +1,141 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.osmembrane.model.pipeline.AbstractFunction;
+
+/**
+ * Result of a {@link PipelineEstimator}, all values are rough estimates.
+ * 
+ * @author agent
+ */
+public class PipelineEstimate {
+
+    private Map<AbstractFunction, Long> inputEntities = new HashMap<AbstractFunction, Long>();
+    private Map<AbstractFunction, Long> outputEntities = new HashMap<AbstractFunction, Long>();
+    private Map<AbstractFunction, Long> memory = new HashMap<AbstractFunction, Long>();
+    private List<AbstractFunction> unknownSources = new ArrayList<AbstractFunction>();
+
+    private long peakMemory;
+    private long tempDisk;
+    private double cost;
+    private double duration;
+
+    /**
+     * Returns the count of entities the function receives.
+     *
+     * @param function
+     *            function of the estimated pipeline
+     * @return the count of entities, 0 if the function is unknown
+     */
+    public long getInputEntities(AbstractFunction function) {
+        return get(inputEntities, function);
+    }
+
+    /**
+     * Returns the count of entities the function passes to each of its
+     * connections.
+     *
+     * @param function
+     *            function of the estimated pipeline
+     * @return the count of entities, 0 if the function is unknown
+     */
+    public long getOutputEntities(AbstractFunction function) {
+        return get(outputEntities, function);
+    }
+
+    /**
+     * Returns the memory used by the function.
+     *
+     * @param function
+     *            function of the estimated pipeline
+     * @return the memory in bytes, 0 if the function is unknown
+     */
+    public long getMemory(AbstractFunction function) {
+        return get(memory, function);
+    }
+
+    /**
+     * Returns the sources whose size could not be determined, the entities
+     * they produce are not part of the estimate.
+     *
+     * @return the sources without a readable file
+     */
+    public List<AbstractFunction> getUnknownSources() {
+        return unknownSources;
+    }
+
+    /**
+     * Returns the memory used by osmosis while all tasks are running.
+     *
+     * @return the memory in bytes
+     */
+    public long getPeakMemory() {
+        return peakMemory;
+    }
+
+    /**
+     * Returns the disk space needed for temporary files.
+     *
+     * @return the disk space in bytes
+     */
+    public long getTempDisk() {
+        return tempDisk;
+    }
+
+    /**
+     * Returns the cost of the pipeline, which is calibrated against the
+     * measured runtimes.
+     *
+     * @return the cost in cost units
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns the estimated wall-clock time of the execution.
+     *
+     * @return the duration in seconds
+     */
+    public double getDuration() {
+        return duration;
+    }
+
+    void setFunction(AbstractFunction function, long input, long output,
+            long functionMemory) {
+        inputEntities.put(function, input);
+        outputEntities.put(function, output);
+        memory.put(function, functionMemory);
+    }
+
+    void addUnknownSource(AbstractFunction function) {
+        unknownSources.add(function);
+    }
+
+    void setTotals(long peakMemory, long tempDisk, double cost, double duration) {
+        this.peakMemory = peakMemory;
+        this.tempDisk = tempDisk;
+        this.cost = cost;
+        this.duration = duration;
+    }
+
+    private long get(Map<AbstractFunction, Long> map, AbstractFunction function) {
+        Long value = map.get(function);
+        return (value != null) ? value : 0;
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.ParameterType;
+import de.osmembrane.model.settings.AbstractSettings;
+import de.osmembrane.model.settings.RuntimeSample;
+import de.osmembrane.model.settings.SettingType;
+import de.osmembrane.model.settings.SettingsSnapshot;
+
+/**
+ * Static estimation of the resources a pipeline needs in osmosis.
+ * 
+ * The count of entities of every source is derived from the size and the
+ * format of its file, then it is propagated along the connections using the
+ * selectivity of every task. Memory, temporary disk space and cost of each
+ * task follow from the entities it receives. The cost is converted into a
+ * duration with a factor fitted to the runtimes of former executions.
+ * 
+ * @author agent
+ */
+public class PipelineEstimator {
+
+    private static final String READ_PREFIX = "read-";
+    private static final String FAST_READ_PREFIX = "fast-read-";
+    private static final String BUFFER_PREFIX = "buffer";
+    private static final String CAPACITY_PARAMETER = "bufferCapacity";
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    /**
+     * Memory of the osmosis JVM without any task.
+     */
+    private static final long BASE_MEMORY = 64 * MEGABYTE;
+
+    /**
+     * Seconds per cost unit as long as no run has been measured, the cost
+     * coefficients are nominal microseconds per entity.
+     */
+    private static final double DEFAULT_SECONDS_PER_COST = 1e-6;
+
+    /**
+     * How the memory of a task grows with its entities.
+     */
+    enum MemoryClass {
+        /** passes every entity on, only constant memory */
+        STREAMING(MEGABYTE, 0),
+        /** keeps a bitset or list of all seen ids */
+        ID_TRACKER(MEGABYTE, 8),
+        /** sorts in-memory chunks and spills them to temporary files */
+        CHUNKED(50 * MEGABYTE, 0),
+        /** caches pages of an indexed dataset */
+        DATASET(64 * MEGABYTE, 0),
+        /** holds up to its capacity of entities */
+        BUFFER(MEGABYTE, 0);
+
+        private long constant;
+        private long perEntity;
+
+        private MemoryClass(long constant, long perEntity) {
+            this.constant = constant;
+            this.perEntity = perEntity;
+        }
+    }
+
+    /**
+     * Cost coefficients of one osmosis task.
+     */
+    private static class TaskCost {
+        /** output entities per input entity */
+        private double selectivity;
+        /** nominal microseconds per input entity */
+        private double cost;
+        private MemoryClass memory;
+        /** bytes of temporary files per input entity */
+        private double tempBytes;
+
+        private TaskCost(double selectivity, double cost, MemoryClass memory,
+                double tempBytes) {
+            this.selectivity = selectivity;
+            this.cost = cost;
+            this.memory = memory;
+            this.tempBytes = tempBytes;
+        }
+    }
+
+    private static final TaskCost DEFAULT_COST = new TaskCost(1.0, 0.5,
+            MemoryClass.STREAMING, 0);
+
+    private static final Map<String, TaskCost> TASK_COSTS = new HashMap<String, TaskCost>();
+
+    static {
+        /* sources, the cost is per produced entity */
+        put(1.0, 4.0, MemoryClass.STREAMING, 0, "read-xml", "read-xml-change");
+        put(1.0, 2.5, MemoryClass.STREAMING, 0, "fast-read-xml");
+        put(1.0, 1.0, MemoryClass.STREAMING, 0, "read-pbf");
+        put(1.0, 0.6, MemoryClass.STREAMING, 0, "read-pbf-fast");
+
+        /* sinks */
+        put(0.0, 3.0, MemoryClass.STREAMING, 0, "write-xml",
+                "write-xml-change");
+        put(0.0, 1.5, MemoryClass.STREAMING, 0, "write-pbf");
+        put(0.0, 0.1, MemoryClass.STREAMING, 0, "write-null",
+                "write-null-change", "report-entity");
+        put(0.0, 1.0, MemoryClass.ID_TRACKER, 0, "report-integrity");
+
+        /* filters */
+        put(0.5, 0.2, MemoryClass.STREAMING, 0, "node-key", "node-key-value",
+                "way-key", "way-key-value", "tag-filter");
+        put(0.2, 0.3, MemoryClass.ID_TRACKER, 0, "bounding-box");
+        put(0.2, 1.5, MemoryClass.ID_TRACKER, 0, "bounding-polygon");
+        put(0.8, 0.5, MemoryClass.ID_TRACKER, 60, "used-node");
+        put(1.0, 2.0, MemoryClass.STREAMING, 0, "tag-transform");
+
+        /* ordering and combining */
+        put(1.0, 2.0, MemoryClass.CHUNKED, 60, "sort", "sort-change");
+        put(1.0, 0.3, MemoryClass.STREAMING, 0, "merge", "merge-change");
+        put(1.0, 0.1, MemoryClass.BUFFER, 0, "buffer", "buffer-change");
+        put(1.0, 1.0, MemoryClass.STREAMING, 0, "apply-change");
+        put(0.05, 1.0, MemoryClass.STREAMING, 0, "derive-change");
+
+        /* datasets */
+        put(1.0, 3.0, MemoryClass.DATASET, 0, "dataset-dump");
+        put(0.2, 3.0, MemoryClass.DATASET, 0, "dataset-bounding-box");
+        put(0.0, 3.0, MemoryClass.DATASET, 0, "dataset-osmbin-0.6");
+    }
+
+    private static void put(double selectivity, double cost,
+            MemoryClass memory, double tempBytes, String... tasks) {
+        for (String task : tasks) {
+            TASK_COSTS.put(task, new TaskCost(selectivity, cost, memory,
+                    tempBytes));
+        }
+    }
+
+    private List<AbstractFunction> functions;
+
+    /**
+     * Creates a new estimator.
+     *
+     * @param functions
+     *            functions of the pipeline, they are not changed
+     */
+    public PipelineEstimator(List<AbstractFunction> functions) {
+        this.functions = functions;
+    }
+
+    /**
+     * Estimates the pipeline with the current settings and the stored
+     * runtime samples.
+     *
+     * @return the estimate
+     */
+    public PipelineEstimate estimate() {
+        AbstractSettings settings = ModelProxy.getInstance().getSettings();
+        File workingDirectory = new File(
+                (String) settings.getValue(SettingType.DEFAULT_WORKING_DIRECTORY));
+
+        PipelineEstimate estimate = new PipelineEstimate();
+        Map<AbstractFunction, Long> outputs = new HashMap<AbstractFunction, Long>();
+
+        long peakMemory = BASE_MEMORY;
+        long tempDisk = 0;
+        double cost = 0;
+
+        for (AbstractFunction function : PipelineCopier
+                .getTopologicalOrder(functions)) {
+            TaskCost taskCost = getTaskCost(function);
+
+            long input = 0;
+            for (AbstractFunction predecessor : PipelineCopier
+                    .getPredecessors(function)) {
+                input += outputs.get(predecessor);
+            }
+
+            long output;
+            if (function.getInConnectors().length == 0) {
+                /* a source, its cost is for the entities it produces */
+                output = getSourceEntities(function, workingDirectory);
+                if (output < 0) {
+                    estimate.addUnknownSource(function);
+                    output = 0;
+                }
+                input = output;
+            } else {
+                output = (long) (input * taskCost.selectivity);
+            }
+            outputs.put(function, output);
+
+            long memory = taskCost.memory.constant + input
+                    * taskCost.memory.perEntity;
+            if (taskCost.memory == MemoryClass.BUFFER) {
+                memory += getBufferCapacity(function)
+                        * BufferInserter.BYTES_PER_ENTITY;
+            }
+
+            estimate.setFunction(function, input, output, memory);
+            peakMemory += memory;
+            tempDisk += (long) (input * taskCost.tempBytes);
+            cost += input * taskCost.cost;
+        }
+
+        /* automatically inserted buffers share their budget */
+        SettingsSnapshot snapshot = settings.getSnapshot();
+        if (snapshot.isAutomaticBufferInsertion()) {
+            peakMemory += snapshot.getBufferMemoryBudget() * MEGABYTE;
+        }
+
+        estimate.setTotals(peakMemory, tempDisk, cost, cost
+                * getSecondsPerCost(settings.getRuntimeSamples()));
+        return estimate;
+    }
+
+    /**
+     * Fits the seconds per cost unit to the measured runs with the least
+     * squares through the origin.
+     *
+     * @param samples
+     *            measured runs
+     * @return seconds per cost unit, the nominal factor if there are no
+     *         usable samples
+     */
+    public static double getSecondsPerCost(RuntimeSample[] samples) {
+        double costTimesSeconds = 0;
+        double costSquared = 0;
+        for (RuntimeSample sample : samples) {
+            costTimesSeconds += sample.getCost() * sample.getSeconds();
+            costSquared += sample.getCost() * sample.getCost();
+        }
+
+        if (costSquared <= 0 || costTimesSeconds <= 0) {
+            return DEFAULT_SECONDS_PER_COST;
+        }
+        return costTimesSeconds / costSquared;
+    }
+
+    /**
+     * Returns the count of entities in the file of a read task, or -1 if
+     * there is no readable file.
+     */
+    private long getSourceEntities(AbstractFunction function,
+            File workingDirectory) {
+        String taskName = function.getActiveTask().getName();
+        if (!taskName.startsWith(READ_PREFIX)
+                && !taskName.startsWith(FAST_READ_PREFIX)) {
+            return -1;
+        }
+
+        for (AbstractParameter param : function.getActiveTask()
+                .getParameters()) {
+            if (param.getType() != ParameterType.FILENAME) {
+                continue;
+            }
+
+            String value = (param.getValue() != null) ? param.getValue()
+                    : param.getDefaultValue();
+            if (value == null || value.isEmpty()) {
+                return -1;
+            }
+
+            File file = new File(value);
+            if (!file.isAbsolute()) {
+                file = new File(workingDirectory, value);
+            }
+            if (!file.isFile()) {
+                return -1;
+            }
+            return (long) (file.length() / getBytesPerEntity(value));
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the average size of an entity on disk, derived from the file
+     * extension.
+     */
+    private double getBytesPerEntity(String fileName) {
+        String name = fileName.toLowerCase();
+
+        if (name.endsWith(".pbf")) {
+            return 10;
+        }
+
+        /* xml, perhaps compressed */
+        double bytes = 110;
+        if (name.endsWith(".bz2")) {
+            bytes /= 11;
+        } else if (name.endsWith(".gz")) {
+            bytes /= 7;
+        }
+        return bytes;
+    }
+
+    private long getBufferCapacity(AbstractFunction function) {
+        if (function.getActiveTask().getName().startsWith(BUFFER_PREFIX)) {
+            for (AbstractParameter param : function.getActiveTask()
+                    .getParameters()) {
+                if (!param.getName().equals(CAPACITY_PARAMETER)) {
+                    continue;
+                }
+                String value = (param.getValue() != null) ? param.getValue()
+                        : param.getDefaultValue();
+                try {
+                    return Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private TaskCost getTaskCost(AbstractFunction function) {
+        TaskCost taskCost = TASK_COSTS.get(function.getActiveTask().getName());
+        return (taskCost != null) ? taskCost : DEFAULT_COST;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.osmembrane.model.pipeline.AbstractConnector;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.ConnectorException;
+import de.osmembrane.model.pipeline.ConnectorType;
+import de.osmembrane.tools.I18N;
+
+/**
+ * Rule based optimizer for a pipeline. The optimizer works on a copy of the
+ * given functions, so the original pipeline is only changed when the
+ * optimized functions are applied to it.
+ * 
+ * The following rules are applied:
+ * <ul>
+ * <li>functions which can not reach any sink are removed</li>
+ * <li>read tasks reading the same file with the same parameters are merged
+ * into one read, the generator creates the required tee</li>
+ * <li>entity filters are moved in front of sort and buffer tasks when the
+ * result stays the same</li>
+ * </ul>
+ * 
+ * @author agent
+ */
+public class PipelineOptimizer {
+
+    private static final String READ_PREFIX = "read-";
+
+    private static final String SORT_TASK = "sort";
+    private static final String BUFFER_TASK = "buffer";
+    private static final String BBOX_TASK = "bounding-box";
+
+    /**
+     * Filters which decide for every entity on its own and therefore do not
+     * depend on the order of the entities.
+     */
+    private static final Set<String> ENTITY_FILTERS = new HashSet<String>(
+            Arrays.asList("node-key", "node-key-value", "way-key",
+                    "way-key-value", "tag-filter"));
+
+    /**
+     * Upper bound for the rounds of the filter push down.
+     */
+    private static final int MAX_PUSHDOWN_ROUNDS = 1000;
+
+    private AbstractPipeline pipeline;
+
+    private List<String> changes = new ArrayList<String>();
+
+    /**
+     * Creates a new optimizer for a copy of the given functions.
+     *
+     * @param functions
+     *            functions of the pipeline which should be optimized
+     *
+     * @throws ConnectorException
+     *             if the functions could not be copied
+     */
+    public PipelineOptimizer(List<AbstractFunction> functions)
+            throws ConnectorException {
+        pipeline = PipelineCopier.copy(functions);
+    }
+
+    /**
+     * Applies all rules to the copied functions.
+     *
+     * @throws ConnectorException
+     *             if a rewritten connection could not be created
+     */
+    public void optimize() throws ConnectorException {
+        removeDeadFunctions();
+        mergeSharedReads();
+        pushDownFilters();
+    }
+
+    /**
+     * Returns a human readable description of every applied rewrite.
+     *
+     * @return descriptions of the changes, empty if nothing was optimized
+     */
+    public List<String> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Returns the optimized functions, they are no longer part of any
+     * pipeline.
+     *
+     * @return the optimized functions
+     */
+    public List<AbstractFunction> getFunctions() {
+        return PipelineCopier.detach(pipeline);
+    }
+
+    /**
+     * Removes all functions which do not reach a sink.
+     */
+    private void removeDeadFunctions() {
+        for (AbstractFunction function : PipelineCopier
+                .removeDeadFunctions(pipeline)) {
+            changes.add(I18N.getInstance().getString(
+                    "Model.Algorithms.Optimizer.RemoveDeadFunction",
+                    getLabel(function)));
+        }
+    }
+
+    /**
+     * Merges read tasks with equal parameters into the first one of them.
+     */
+    private void mergeSharedReads() throws ConnectorException {
+        Map<String, AbstractFunction> reads = new LinkedHashMap<String, AbstractFunction>();
+
+        for (AbstractFunction function : pipeline.getFunctions()) {
+            String taskName = function.getActiveTask().getName();
+            if (!taskName.startsWith(READ_PREFIX)
+                    || function.getInConnectors().length != 0
+                    || !hasOnlyOutputsOf(function, ConnectorType.ENTITY)) {
+                continue;
+            }
+
+            String key = getReadKey(function);
+            AbstractFunction kept = reads.get(key);
+            if (kept == null) {
+                reads.put(key, function);
+                continue;
+            }
+
+            /* a function can not be connected twice to the same function */
+            List<AbstractFunction> targets = PipelineCopier
+                    .getSuccessors(function);
+            boolean sharedTarget = false;
+            for (AbstractFunction target : targets) {
+                sharedTarget |= PipelineCopier.getSuccessors(kept).contains(
+                        target);
+            }
+            if (sharedTarget) {
+                continue;
+            }
+
+            for (AbstractFunction target : targets) {
+                function.removeConnectionTo(target);
+                kept.addConnectionTo(target);
+            }
+            pipeline.deleteFunction(function);
+
+            changes.add(I18N.getInstance().getString(
+                    "Model.Algorithms.Optimizer.MergeReads",
+                    getLabel(function), getLabel(kept)));
+        }
+    }
+
+    /**
+     * Moves filters in front of sort and buffer tasks until nothing changes
+     * anymore.
+     */
+    private void pushDownFilters() throws ConnectorException {
+        boolean changed = true;
+        for (int round = 0; changed && round < MAX_PUSHDOWN_ROUNDS; round++) {
+            changed = false;
+            for (AbstractFunction filter : pipeline.getFunctions()) {
+                List<AbstractFunction> predecessors = PipelineCopier
+                        .getPredecessors(filter);
+                if (predecessors.size() != 1) {
+                    continue;
+                }
+
+                AbstractFunction stage = predecessors.get(0);
+                if (PipelineCopier.getSuccessors(stage).size() != 1
+                        || !canPushDown(filter, stage)) {
+                    continue;
+                }
+
+                changes.add(I18N.getInstance().getString(
+                        "Model.Algorithms.Optimizer.PushDownFilter",
+                        getLabel(filter), getLabel(stage)));
+                swap(stage, filter);
+                changed = true;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Checks if the filter gives the same result in front of the stage.
+     *
+     * A buffer does not change the stream at all. Entity filters decide for
+     * each entity on its own, so they are independent of the order (sort). A
+     * merge is never rewritten, it keeps only the newest version of an entity
+     * found in its inputs and a filter in front of it could drop that version
+     * and let an older one through. The bounding-box needs the nodes in front
+     * of their ways, it is only moved in front of a sort if the sort reads
+     * directly from a file, which is ordered by convention.
+     */
+    private boolean canPushDown(AbstractFunction filter, AbstractFunction stage) {
+        String filterTask = filter.getActiveTask().getName();
+        String stageTask = stage.getActiveTask().getName();
+
+        if (!hasOnlyOutputsOf(filter, ConnectorType.ENTITY)
+                || filter.getInConnectors().length != 1
+                || filter.getInConnectors()[0].getType() != ConnectorType.ENTITY
+                || PipelineCopier.getPredecessors(stage).size() != stage
+                        .getInConnectors().length) {
+            return false;
+        }
+
+        if (ENTITY_FILTERS.contains(filterTask)) {
+            return stageTask.equals(SORT_TASK)
+                    || stageTask.equals(BUFFER_TASK);
+        }
+
+        if (filterTask.equals(BBOX_TASK)) {
+            if (stageTask.equals(BUFFER_TASK)) {
+                return true;
+            }
+            if (stageTask.equals(SORT_TASK)) {
+                return PipelineCopier.getPredecessors(stage).get(0)
+                        .getActiveTask().getName().startsWith(READ_PREFIX);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Rewrites "input -> stage -> filter -> targets" into "input -> filter ->
+     * stage -> targets". The stage has exactly one input, as sort and buffer
+     * do.
+     */
+    private void swap(AbstractFunction stage, AbstractFunction filter)
+            throws ConnectorException {
+        AbstractFunction input = PipelineCopier.getPredecessors(stage).get(0);
+        List<AbstractFunction> targets = PipelineCopier.getSuccessors(filter);
+
+        input.removeConnectionTo(stage);
+        stage.removeConnectionTo(filter);
+        for (AbstractFunction target : targets) {
+            filter.removeConnectionTo(target);
+        }
+
+        /*
+         * the stage takes the place of the filter, the filter is placed
+         * between the input and the former place of the stage
+         */
+        Point2D stagePosition = stage.getUnrasteredCoordinate();
+        Point2D inputPosition = input.getUnrasteredCoordinate();
+        stage.setCoordinate(filter.getUnrasteredCoordinate());
+        filter.setCoordinate(new Point2D.Double(
+                (inputPosition.getX() + stagePosition.getX()) / 2.0,
+                (inputPosition.getY() + stagePosition.getY()) / 2.0));
+
+        input.addConnectionTo(filter);
+        filter.addConnectionTo(stage);
+        for (AbstractFunction target : targets) {
+            stage.addConnectionTo(target);
+        }
+    }
+
+    private boolean hasOnlyOutputsOf(AbstractFunction function,
+            ConnectorType type) {
+        for (AbstractConnector outConnector : function.getOutConnectors()) {
+            if (outConnector.getType() != type) {
+                return false;
+            }
+        }
+        return function.getOutConnectors().length > 0;
+    }
+
+    /**
+     * Two reads are equal, if the task and all parameter values are equal.
+     */
+    private String getReadKey(AbstractFunction function) {
+        StringBuilder key = new StringBuilder(function.getActiveTask()
+                .getName());
+        for (AbstractParameter param : function.getActiveTask()
+                .getParameters()) {
+            String value = param.getValue();
+            if (value == null) {
+                value = param.getDefaultValue();
+            }
+            key.append('\n').append(param.getName()).append('=')
+                    .append(value);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Returns the task name of the function, for reads together with the read
+     * file.
+     */
+    private String getLabel(AbstractFunction function) {
+        String label = function.getActiveTask().getName();
+        if (label.startsWith(READ_PREFIX)) {
+            for (AbstractParameter param : function.getActiveTask()
+                    .getParameters()) {
+                if (param.getName().equals("file") && param.getValue() != null) {
+                    label += " " + param.getValue();
+                }
+            }
+        }
+        return label;
+    }
+}
@@ -0,0 +1,475 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.algorithms.ShardingException.ErrorType;
+import de.osmembrane.model.pipeline.AbstractConnector;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractFunctionPrototype;
+import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.ConnectorException;
+import de.osmembrane.model.pipeline.ConnectorType;
+import de.osmembrane.model.pipeline.CopyType;
+import de.osmembrane.model.pipeline.Pipeline;
+import de.osmembrane.resources.Constants;
+
+/**
+ * Splits a pipeline into several independent shards, each one restricted to a
+ * part of the working area by an injected bounding-box or bounding-polygon
+ * filter, and creates the merge pipeline which combines the shard outputs
+ * again.
+ * 
+ * The pipeline must only have read tasks producing an entity stream as
+ * sources and write tasks with a file parameter as sinks.
+ * 
+ * @author agent
+ */
+public class PipelineSharder {
+
+    private static final String READ_PREFIX = "read-";
+    private static final String WRITE_PREFIX = "write-";
+    private static final String FILE_PARAMETER = "file";
+
+    private static final String BBOX_TASK = "bounding-box";
+    private static final String POLYGON_TASK = "bounding-polygon";
+    private static final String MERGE_TASK = "merge";
+
+    private List<AbstractFunction> functions;
+
+    /**
+     * Functions without any in-connectors.
+     */
+    private List<AbstractFunction> sources = new ArrayList<AbstractFunction>();
+
+    /**
+     * Functions without any out-connectors.
+     */
+    private List<AbstractFunction> sinks = new ArrayList<AbstractFunction>();
+
+    /**
+     * Creates a new sharder.
+     *
+     * @param functions
+     *            functions of the pipeline which should be sharded
+     *
+     * @throws ShardingException
+     *             if the pipeline does not consist of read sources and write
+     *             sinks
+     */
+    public PipelineSharder(List<AbstractFunction> functions)
+            throws ShardingException {
+        this.functions = functions;
+
+        for (AbstractFunction function : functions) {
+            if (function.getInConnectors().length == 0) {
+                checkSource(function);
+                sources.add(function);
+            }
+            if (function.getOutConnectors().length == 0) {
+                checkSink(function);
+                sinks.add(function);
+            }
+        }
+
+        if (sources.isEmpty()) {
+            throw new ShardingException(ErrorType.NO_SOURCE);
+        }
+    }
+
+    /**
+     * Splits the working area into count rectangular tiles and creates one
+     * pipeline for each tile with a bounding-box filter behind every source.
+     *
+     * @param left
+     *            western longitude of the working area
+     * @param bottom
+     *            southern latitude of the working area
+     * @param right
+     *            eastern longitude of the working area
+     * @param top
+     *            northern latitude of the working area
+     * @param count
+     *            number of shards
+     * @return the functions of each shard pipeline
+     */
+    public List<List<AbstractFunction>> shardByTiles(double left,
+            double bottom, double right, double top, int count)
+            throws ShardingException {
+        List<List<AbstractFunction>> shards = new ArrayList<List<AbstractFunction>>();
+        List<String> tiles = splitIntoTiles(left, bottom, right, top, count);
+
+        for (int i = 0; i < tiles.size(); i++) {
+            AbstractPipeline shard = copyPipeline();
+            for (AbstractFunction source : getSources(shard)) {
+                AbstractFunction filter = createFunction(BBOX_TASK);
+                filter.getActiveTask().setBBox(tiles.get(i));
+                injectBehind(shard, source, filter);
+            }
+            renameSinks(shard, i);
+            shards.add(toList(shard));
+        }
+
+        return shards;
+    }
+
+    /**
+     * Creates one pipeline for each given polygon file with a
+     * bounding-polygon filter behind every source.
+     *
+     * @param polygonFiles
+     *            osmosis polygon files, one for each shard
+     * @return the functions of each shard pipeline
+     */
+    public List<List<AbstractFunction>> shardByPolygons(
+            List<String> polygonFiles) throws ShardingException {
+        if (polygonFiles.isEmpty()) {
+            throw new ShardingException(ErrorType.INVALID_SHARD_COUNT, 0);
+        }
+
+        List<List<AbstractFunction>> shards = new ArrayList<List<AbstractFunction>>();
+
+        for (int i = 0; i < polygonFiles.size(); i++) {
+            AbstractPipeline shard = copyPipeline();
+            for (AbstractFunction source : getSources(shard)) {
+                AbstractFunction filter = createFunction(POLYGON_TASK);
+                setParameter(filter, FILE_PARAMETER, polygonFiles.get(i));
+                injectBehind(shard, source, filter);
+            }
+            renameSinks(shard, i);
+            shards.add(toList(shard));
+        }
+
+        return shards;
+    }
+
+    /**
+     * Creates the pipeline which reads the outputs of all shards and merges
+     * them into the files of the original sinks.
+     *
+     * @param count
+     *            number of shards which have been created
+     * @return the functions of the merge pipeline
+     */
+    public List<AbstractFunction> createMergePipeline(int count)
+            throws ShardingException {
+        AbstractPipeline merge = new Pipeline(true, true);
+
+        for (AbstractFunction sink : sinks) {
+            String sinkTask = sink.getActiveTask().getName();
+            String readTask = READ_PREFIX
+                    + sinkTask.substring(WRITE_PREFIX.length());
+
+            AbstractFunction merged = null;
+            for (int i = 0; i < count; i++) {
+                AbstractFunction reader = createFunction(readTask, sinkTask);
+                copyParameters(sink, reader);
+                setParameter(reader, FILE_PARAMETER,
+                        getShardFilename(getFilename(sink), i));
+                merge.addFunction(reader);
+
+                if (merged == null) {
+                    merged = reader;
+                } else {
+                    AbstractFunction mergeFunction = createFunction(MERGE_TASK);
+                    merge.addFunction(mergeFunction);
+                    connect(merged, mergeFunction);
+                    connect(reader, mergeFunction);
+                    merged = mergeFunction;
+                }
+            }
+
+            AbstractFunction writer = sink.copy(CopyType.COPY_ALL);
+            merge.addFunction(writer);
+            connect(merged, writer);
+        }
+
+        return toList(merge);
+    }
+
+    /**
+     * Splits a bounding box into count tiles of the same size. The grid is
+     * chosen as square as possible.
+     *
+     * @return the tiles as bbox strings (bottom, left, top, right) as used by
+     *         {@link de.osmembrane.model.pipeline.AbstractTask#setBBox(String)}
+     */
+    public static List<String> splitIntoTiles(double left, double bottom,
+            double right, double top, int count) throws ShardingException {
+        if (count < 1) {
+            throw new ShardingException(ErrorType.INVALID_SHARD_COUNT, count);
+        }
+
+        /* find the largest divisor of count which is <= sqrt(count) */
+        int rows = (int) Math.sqrt(count);
+        while (count % rows != 0) {
+            rows--;
+        }
+        int columns = count / rows;
+
+        double width = (right - left) / columns;
+        double height = (top - bottom) / rows;
+
+        List<String> tiles = new ArrayList<String>();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                double tileLeft = left + column * width;
+                double tileBottom = bottom + row * height;
+                /* use the exact outer edges to avoid rounding gaps */
+                double tileRight = (column == columns - 1) ? right : tileLeft
+                        + width;
+                double tileTop = (row == rows - 1) ? top : tileBottom + height;
+
+                tiles.add(formatCoordinate(tileBottom)
+                        + Constants.BBOX_SEPERATOR
+                        + formatCoordinate(tileLeft)
+                        + Constants.BBOX_SEPERATOR
+                        + formatCoordinate(tileTop)
+                        + Constants.BBOX_SEPERATOR
+                        + formatCoordinate(tileRight));
+            }
+        }
+
+        return tiles;
+    }
+
+    /**
+     * Returns the name of the file a sink writes in the given shard.
+     *
+     * @param filename
+     *            original filename of the sink
+     * @param shard
+     *            index of the shard
+     * @return filename with the shard index in front of the extension
+     */
+    public static String getShardFilename(String filename, int shard) {
+        int nameStart = Math.max(filename.lastIndexOf('/'),
+                filename.lastIndexOf('\\')) + 1;
+        int extension = filename.indexOf('.', nameStart);
+        String suffix = ".shard" + (shard + 1);
+
+        if (extension < 0) {
+            return filename + suffix;
+        }
+        return filename.substring(0, extension) + suffix
+                + filename.substring(extension);
+    }
+
+    /**
+     * Creates a copy of the pipeline with all connections, using a silent
+     * pipeline without undo-steps.
+     */
+    private AbstractPipeline copyPipeline() throws ShardingException {
+        AbstractPipeline pipeline = new Pipeline(true, true);
+        Map<AbstractFunction, AbstractFunction> copies = new HashMap<AbstractFunction, AbstractFunction>();
+
+        for (AbstractFunction function : functions) {
+            AbstractFunction copy = function.copy(CopyType.COPY_ALL);
+            pipeline.addFunction(copy);
+            copies.put(function, copy);
+        }
+
+        /*
+         * connect in the order of the in-connectors, so every connection ends
+         * at the same connector index as in the original pipeline.
+         */
+        for (AbstractFunction function : functions) {
+            for (AbstractConnector inConnector : function.getInConnectors()) {
+                for (AbstractConnector outConnector : inConnector
+                        .getConnections()) {
+                    connect(copies.get(outConnector.getParent()),
+                            copies.get(function));
+                }
+            }
+        }
+
+        return pipeline;
+    }
+
+    /**
+     * Puts the filter between the source and all functions it is connected
+     * to.
+     */
+    private void injectBehind(AbstractPipeline pipeline,
+            AbstractFunction source, AbstractFunction filter)
+            throws ShardingException {
+        List<AbstractFunction> targets = new ArrayList<AbstractFunction>();
+        for (AbstractConnector outConnector : source.getOutConnectors()) {
+            for (AbstractConnector inConnector : outConnector.getConnections()) {
+                targets.add(inConnector.getParent());
+            }
+        }
+
+        for (AbstractFunction target : targets) {
+            source.removeConnectionTo(target);
+        }
+
+        pipeline.addFunction(filter);
+        connect(source, filter);
+        for (AbstractFunction target : targets) {
+            connect(filter, target);
+        }
+    }
+
+    /**
+     * Lets all sinks of the shard write into their own shard file.
+     */
+    private void renameSinks(AbstractPipeline shard, int index) {
+        for (AbstractFunction function : shard.getFunctions()) {
+            if (function.getOutConnectors().length == 0) {
+                setParameter(function, FILE_PARAMETER,
+                        getShardFilename(getFilename(function), index));
+            }
+        }
+    }
+
+    /**
+     * Returns the sources of a copied pipeline.
+     */
+    private List<AbstractFunction> getSources(AbstractPipeline pipeline) {
+        List<AbstractFunction> result = new ArrayList<AbstractFunction>();
+        for (AbstractFunction function : pipeline.getFunctions()) {
+            if (function.getInConnectors().length == 0) {
+                result.add(function);
+            }
+        }
+        return result;
+    }
+
+    private void checkSource(AbstractFunction function)
+            throws ShardingException {
+        String taskName = function.getActiveTask().getName();
+        if (!taskName.startsWith(READ_PREFIX)) {
+            throw new ShardingException(ErrorType.SOURCE_NOT_READ_TASK,
+                    taskName);
+        }
+        for (AbstractConnector connector : function.getOutConnectors()) {
+            if (connector.getType() != ConnectorType.ENTITY) {
+                throw new ShardingException(ErrorType.SOURCE_NOT_READ_TASK,
+                        taskName);
+            }
+        }
+    }
+
+    private void checkSink(AbstractFunction function) throws ShardingException {
+        String taskName = function.getActiveTask().getName();
+        if (!taskName.startsWith(WRITE_PREFIX)
+                || getParameter(function, FILE_PARAMETER) == null) {
+            throw new ShardingException(ErrorType.SINK_NOT_WRITE_TASK,
+                    taskName);
+        }
+    }
+
+    /**
+     * Creates a new function with the given task as active task.
+     *
+     * @param taskName
+     *            name of the task
+     * @param causingTask
+     *            task name which is reported if the task is not available
+     */
+    private AbstractFunction createFunction(String taskName,
+            String causingTask) throws ShardingException {
+        AbstractFunctionPrototype afp = ModelProxy.getInstance().getFunctions();
+        AbstractFunction function = afp
+                .getMatchingFunctionForTaskName(taskName);
+
+        if (function == null
+                || (taskName.startsWith(READ_PREFIX) && getParameter(
+                        function, FILE_PARAMETER) == null)) {
+            throw new ShardingException(ErrorType.NO_MERGE_READER, causingTask);
+        }
+
+        return function;
+    }
+
+    private AbstractFunction createFunction(String taskName)
+            throws ShardingException {
+        return createFunction(taskName, taskName);
+    }
+
+    private void connect(AbstractFunction from, AbstractFunction to)
+            throws ShardingException {
+        try {
+            from.addConnectionTo(to);
+        } catch (ConnectorException e) {
+            throw new ShardingException(ErrorType.COPY_FAILED, from
+                    .getActiveTask().getName(), to.getActiveTask().getName());
+        }
+    }
+
+    /**
+     * Copies all parameter values of the source to the parameters with the
+     * same name and type of the target (e.g. the compression method).
+     */
+    private void copyParameters(AbstractFunction source,
+            AbstractFunction target) {
+        for (AbstractParameter sourceParam : source.getActiveTask()
+                .getParameters()) {
+            AbstractParameter targetParam = getParameter(target,
+                    sourceParam.getName());
+            if (targetParam != null && sourceParam.getValue() != null
+                    && targetParam.getType() == sourceParam.getType()
+                    && targetParam.validate(sourceParam.getValue())) {
+                targetParam.setValue(sourceParam.getValue());
+            }
+        }
+    }
+
+    private String getFilename(AbstractFunction function) {
+        AbstractParameter param = getParameter(function, FILE_PARAMETER);
+        if (param.getValue() != null) {
+            return param.getValue();
+        }
+        return param.getDefaultValue();
+    }
+
+    private void setParameter(AbstractFunction function, String name,
+            String value) {
+        AbstractParameter param = getParameter(function, name);
+        if (param != null) {
+            param.setValue(value);
+        }
+    }
+
+    private static AbstractParameter getParameter(AbstractFunction function,
+            String name) {
+        for (AbstractParameter param : function.getActiveTask()
+                .getParameters()) {
+            if (param.getName().equals(name)) {
+                return param;
+            }
+        }
+        return null;
+    }
+
+    private static String formatCoordinate(double coordinate) {
+        return String.format(Locale.ENGLISH, "%.7f", coordinate);
+    }
+
+    private static List<AbstractFunction> toList(AbstractPipeline pipeline) {
+        List<AbstractFunction> result = new ArrayList<AbstractFunction>();
+        for (AbstractFunction function : pipeline.getFunctions()) {
+            /* the silent pipeline is no longer required */
+            function.deleteObserver(pipeline);
+            result.add(function);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,462 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.pipeline.AbstractConnector;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.ConnectorException;
+import de.osmembrane.model.pipeline.ConnectorType;
+import de.osmembrane.model.pipeline.ParameterType;
+import de.osmembrane.model.settings.SettingType;
+import de.osmembrane.tools.I18N;
+
+/**
+ * Make-style cache for the results of sub-pipelines.
+ * 
+ * Every function gets a fingerprint of its task, its parameters, the size,
+ * modification time and content hash of the files it reads, and the
+ * fingerprints of all functions in front of it. The content hashes are kept
+ * in the cache directory by path, size and modification time, so a file is
+ * only read again after it changed. Hashing a new input of several gigabytes
+ * takes a while, so {@link #prepare(List)} should not be called on the
+ * event dispatch thread. The result of a function which is marked with
+ * {@link AbstractFunction#isResultCached()} is written to a temporary PBF
+ * file named after its fingerprint. When the fingerprint
+ * matches an existing file on a later execution, the whole sub-pipeline in
+ * front of the function is replaced by a read-pbf of that file.
+ * 
+ * The cache directory is limited in size, the least recently used files are
+ * removed first.
+ * 
+ * @author agent
+ */
+public class ResultCache {
+
+    private static final String READ_PREFIX = "read-";
+    private static final String FAST_READ_PREFIX = "fast-read-";
+    private static final String READ_TASK = "read-pbf";
+    private static final String WRITE_TASK = "write-pbf";
+    private static final String FILE_PARAMETER = "file";
+
+    private static final String RESULT_SUFFIX = ".osm.pbf";
+    private static final String PART_SUFFIX = ".part";
+    private static final String HASH_FILE = "hashes.properties";
+
+    /**
+     * Age in milliseconds after which a temporary file is assumed to be left
+     * over by an execution which never finished.
+     */
+    private static final long PART_MAXIMUM_AGE = 24 * 60 * 60 * 1000;
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private File directory;
+    private long maximumSize;
+
+    private Map<AbstractFunction, String> fingerprints =
+            new HashMap<AbstractFunction, String>();
+
+    /**
+     * Results written by the current execution, from the temporary to the
+     * final file.
+     */
+    private Map<File, File> pending = new LinkedHashMap<File, File>();
+
+    private List<String> report = new ArrayList<String>();
+
+    /**
+     * Creates a new result cache.
+     *
+     * @param directory
+     *            directory which contains the cached results
+     * @param maximumSize
+     *            maximum size of the directory in megabytes
+     */
+    public ResultCache(File directory, int maximumSize) {
+        this.directory = directory;
+        this.maximumSize = maximumSize * MEGABYTE;
+    }
+
+    /**
+     * Returns a copy of the functions where every cached sub-pipeline is
+     * replaced by a read of its result and every not yet cached result is
+     * additionally written into the cache.
+     *
+     * @param functions
+     *            functions of the pipeline, they are not changed
+     * @return the rewritten functions, they are not part of any pipeline
+     * @throws ConnectorException
+     *             if a rewritten connection could not be created
+     * @throws IOException
+     *             if an input file could not be hashed, an
+     *             {@link InterruptedIOException} if the thread was interrupted
+     *             while hashing
+     */
+    public List<AbstractFunction> prepare(List<AbstractFunction> functions)
+            throws ConnectorException, IOException {
+        directory.mkdirs();
+        AbstractPipeline pipeline = PipelineCopier.copy(functions);
+
+        Properties hashes = loadHashes();
+        List<AbstractFunction> order = PipelineCopier
+                .getTopologicalOrder(Arrays.asList(pipeline.getFunctions()));
+        for (AbstractFunction function : order) {
+            fingerprints.put(function, createFingerprint(function, hashes));
+        }
+        saveHashes(hashes);
+
+        /* replace the last cached results first, their prefix is not needed */
+        List<AbstractFunction> missing = new ArrayList<AbstractFunction>();
+        for (int i = order.size() - 1; i >= 0; i--) {
+            AbstractFunction function = order.get(i);
+            if (!function.isResultCached() || !isCacheable(function)
+                    || !contains(pipeline, function)) {
+                continue;
+            }
+
+            File result = new File(directory, fingerprints.get(function)
+                    + RESULT_SUFFIX);
+            if (result.isFile()) {
+                replaceByResult(pipeline, function, result);
+            } else {
+                missing.add(function);
+            }
+        }
+
+        for (AbstractFunction function : missing) {
+            if (contains(pipeline, function)) {
+                writeResult(pipeline, function);
+            }
+        }
+
+        return PipelineCopier.detach(pipeline);
+    }
+
+    /**
+     * Returns a human readable description of every reused and every written
+     * result.
+     *
+     * @return the report, empty if nothing is cached
+     */
+    public List<String> getReport() {
+        return report;
+    }
+
+    /**
+     * Takes the results written by a successful execution into the cache and
+     * removes the least recently used results until the cache fits into its
+     * size.
+     */
+    public void commit() {
+        for (Map.Entry<File, File> entry : pending.entrySet()) {
+            entry.getKey().renameTo(entry.getValue());
+        }
+        pending.clear();
+        evict();
+    }
+
+    /**
+     * Removes the results written by a failed or interrupted execution.
+     */
+    public void abort() {
+        for (File part : pending.keySet()) {
+            part.delete();
+        }
+        pending.clear();
+    }
+
+    /**
+     * Returns the fingerprint of a function of the last prepared pipeline.
+     *
+     * @param function
+     *            function of the pipeline returned by {@link #prepare(List)}
+     * @return the fingerprint or null if the function is unknown
+     */
+    public String getFingerprint(AbstractFunction function) {
+        return fingerprints.get(function);
+    }
+
+    private boolean contains(AbstractPipeline pipeline,
+            AbstractFunction function) {
+        return Arrays.asList(pipeline.getFunctions()).contains(function);
+    }
+
+    /**
+     * Only results of a single entity stream can be written to a PBF file.
+     */
+    private boolean isCacheable(AbstractFunction function) {
+        AbstractConnector[] outConnectors = function.getOutConnectors();
+        return outConnectors.length == 1
+                && outConnectors[0].getType() == ConnectorType.ENTITY;
+    }
+
+    /**
+     * Replaces the function by a read of its cached result, the functions in
+     * front of it are removed if nothing else needs them.
+     */
+    private void replaceByResult(AbstractPipeline pipeline,
+            AbstractFunction function, File result) throws ConnectorException {
+        AbstractFunction read = createFileFunction(READ_TASK, result);
+        read.setCoordinate(function.getUnrasteredCoordinate());
+        pipeline.addFunction(read);
+
+        for (AbstractFunction target : PipelineCopier
+                .getSuccessors(function)) {
+            function.removeConnectionTo(target);
+            read.addConnectionTo(target);
+        }
+        pipeline.deleteFunction(function);
+        PipelineCopier.removeDeadFunctions(pipeline);
+
+        /* the modification time is the last use for the eviction */
+        result.setLastModified(System.currentTimeMillis());
+        report.add(I18N.getInstance().getString(
+                "Model.Algorithms.ResultCache.Reused",
+                function.getActiveTask().getName(), result.getName(),
+                result.length() / MEGABYTE));
+    }
+
+    /**
+     * Writes the result of the function additionally into a temporary file,
+     * which becomes part of the cache after a successful execution.
+     */
+    private void writeResult(AbstractPipeline pipeline,
+            AbstractFunction function) throws ConnectorException {
+        File result = new File(directory, fingerprints.get(function)
+                + RESULT_SUFFIX);
+        File part = new File(directory, result.getName() + PART_SUFFIX);
+
+        AbstractFunction write = createFileFunction(WRITE_TASK, part);
+        write.setCoordinate(function.getUnrasteredCoordinate());
+        pipeline.addFunction(write);
+        function.addConnectionTo(write);
+
+        pending.put(part, result);
+        report.add(I18N.getInstance().getString(
+                "Model.Algorithms.ResultCache.Written",
+                function.getActiveTask().getName(), result.getName()));
+    }
+
+    private AbstractFunction createFileFunction(String taskName, File file) {
+        AbstractFunction function = ModelProxy.getInstance().getFunctions()
+                .getMatchingFunctionForTaskName(taskName);
+        for (AbstractParameter param : function.getActiveTask()
+                .getParameters()) {
+            if (param.getName().equals(FILE_PARAMETER)) {
+                param.setValue(file.getAbsolutePath());
+            }
+        }
+        return function;
+    }
+
+    /**
+     * Creates the fingerprint, the fingerprints of all predecessors have to be
+     * created before.
+     */
+    private String createFingerprint(AbstractFunction function,
+            Properties hashes) throws IOException {
+        StringBuilder content = new StringBuilder(function.getActiveTask()
+                .getName());
+        String taskName = function.getActiveTask().getName();
+        boolean reads = taskName.startsWith(READ_PREFIX)
+                || taskName.startsWith(FAST_READ_PREFIX);
+
+        for (AbstractParameter param : function.getActiveTask()
+                .getParameters()) {
+            String value = (param.getValue() != null) ? param.getValue()
+                    : param.getDefaultValue();
+            content.append('\n').append(param.getName()).append('=')
+                    .append(value);
+
+            if (reads && param.getType() == ParameterType.FILENAME
+                    && value != null) {
+                File file = new File(value);
+                if (!file.isAbsolute()) {
+                    file = new File((String) ModelProxy.getInstance()
+                            .getSettings()
+                            .getValue(SettingType.DEFAULT_WORKING_DIRECTORY),
+                            value);
+                }
+                content.append('\n').append(file.length()).append(' ')
+                        .append(file.lastModified()).append(' ')
+                        .append(getFileHash(file, hashes));
+            }
+        }
+
+        /* in the order of the in-connectors, merges are not commutative */
+        for (AbstractFunction predecessor : PipelineCopier
+                .getPredecessors(function)) {
+            content.append("\n<").append(fingerprints.get(predecessor));
+        }
+
+        return toHex(getDigest().digest(content.toString().getBytes("UTF-8")));
+    }
+
+    /**
+     * Returns the content hash of the file. A known hash is used as long as
+     * the size and modification time of the file are the same.
+     */
+    private String getFileHash(File file, Properties hashes)
+            throws IOException {
+        if (!file.isFile()) {
+            return "";
+        }
+
+        String path = file.getAbsolutePath();
+        String stamp = file.length() + "|" + file.lastModified() + "|";
+        String known = hashes.getProperty(path);
+        if (known != null && known.startsWith(stamp)) {
+            return known.substring(stamp.length());
+        }
+
+        MessageDigest digest = getDigest();
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException(path);
+                }
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+
+        String hash = toHex(digest.digest());
+        hashes.setProperty(path, stamp + hash);
+        return hash;
+    }
+
+    private Properties loadHashes() {
+        Properties hashes = new Properties();
+        File file = new File(directory, HASH_FILE);
+        if (file.isFile()) {
+            try {
+                InputStream in = new FileInputStream(file);
+                try {
+                    hashes.load(in);
+                } finally {
+                    in.close();
+                }
+            } catch (IOException e) {
+                /* the hashes are created again */
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Saves the hashes without the ones of files which have been changed or
+     * removed since they were hashed.
+     */
+    private void saveHashes(Properties hashes) throws IOException {
+        for (String path : hashes.stringPropertyNames()) {
+            File file = new File(path);
+            String stamp = file.length() + "|" + file.lastModified() + "|";
+            if (!file.isFile()
+                    || !hashes.getProperty(path).startsWith(stamp)) {
+                hashes.remove(path);
+            }
+        }
+
+        OutputStream out = new FileOutputStream(new File(directory,
+                HASH_FILE));
+        try {
+            hashes.store(out, null);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Removes the least recently used results until the cache fits into its
+     * size, and temporary files left over by executions which never finished.
+     * The temporary files of running executions are kept.
+     */
+    private void evict() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        List<File> results = new ArrayList<File>();
+        long size = 0;
+        long partLimit = System.currentTimeMillis() - PART_MAXIMUM_AGE;
+        for (File file : files) {
+            if (file.getName().endsWith(PART_SUFFIX)) {
+                if (file.lastModified() < partLimit) {
+                    file.delete();
+                }
+            } else if (file.getName().endsWith(RESULT_SUFFIX)) {
+                results.add(file);
+                size += file.length();
+            }
+        }
+
+        Collections.sort(results, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                return Long.valueOf(o1.lastModified()).compareTo(
+                        o2.lastModified());
+            }
+        });
+
+        for (File file : results) {
+            if (size <= maximumSize) {
+                break;
+            }
+            size -= file.length();
+            file.delete();
+        }
+    }
+
+    private MessageDigest getDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            /* every Java platform has to support SHA-1 */
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import de.osmembrane.tools.I18N;
+
+/**
+ * Is thrown when a pipeline could not be split into shards.
+ * 
+ * @author agent
+ */
+public class ShardingException extends Exception {
+
+    private static final long serialVersionUID = 2011031517300001L;
+
+    /**
+     * type of the {@link ShardingException}.
+     */
+    public enum ErrorType {
+
+        /**
+         * The number of shards is smaller than one.
+         */
+        INVALID_SHARD_COUNT,
+
+        /**
+         * The pipeline does not contain any source function.
+         */
+        NO_SOURCE,
+
+        /**
+         * A source function is not a read task producing an entity stream.
+         */
+        SOURCE_NOT_READ_TASK,
+
+        /**
+         * A sink function is not a write task with a file parameter.
+         */
+        SINK_NOT_WRITE_TASK,
+
+        /**
+         * No read task is available to read back the output of a sink.
+         */
+        NO_MERGE_READER,
+
+        /**
+         * The pipeline could not be copied for a shard.
+         */
+        COPY_FAILED,
+    }
+
+    private ErrorType type;
+    private Object[] messageValues;
+
+    /**
+     * Creates a new {@link ShardingException} with a given {@link ErrorType}.
+     *
+     * @param type
+     *            corresponding type for the {@link ShardingException}
+     * @param messageValues
+     *            messages which are used by the exception message
+     */
+    public ShardingException(ErrorType type, Object... messageValues) {
+        this.type = type;
+        this.messageValues = messageValues;
+    }
+
+    /**
+     * Returns the {@link ErrorType} of the {@link ShardingException}.
+     *
+     * @return {@link ErrorType} of the {@link ShardingException}
+     */
+    public ErrorType getType() {
+        return type;
+    }
+
+    @Override
+    public String getMessage() {
+        return I18N.getInstance().getString(
+                "Model.Algorithms.Sharding.Exceptions." + type, messageValues);
+    }
+}
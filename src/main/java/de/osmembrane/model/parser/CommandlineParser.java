@@ -33,8 +33,10 @@ import de.osmembrane.model.pipeline.ConnectorException;
 import de.osmembrane.model.pipeline.ConnectorType;
 import de.osmembrane.model.pipeline.Pipeline;
 import de.osmembrane.model.pipeline.PipelineSettings;
-import de.osmembrane.model.settings.SettingType;
+import de.osmembrane.model.settings.SettingsSnapshot;
 import de.osmembrane.tools.I18N;
+import de.osmembrane.tools.Instrumentation;
+import de.osmembrane.tools.Instrumentation.Operation;
 
 /**
  * Commandline-parser for osmosis command lines.
@@ -107,6 +109,20 @@ public class CommandlineParser implements IParser {
     @Override
     public PipelinePersistenceObject parseString(String input)
             throws ParseException {
+        long start = Instrumentation.getInstance().start();
+        try {
+            return parse(input);
+        } finally {
+            Instrumentation.getInstance().stop(Operation.PARSER_PARSE_STRING, start);
+        }
+    }
+
+    /**
+     * Parses the commandline into functions, see
+     * {@link #parseString(String)}.
+     */
+    private PipelinePersistenceObject parse(String input)
+            throws ParseException {
 
         /** A temporary silent pipeline to check loop freeness */
         AbstractPipeline pipeline = new Pipeline(true, true);
@@ -412,8 +428,11 @@ public class CommandlineParser implements IParser {
     /* ************************* */
     @Override
     public String parsePipeline(PipelinePersistenceObject pipelineObject) {
+        long start = Instrumentation.getInstance().start();
         List<AbstractFunction> pipeline = pipelineObject.getFunctions();
         AbstractPipelineSettings settings = pipelineObject.getSettings();
+        SettingsSnapshot options = ModelProxy.getInstance().getSettings()
+                .getSnapshot();
 
         /* Queue where functions are stored, that haven't been parsed yet. */
         Queue<AbstractFunction> functionQueue = new LinkedList<AbstractFunction>();
@@ -461,8 +480,7 @@ public class CommandlineParser implements IParser {
 
         /* add the path to the osmosis binary */
         if (addOsmosisPath) {
-            builder.append(quotate((String) ModelProxy.getInstance()
-                    .getSettings().getValue(SettingType.DEFAULT_OSMOSIS_PATH)));
+            builder.append(quotate(options.getDefaultOsmosisPath()));
 
             if (pipelineObject.getSettings().getVerbose() > 0) {
                 builder.append(" -v" + settings.getVerbose());
@@ -514,11 +532,7 @@ public class CommandlineParser implements IParser {
                 String tn = function.getActiveTask().getName();
 
                 /* write the task(-short)-name */
-                if ((Boolean) ModelProxy
-                        .getInstance()
-                        .getSettings()
-                        .getValue(SettingType.USE_SHORT_TASK_NAMES_IF_AVAILABLE)
-                        && stn != null) {
+                if (options.isUseShortTaskNames() && stn != null) {
                     builder.append("--" + stn);
                 } else {
                     builder.append("--" + tn);
@@ -536,11 +550,7 @@ public class CommandlineParser implements IParser {
                     if (parameter.getValue() != null) {
                         value = parameter.getValue();
                     } else if (parameter.isDefaultValue()
-                            && (Boolean) ModelProxy
-                                    .getInstance()
-                                    .getSettings()
-                                    .getValue(
-                                            SettingType.EXPORT_PARAMETERS_WITH_DEFAULT_VALUES)) {
+                            && options.isExportParametersWithDefaultValues()) {
                         value = parameter.getDefaultValue();
                     }
                     if (value != null) {
@@ -595,7 +605,7 @@ public class CommandlineParser implements IParser {
                         teeBuilder
                                 .append("--"
                                         + (connector.getType() == ConnectorType.ENTITY ? "tee"
-                                                : "change-tee") + " ");
+                                                : "tee-change") + " ");
 
                         teeBuilder.append(connector.getConnections().length
                                 + " inPipe.0=" + pipeIndex);
@@ -622,6 +632,7 @@ public class CommandlineParser implements IParser {
             }
         }
 
+        Instrumentation.getInstance().stop(Operation.PARSER_PARSE_PIPELINE, start);
         return builder.toString();
     }
 
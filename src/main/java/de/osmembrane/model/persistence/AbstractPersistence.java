@@ -13,7 +13,6 @@ package de.osmembrane.model.persistence;
 
 import java.io.Serializable;
 import java.net.URL;
-import java.util.Observer;
 
 /**
  * AbstractPersistence provides two methods save and load, so all
@@ -21,7 +20,7 @@ import java.util.Observer;
  * 
  * @author jakob_jarosch
  */
-public abstract class AbstractPersistence implements Observer {
+public abstract class AbstractPersistence {
 
     /**
      * Saves a given object into the given file.
@@ -19,7 +19,6 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URL;
-import java.util.Observable;
 
 import de.osmembrane.Application;
 import de.osmembrane.exceptions.ControlledException;
@@ -96,9 +95,4 @@ public class BashPersistence extends AbstractPersistence {
             throw new FileException(Type.SYNTAX_PROBLEM, e);
         }
     }
-
-    @Override
-    public void update(Observable o, Object arg) {
-        return;
-    }
 }
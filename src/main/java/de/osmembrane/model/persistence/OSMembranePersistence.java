@@ -19,7 +19,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.URL;
-import java.util.Observable;
 
 import de.osmembrane.Application;
 import de.osmembrane.exceptions.ControlledException;
@@ -89,8 +88,4 @@ public class OSMembranePersistence extends AbstractPersistence {
             throw new FileException(Type.WRONG_FORMAT, e);
         }
     }
-
-    @Override
-    public synchronized void update(Observable o, Object arg) {
-    }
 }
@@ -13,15 +13,13 @@ package de.osmembrane.model.persistence;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Observable;
-import java.util.Observer;
 
 /**
  * Factory for generating an instance of a given {@link AbstractPersistence}.
  * 
  * @author jakob_jarosch
  */
-public class PersistenceFactory extends Observable implements Observer {
+public class PersistenceFactory {
 
     /**
      * Saves the instances from {@link AbstractPersistence} of this object.
@@ -55,14 +53,12 @@ public class PersistenceFactory extends Observable implements Observer {
      *            class name of the AbstractPersistence
      * @return an instance of the given AbstractPersistence
      */
-    public AbstractPersistence getPersistence(
+    public synchronized AbstractPersistence getPersistence(
             Class<? extends AbstractPersistence> persistence) {
         if (!persistences.containsKey(persistence)) {
             try {
                 AbstractPersistence persistenceInstance = persistence
                         .newInstance();
-                addObserver(persistenceInstance);
-
                 persistences.put(persistence, persistenceInstance);
             } catch (Exception e) {
                 /*
@@ -74,10 +70,4 @@ public class PersistenceFactory extends Observable implements Observer {
 
         return persistences.get(persistence);
     }
-
-    @Override
-    public void update(Observable o, Object arg) {
-        setChanged();
-        notifyObservers(arg);
-    }
 }
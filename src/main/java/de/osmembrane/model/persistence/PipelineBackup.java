@@ -11,69 +11,37 @@
 
 package de.osmembrane.model.persistence;
 
-import java.util.Observable;
-import java.util.Observer;
-import java.util.concurrent.Semaphore;
-
 import de.osmembrane.Application;
 import de.osmembrane.exceptions.ControlledException;
 import de.osmembrane.exceptions.ExceptionSeverity;
-import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.EventBus;
+import de.osmembrane.model.EventBus.Delivery;
+import de.osmembrane.model.ModelEventListener;
 import de.osmembrane.model.pipeline.PipelineObserverObject;
 import de.osmembrane.resources.Constants;
 import de.osmembrane.tools.I18N;
 
 /**
- * Pipeline backup service on a separate background thread;
+ * Pipeline backup service on the background thread of the {@link EventBus}.
+ * Only the latest change of the pipeline is backed up, if several changes
+ * happened while the last backup was written.
  * 
  * @author igor_podolskiy, jakob_jarosch
  * 
  */
-public class PipelineBackup implements Observer {
-
-    private Semaphore backupAvailable = new Semaphore(0);
-    private AbstractPipeline pipelineToBackup;
-
-    /**
-     * Internal autosave thread used for backing up the pipeline.
-     */
-    private Thread autosaveThread = new Thread() {
-
-        /* anonymous class' constructor */
-        {
-            setDaemon(true);
-            setName("OSMembrane Backup Thread");
-        }
-
-        @Override
-        public void run() {
-
-            while (!isInterrupted()) {
-                try {
-                    backupAvailable.acquire();
-                    backupAvailable.drainPermits();
-                    pipelineToBackup.backupPipeline();
-                } catch (InterruptedException e) {
-                    interrupt();
-                } catch (FileException e) {
-                    /* forward the exception to the view */
-                    Application.handleException(new ControlledException(this,
-                            ExceptionSeverity.WARNING, e, I18N.getInstance()
-                                    .getString(
-                                            "Exception.AutosavePipelineFailed",
-                                            Constants.DEFAULT_BACKUP_FILE)));
-
-                }
-            }
-        }
-    };
+public class PipelineBackup implements
+        ModelEventListener<PipelineObserverObject> {
 
     @Override
-    public synchronized void update(Observable o, Object arg) {
-        if (arg instanceof PipelineObserverObject) {
-            this.pipelineToBackup = ((PipelineObserverObject) arg)
-                    .getPipeline();
-            this.backupAvailable.release();
+    public void modelChanged(PipelineObserverObject poo) {
+        try {
+            poo.getPipeline().backupPipeline();
+        } catch (FileException e) {
+            /* forward the exception to the view */
+            Application.handleException(new ControlledException(this,
+                    ExceptionSeverity.WARNING, e, I18N.getInstance().getString(
+                            "Exception.AutosavePipelineFailed",
+                            Constants.DEFAULT_BACKUP_FILE)));
         }
     }
 
@@ -81,13 +49,14 @@ public class PipelineBackup implements Observer {
      * Starts the background backup handler.
      */
     public void start() {
-        autosaveThread.start();
+        EventBus.getInstance().subscribeLatest(PipelineObserverObject.class,
+                this, Delivery.BACKGROUND);
     }
 
     /**
      * Stops the background backup handler.
      */
     public void stop() {
-        autosaveThread.interrupt();
+        EventBus.getInstance().unsubscribe(this);
     }
 }
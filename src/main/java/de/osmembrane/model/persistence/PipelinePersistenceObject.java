@@ -11,11 +11,15 @@
 
 package de.osmembrane.model.persistence;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.List;
 
 import de.osmembrane.model.pipeline.AbstractFunction;
 import de.osmembrane.model.pipeline.AbstractPipelineSettings;
+import de.osmembrane.model.pipeline.PipelineConnections;
 
 /**
  * Represents a storable object for a pipeline.
@@ -29,6 +33,13 @@ public class PipelinePersistenceObject implements Serializable {
     private List<AbstractFunction> functions;
     private AbstractPipelineSettings settings;
 
+    /**
+     * The connections between the functions, only set while serializing.
+     * 
+     * @see PipelineConnections
+     */
+    private int[] connections;
+
     /**
      * Creates a new {@link PipelinePersistenceObject}.
      * 
@@ -57,4 +68,21 @@ public class PipelinePersistenceObject implements Serializable {
         return settings;
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        connections = PipelineConnections.encode(functions);
+        out.defaultWriteObject();
+        connections = null;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException,
+            ClassNotFoundException {
+        in.defaultReadObject();
+
+        /* pipelines saved before have no connections in here */
+        if (connections != null) {
+            PipelineConnections.decode(functions, connections);
+            connections = null;
+        }
+    }
+
 }
@@ -20,11 +20,13 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.URL;
 import java.util.Map;
-import java.util.Observable;
 
 import de.osmembrane.Application;
 import de.osmembrane.exceptions.ControlledException;
 import de.osmembrane.exceptions.ExceptionSeverity;
+import de.osmembrane.model.EventBus;
+import de.osmembrane.model.EventBus.Delivery;
+import de.osmembrane.model.ModelEventListener;
 import de.osmembrane.model.persistence.FileException.Type;
 import de.osmembrane.model.settings.AbstractSettings;
 import de.osmembrane.model.settings.SettingType;
@@ -33,11 +35,22 @@ import de.osmembrane.tools.I18N;
 import de.osmembrane.tools.Tools;
 
 /**
- * Saves the {@link AbstractSettings} in a file.
+ * Saves the {@link AbstractSettings} in a file. Every change of the settings
+ * is saved immediately.
  * 
  * @author jakob_jarosch
  */
-public class SettingPersistence extends AbstractPersistence {
+public class SettingPersistence extends AbstractPersistence implements
+        ModelEventListener<SettingsObserverObject> {
+
+    /**
+     * Creates a new {@link SettingPersistence} and registers it for automatic
+     * saving of the settings.
+     */
+    public SettingPersistence() {
+        EventBus.getInstance().subscribe(SettingsObserverObject.class, this,
+                Delivery.IMMEDIATE);
+    }
 
     @Override
     public void save(URL file, Object data) throws FileException {
@@ -86,18 +99,15 @@ public class SettingPersistence extends AbstractPersistence {
     }
 
     @Override
-    public void update(Observable o, Object arg) {
-        if (arg instanceof SettingsObserverObject) {
-            try {
-                SettingsObserverObject soo = (SettingsObserverObject) arg;
-                soo.getSettingsModel().saveSettings();
-            } catch (FileException e) {
-                /* forward the exception to the view */
-                Application.handleException(new ControlledException(this,
-                        ExceptionSeverity.WARNING, e,
-                        I18N.getInstance().getString(
-                                "Model.Settings.AutosaveSettingsFailed")));
-            }
+    public void modelChanged(SettingsObserverObject soo) {
+        try {
+            soo.getSettingsModel().saveSettings();
+        } catch (FileException e) {
+            /* forward the exception to the view */
+            Application.handleException(new ControlledException(this,
+                    ExceptionSeverity.WARNING, e,
+                    I18N.getInstance().getString(
+                            "Model.Settings.AutosaveSettingsFailed")));
         }
     }
 
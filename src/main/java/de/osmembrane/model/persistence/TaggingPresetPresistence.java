@@ -12,7 +12,6 @@
 package de.osmembrane.model.persistence;
 
 import java.net.URL;
-import java.util.Observable;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
@@ -56,10 +55,4 @@ public class TaggingPresetPresistence extends AbstractPersistence {
     public void save(URL file, Object data) {
         throw new UnsupportedOperationException();
     }
-
-    @Override
-    @Deprecated
-    public void update(Observable o, Object arg) {
-        return;
-    }
 }
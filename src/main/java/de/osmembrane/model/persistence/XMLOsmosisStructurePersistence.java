@@ -12,7 +12,6 @@
 package de.osmembrane.model.persistence;
 
 import java.net.URL;
-import java.util.Observable;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -53,10 +52,4 @@ public class XMLOsmosisStructurePersistence extends AbstractPersistence {
     public void save(URL file, Object data) {
         throw new UnsupportedOperationException();
     }
-
-    @Override
-    @Deprecated
-    public void update(Observable o, Object arg) {
-        return;
-    }
 }
@@ -58,6 +58,14 @@ public abstract class AbstractFunction extends Observable implements Observer,
      */
     public abstract String getId();
 
+    /**
+     * Returns the id of this function instance. It is kept by undo, redo,
+     * saving and loading, but every copy gets a new one.
+     * 
+     * @return id of the function instance
+     */
+    public abstract long getInstanceId();
+
     /**
      * Returns a human readable name of the current Function.
      * 
@@ -116,7 +124,7 @@ public abstract class AbstractFunction extends Observable implements Observer,
 
     /**
      * Returns the Coordinates in the Pipeline of the current Function.<br/>
-     * Updates to the returned object will not be published on the pipeline, use
+     * The returned object is shared and must not be changed, use
      * {@link AbstractFunction#setCoordinate(Point2D)} instead.
      * 
      * @return Coordinates of the current Function
@@ -137,6 +145,22 @@ public abstract class AbstractFunction extends Observable implements Observer,
      */
     public abstract void setCoordinate(Point2D coordinate);
 
+    /**
+     * Returns if the result of the function should be kept in the result
+     * cache, so later executions can start from it.
+     * 
+     * @return true if the result is cached, otherwise false
+     */
+    public abstract boolean isResultCached();
+
+    /**
+     * Sets if the result of the function should be kept in the result cache.
+     * 
+     * @param resultCached
+     *            true if the result should be cached
+     */
+    public abstract void setResultCached(boolean resultCached);
+
     /**
      * Returns the In-Connectors of the current Function.
      * 
@@ -64,6 +64,16 @@ public abstract class AbstractFunctionPrototype extends Observable {
     public abstract AbstractFunction getMatchingFunctionForTaskName(
             String taskName);
 
+    /**
+     * Returns the {@link Identifier} of the prototype with the same String as
+     * the given one, used to share the identifiers of loaded files.
+     * 
+     * @param identifier
+     *            {@link Identifier} which should be found.
+     * @return the matching {@link Identifier} or NULL
+     */
+    public abstract Identifier getKnownIdentifier(Identifier identifier);
+
     /**
      * Adds an Identifier for an {@link AbstractFunctionGroup} to the Map.
      * 
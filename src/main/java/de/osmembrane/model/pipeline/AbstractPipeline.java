@@ -11,12 +11,16 @@
 
 package de.osmembrane.model.pipeline;
 
+import java.awt.geom.Point2D;
 import java.net.URL;
+import java.util.List;
+import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
 
 import de.osmembrane.model.persistence.FileException;
 import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.persistence.PipelinePersistenceObject;
 
 /**
  * Pipeline representation.
@@ -54,6 +58,15 @@ public abstract class AbstractPipeline extends Observable implements Observer {
      */
     public abstract void addFunction(AbstractFunction func);
 
+    /**
+     * Replaces all {@link AbstractFunction}s of the pipeline with the given
+     * ones. The replacement is done in one step, so it can be undone at once.
+     * 
+     * @param functions
+     *            functions which should replace the current ones
+     */
+    public abstract void replaceFunctions(List<AbstractFunction> functions);
+
     /**
      * Removes a {@link AbstractFunction} from the pipeline.
      * 
@@ -103,6 +116,43 @@ public abstract class AbstractPipeline extends Observable implements Observer {
      */
     public abstract void arrangePipeline();
 
+    /**
+     * Moves the functions of the pipeline to new coordinates in one step, for
+     * example the ones calculated by {@link PipelineSnapshot#arrange()}.
+     * Functions which are no longer in the pipeline are ignored.
+     * 
+     * @param coordinates
+     *            the new coordinates per function
+     */
+    public abstract void moveFunctions(
+            Map<AbstractFunction, Point2D> coordinates);
+
+    /**
+     * Returns a {@link PipelineSnapshot} of the current state, which may be
+     * processed by a background thread while the pipeline is changed.
+     * 
+     * @return the snapshot
+     */
+    public abstract PipelineSnapshot getSnapshot();
+
+    /**
+     * Reads a pipeline from a file without changing this pipeline, so it may
+     * be called from a background thread. The result is shown with
+     * {@link #loadPipeline(URL, PipelinePersistenceObject)} or
+     * {@link #importPipeline(PipelinePersistenceObject)}.
+     * 
+     * @param filename
+     *            path to the file which should be read
+     * @param type
+     *            {@link FileType} of the given file
+     * @return the read pipeline
+     * 
+     * @throws FileException
+     *             when something with the IO went wrong
+     */
+    public abstract PipelinePersistenceObject readPipeline(URL filename,
+            FileType type) throws FileException;
+
     /**
      * Loads a pipeline from a OSMembrane file.
      * 
@@ -114,6 +164,18 @@ public abstract class AbstractPipeline extends Observable implements Observer {
      */
     public abstract void loadPipeline(URL filename) throws FileException;
 
+    /**
+     * Replaces the pipeline with one read by
+     * {@link #readPipeline(URL, FileType)} from a OSMembrane file.
+     * 
+     * @param filename
+     *            path to the OSMembrane file
+     * @param pipeline
+     *            the read pipeline
+     */
+    public abstract void loadPipeline(URL filename,
+            PipelinePersistenceObject pipeline);
+
     /**
      * Saves the pipeline to a OSMembrane file, only callable if a pipeline was
      * loaded, or it has already been saved.
@@ -156,6 +218,16 @@ public abstract class AbstractPipeline extends Observable implements Observer {
     public abstract void importPipeline(URL filename, FileType type)
             throws FileException;
 
+    /**
+     * Replaces the pipeline with one read by
+     * {@link #readPipeline(URL, FileType)}, like
+     * {@link #importPipeline(URL, FileType)} does.
+     * 
+     * @param pipeline
+     *            the read pipeline
+     */
+    public abstract void importPipeline(PipelinePersistenceObject pipeline);
+
     /**
      * Exports the pipeline a file on the given path.
      * 
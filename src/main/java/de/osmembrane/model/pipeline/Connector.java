@@ -11,8 +11,12 @@
 
 package de.osmembrane.model.pipeline;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.ObjectStreamException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import de.osmembrane.model.Identifier;
@@ -29,7 +33,10 @@ public class Connector extends AbstractConnector {
 
     private static final long serialVersionUID = 2011010722340001L;
 
-    private List<AbstractConnector> connectors = new ArrayList<AbstractConnector>();
+    /**
+     * Most connectors have a single connection, so the list starts small.
+     */
+    private List<AbstractConnector> connectors = new ArrayList<AbstractConnector>(1);
     private ConnectorType type;
     private ConnectorPosition position;
 
@@ -92,6 +99,13 @@ public class Connector extends AbstractConnector {
 
     @Override
     public int getConnectorIndex() {
+        if (xmlPipe.getIndex() == null) {
+            /* variable pipes (like the one of append-change) have no index */
+            AbstractConnector[] connectors = (position == ConnectorPosition.IN ? parent
+                    .getInConnectors() : parent.getOutConnectors());
+            return Arrays.asList(connectors).indexOf(this);
+        }
+
         return xmlPipe.getIndex().intValue();
     }
 
@@ -122,6 +136,30 @@ public class Connector extends AbstractConnector {
         }
     }
 
+    /**
+     * Writes the connector without its connections, they are written by
+     * {@link PipelineConnections} next to the functions.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("connectors", null);
+        fields.put("type", type);
+        fields.put("position", position);
+        fields.put("parent", parent);
+        fields.put("xmlPipeIdentifier", xmlPipeIdentifier);
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException,
+            ClassNotFoundException {
+        in.defaultReadObject();
+
+        /* pipelines saved before only have their connections in here */
+        if (connectors == null) {
+            connectors = new ArrayList<AbstractConnector>(1);
+        }
+    }
+
     private Object readResolve() throws ObjectStreamException {
         AbstractFunctionPrototype afp = ModelProxy.getInstance().getFunctions();
         this.xmlPipe = afp.getMatchingXMLPipe(this.xmlPipeIdentifier);
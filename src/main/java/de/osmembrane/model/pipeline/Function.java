@@ -14,24 +14,29 @@ package de.osmembrane.model.pipeline;
 import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.IOException;
 import java.io.ObjectStreamException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Observable;
-
-import javax.imageio.ImageIO;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import de.osmembrane.model.Identifier;
 import de.osmembrane.model.ModelProxy;
 import de.osmembrane.model.pipeline.AbstractConnector.ConnectorPosition;
 import de.osmembrane.model.pipeline.ConnectorException.Type;
 import de.osmembrane.model.pipeline.PipelineObserverObject.ChangeType;
-import de.osmembrane.model.settings.SettingType;
+import de.osmembrane.model.pipeline.PipelineObserverObject.FunctionChange;
 import de.osmembrane.model.xml.XMLFunction;
 import de.osmembrane.model.xml.XMLPipe;
 import de.osmembrane.model.xml.XMLTask;
 import de.osmembrane.tools.I18N;
+import de.osmembrane.tools.IconLoader.Size;
+import de.osmembrane.tools.ImageCache;
 
 /**
  * This represents the implementation of a simple Function for the
@@ -51,23 +56,46 @@ public class Function extends AbstractFunction {
     transient private XMLFunction xmlFunction;
     private Identifier xmlFunctionIdentifier;
 
+    /**
+     * Source of the instance ids, the last given id.
+     */
+    private static final AtomicLong lastInstanceId = new AtomicLong();
+
+    private long instanceId = createInstanceId();
+
     private Point2D coordinate = new Point2D.Double();
 
-    private List<Connector> inConnectors = new ArrayList<Connector>();
-    private List<Connector> outConnectors = new ArrayList<Connector>();
+    /**
+     * The rastered {@link #coordinate}, valid as long as the raster size and
+     * the coordinate it was calculated from did not change.
+     */
+    private transient Point2D rasteredCoordinate;
+    private transient int rasteredSize;
+    private transient double rasteredX;
+    private transient double rasteredY;
+
+    private boolean resultCached = false;
 
-    private List<Task> tasks = new ArrayList<Task>();
+    private List<Connector> inConnectors;
+    private List<Connector> outConnectors;
+
+    /**
+     * The tasks in the order of the {@link XMLFunction}, null for the
+     * inactive ones which are not created yet.
+     */
+    private List<Task> tasks;
     private Task activeTask;
 
     /**
      * State of the icon load sequence.
      */
-    private boolean triedLoadIcon = false;
+    private transient boolean triedLoadIcon = false;
 
     /**
-     * Icon of the function.
+     * Icon of the function, shared with all copies and all functions with the
+     * same icon through the {@link ImageCache}.
      */
-    private BufferedImage icon = null;
+    private transient BufferedImage icon = null;
 
     /**
      * Creates a new Function with given parent and XMLFunction.
@@ -87,18 +115,33 @@ public class Function extends AbstractFunction {
         this.xmlFunctionIdentifier = afp
                 .getMatchingXMLFunctionIdentifier(this.xmlFunction);
 
-        /* add task observers */
-        for (XMLTask xmlTask : xmlFunction.getTask()) {
-            Task task = new Task(this, xmlTask);
-            task.addObserver(this);
-            tasks.add(task);
-        }
+        /* the other tasks are created when they are needed */
+        tasks = new ArrayList<Task>(Collections.nCopies(xmlFunction.getTask()
+                .size(), (Task) null));
 
         /* set the first task as default */
-        activeTask = getAvailableTasks()[0];
+        activeTask = getTask(0);
 
         /* create the connectors */
-        createConnectors();
+        createConnectors(xmlFunction.getTask().get(0));
+    }
+
+    /**
+     * Creates a new Function for the same {@link XMLFunction} as another one,
+     * with its connectors but without tasks, used by
+     * {@link #copy(CopyType)}.
+     * 
+     * @param function
+     *            the Function to take the {@link XMLFunction} from
+     */
+    private Function(Function function) {
+        this.parent = function.parent;
+        this.xmlFunction = function.xmlFunction;
+        this.parentIdentifier = function.parentIdentifier;
+        this.xmlFunctionIdentifier = function.xmlFunctionIdentifier;
+
+        /* like the constructor, create the connectors of the first task */
+        createConnectors(xmlFunction.getTask().get(0));
     }
 
     @Override
@@ -121,6 +164,11 @@ public class Function extends AbstractFunction {
         return xmlFunction.getId();
     }
 
+    @Override
+    public long getInstanceId() {
+        return instanceId;
+    }
+
     @Override
     public String getFriendlyName() {
         /* fallback if friendlyName is not available */
@@ -139,12 +187,9 @@ public class Function extends AbstractFunction {
     @Override
     public BufferedImage getIcon() {
         if (triedLoadIcon == false) {
-            try {
-                if (xmlFunction.getIcon() != null) {
-                    icon = ImageIO.read(new File(xmlFunction.getIcon()));
-                }
-            } catch (IOException e) {
-                icon = null;
+            if (xmlFunction.getIcon() != null) {
+                icon = ImageCache.getInstance().get(
+                        new File(xmlFunction.getIcon()), Size.ORIGINAL);
             }
             triedLoadIcon = true;
         }
@@ -155,7 +200,27 @@ public class Function extends AbstractFunction {
     @Override
     public Task[] getAvailableTasks() {
         Task[] returnTasks = new Task[tasks.size()];
-        return tasks.toArray(returnTasks);
+        for (int i = 0; i < returnTasks.length; i++) {
+            returnTasks[i] = getTask(i);
+        }
+        return returnTasks;
+    }
+
+    /**
+     * Returns a task, creates it if it is not created yet.
+     * 
+     * @param index
+     *            index of the task in the {@link XMLFunction}
+     * @return the task
+     */
+    private Task getTask(int index) {
+        Task task = tasks.get(index);
+        if (task == null) {
+            task = new Task(this, xmlFunction.getTask().get(index));
+            task.addObserver(this);
+            tasks.set(index, task);
+        }
+        return task;
     }
 
     @Override
@@ -195,7 +260,8 @@ public class Function extends AbstractFunction {
                 activeTask = task;
 
                 changedNotifyObservers(new PipelineObserverObject(
-                        ChangeType.CHANGE_FUNCTION, this));
+                        ChangeType.CHANGE_FUNCTION, this)
+                        .setFunctionChange(FunctionChange.TASK));
 
                 return;
             }
@@ -231,18 +297,28 @@ public class Function extends AbstractFunction {
 
     @Override
     public Point2D getCoordinate() {
-        Integer rasterInt = (Integer) ModelProxy.getInstance().getSettings()
-                .getValue(SettingType.PIPELINE_RASTER_SIZE);
-        double raster = (double) rasterInt.intValue();
+        int rasterSize = ModelProxy.getInstance().getSettings().getSnapshot()
+                .getPipelineRasterSize();
+        double raster = (double) rasterSize;
         if (raster < 1.0) {
             return coordinate;
         } else {
+            double x = coordinate.getX();
+            double y = coordinate.getY();
+
+            /* the coordinate may have been moved in place */
+            if (rasteredCoordinate != null && rasteredSize == rasterSize
+                    && rasteredX == x && rasteredY == y) {
+                return rasteredCoordinate;
+            }
+            rasteredSize = rasterSize;
+            rasteredX = x;
+            rasteredY = y;
+
             /*
              * filter the coordinates, use the modulo function, round to the
              * next raster-value.
              */
-            double x = coordinate.getX();
-            double y = coordinate.getY();
             double xSub = x % (double) raster;
             double ySub = y % (double) raster;
             double xAdd = raster - xSub;
@@ -251,7 +327,8 @@ public class Function extends AbstractFunction {
             x = x + ((xSub < xAdd) ? -xSub : xAdd);
             y = y + ((ySub < yAdd) ? -ySub : yAdd);
 
-            return new Point2D.Double(x, y);
+            rasteredCoordinate = new Point2D.Double(x, y);
+            return rasteredCoordinate;
         }
 
     }
@@ -264,6 +341,20 @@ public class Function extends AbstractFunction {
     @Override
     public void setCoordinate(Point2D coordinate) {
         this.coordinate = coordinate;
+        this.rasteredCoordinate = null;
+        changedNotifyObservers(new PipelineObserverObject(
+                ChangeType.CHANGE_FUNCTION, this)
+                .setFunctionChange(FunctionChange.COORDINATE));
+    }
+
+    @Override
+    public boolean isResultCached() {
+        return resultCached;
+    }
+
+    @Override
+    public void setResultCached(boolean resultCached) {
+        this.resultCached = resultCached;
         changedNotifyObservers(new PipelineObserverObject(
                 ChangeType.CHANGE_FUNCTION, this));
     }
@@ -308,8 +399,12 @@ public class Function extends AbstractFunction {
                         connectorIn.addConnection(connectorOut);
                         connectorOut.addConnection(connectorIn);
 
-                        /* now check loop freeness */
-                        if (getPipeline().hasLoop()) {
+                        /*
+                         * now check loop freeness, the pipeline was free of
+                         * loops before, so only a path back from the new
+                         * target to this function closes one
+                         */
+                        if (reaches(function, this)) {
                             /* remove 'cause that is not ok */
                             connectorIn.removeConnection(connectorOut);
                             connectorOut.removeConnection(connectorIn);
@@ -358,6 +453,42 @@ public class Function extends AbstractFunction {
         return false;
     }
 
+    /**
+     * Checks if a function can be reached from another one by following the
+     * connections of the out-connectors, visits every function at most once.
+     * 
+     * @param from
+     *            function to start at
+     * @param to
+     *            function to look for
+     * @return true if there is a path from from to to, or both are the same
+     */
+    private static boolean reaches(AbstractFunction from, AbstractFunction to) {
+        Set<AbstractFunction> visited = Collections
+                .newSetFromMap(new IdentityHashMap<AbstractFunction, Boolean>());
+        Deque<AbstractFunction> open = new ArrayDeque<AbstractFunction>();
+        open.push(from);
+
+        while (!open.isEmpty()) {
+            AbstractFunction function = open.pop();
+            if (function == to) {
+                return true;
+            }
+
+            if (visited.add(function)) {
+                for (AbstractConnector outConnector : function
+                        .getOutConnectors()) {
+                    for (AbstractConnector inConnector : outConnector
+                            .getConnections()) {
+                        open.push(inConnector.getParent());
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
     @Override
     protected void unlinkConnectors() {
         for (AbstractConnector outConnector : getOutConnectors()) {
@@ -369,16 +500,22 @@ public class Function extends AbstractFunction {
     }
 
     /**
-     * Creates the connectors for the active XMLTask.
+     * Creates the connectors for a task.
+     * 
+     * @param task
+     *            task with the XMLPipes of the connectors
      */
-    private void createConnectors() {
+    private void createConnectors(XMLTask task) {
+        inConnectors = new ArrayList<Connector>(task.getInputPipe().size());
+        outConnectors = new ArrayList<Connector>(task.getOutputPipe().size());
+
         /* In-Connectors */
-        for (XMLPipe pipe : activeTask.getInputPipe()) {
+        for (XMLPipe pipe : task.getInputPipe()) {
             inConnectors.add(new Connector(this, ConnectorPosition.IN, pipe));
         }
 
         /* Out-Connectors */
-        for (XMLPipe pipe : activeTask.getOutputPipe()) {
+        for (XMLPipe pipe : task.getOutputPipe()) {
             outConnectors.add(new Connector(this, ConnectorPosition.OUT, pipe));
         }
     }
@@ -392,35 +529,46 @@ public class Function extends AbstractFunction {
     @Override
     public void update(Observable arg0, Object arg1) {
         /* get Updates from a Task (changed anything) */
-        changedNotifyObservers(new PipelineObserverObject(
-                ChangeType.CHANGE_FUNCTION, this));
+        PipelineObserverObject poo = new PipelineObserverObject(
+                ChangeType.CHANGE_FUNCTION, this);
+        if (arg1 instanceof AbstractParameter) {
+            poo.setChangedParameter((AbstractParameter) arg1);
+        }
+        changedNotifyObservers(poo);
     }
 
     @Override
     public Function copy(CopyType type) {
-        Function newFunction = new Function(this.parent, this.xmlFunction);
+        Function newFunction = new Function(this);
 
         newFunction.pipeline = this.pipeline;
-        newFunction.parent = parent;
+        newFunction.icon = icon;
+        newFunction.triedLoadIcon = triedLoadIcon;
 
         if (type.copyPosition()) {
-            newFunction.coordinate = this.coordinate;
+            newFunction.coordinate = new Point2D.Double(coordinate.getX(),
+                    coordinate.getY());
         }
 
-        /* copy the tasks */
-        newFunction.tasks.clear();
+        /* copy the tasks which are created */
+        newFunction.tasks = new ArrayList<Task>(tasks.size());
         for (Task task : this.tasks) {
-            Task newTask = task.copy(type, newFunction);
-            newTask.addObserver(newFunction);
-            newFunction.tasks.add(newTask);
+            Task newTask = null;
+            if (task != null) {
+                newTask = task.copy(type, newFunction);
+                newTask.addObserver(newFunction);
 
-            if (task == activeTask) {
-                newFunction.activeTask = newTask;
+                if (task == activeTask) {
+                    newFunction.activeTask = newTask;
+                }
             }
+            newFunction.tasks.add(newTask);
         }
 
         if (!type.copyValues()) {
-            newFunction.activeTask = newFunction.getAvailableTasks()[0];
+            newFunction.activeTask = newFunction.getTask(0);
+        } else {
+            newFunction.resultCached = resultCached;
         }
 
         return newFunction;
@@ -432,11 +580,29 @@ public class Function extends AbstractFunction {
         this.xmlFunction = afp
                 .getMatchingXMLFunction(this.xmlFunctionIdentifier);
 
+        /* pipelines saved before functions had an instance id */
+        if (this.instanceId == 0) {
+            this.instanceId = createInstanceId();
+        } else {
+            /* functions created later must not get the id of a loaded one */
+            long last = lastInstanceId.get();
+            while (last < instanceId
+                    && !lastInstanceId.compareAndSet(last, instanceId)) {
+                last = lastInstanceId.get();
+            }
+        }
+
         /* create the observers */
         for (Task task : tasks) {
-            task.addObserver(this);
+            if (task != null) {
+                task.addObserver(this);
+            }
         }
 
         return this;
     }
+
+    private static long createInstanceId() {
+        return lastInstanceId.incrementAndGet();
+    }
 }
@@ -14,6 +14,7 @@ package de.osmembrane.model.pipeline;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -42,17 +43,33 @@ public class FunctionPrototype extends AbstractFunctionPrototype {
     private XMLOsmosisStructure xmlStruct = null;
     private List<FunctionGroup> functionGroups = new ArrayList<FunctionGroup>();
 
-    private Map<Identifier, AbstractFunctionGroup> functionGroupMap = new HashMap<Identifier, AbstractFunctionGroup>();
-    private Map<AbstractFunctionGroup, Identifier> functionGroupIdentifierMap = new HashMap<AbstractFunctionGroup, Identifier>();
-
-    private Map<Identifier, XMLFunctionGroup> xmlFunctionGroupMap = new HashMap<Identifier, XMLFunctionGroup>();
-    private Map<Identifier, XMLFunction> xmlFunctionMap = new HashMap<Identifier, XMLFunction>();
-    private Map<Identifier, XMLTask> xmlTaskMap = new HashMap<Identifier, XMLTask>();
-    private Map<Identifier, XMLPipe> xmlPipeMap = new HashMap<Identifier, XMLPipe>();
-    private Map<Identifier, XMLParameter> xmlParameterMap = new HashMap<Identifier, XMLParameter>();
-    private Map<Identifier, XMLEnumValue> xmlEnumValueMap = new HashMap<Identifier, XMLEnumValue>();
-
-    private Map<Object, Identifier> identifiers = new HashMap<Object, Identifier>();
+    /**
+     * The XML objects by the index of their {@link Identifier}, assigned in
+     * {@link #createMaps()}.
+     */
+    private Object[] xmlObjects = new Object[0];
+
+    /**
+     * The {@link Identifier}s by their index.
+     */
+    private Identifier[] identifierArray = new Identifier[0];
+
+    /**
+     * The function groups by the index of the {@link Identifier} of their
+     * {@link XMLFunctionGroup}.
+     */
+    private AbstractFunctionGroup[] functionGroupArray = new AbstractFunctionGroup[0];
+
+    /**
+     * The {@link Identifier}s by their String, to resolve the identifiers of
+     * loaded files.
+     */
+    private Map<String, Identifier> identifierMap = new HashMap<String, Identifier>();
+
+    /**
+     * The {@link Identifier}s of the XML objects and function groups.
+     */
+    private Map<Object, Identifier> identifiers = new IdentityHashMap<Object, Identifier>();
 
     @Override
     public void initiate(URL xmlFilename) {
@@ -65,12 +82,7 @@ public class FunctionPrototype extends AbstractFunctionPrototype {
             createMaps();
 
             for (XMLFunctionGroup group : xmlStruct.getFunctionGroup()) {
-                FunctionGroup fg = new FunctionGroup(group);
-                functionGroups.add(fg);
-
-                /* add to the maps */
-                Identifier identifier = identifiers.get(group);
-                functionGroupIdentifierMap.put(fg, identifier);
+                functionGroups.add(new FunctionGroup(group));
             }
         } catch (FileException e) {
             Application.handleException(new ControlledException(this,
@@ -79,56 +91,121 @@ public class FunctionPrototype extends AbstractFunctionPrototype {
         }
     }
 
+    /**
+     * Assigns an {@link Identifier} with a dense index to every XML object.
+     * The Strings of the identifiers are the ones of older versions, so the
+     * identifiers of their files are still resolved.
+     */
     private void createMaps() {
+        List<Object> objects = new ArrayList<Object>();
+
         for (XMLFunctionGroup group : xmlStruct.getFunctionGroup()) {
-            Identifier groupIdentifier = new Identifier(group.getId());
-            xmlFunctionGroupMap.put(groupIdentifier, group);
-            identifiers.put(group, groupIdentifier);
+            Identifier groupIdentifier = pushToMap(objects, group,
+                    group.getId());
 
             for (XMLFunction function : group.getFunction()) {
-                Identifier functionIdentifier = new Identifier(groupIdentifier
-                        + "|" + function.getId());
-                xmlFunctionMap.put(functionIdentifier, function);
-                identifiers.put(function, functionIdentifier);
+                Identifier functionIdentifier = pushToMap(objects, function,
+                        groupIdentifier + "|" + function.getId());
 
                 for (XMLTask task : function.getTask()) {
-                    Identifier taskIdentifier = new Identifier(
+                    Identifier taskIdentifier = pushToMap(objects, task,
                             functionIdentifier + "|" + task.getName());
-                    xmlTaskMap.put(taskIdentifier, task);
-                    identifiers.put(task, taskIdentifier);
 
                     for (XMLPipe inPipe : task.getInputPipe()) {
-                        Identifier pipeIdentifier = new Identifier(
-                                taskIdentifier + "|in|" + inPipe.getType()
-                                        + inPipe.getIndex());
-                        xmlPipeMap.put(pipeIdentifier, inPipe);
-                        identifiers.put(inPipe, pipeIdentifier);
+                        pushToMap(objects, inPipe, taskIdentifier + "|in|"
+                                + inPipe.getType() + inPipe.getIndex());
                     }
                     for (XMLPipe outPipe : task.getOutputPipe()) {
-                        Identifier pipeIdentifier = new Identifier(
-                                taskIdentifier + "|out|" + outPipe.getType()
-                                        + outPipe.getIndex());
-                        xmlPipeMap.put(pipeIdentifier, outPipe);
-                        identifiers.put(outPipe, pipeIdentifier);
+                        pushToMap(objects, outPipe, taskIdentifier + "|out|"
+                                + outPipe.getType() + outPipe.getIndex());
                     }
 
                     for (XMLParameter param : task.getParameter()) {
-                        Identifier paramIdentifier = new Identifier(
+                        Identifier paramIdentifier = pushToMap(objects, param,
                                 taskIdentifier + "|" + param.getName());
-                        xmlParameterMap.put(paramIdentifier, param);
-                        identifiers.put(param, paramIdentifier);
 
                         for (XMLEnumValue enumValue : param.getEnumValue()) {
-                            Identifier enumValueIdentifier = new Identifier(
-                                    paramIdentifier + "|enumValues|"
-                                            + enumValue.getValue());
-                            xmlEnumValueMap.put(enumValueIdentifier, enumValue);
-                            identifiers.put(enumValue, enumValueIdentifier);
+                            pushToMap(objects, enumValue, paramIdentifier
+                                    + "|enumValues|" + enumValue.getValue());
                         }
                     }
                 }
             }
         }
+
+        xmlObjects = objects.toArray();
+        identifierArray = new Identifier[xmlObjects.length];
+        for (Object object : xmlObjects) {
+            Identifier identifier = identifiers.get(object);
+            identifierArray[identifier.getIndex()] = identifier;
+        }
+        functionGroupArray = new AbstractFunctionGroup[xmlObjects.length];
+    }
+
+    /**
+     * Creates the {@link Identifier} for an XML object.
+     * 
+     * @param objects
+     *            the XML objects, the new one is added
+     * @param xmlObject
+     *            the XML object
+     * @param name
+     *            String of the {@link Identifier}
+     * @return the new {@link Identifier}
+     */
+    private Identifier pushToMap(List<Object> objects, Object xmlObject,
+            String name) {
+        Identifier identifier = new Identifier(name, objects.size());
+        objects.add(xmlObject);
+        identifierMap.put(name, identifier);
+        identifiers.put(xmlObject, identifier);
+        return identifier;
+    }
+
+    /**
+     * Returns the index of an {@link Identifier} created by this prototype,
+     * or of the one with the same String.
+     * 
+     * @param identifier
+     *            the {@link Identifier}
+     * @return the index or {@link Identifier#NO_INDEX}
+     */
+    private int indexOf(Identifier identifier) {
+        if (identifier == null) {
+            return Identifier.NO_INDEX;
+        }
+
+        int index = identifier.getIndex();
+        if (index >= 0 && index < identifierArray.length
+                && identifierArray[index] == identifier) {
+            return index;
+        }
+
+        Identifier known = identifierMap.get(identifier.getIdentifier());
+        return (known != null) ? known.getIndex() : Identifier.NO_INDEX;
+    }
+
+    /**
+     * Returns the XML object of an {@link Identifier}.
+     * 
+     * @param identifier
+     *            the {@link Identifier}
+     * @param type
+     *            expected class of the XML object
+     * @return the XML object or NULL if there is none of the given class
+     */
+    private <T> T getXMLObject(Identifier identifier, Class<T> type) {
+        int index = indexOf(identifier);
+        if (index == Identifier.NO_INDEX || !type.isInstance(xmlObjects[index])) {
+            return null;
+        }
+        return type.cast(xmlObjects[index]);
+    }
+
+    @Override
+    public Identifier getKnownIdentifier(Identifier identifier) {
+        int index = indexOf(identifier);
+        return (index == Identifier.NO_INDEX) ? null : identifierArray[index];
     }
 
     @Override
@@ -220,8 +297,8 @@ public class FunctionPrototype extends AbstractFunctionPrototype {
     @Override
     protected Identifier pushFGToMap(AbstractFunctionGroup fg,
             XMLFunctionGroup xmlFG) {
-        Identifier ident = new Identifier(xmlFG.getId());
-        functionGroupMap.put(ident, fg);
+        Identifier ident = identifiers.get(xmlFG);
+        functionGroupArray[ident.getIndex()] = fg;
         identifiers.put(fg, ident);
         return ident;
     }
@@ -229,7 +306,9 @@ public class FunctionPrototype extends AbstractFunctionPrototype {
     @Override
     protected AbstractFunctionGroup getMatchingFunctionGroup(
             Identifier identifier) {
-        return functionGroupMap.get(identifier);
+        int index = indexOf(identifier);
+        return (index == Identifier.NO_INDEX) ? null
+                : functionGroupArray[index];
     }
 
     @Override
@@ -240,7 +319,7 @@ public class FunctionPrototype extends AbstractFunctionPrototype {
 
     @Override
     protected XMLFunction getMatchingXMLFunction(Identifier identifier) {
-        return xmlFunctionMap.get(identifier);
+        return getXMLObject(identifier, XMLFunction.class);
     }
 
     @Override
@@ -250,7 +329,7 @@ public class FunctionPrototype extends AbstractFunctionPrototype {
 
     @Override
     protected XMLTask getMatchingXMLTask(Identifier identifier) {
-        return xmlTaskMap.get(identifier);
+        return getXMLObject(identifier, XMLTask.class);
     }
 
     @Override
@@ -260,7 +339,7 @@ public class FunctionPrototype extends AbstractFunctionPrototype {
 
     @Override
     protected XMLPipe getMatchingXMLPipe(Identifier identifier) {
-        return xmlPipeMap.get(identifier);
+        return getXMLObject(identifier, XMLPipe.class);
     }
 
     @Override
@@ -270,7 +349,7 @@ public class FunctionPrototype extends AbstractFunctionPrototype {
 
     @Override
     protected XMLParameter getMatchingXMLParameter(Identifier identifier) {
-        return xmlParameterMap.get(identifier);
+        return getXMLObject(identifier, XMLParameter.class);
     }
 
     @Override
@@ -281,7 +360,7 @@ public class FunctionPrototype extends AbstractFunctionPrototype {
 
     @Override
     protected XMLEnumValue getMatchingXMLEnumValue(Identifier identifier) {
-        return xmlEnumValueMap.get(identifier);
+        return getXMLObject(identifier, XMLEnumValue.class);
     }
 
     @Override
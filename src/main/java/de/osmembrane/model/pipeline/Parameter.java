@@ -57,6 +57,13 @@ public class Parameter extends AbstractParameter {
      */
     private String value;
 
+    /**
+     * All parameters of the task as long as the task does not keep them,
+     * keeps them together while one of them is used, see
+     * {@link Task#getParameters()}.
+     */
+    transient List<Parameter> siblings;
+
     /**
      * Constructor for a new {@link Parameter}.
      * 
@@ -81,6 +88,25 @@ public class Parameter extends AbstractParameter {
         }
     }
 
+    /**
+     * Creates a new {@link Parameter} for the same {@link XMLParameter} as
+     * another one, without its value. The enum values are shared, they never
+     * change.
+     * 
+     * @param parentTask
+     *            the task of the new parameter
+     * @param param
+     *            the parameter to take the {@link XMLParameter} from
+     */
+    private Parameter(AbstractTask parentTask, Parameter param) {
+        this.type = param.type;
+        this.value = null;
+        this.xmlParam = param.xmlParam;
+        this.xmlParamIdentifier = param.xmlParamIdentifier;
+        this.enumValues = param.enumValues;
+        this.parentTask = parentTask;
+    }
+
     @Override
     public AbstractTask getParent() {
         return parentTask;
@@ -146,7 +172,7 @@ public class Parameter extends AbstractParameter {
         }
 
         setChanged();
-        notifyObservers();
+        notifyObservers(this);
 
         return true;
     }
@@ -195,7 +221,7 @@ public class Parameter extends AbstractParameter {
 
     @Override
     public Parameter copy(CopyType type, AbstractTask task) {
-        Parameter newParam = new Parameter(task, this.xmlParam);
+        Parameter newParam = new Parameter(task, this);
 
         /* copy the param-value */
         if (type.copyValues()) {
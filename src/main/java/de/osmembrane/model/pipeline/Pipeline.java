@@ -11,15 +11,12 @@
 
 package de.osmembrane.model.pipeline;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.awt.geom.Point2D;
 import java.io.File;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Observable;
 import java.util.Stack;
 
@@ -34,8 +31,9 @@ import de.osmembrane.model.persistence.OSMembranePersistence;
 import de.osmembrane.model.persistence.PersistenceFactory;
 import de.osmembrane.model.persistence.PipelinePersistenceObject;
 import de.osmembrane.model.pipeline.PipelineObserverObject.ChangeType;
-import de.osmembrane.model.settings.SettingType;
 import de.osmembrane.resources.Constants;
+import de.osmembrane.tools.Instrumentation;
+import de.osmembrane.tools.Instrumentation.Operation;
 import de.osmembrane.tools.Tools;
 
 /**
@@ -99,9 +97,6 @@ public class Pipeline extends AbstractPipeline {
         this.savedState = true;
         this.pipelineFilename = null;
         this.pipelineSettings = new PipelineSettings();
-
-        /* register the Observer of Persistence to the Pipeline */
-        addObserver(PersistenceFactory.getInstance());
     }
 
     @Override
@@ -143,6 +138,23 @@ public class Pipeline extends AbstractPipeline {
                 ChangeType.ADD_FUNCTION, func));
     }
 
+    @Override
+    public void replaceFunctions(List<AbstractFunction> functions) {
+        for (AbstractFunction function : this.functions) {
+            function.deleteObserver(this);
+        }
+
+        this.functions = new ArrayList<AbstractFunction>(functions);
+        for (AbstractFunction function : this.functions) {
+            function.setPipeline(this);
+            function.addObserver(this);
+        }
+
+        /* notify the observers */
+        changedNotifyObservers(new PipelineObserverObject(
+                ChangeType.FULLCHANGE, null));
+    }
+
     @Override
     public boolean deleteFunction(AbstractFunction func) {
         boolean returnValue = false;
@@ -178,13 +190,26 @@ public class Pipeline extends AbstractPipeline {
     }
 
     @Override
-    public void loadPipeline(URL filename) throws FileException {
+    public PipelinePersistenceObject readPipeline(URL filename, FileType type)
+            throws FileException {
         AbstractPersistence persistence = PersistenceFactory.getInstance()
-                .getPersistence(OSMembranePersistence.class);
+                .getPersistence(type.getPersistenceClass());
 
+        long start = Instrumentation.getInstance().start();
         PipelinePersistenceObject pipeline = (PipelinePersistenceObject) persistence
                 .load(filename);
+        Instrumentation.getInstance().stop(Operation.PERSISTENCE_LOAD, start);
+
+        return pipeline;
+    }
+
+    @Override
+    public void loadPipeline(URL filename) throws FileException {
+        loadPipeline(filename, readPipeline(filename, FileType.OSMEMBRANE));
+    }
 
+    @Override
+    public void loadPipeline(URL filename, PipelinePersistenceObject pipeline) {
         clear();
 
         pipelineFilename = filename;
@@ -212,8 +237,10 @@ public class Pipeline extends AbstractPipeline {
         AbstractPersistence persistence = PersistenceFactory.getInstance()
                 .getPersistence(OSMembranePersistence.class);
 
+        long start = Instrumentation.getInstance().start();
         persistence.save(filename, new PipelinePersistenceObject(functions,
                 pipelineSettings));
+        Instrumentation.getInstance().stop(Operation.PERSISTENCE_SAVE, start);
         pipelineFilename = filename;
 
         /* Saved successfully (persistence has not thrown a FileException */
@@ -238,8 +265,10 @@ public class Pipeline extends AbstractPipeline {
         AbstractPersistence persistence = PersistenceFactory.getInstance()
                 .getPersistence(OSMembranePersistence.class);
 
+        long start = Instrumentation.getInstance().start();
         persistence.save(Constants.DEFAULT_BACKUP_FILE,
                 new PipelinePersistenceObject(functions, pipelineSettings));
+        Instrumentation.getInstance().stop(Operation.PERSISTENCE_SAVE, start);
     }
 
     @Override
@@ -263,12 +292,11 @@ public class Pipeline extends AbstractPipeline {
     @Override
     public void importPipeline(URL filename, FileType type)
             throws FileException {
-        AbstractPersistence persistence = PersistenceFactory.getInstance()
-                .getPersistence(type.getPersistenceClass());
-
-        PipelinePersistenceObject pipeline = (PipelinePersistenceObject) persistence
-                .load(filename);
+        importPipeline(readPipeline(filename, type));
+    }
 
+    @Override
+    public void importPipeline(PipelinePersistenceObject pipeline) {
         clear();
 
         this.functions = pipeline.getFunctions();
@@ -299,41 +327,48 @@ public class Pipeline extends AbstractPipeline {
         AbstractPersistence persistence = PersistenceFactory.getInstance()
                 .getPersistence(type.getPersistenceClass());
 
+        long start = Instrumentation.getInstance().start();
         persistence.save(filename, new PipelinePersistenceObject(functions,
                 pipelineSettings));
+        Instrumentation.getInstance().stop(Operation.PERSISTENCE_SAVE, start);
     }
 
     @Override
     public boolean hasLoop() {
-        TarjanAlgorithm check = new TarjanAlgorithm(functions);
-        check.run();
-
-        /* check the SCCs */
-        List<List<AbstractFunction>> sccs = check.getSCC();
-
-        for (List<AbstractFunction> scc : sccs) {
-            if (scc.size() == 1) {
-                /*
-                 * check if the scc with size 1 links to itself or is just
-                 * standing alone
-                 */
-                AbstractFunction function = scc.get(0);
-                for (AbstractConnector outConnector : function
-                        .getOutConnectors()) {
-                    for (AbstractConnector inConnector : outConnector
-                            .getConnections()) {
-                        if (inConnector.getParent() == function) {
-                            /* found a connection to the function itself */
-                            return true;
+        long start = Instrumentation.getInstance().start();
+        try {
+            TarjanAlgorithm check = new TarjanAlgorithm(functions);
+            check.run();
+
+            /* check the SCCs */
+            List<List<AbstractFunction>> sccs = check.getSCC();
+
+            for (List<AbstractFunction> scc : sccs) {
+                if (scc.size() == 1) {
+                    /*
+                     * check if the scc with size 1 links to itself or is just
+                     * standing alone
+                     */
+                    AbstractFunction function = scc.get(0);
+                    for (AbstractConnector outConnector : function
+                            .getOutConnectors()) {
+                        for (AbstractConnector inConnector : outConnector
+                                .getConnections()) {
+                            if (inConnector.getParent() == function) {
+                                /* found a connection to the function itself */
+                                return true;
+                            }
                         }
                     }
+                } else if (scc.size() > 1) {
+                    return true;
                 }
-            } else if (scc.size() > 1) {
-                return true;
             }
-        }
 
-        return false;
+            return false;
+        } finally {
+            Instrumentation.getInstance().stop(Operation.HAS_LOOP, start);
+        }
     }
 
     @Override
@@ -344,6 +379,28 @@ public class Pipeline extends AbstractPipeline {
                 ChangeType.FULLCHANGE, null));
     }
 
+    @Override
+    public void moveFunctions(Map<AbstractFunction, Point2D> coordinates) {
+        for (AbstractFunction function : functions) {
+            Point2D coordinate = coordinates.get(function);
+            if (coordinate != null) {
+                function.getUnrasteredCoordinate().setLocation(coordinate);
+            }
+        }
+        changedNotifyObservers(new PipelineObserverObject(
+                ChangeType.FULLCHANGE, null));
+    }
+
+    @Override
+    public PipelineSnapshot getSnapshot() {
+        /* the current undo step already holds a copy of the functions */
+        PipelineMemento state = currentState;
+        if (state == null || undoRedoDisabled) {
+            state = new PipelineMemento(functions, savedState);
+        }
+        return new PipelineSnapshot(getFunctions(), state, pipelineSettings);
+    }
+
     @Override
     public boolean undo() {
         if (!undoAvailable()) {
@@ -397,8 +454,10 @@ public class Pipeline extends AbstractPipeline {
         }
 
         if (!silent) {
+            long start = Instrumentation.getInstance().start();
             this.setChanged();
             this.notifyObservers(poo);
+            Instrumentation.getInstance().stop(Operation.PIPELINE_NOTIFY, start);
         }
     }
 
@@ -417,13 +476,14 @@ public class Pipeline extends AbstractPipeline {
     }
 
     private void saveStep() {
+        long start = Instrumentation.getInstance().start();
         undoStack.push(currentState);
         redoStack.clear();
         currentState = new PipelineMemento(functions, savedState);
+        Instrumentation.getInstance().stop(Operation.UNDO_STEP, start);
 
-        int maximumStackSize = ((Integer) ModelProxy.getInstance()
-                .getSettings().getValue(SettingType.MAXIMUM_UNDO_STEPS))
-                .intValue();
+        int maximumStackSize = ModelProxy.getInstance().getSettings()
+                .getSnapshot().getMaximumUndoSteps();
 
         while (undoStack.size() > maximumStackSize) {
             undoStack.remove(0);
@@ -443,51 +503,3 @@ public class Pipeline extends AbstractPipeline {
                 ChangeType.FULLCHANGE, null).setCreateUndoStep(false));
     }
 }
-
-/**
- * Private internal class of the memento of the undo-/redo-feature.
- * 
- * @author jakob_jarosch
- */
-class PipelineMemento {
-
-    private List<AbstractFunction> functions = new ArrayList<AbstractFunction>();
-    private boolean savedState;
-
-    public PipelineMemento(List<AbstractFunction> functions, boolean savedState) {
-        this.functions = deepCopyFunctions(functions);
-        this.savedState = savedState;
-    }
-
-    public boolean getSavedState() {
-        return savedState;
-    }
-
-    public List<AbstractFunction> getFunctions() {
-        return deepCopyFunctions(functions);
-    }
-
-    private List<AbstractFunction> deepCopyFunctions(
-            List<AbstractFunction> functions) {
-        /* Use serialization to create a copy of the functions in the pipeline */
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream(4096);
-            ObjectOutputStream oos = new ObjectOutputStream(baos);
-            oos.writeObject(functions);
-            ByteArrayInputStream bais = new ByteArrayInputStream(
-                    baos.toByteArray());
-            ObjectInputStream ois = new ObjectInputStream(bais);
-            Object deepCopy = ois.readObject();
-
-            @SuppressWarnings("unchecked")
-            List<AbstractFunction> copy = (List<AbstractFunction>) deepCopy;
-            return copy;
-        } catch (IOException e) {
-            e.printStackTrace();
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
-        }
-
-        return functions;
-    }
-}
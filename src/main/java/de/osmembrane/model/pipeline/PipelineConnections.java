@@ -0,0 +1,113 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.pipeline;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts the connections between a list of functions into a flat array of
+ * indices and back. The {@link Connector}s do not serialize their connections,
+ * because following them from function to function lets the serialization
+ * recurse as deep as the pipeline is long. Whoever serializes a list of
+ * functions writes the array next to it instead.
+ * 
+ * @author agent
+ */
+public class PipelineConnections {
+
+    /**
+     * Entries of one connection in the array: index of the out-function,
+     * index of its out-connector, index of the in-function and index of its
+     * in-connector.
+     */
+    private static final int ENTRY_SIZE = 4;
+
+    private PipelineConnections() {
+    }
+
+    /**
+     * Encodes all connections between the given functions, connections to
+     * functions not in the list are left out.
+     * 
+     * @param functions
+     *            the functions
+     * @return the connections as indices into the list
+     */
+    public static int[] encode(List<AbstractFunction> functions) {
+        /* the function and connector index of every in-connector */
+        Map<AbstractConnector, int[]> indices = new IdentityHashMap<AbstractConnector, int[]>();
+        for (int i = 0; i < functions.size(); i++) {
+            AbstractConnector[] inConnectors = functions.get(i)
+                    .getInConnectors();
+            for (int j = 0; j < inConnectors.length; j++) {
+                indices.put(inConnectors[j], new int[] { i, j });
+            }
+        }
+
+        int count = 0;
+        for (AbstractFunction function : functions) {
+            for (AbstractConnector outConnector : function.getOutConnectors()) {
+                count += outConnector.getConnections().length;
+            }
+        }
+
+        int[] connections = new int[count * ENTRY_SIZE];
+        int position = 0;
+        for (int i = 0; i < functions.size(); i++) {
+            AbstractConnector[] outConnectors = functions.get(i)
+                    .getOutConnectors();
+            for (int j = 0; j < outConnectors.length; j++) {
+                for (AbstractConnector inConnector : outConnectors[j]
+                        .getConnections()) {
+                    int[] target = indices.get(inConnector);
+                    if (target == null) {
+                        continue;
+                    }
+
+                    connections[position++] = i;
+                    connections[position++] = j;
+                    connections[position++] = target[0];
+                    connections[position++] = target[1];
+                }
+            }
+        }
+
+        int[] result = new int[position];
+        System.arraycopy(connections, 0, result, 0, position);
+        return result;
+    }
+
+    /**
+     * Restores the connections encoded by {@link #encode(List)} on the
+     * functions, which have to be in the same order as when they were
+     * encoded.
+     * 
+     * @param functions
+     *            the functions
+     * @param connections
+     *            the encoded connections
+     */
+    public static void decode(List<AbstractFunction> functions,
+            int[] connections) {
+        for (int i = 0; i + ENTRY_SIZE <= connections.length; i += ENTRY_SIZE) {
+            AbstractConnector outConnector = functions.get(connections[i])
+                    .getOutConnectors()[connections[i + 1]];
+            AbstractConnector inConnector = functions.get(connections[i + 2])
+                    .getInConnectors()[connections[i + 3]];
+
+            outConnector.addConnection(inConnector);
+            inConnector.addConnection(outConnector);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.pipeline;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memento of the undo-/redo-feature of the {@link Pipeline}.
+ * 
+ * @author jakob_jarosch
+ */
+class PipelineMemento {
+
+    private List<AbstractFunction> functions = new ArrayList<AbstractFunction>();
+    private boolean savedState;
+
+    public PipelineMemento(List<AbstractFunction> functions, boolean savedState) {
+        this.functions = deepCopyFunctions(functions);
+        this.savedState = savedState;
+    }
+
+    public boolean getSavedState() {
+        return savedState;
+    }
+
+    public List<AbstractFunction> getFunctions() {
+        return deepCopyFunctions(functions);
+    }
+
+    private List<AbstractFunction> deepCopyFunctions(
+            List<AbstractFunction> functions) {
+        /* Use serialization to create a copy of the functions in the pipeline */
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(4096);
+            ObjectOutputStream oos = new ObjectOutputStream(baos);
+            oos.writeObject(functions);
+            oos.writeObject(PipelineConnections.encode(functions));
+            oos.close();
+            ByteArrayInputStream bais = new ByteArrayInputStream(
+                    baos.toByteArray());
+            ObjectInputStream ois = new ObjectInputStream(bais);
+            Object deepCopy = ois.readObject();
+
+            @SuppressWarnings("unchecked")
+            List<AbstractFunction> copy = (List<AbstractFunction>) deepCopy;
+            PipelineConnections.decode(copy, (int[]) ois.readObject());
+            return copy;
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+
+        return functions;
+    }
+}
@@ -11,12 +11,16 @@
 
 package de.osmembrane.model.pipeline;
 
+import java.util.Arrays;
+
+import de.osmembrane.model.CoalescableEvent;
+
 /**
  * Object which is passed through by the {@link AbstractPipeline}.
  * 
  * @author jakob_jarosch
  */
-public class PipelineObserverObject {
+public class PipelineObserverObject implements CoalescableEvent {
 
     /**
      * Shows, what has been changed.
@@ -60,6 +64,34 @@ public class PipelineObserverObject {
         SAVED_PIPELINE
     };
 
+    /**
+     * Shows, what of a function has been changed, for
+     * {@link ChangeType#CHANGE_FUNCTION}.
+     * 
+     * @author agent
+     */
+    public enum FunctionChange {
+        /**
+         * The coordinate of the function has been changed.
+         */
+        COORDINATE,
+
+        /**
+         * A parameter of a task of the function has been changed.
+         */
+        PARAMETER,
+
+        /**
+         * The active task of the function has been changed.
+         */
+        TASK,
+
+        /**
+         * Anything else of the function has been changed.
+         */
+        OTHER
+    };
+
     /**
      * Type of the {@link PipelineObserverObject}.
      */
@@ -72,6 +104,18 @@ public class PipelineObserverObject {
      */
     private AbstractFunction changedFunction = null;
 
+    /**
+     * What of the function has been changed.<br/>
+     * Type must be {@link ChangeType#CHANGE_FUNCTION}.
+     */
+    private FunctionChange functionChange = FunctionChange.OTHER;
+
+    /**
+     * Parameter which has been changed.<br/>
+     * Function change must be {@link FunctionChange#PARAMETER}.
+     */
+    private AbstractParameter changedParameter = null;
+
     /**
      * Connectors which has been changed (added, removed connection between
      * both).<br/>
@@ -147,6 +191,25 @@ public class PipelineObserverObject {
         return changedFunction;
     }
 
+    /**
+     * Returns what of the changed {@link AbstractFunction} has been changed.
+     * 
+     * @return the kind of change, {@link FunctionChange#OTHER} if unknown
+     */
+    public FunctionChange getFunctionChange() {
+        return functionChange;
+    }
+
+    /**
+     * Returns the changed {@link AbstractParameter}.
+     * 
+     * @return changed parameter, null if the function change is not
+     *         {@link FunctionChange#PARAMETER}
+     */
+    public AbstractParameter getChangedParameter() {
+        return changedParameter;
+    }
+
     /**
      * Returns the changed {@link AbstractConnector}s.
      * 
@@ -179,6 +242,19 @@ public class PipelineObserverObject {
         return pipeline;
     }
 
+    protected PipelineObserverObject setFunctionChange(
+            FunctionChange functionChange) {
+        this.functionChange = functionChange;
+        return this;
+    }
+
+    protected PipelineObserverObject setChangedParameter(
+            AbstractParameter changedParameter) {
+        this.functionChange = FunctionChange.PARAMETER;
+        this.changedParameter = changedParameter;
+        return this;
+    }
+
     protected PipelineObserverObject setCreateUndoStep(boolean createUndoStep) {
         this.createUndoStep = createUndoStep;
         return this;
@@ -192,4 +268,33 @@ public class PipelineObserverObject {
     public boolean createUndoStep() {
         return createUndoStep;
     }
+
+    /**
+     * The changes of a pipeline form a group.
+     */
+    @Override
+    public Object getCoalescingGroup() {
+        return pipeline;
+    }
+
+    /**
+     * A change of a function supersedes an earlier change of the same kind of
+     * the same function.
+     */
+    @Override
+    public Object getCoalescingKey() {
+        if (type == ChangeType.CHANGE_FUNCTION) {
+            return Arrays.asList(changedFunction, functionChange,
+                    changedParameter);
+        }
+        return this;
+    }
+
+    /**
+     * A full change supersedes every earlier change of the same pipeline.
+     */
+    @Override
+    public boolean supersedesGroup() {
+        return type == ChangeType.FULLCHANGE;
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.pipeline;
+
+import java.awt.geom.Point2D;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.osmembrane.model.algorithms.GraphPlanarizer;
+import de.osmembrane.model.parser.ParserFactory;
+import de.osmembrane.model.persistence.FileException;
+import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.persistence.PersistenceFactory;
+import de.osmembrane.model.persistence.PipelinePersistenceObject;
+import de.osmembrane.tools.Instrumentation;
+import de.osmembrane.tools.Instrumentation.Operation;
+
+/**
+ * Frozen state of a pipeline, created by {@link AbstractPipeline#getSnapshot()}
+ * . The snapshot is not changed by later changes of the pipeline, so all of
+ * its methods may be called from a background thread while the pipeline is
+ * edited.
+ * 
+ * @author agent
+ */
+public class PipelineSnapshot {
+
+    /**
+     * The functions of the pipeline when the snapshot was taken.
+     */
+    private final AbstractFunction[] functions;
+
+    /**
+     * Copy of the functions, in the order of {@link #functions}.
+     */
+    private final PipelineMemento state;
+
+    private final AbstractPipelineSettings settings;
+
+    /**
+     * Creates a new {@link PipelineSnapshot}.
+     * 
+     * @param functions
+     *            the functions of the pipeline
+     * @param state
+     *            a memento holding a copy of the functions
+     * @param settings
+     *            the settings of the pipeline, they are copied
+     */
+    PipelineSnapshot(AbstractFunction[] functions, PipelineMemento state,
+            AbstractPipelineSettings settings) {
+        this.functions = functions;
+        this.state = state;
+
+        this.settings = new PipelineSettings();
+        this.settings.setVerbose(settings.getVerbose());
+        this.settings.setDebug(settings.getDebug());
+        this.settings.setComment(settings.getComment());
+        this.settings.setName(settings.getName());
+    }
+
+    /**
+     * Returns a new copy of the functions and settings in the snapshot.
+     * 
+     * @return the copy
+     */
+    public PipelinePersistenceObject copy() {
+        return new PipelinePersistenceObject(state.getFunctions(), settings);
+    }
+
+    /**
+     * Creates a String-representation of the snapshot, see
+     * {@link AbstractPipeline#generate(FileType)}.
+     * 
+     * @param filetype
+     *            should be created
+     * @return the String-representation
+     */
+    public String generate(FileType filetype) {
+        return ParserFactory.getInstance()
+                .getParser(filetype.getParserClass()).parsePipeline(copy());
+    }
+
+    /**
+     * Exports the snapshot to a file, see
+     * {@link AbstractPipeline#exportPipeline(URL, FileType)}.
+     * 
+     * @param filename
+     *            path where the file should be saved
+     * @param type
+     *            {@link FileType} of the given file
+     * 
+     * @throws FileException
+     *             when something with the IO went wrong
+     */
+    public void export(URL filename, FileType type) throws FileException {
+        PipelinePersistenceObject pipeline = copy();
+
+        long start = Instrumentation.getInstance().start();
+        PersistenceFactory.getInstance()
+                .getPersistence(type.getPersistenceClass())
+                .save(filename, pipeline);
+        Instrumentation.getInstance().stop(Operation.PERSISTENCE_SAVE, start);
+    }
+
+    /**
+     * Arranges a copy of the functions like
+     * {@link AbstractPipeline#arrangePipeline()} does.
+     * 
+     * @return the new coordinates of the functions of the pipeline, to be
+     *         applied with {@link AbstractPipeline#moveFunctions(Map)}
+     */
+    public Map<AbstractFunction, Point2D> arrange() {
+        List<AbstractFunction> copies = state.getFunctions();
+        new GraphPlanarizer(copies).planarize();
+
+        Map<AbstractFunction, Point2D> coordinates = new HashMap<AbstractFunction, Point2D>();
+        for (int i = 0; i < functions.length; i++) {
+            coordinates.put(functions[i], copies.get(i)
+                    .getUnrasteredCoordinate());
+        }
+        return coordinates;
+    }
+}
@@ -12,6 +12,7 @@
 package de.osmembrane.model.pipeline;
 
 import java.io.ObjectStreamException;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Observable;
@@ -42,9 +43,18 @@ public class Task extends AbstractTask {
     private Identifier xmlTaskIdentifier;
 
     /**
-     * Parameters which are bound to this Task.
+     * Parameters which are bound to this Task. Null as long as none of them
+     * got a value, so a task whose parameters are only read, like most
+     * active tasks of a large pipeline, only points to its {@link XMLTask}.
      */
-    private List<Parameter> parameters = new ArrayList<Parameter>();
+    private List<Parameter> parameters = null;
+
+    /**
+     * The parameters created for reading as long as none has a value. They
+     * are kept as long as one of them is used anywhere, so the parameters of
+     * a task stay the same instances while they are inspected.
+     */
+    transient private WeakReference<List<Parameter>> createdParameters;
 
     /**
      * Creates a new Task.
@@ -59,12 +69,21 @@ public class Task extends AbstractTask {
         /* set the identifier */
         AbstractFunctionPrototype afp = ModelProxy.getInstance().getFunctions();
         this.xmlTaskIdentifier = afp.getMatchingXMLTaskIdentifier(this.xmlTask);
+    }
 
-        for (XMLParameter xmlParam : xmlTask.getParameter()) {
-            Parameter param = new Parameter(this, xmlParam);
-            param.addObserver(this);
-            parameters.add(param);
-        }
+    /**
+     * Creates a new Task for the same {@link XMLTask} as another one, without
+     * its parameters.
+     * 
+     * @param parentFunction
+     *            the function of the new Task
+     * @param task
+     *            the Task to take the {@link XMLTask} from
+     */
+    private Task(AbstractFunction parentFunction, Task task) {
+        this.xmlTask = task.xmlTask;
+        this.xmlTaskIdentifier = task.xmlTaskIdentifier;
+        this.parentFunction = parentFunction;
     }
 
     @Override
@@ -104,8 +123,49 @@ public class Task extends AbstractTask {
 
     @Override
     public Parameter[] getParameters() {
-        Parameter[] parameters = new Parameter[this.parameters.size()];
-        return this.parameters.toArray(parameters);
+        List<Parameter> parameterList = getParameterList();
+        Parameter[] parameters = new Parameter[parameterList.size()];
+        return parameterList.toArray(parameters);
+    }
+
+    /**
+     * Returns the parameters. As long as none of them has a value they are
+     * created when they are needed and only kept while they are used.
+     * 
+     * @return the parameters of the Task
+     */
+    private List<Parameter> getParameterList() {
+        if (parameters != null) {
+            return parameters;
+        }
+
+        List<Parameter> created = (createdParameters != null) ? createdParameters
+                .get() : null;
+        if (created == null) {
+            created = new ArrayList<Parameter>(xmlTask.getParameter().size());
+            for (XMLParameter xmlParam : xmlTask.getParameter()) {
+                Parameter param = new Parameter(this, xmlParam);
+                param.addObserver(this);
+                param.siblings = created;
+                created.add(param);
+            }
+            createdParameters = new WeakReference<List<Parameter>>(created);
+        }
+        return created;
+    }
+
+    /**
+     * @return true if a parameter has a value set by the user
+     */
+    private boolean hasValues() {
+        if (parameters != null) {
+            for (Parameter param : parameters) {
+                if (!param.isDefaultValue()) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     @Override
@@ -182,21 +242,36 @@ public class Task extends AbstractTask {
 
     @Override
     public void update(Observable o, Object arg) {
-        /* A parameter got a change (anything changed) */
+        /* a parameter created for reading got a value, keep them from now */
+        if (parameters == null && o instanceof Parameter) {
+            Parameter param = (Parameter) o;
+            parameters = param.siblings;
+            createdParameters = null;
+            for (Parameter sibling : parameters) {
+                sibling.siblings = null;
+            }
+        }
+
+        /* A parameter got a change, pass the parameter through */
         setChanged();
-        notifyObservers();
+        notifyObservers(arg);
     }
 
     @Override
     public Task copy(CopyType type, AbstractFunction newFunction) {
-        Task newTask = new Task(parentFunction, this.xmlTask);
-
-        /* copy the parameters */
-        newTask.parameters.clear();
-        for (Parameter param : this.parameters) {
-            Parameter newParam = param.copy(type, newTask);
-            newParam.addObserver(newTask);
-            newTask.parameters.add(newParam);
+        Task newTask = new Task(newFunction, this);
+
+        /*
+         * copy the parameters, parameters without values are created again
+         * when they are needed
+         */
+        if (type.copyValues() && hasValues()) {
+            newTask.parameters = new ArrayList<Parameter>(parameters.size());
+            for (Parameter param : this.parameters) {
+                Parameter newParam = param.copy(type, newTask);
+                newParam.addObserver(newTask);
+                newTask.parameters.add(newParam);
+            }
         }
 
         return newTask;
@@ -207,8 +282,10 @@ public class Task extends AbstractTask {
         this.xmlTask = afp.getMatchingXMLTask(this.xmlTaskIdentifier);
 
         /* create the observers */
-        for (Parameter param : parameters) {
-            param.addObserver(this);
+        if (parameters != null) {
+            for (Parameter param : parameters) {
+                param.addObserver(this);
+            }
         }
 
         return this;
@@ -65,6 +65,14 @@ public abstract class AbstractSettings extends Observable implements
     public abstract void setValue(SettingType type, Object value)
             throws UnparsableFormatException;
 
+    /**
+     * Returns an immutable copy of the values read on hot paths. It is
+     * replaced on every {@link #setValue(SettingType, Object)}.
+     * 
+     * @return the current {@link SettingsSnapshot}
+     */
+    public abstract SettingsSnapshot getSnapshot();
+
     /**
      * Returns all available languages.
      * 
@@ -101,6 +109,22 @@ public abstract class AbstractSettings extends Observable implements
      */
     public abstract boolean deleteFunctionPreset(AbstractFunctionPreset preset);
 
+    /**
+     * Stores the measured runtime of an executed pipeline, the oldest sample
+     * is removed when too many samples are stored.
+     * 
+     * @param sample
+     *            the measured run
+     */
+    public abstract void addRuntimeSample(RuntimeSample sample);
+
+    /**
+     * Returns all stored runtime samples.
+     * 
+     * @return the samples, oldest first
+     */
+    public abstract RuntimeSample[] getRuntimeSamples();
+
     /**
      * Notifies all observers.
      * 
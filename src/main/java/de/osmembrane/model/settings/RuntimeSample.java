@@ -0,0 +1,58 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.settings;
+
+import java.io.Serializable;
+
+/**
+ * One measured pipeline run, used to calibrate the runtime estimation.
+ * 
+ * @author agent
+ */
+public class RuntimeSample implements Serializable {
+
+    private static final long serialVersionUID = 2011031810300001L;
+
+    private double cost;
+    private double seconds;
+
+    /**
+     * Creates a new sample.
+     *
+     * @param cost
+     *            estimated cost of the pipeline before it was executed
+     * @param seconds
+     *            measured wall-clock time of the execution
+     */
+    public RuntimeSample(double cost, double seconds) {
+        this.cost = cost;
+        this.seconds = seconds;
+    }
+
+    /**
+     * Returns the estimated cost of the executed pipeline.
+     *
+     * @return the cost in cost units
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns the measured wall-clock time.
+     *
+     * @return the time in seconds
+     */
+    public double getSeconds() {
+        return seconds;
+    }
+}
@@ -68,6 +68,38 @@ public enum SettingType {
      */
     EXPORT_PARAMETERS_WITH_DEFAULT_VALUES(Boolean.class, false),
 
+    /**
+     * Insert buffers between CPU-heavy tasks when a pipeline is executed.
+     * 
+     * can be casted to a {@link Boolean}
+     */
+    AUTOMATIC_BUFFER_INSERTION(Boolean.class,
+            Constants.DEFAULT_AUTOMATIC_BUFFER_INSERTION),
+
+    /**
+     * Memory in megabytes which is shared by the automatically inserted
+     * buffers.
+     * 
+     * can be casted to a {@link Integer}
+     */
+    BUFFER_MEMORY_BUDGET(Integer.class, Constants.DEFAULT_BUFFER_MEMORY_BUDGET),
+
+    /**
+     * Maximum size in megabytes of the cached results of functions.
+     * 
+     * can be casted to a {@link Integer}
+     */
+    RESULT_CACHE_SIZE(Integer.class, Constants.DEFAULT_RESULT_CACHE_SIZE),
+
+    /**
+     * Draw the pipeline on one canvas instead of a component per function,
+     * connector and link.
+     * 
+     * can be casted to a {@link Boolean}
+     */
+    SINGLE_CANVAS_RENDERING(Boolean.class,
+            Constants.DEFAULT_SINGLE_CANVAS_RENDERING),
+
     /**
      * Maximum count of undo-steps.
      * 
@@ -42,20 +42,25 @@ public class Settings extends AbstractSettings {
 
     private static final String FUNCTION_PRESET_KEY = "functionPresetKey";
 
+    private static final String RUNTIME_SAMPLE_KEY = "runtimeSampleKey";
+
     Map<Object, Object> settingsMap = new HashMap<Object, Object>();
 
+    /**
+     * The current snapshot, created on demand and dropped on every change.
+     */
+    private transient volatile SettingsSnapshot snapshot;
+
     @Override
     public void initiate() {
         AbstractPersistence persistence = PersistenceFactory.getInstance()
                 .getPersistence(SettingPersistence.class);
 
-        File file = Tools.urlToFile(Constants.DEFAULT_SETTINGS_FILE);
-
         /*
-         * register the persistence as observer for automatic saving of the
-         * settings
+         * the persistence subscribed itself for automatic saving of the
+         * settings when it was created
          */
-        addObserver(PersistenceFactory.getInstance());
+        File file = Tools.urlToFile(Constants.DEFAULT_SETTINGS_FILE);
 
         try {
             if (!file.isFile()) {
@@ -68,6 +73,7 @@ public class Settings extends AbstractSettings {
             @SuppressWarnings("unchecked")
             Map<Object, Object> settingsMap = (Map<Object, Object>) obj;
             this.settingsMap = settingsMap;
+            snapshot = null;
 
             // invoke the required actions, even on default values
             for (SettingType st : SettingType.values()) {
@@ -102,9 +108,20 @@ public class Settings extends AbstractSettings {
         type.doRequiredActions(value);
 
         settingsMap.put(type, value);
+        snapshot = new SettingsSnapshot(this);
         changedNotifyObservers(new SettingsObserverObject(type));
     }
 
+    @Override
+    public SettingsSnapshot getSnapshot() {
+        SettingsSnapshot result = snapshot;
+        if (result == null) {
+            result = new SettingsSnapshot(this);
+            snapshot = result;
+        }
+        return result;
+    }
+
     @Override
     public Locale[] getLanguages() {
         return Constants.AVAILABLE_LOCALES;
@@ -153,6 +170,42 @@ public class Settings extends AbstractSettings {
         return returnValue;
     }
 
+    @Override
+    public void addRuntimeSample(RuntimeSample sample) {
+        List<RuntimeSample> samples = getRSList();
+        samples.add(sample);
+        while (samples.size() > Constants.MAXIMUM_RUNTIME_SAMPLES) {
+            samples.remove(0);
+        }
+
+        changedNotifyObservers(new SettingsObserverObject());
+    }
+
+    @Override
+    public RuntimeSample[] getRuntimeSamples() {
+        List<RuntimeSample> samples = getRSList();
+        return samples.toArray(new RuntimeSample[samples.size()]);
+    }
+
+    /**
+     * Returns the RuntimeSample list.
+     * 
+     * @return the {@link RuntimeSample} list.
+     */
+    private List<RuntimeSample> getRSList() {
+        Object result = settingsMap.get(RUNTIME_SAMPLE_KEY);
+
+        if (result == null || !(result instanceof List)) {
+            settingsMap.put(RUNTIME_SAMPLE_KEY, new ArrayList<RuntimeSample>());
+        }
+
+        @SuppressWarnings("unchecked")
+        List<RuntimeSample> samples = (List<RuntimeSample>) settingsMap
+                .get(RUNTIME_SAMPLE_KEY);
+
+        return samples;
+    }
+
     /**
      * Returns the FunctionPreset list.
      * 
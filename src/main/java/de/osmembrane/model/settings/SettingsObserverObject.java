@@ -11,12 +11,16 @@
 
 package de.osmembrane.model.settings;
 
+import java.util.Collections;
+
+import de.osmembrane.model.CoalescableEvent;
+
 /**
  * A observer-object which is passed through by the {@link Settings}-Model.
  * 
  * @author jakob_jarosch
  */
-public class SettingsObserverObject {
+public class SettingsObserverObject implements CoalescableEvent {
 
     private SettingType changedEntry;
     private AbstractSettings settingsModel;
@@ -66,4 +70,25 @@ public class SettingsObserverObject {
     public AbstractSettings getSettingsModel() {
         return settingsModel;
     }
+
+    /**
+     * The changes of the settings form a group.
+     */
+    @Override
+    public Object getCoalescingGroup() {
+        return SettingsObserverObject.class;
+    }
+
+    /**
+     * A change supersedes an earlier change of the same entry.
+     */
+    @Override
+    public Object getCoalescingKey() {
+        return Collections.singletonList(changedEntry);
+    }
+
+    @Override
+    public boolean supersedesGroup() {
+        return false;
+    }
 }
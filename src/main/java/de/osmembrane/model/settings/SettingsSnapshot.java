@@ -0,0 +1,109 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.settings;
+
+/**
+ * Immutable, typed copy of the settings read on hot paths, like the
+ * coordinates of the functions and the parser. A new snapshot is created on
+ * every change of the settings, see {@link AbstractSettings#getSnapshot()},
+ * so a snapshot can be held for a whole operation and read from any thread.
+ * 
+ * @author agent
+ */
+public final class SettingsSnapshot {
+
+    private final int pipelineRasterSize;
+
+    private final boolean useShortTaskNames;
+
+    private final boolean exportParametersWithDefaultValues;
+
+    private final boolean automaticBufferInsertion;
+
+    private final int bufferMemoryBudget;
+
+    private final int maximumUndoSteps;
+
+    private final String defaultOsmosisPath;
+
+    /**
+     * Creates a new {@link SettingsSnapshot} of the current values.
+     * 
+     * @param settings
+     *            the settings to read the values from
+     */
+    SettingsSnapshot(AbstractSettings settings) {
+        pipelineRasterSize = (Integer) settings
+                .getValue(SettingType.PIPELINE_RASTER_SIZE);
+        useShortTaskNames = (Boolean) settings
+                .getValue(SettingType.USE_SHORT_TASK_NAMES_IF_AVAILABLE);
+        exportParametersWithDefaultValues = (Boolean) settings
+                .getValue(SettingType.EXPORT_PARAMETERS_WITH_DEFAULT_VALUES);
+        automaticBufferInsertion = (Boolean) settings
+                .getValue(SettingType.AUTOMATIC_BUFFER_INSERTION);
+        bufferMemoryBudget = (Integer) settings
+                .getValue(SettingType.BUFFER_MEMORY_BUDGET);
+        maximumUndoSteps = (Integer) settings
+                .getValue(SettingType.MAXIMUM_UNDO_STEPS);
+        defaultOsmosisPath = (String) settings
+                .getValue(SettingType.DEFAULT_OSMOSIS_PATH);
+    }
+
+    /**
+     * @return {@link SettingType#PIPELINE_RASTER_SIZE}
+     */
+    public int getPipelineRasterSize() {
+        return pipelineRasterSize;
+    }
+
+    /**
+     * @return {@link SettingType#USE_SHORT_TASK_NAMES_IF_AVAILABLE}
+     */
+    public boolean isUseShortTaskNames() {
+        return useShortTaskNames;
+    }
+
+    /**
+     * @return {@link SettingType#EXPORT_PARAMETERS_WITH_DEFAULT_VALUES}
+     */
+    public boolean isExportParametersWithDefaultValues() {
+        return exportParametersWithDefaultValues;
+    }
+
+    /**
+     * @return {@link SettingType#AUTOMATIC_BUFFER_INSERTION}
+     */
+    public boolean isAutomaticBufferInsertion() {
+        return automaticBufferInsertion;
+    }
+
+    /**
+     * @return {@link SettingType#BUFFER_MEMORY_BUDGET}
+     */
+    public int getBufferMemoryBudget() {
+        return bufferMemoryBudget;
+    }
+
+    /**
+     * @return {@link SettingType#MAXIMUM_UNDO_STEPS}
+     */
+    public int getMaximumUndoSteps() {
+        return maximumUndoSteps;
+    }
+
+    /**
+     * @return {@link SettingType#DEFAULT_OSMOSIS_PATH}
+     */
+    public String getDefaultOsmosisPath() {
+        return defaultOsmosisPath;
+    }
+}
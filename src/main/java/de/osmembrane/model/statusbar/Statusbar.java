@@ -37,13 +37,21 @@ public class Statusbar extends AbstractStatusbar {
         entries.add(entry);
 
         removeUnusedEntries();
+
+        setChanged();
+        notifyObservers(new StatusbarObserverObject(entry));
     }
 
     @Override
     public boolean removeStatusbarEntry(StatusbarEntry entry) {
-        entry.deleteObservers();
+        entry.deleteObserver(this);
 
-        return false;
+        boolean removed = entries.remove(entry);
+        if (removed) {
+            setChanged();
+            notifyObservers(new StatusbarObserverObject(entry));
+        }
+        return removed;
     }
 
     @Override
@@ -62,7 +70,7 @@ public class Statusbar extends AbstractStatusbar {
         while (entries.size() > Constants.MAXIMUM_STATUSBAR_ENTRIES
                 && removedOne) {
             removedOne = false;
-            for (int i = (entries.size() - 1); i > 1; i++) {
+            for (int i = (entries.size() - 1); i > 0; i--) {
                 StatusbarEntry entry = entries.get(i);
                 if (!entry.isProgressbarUsed() || entry.getProgress() >= 1.0) {
                     entries.remove(i);
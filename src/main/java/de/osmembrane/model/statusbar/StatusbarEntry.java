@@ -23,6 +23,8 @@ public class StatusbarEntry extends Observable {
     private String message;
     private boolean progressbarUsed;
     private double progress;
+    private boolean cancelable;
+    private boolean cancelled;
 
     /**
      * @see StatusbarEntry#StatusbarEntry(String, boolean)
@@ -88,4 +90,44 @@ public class StatusbarEntry extends Observable {
     public double getProgress() {
         return progress;
     }
+
+    /**
+     * Sets if the work shown by the {@link StatusbarEntry} can be cancelled.
+     * 
+     * @param cancelable
+     *            true if {@link #cancel()} is supported, otherwise false
+     */
+    public void setCancelable(boolean cancelable) {
+        this.cancelable = cancelable;
+
+        setChanged();
+        notifyObservers();
+    }
+
+    /**
+     * @return true if the work can be cancelled, otherwise false
+     */
+    public boolean isCancelable() {
+        return cancelable;
+    }
+
+    /**
+     * Requests the cancellation of the work shown by the
+     * {@link StatusbarEntry}, the observers of the entry do the cancellation.
+     */
+    public void cancel() {
+        if (cancelable && !cancelled) {
+            cancelled = true;
+
+            setChanged();
+            notifyObservers();
+        }
+    }
+
+    /**
+     * @return true if the work has been cancelled, otherwise false
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
 }
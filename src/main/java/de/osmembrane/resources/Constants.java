@@ -137,6 +137,54 @@ public class Constants {
      */
     public static final int MAXIMUM_UNDO_STEPS = 100;
 
+    /**
+     * Insert buffers between CPU-heavy tasks of generated pipelines by
+     * default.
+     */
+    public static final boolean DEFAULT_AUTOMATIC_BUFFER_INSERTION = true;
+
+    /**
+     * The default memory budget in megabytes shared by all automatically
+     * inserted buffers.
+     */
+    public static final int DEFAULT_BUFFER_MEMORY_BUDGET = 256;
+
+    /**
+     * The default maximum size in megabytes of the cached results of
+     * functions.
+     */
+    public static final int DEFAULT_RESULT_CACHE_SIZE = 4096;
+
+    /**
+     * Draw the pipeline with a component per function, connector and link by
+     * default, the single canvas is meant for very large pipelines.
+     */
+    public static final boolean DEFAULT_SINGLE_CANVAS_RENDERING = false;
+
+    /**
+     * Directory which contains the cached results of functions.
+     */
+    public static final File RESULT_CACHE_DIRECTORY = new File(
+            System.getProperty("java.io.tmpdir"), "osmembrane-cache");
+
+    /**
+     * Maximum count of stored runtime samples used to calibrate the runtime
+     * estimation, older ones are removed.
+     */
+    public static final int MAXIMUM_RUNTIME_SAMPLES = 50;
+
+    /**
+     * Warn before the execution if the estimated peak memory of osmosis
+     * exceeds this size in megabytes.
+     */
+    public static final int ESTIMATE_WARNING_MEMORY = 1024;
+
+    /**
+     * Warn before the execution if the estimated duration exceeds this count
+     * of minutes.
+     */
+    public static final int ESTIMATE_WARNING_DURATION = 60;
+
     /**
      * The default path to the osmosis binaries.
      */
@@ -208,6 +256,36 @@ public class Constants {
      */
     public static final double DEFAULT_SIZE_FACTOR = 0.64;
 
+    /**
+     * Maximum size in megabytes of the display images pre-scaled to the
+     * current zoom, the least recently used are removed.
+     */
+    public static final int DISPLAY_TILE_CACHE_SIZE = 16;
+
+    /**
+     * Maximum count of loaded icons and images kept in the
+     * {@link de.osmembrane.tools.ImageCache}, the least recently used are
+     * removed.
+     */
+    public static final int MAXIMUM_CACHED_IMAGES = 256;
+
+    /**
+     * Duration in ms after which an event on the event dispatch thread counts
+     * as a stall and its stack gets sampled.
+     */
+    public static final int EVENT_DISPATCH_STALL_THRESHOLD = 100;
+
+    /**
+     * Interval in ms between two stack samples of a stalled event dispatch
+     * thread.
+     */
+    public static final int EVENT_DISPATCH_SAMPLE_INTERVAL = 20;
+
+    /**
+     * Number of hot frames listed per stalled event source.
+     */
+    public static final int EVENT_DISPATCH_HOT_FRAMES = 5;
+
     /**
      * Default update interval.
      */
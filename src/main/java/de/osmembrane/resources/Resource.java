@@ -11,6 +11,7 @@
 
 package de.osmembrane.resources;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -21,6 +22,7 @@ import javax.swing.ImageIcon;
 import de.osmembrane.model.ModelProxy;
 import de.osmembrane.model.settings.SettingType;
 import de.osmembrane.tools.IconLoader;
+import de.osmembrane.tools.ImageCache;
 
 /**
  * Resource enum for various files used in OSMembrane.
@@ -66,7 +68,6 @@ public enum Resource {
     private String internalPath;
     private String[] externalPath;
     private boolean externalPrefered;
-    private boolean silentLoad = false;
 
     /**
      * Create a new Resource enum.
@@ -131,7 +132,23 @@ public enum Resource {
      *         was found
      */
     public ImageIcon getImageIcon(String filename, IconLoader.Size size) {
-        return new IconLoader(getURL(filename), size, silentLoad).get();
+        BufferedImage image = ImageCache.getInstance().get(getURL(filename),
+                size);
+        return (image != null) ? new ImageIcon(image) : null;
+    }
+
+    /**
+     * Loads an image of the resource in the background, so a later
+     * {@link Resource#getImageIcon(String, IconLoader.Size)} finds it in the
+     * {@link ImageCache}.
+     * 
+     * @param filename
+     *            file inside the resource
+     * @param size
+     *            size for the {@link ImageIcon}
+     */
+    public void preloadImageIcon(String filename, IconLoader.Size size) {
+        ImageCache.getInstance().preload(getURL(filename), size);
     }
 
     /**
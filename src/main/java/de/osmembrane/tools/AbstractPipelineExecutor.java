@@ -0,0 +1,120 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.tools;
+
+import java.awt.event.WindowEvent;
+import java.awt.event.WindowListener;
+import java.io.File;
+
+import de.osmembrane.view.interfaces.IExecutionStateDialog;
+
+/**
+ * Base of the executors which run osmosis processes and report their state
+ * in an {@link IExecutionStateDialog}. Closing the dialog cancels a running
+ * execution.
+ * 
+ * @author agent
+ */
+public abstract class AbstractPipelineExecutor extends Thread implements
+        WindowListener {
+
+    protected String osmosisPath;
+    protected File workingDirectory;
+    protected IExecutionStateDialog dialog;
+
+    /**
+     * Initialize the executor.
+     * 
+     * @throws IllegalArgumentException
+     *             when the osmosis executable is not runnable.
+     */
+    public AbstractPipelineExecutor(String osmosisPath,
+            String workingDirectory, IExecutionStateDialog dialog) {
+        setPath(osmosisPath);
+        this.workingDirectory = new File(workingDirectory);
+        this.dialog = dialog;
+        dialog.addWindowListener(this);
+
+        dialog.setState(I18N.getInstance().getString(
+                "Tools.PipelineExecutor.ParametersSet"));
+        dialog.setProgress(5);
+        dialog.setCloseButtonCaption(I18N.getInstance()
+                .getString("View.Cancel"));
+    }
+
+    /**
+     * Cancels the running execution, called when the dialog is closed.
+     */
+    protected void cancel() {
+        interrupt();
+    }
+
+    /**
+     * Called when the dialog is closed after the execution ended.
+     */
+    protected void closedAfterExecution() {
+    }
+
+    /**
+     * Sets the osmosisPath and validates it.
+     * 
+     * @param osmosisPath
+     */
+    private void setPath(String osmosisPath) {
+        if (osmosisPath == null) {
+            throw new IllegalArgumentException();
+        }
+        File f = new File(osmosisPath);
+        if (!f.isFile() || !f.canExecute() || !f.canRead()) {
+            throw new IllegalArgumentException();
+        }
+        this.osmosisPath = osmosisPath;
+    }
+
+    /**
+     * The Windows-closed action of the dialog in the view.
+     */
+    @Override
+    public void windowClosing(WindowEvent e) {
+        dialog.removeWindowListener(this);
+
+        if (this.isAlive()) {
+            cancel();
+        } else {
+            closedAfterExecution();
+        }
+    }
+
+    @Override
+    public void windowClosed(WindowEvent e) {
+    }
+
+    @Override
+    public void windowOpened(WindowEvent e) {
+    }
+
+    @Override
+    public void windowIconified(WindowEvent e) {
+    }
+
+    @Override
+    public void windowDeiconified(WindowEvent e) {
+    }
+
+    @Override
+    public void windowActivated(WindowEvent e) {
+    }
+
+    @Override
+    public void windowDeactivated(WindowEvent e) {
+    }
+}
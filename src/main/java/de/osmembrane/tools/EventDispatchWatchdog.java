@@ -0,0 +1,416 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.tools;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import de.osmembrane.resources.Constants;
+
+/**
+ * Event queue which watches the event dispatch thread for stalls. Every
+ * event dispatched while the {@link Instrumentation} is enabled is
+ * timestamped, and a sampler thread takes stack traces of the event dispatch
+ * thread as long as an event runs longer than
+ * {@link Constants#EVENT_DISPATCH_STALL_THRESHOLD}. The stalls are grouped by
+ * their source, which is the outermost OSMembrane frame of the stack, usually
+ * the action or the observer which was called by Swing.
+ * 
+ * @author agent
+ */
+public class EventDispatchWatchdog extends EventQueue {
+
+    /**
+     * Package of the frames which are attributed as source of a stall.
+     */
+    private static final String OSMEMBRANE_PACKAGE = "de.osmembrane.";
+
+    /**
+     * Interval in ms in which the sampler checks if the instrumentation got
+     * enabled.
+     */
+    private static final long IDLE_INTERVAL = 1000;
+
+    /**
+     * Instance for the Singleton pattern.
+     */
+    private static EventDispatchWatchdog instance = new EventDispatchWatchdog();
+
+    /**
+     * The running dispatches, only used by the event dispatch thread.
+     * Modal dialogs dispatch events while an event is dispatched.
+     */
+    private Deque<Dispatch> dispatches = new ArrayDeque<Dispatch>();
+
+    /**
+     * The innermost running dispatch, read by the sampler.
+     */
+    private volatile Dispatch current;
+
+    /**
+     * The stalls per source, also the lock of the recorded stalls.
+     */
+    private Map<String, Offender> offenders = new HashMap<String, Offender>();
+
+    private boolean installed = false;
+
+    /**
+     * Private constructor for the Singleton pattern.
+     */
+    private EventDispatchWatchdog() {
+    }
+
+    /**
+     * Getter for the Singleton pattern.
+     * 
+     * @return the one and only instance of EventDispatchWatchdog
+     */
+    public static EventDispatchWatchdog getInstance() {
+        return instance;
+    }
+
+    /**
+     * Replaces the system event queue with the watchdog and starts the
+     * sampler, does nothing if it is already installed.
+     */
+    public void install() {
+        synchronized (offenders) {
+            if (installed) {
+                return;
+            }
+            installed = true;
+        }
+
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(this);
+
+        Thread sampler = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }, "EventDispatchWatchdog sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        Dispatch outer = dispatches.peek();
+        if (outer != null) {
+            /* the outer event waits for a modal dialog, that is no stall */
+            outer.nested = true;
+        }
+
+        if (!Instrumentation.getInstance().isEnabled()) {
+            super.dispatchEvent(event);
+            return;
+        }
+
+        Dispatch dispatch = new Dispatch(event);
+        dispatches.push(dispatch);
+        current = dispatch;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long duration = System.nanoTime() - dispatch.start;
+            dispatches.pop();
+            current = dispatches.peek();
+
+            if (!dispatch.nested
+                    && duration >= TimeUnit.MILLISECONDS
+                            .toNanos(Constants.EVENT_DISPATCH_STALL_THRESHOLD)) {
+                record(dispatch, duration);
+            }
+        }
+    }
+
+    /**
+     * Loop of the sampler thread, takes a stack trace of the event dispatch
+     * thread while the current dispatch is stalled.
+     */
+    private void sample() {
+        long threshold = TimeUnit.MILLISECONDS
+                .toNanos(Constants.EVENT_DISPATCH_STALL_THRESHOLD);
+
+        while (true) {
+            try {
+                if (Instrumentation.getInstance().isEnabled()) {
+                    Thread.sleep(Constants.EVENT_DISPATCH_SAMPLE_INTERVAL);
+                } else {
+                    Thread.sleep(IDLE_INTERVAL);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            Dispatch dispatch = current;
+            if (dispatch != null && !dispatch.nested
+                    && System.nanoTime() - dispatch.start >= threshold) {
+                StackTraceElement[] stack = dispatch.thread.getStackTrace();
+                if (current == dispatch) {
+                    dispatch.addSample(stack);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a stalled dispatch to its offender.
+     */
+    private void record(Dispatch dispatch, long duration) {
+        List<StackTraceElement[]> samples = dispatch.getSamples();
+
+        String source = null;
+        for (StackTraceElement[] sample : samples) {
+            source = sourceOf(sample);
+            if (source != null) {
+                break;
+            }
+        }
+        if (source == null) {
+            source = describe(dispatch.event);
+        }
+
+        synchronized (offenders) {
+            Offender offender = offenders.get(source);
+            if (offender == null) {
+                offender = new Offender(source);
+                offenders.put(source, offender);
+            }
+            offender.add(duration, samples);
+        }
+    }
+
+    /**
+     * Removes all recorded stalls.
+     */
+    public void reset() {
+        synchronized (offenders) {
+            offenders.clear();
+        }
+    }
+
+    /**
+     * Writes the recorded stalls, the offender with the longest total stall
+     * first.
+     * 
+     * @param writer
+     *            the writer to write to
+     */
+    public void writeReport(PrintWriter writer) {
+        synchronized (offenders) {
+            writeReport(writer, new ArrayList<Offender>(offenders.values()));
+        }
+    }
+
+    private void writeReport(PrintWriter writer, List<Offender> sorted) {
+        Collections.sort(sorted, new Comparator<Offender>() {
+            @Override
+            public int compare(Offender o1, Offender o2) {
+                return (o1.total < o2.total) ? 1 : ((o1.total > o2.total) ? -1
+                        : 0);
+            }
+        });
+
+        writer.println(String.format(Locale.ENGLISH,
+                "# event dispatch stalls of %d ms and longer, durations in ms",
+                Constants.EVENT_DISPATCH_STALL_THRESHOLD));
+        for (Offender offender : sorted) {
+            writer.println(String.format(Locale.ENGLISH,
+                    "%s: %d stalls, %.1f total, %.1f max", offender.source,
+                    offender.count, toMillis(offender.total),
+                    toMillis(offender.max)));
+            for (Map.Entry<String, Integer> frame : offender
+                    .getHotFrames(offender.frames)) {
+                writer.println(String.format(Locale.ENGLISH,
+                        "    %5d samples at %s", frame.getValue(),
+                        frame.getKey()));
+            }
+            for (Map.Entry<String, Integer> frame : offender
+                    .getHotFrames(offender.osmembraneFrames)) {
+                writer.println(String.format(Locale.ENGLISH,
+                        "    %5d samples in %s", frame.getValue(),
+                        frame.getKey()));
+            }
+        }
+    }
+
+    /**
+     * @return the recorded stalls as text, see
+     *         {@link #writeReport(PrintWriter)}
+     */
+    public String getReport() {
+        StringWriter report = new StringWriter();
+        PrintWriter writer = new PrintWriter(report);
+        writeReport(writer);
+        writer.flush();
+        return report.toString();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (1000.0 * 1000.0);
+    }
+
+    /**
+     * Returns the outermost OSMembrane frame of the stack, or null if there
+     * is none.
+     */
+    private static String sourceOf(StackTraceElement[] stack) {
+        for (int i = stack.length - 1; i >= 0; i--) {
+            if (isOSMembraneFrame(stack[i])) {
+                return stack[i].getClassName() + "." + stack[i].getMethodName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the innermost OSMembrane frame of the stack, or null if there
+     * is none.
+     */
+    private static StackTraceElement innermostOSMembraneFrame(
+            StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (isOSMembraneFrame(frame)) {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isOSMembraneFrame(StackTraceElement frame) {
+        return frame.getClassName().startsWith(OSMEMBRANE_PACKAGE)
+                && !frame.getClassName().equals(
+                        EventDispatchWatchdog.class.getName());
+    }
+
+    /**
+     * Describes an event without OSMembrane code on the stack by its type
+     * and source.
+     */
+    private static String describe(AWTEvent event) {
+        return event.getClass().getSimpleName() + " from "
+                + event.getSource().getClass().getName();
+    }
+
+    /**
+     * One event which is dispatched right now.
+     */
+    private static class Dispatch {
+
+        private final AWTEvent event;
+
+        private final Thread thread = Thread.currentThread();
+
+        private final long start = System.nanoTime();
+
+        /**
+         * True if another event was dispatched while this one ran.
+         */
+        private volatile boolean nested = false;
+
+        private final List<StackTraceElement[]> samples = new ArrayList<StackTraceElement[]>();
+
+        public Dispatch(AWTEvent event) {
+            this.event = event;
+        }
+
+        public synchronized void addSample(StackTraceElement[] stack) {
+            samples.add(stack);
+        }
+
+        public synchronized List<StackTraceElement[]> getSamples() {
+            return new ArrayList<StackTraceElement[]>(samples);
+        }
+    }
+
+    /**
+     * The stalls caused by one source.
+     */
+    private static class Offender {
+
+        private final String source;
+
+        private int count = 0;
+
+        private long total = 0;
+
+        private long max = 0;
+
+        /**
+         * Samples per top frame of the stack.
+         */
+        private final Map<String, Integer> frames = new HashMap<String, Integer>();
+
+        /**
+         * Samples per innermost OSMembrane frame of the stack.
+         */
+        private final Map<String, Integer> osmembraneFrames = new HashMap<String, Integer>();
+
+        public Offender(String source) {
+            this.source = source;
+        }
+
+        public void add(long duration, List<StackTraceElement[]> samples) {
+            count++;
+            total += duration;
+            max = Math.max(max, duration);
+
+            for (StackTraceElement[] sample : samples) {
+                if (sample.length > 0) {
+                    increment(frames, sample[0].toString());
+                }
+                StackTraceElement frame = innermostOSMembraneFrame(sample);
+                if (frame != null) {
+                    increment(osmembraneFrames, frame.toString());
+                }
+            }
+        }
+
+        private void increment(Map<String, Integer> map, String frame) {
+            Integer samples = map.get(frame);
+            map.put(frame, (samples == null) ? 1 : samples + 1);
+        }
+
+        /**
+         * Returns the frames with the most samples, most sampled first.
+         */
+        public List<Map.Entry<String, Integer>> getHotFrames(
+                Map<String, Integer> map) {
+            List<Map.Entry<String, Integer>> sorted = new ArrayList<Map.Entry<String, Integer>>(
+                    map.entrySet());
+            Collections.sort(sorted,
+                    new Comparator<Map.Entry<String, Integer>>() {
+                        @Override
+                        public int compare(Map.Entry<String, Integer> o1,
+                                Map.Entry<String, Integer> o2) {
+                            return o2.getValue().compareTo(o1.getValue());
+                        }
+                    });
+            return sorted.subList(0,
+                    Math.min(sorted.size(), Constants.EVENT_DISPATCH_HOT_FRAMES));
+        }
+    }
+}
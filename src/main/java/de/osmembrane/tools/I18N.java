@@ -12,10 +12,14 @@
 package de.osmembrane.tools;
 
 import java.text.MessageFormat;
+import java.util.Collections;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Observable;
 import java.util.ResourceBundle;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.JComponent;
 
@@ -24,7 +28,9 @@ import de.osmembrane.model.xml.XMLHasDescription.Description;
 import de.osmembrane.resources.Constants;
 
 /**
- * Internationalization for OSMembrane.
+ * Internationalization for OSMembrane.<br/>
+ * The compiled messages and the trimmed descriptions are cached for the
+ * active locale, the cache is replaced when the locale changes.
  * 
  * @author jakob_jarosch
  */
@@ -45,6 +51,11 @@ public class I18N extends Observable {
      */
     private Locale defaultLocale;
 
+    /**
+     * Cache of the active and default locale.
+     */
+    private volatile LocaleCache cache;
+
     /**
      * Implements the Singleton pattern.
      */
@@ -84,6 +95,7 @@ public class I18N extends Observable {
         Locale.setDefault(locale);
         this.resourceBundle = ResourceBundle.getBundle(
                 Constants.RESOURCE_BUNDLE_PATH, this.activeLocale);
+        this.cache = new LocaleCache();
 
         setSwingLocale(locale);
 
@@ -100,6 +112,7 @@ public class I18N extends Observable {
      */
     protected void setDefaultLocale(Locale locale) {
         this.defaultLocale = locale;
+        this.cache = new LocaleCache();
 
         /* notify the observers that possibly the language has been changed */
         setChanged();
@@ -116,18 +129,26 @@ public class I18N extends Observable {
      * @return a localized and formatted String
      */
     public String getString(String key, Object... values) {
-        String msg;
-        try {
-            msg = resourceBundle.getString(key);
-        } catch (MissingResourceException e) {
-            msg = "!" + key + "!";
-        }
-
         if (values.length > 0) {
-            return MessageFormat.format(msg, values);
+            MessageFormat format = cache.getFormat(key);
+            /* a MessageFormat is not thread-safe */
+            synchronized (format) {
+                return format.format(values);
+            }
         }
 
-        return msg;
+        return getMessage(key);
+    }
+
+    /**
+     * Returns the unformatted localized String for a key.
+     */
+    private String getMessage(String key) {
+        try {
+            return resourceBundle.getString(key);
+        } catch (MissingResourceException e) {
+            return "!" + key + "!";
+        }
     }
 
     /**
@@ -140,6 +161,14 @@ public class I18N extends Observable {
      *         was found.
      */
     public String getDescription(XMLHasDescription description) {
+        return cache.getDescription(description);
+    }
+
+    /**
+     * Localizes a description without the cache, see
+     * {@link #getDescription(XMLHasDescription)}.
+     */
+    private String findDescription(XMLHasDescription description) {
 
         if (description.getDescription() == null) {
             return null;
@@ -178,4 +207,40 @@ public class I18N extends Observable {
         JComponent.setDefaultLocale(locale);
 
     }
+
+    /**
+     * The cached messages and descriptions for one locale.
+     */
+    private class LocaleCache {
+
+        /**
+         * The compiled messages, by key.
+         */
+        private Map<String, MessageFormat> formats = new ConcurrentHashMap<String, MessageFormat>();
+
+        /**
+         * The trimmed descriptions, weak because the descriptions of loaded
+         * files may go away.
+         */
+        private Map<XMLHasDescription, String> descriptions = Collections
+                .synchronizedMap(new WeakHashMap<XMLHasDescription, String>());
+
+        public MessageFormat getFormat(String key) {
+            MessageFormat format = formats.get(key);
+            if (format == null) {
+                format = new MessageFormat(getMessage(key), activeLocale);
+                formats.put(key, format);
+            }
+            return format;
+        }
+
+        public String getDescription(XMLHasDescription description) {
+            String result = descriptions.get(description);
+            if (result == null && !descriptions.containsKey(description)) {
+                result = findDescription(description);
+                descriptions.put(description, result);
+            }
+            return result;
+        }
+    }
 }
@@ -118,6 +118,10 @@ public class IconLoader {
 
             /* Load the icon to an BufferedImage */
             BufferedImage tempImg = ImageIO.read(file);
+            if (tempImg == null) {
+                /* no registered reader understands the file */
+                throw new IOException();
+            }
 
             int width = (size.getWidth() > 0) ? size.getWidth() : tempImg
                     .getWidth();
@@ -152,4 +156,13 @@ public class IconLoader {
         }
         return new ImageIcon(image);
     }
+
+    /**
+     * Returns the loaded image.
+     * 
+     * @return the image, or NULL if it could not be loaded
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
 }
@@ -0,0 +1,180 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.tools;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import de.osmembrane.resources.Constants;
+import de.osmembrane.tools.IconLoader.Size;
+
+/**
+ * Process-wide cache for the images loaded by {@link IconLoader}, per URL and
+ * size. The least recently used images are removed if there are more than
+ * {@link Constants#MAXIMUM_CACHED_IMAGES}, and all images are only softly
+ * referenced, so the garbage collector may remove them when memory gets low.
+ * 
+ * @author agent
+ */
+public class ImageCache {
+
+    /**
+     * Instance for the Singleton pattern.
+     */
+    private static ImageCache instance = new ImageCache();
+
+    /**
+     * The cached images, least recently used first.
+     */
+    private Map<String, SoftReference<BufferedImage>> images = new LinkedHashMap<String, SoftReference<BufferedImage>>(
+            16, 0.75f, true) {
+        private static final long serialVersionUID = 2011032313450001L;
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<String, SoftReference<BufferedImage>> eldest) {
+            return size() > Constants.MAXIMUM_CACHED_IMAGES;
+        }
+    };
+
+    /**
+     * Loads the images to preload, one after another in the background.
+     */
+    private ExecutorService preloader = Executors
+            .newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "ImageCache preloader");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+
+    /**
+     * Private constructor for the Singleton pattern.
+     */
+    private ImageCache() {
+    }
+
+    /**
+     * Getter for the Singleton pattern.
+     * 
+     * @return the one and only instance of ImageCache
+     */
+    public static ImageCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the image behind an URL in the given size, loads it if it is not
+     * cached.
+     * 
+     * @param url
+     *            the URL of the image
+     * @param size
+     *            the desired size
+     * @return the image, or NULL if it could not be loaded
+     */
+    public BufferedImage get(URL url, Size size) {
+        if (url == null) {
+            return null;
+        }
+
+        String key = getKey(url, size);
+        BufferedImage image = getCached(key);
+        if (image == null) {
+            /* load outside of the lock, so the preloader does not block */
+            image = new IconLoader(url, size, true).getImage();
+            if (image != null) {
+                synchronized (images) {
+                    images.put(key, new SoftReference<BufferedImage>(image));
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Returns the image of a file in the given size, loads it if it is not
+     * cached.
+     * 
+     * @param file
+     *            the file of the image
+     * @param size
+     *            the desired size
+     * @return the image, or NULL if it could not be loaded
+     */
+    public BufferedImage get(File file, Size size) {
+        try {
+            return get(file.toURI().toURL(), size);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads an image in the background, so a later {@link #get(URL, Size)}
+     * finds it in the cache.
+     * 
+     * @param url
+     *            the URL of the image
+     * @param size
+     *            the desired size
+     */
+    public void preload(final URL url, final Size size) {
+        if (url == null) {
+            return;
+        }
+
+        preloader.execute(new Runnable() {
+            @Override
+            public void run() {
+                get(url, size);
+            }
+        });
+    }
+
+    /**
+     * Returns a cached image, or NULL if it is not cached (anymore).
+     */
+    private BufferedImage getCached(String key) {
+        synchronized (images) {
+            SoftReference<BufferedImage> reference = images.get(key);
+            if (reference == null) {
+                return null;
+            }
+
+            BufferedImage image = reference.get();
+            if (image == null) {
+                images.remove(key);
+            }
+            return image;
+        }
+    }
+
+    /**
+     * Returns the key for an URL and a size. Does not use
+     * {@link URL#equals(Object)}, which might resolve host names.
+     */
+    private String getKey(URL url, Size size) {
+        return size.name() + " " + url.toExternalForm();
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.tools;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Records the durations of the instrumented model and view operations into a
+ * {@link Histogram} per {@link Operation}. An operation is measured with
+ * 
+ * <pre>
+ * long start = Instrumentation.getInstance().start();
+ * ...
+ * Instrumentation.getInstance().stop(Operation.HAS_LOOP, start);
+ * </pre>
+ * 
+ * While the instrumentation is disabled, {@link #start()} only reads a
+ * volatile flag and {@link #stop(Operation, long)} does nothing. It is
+ * enabled by the system property {@value #ENABLED_PROPERTY}, in the
+ * diagnostics dialog or over JMX.
+ * 
+ * @author agent
+ */
+public class Instrumentation implements InstrumentationMXBean {
+
+    /**
+     * System property to enable the instrumentation on start up.
+     */
+    public static final String ENABLED_PROPERTY = "osmembrane.instrumentation";
+
+    /**
+     * Name of the instrumentation in the platform MBean server.
+     */
+    public static final String OBJECT_NAME = "de.osmembrane:type=Instrumentation";
+
+    /**
+     * Start time handed out while the instrumentation is disabled.
+     */
+    private static final long DISABLED = 0L;
+
+    /**
+     * The instrumented operations.
+     */
+    public enum Operation {
+        PIPELINE_NOTIFY("Pipeline.changedNotifyObservers"),
+        UNDO_STEP("Pipeline.saveStep"),
+        HAS_LOOP("Pipeline.hasLoop"),
+        PERSISTENCE_SAVE("Persistence.save"),
+        PERSISTENCE_LOAD("Persistence.load"),
+        PARSER_PARSE_STRING("Parser.parseString"),
+        PARSER_PARSE_PIPELINE("Parser.parsePipeline"),
+        PIPELINE_PANEL_UPDATE("PipelinePanel.modelChanged"),
+        PIPELINE_PANEL_ARRANGE("PipelinePanel.arrange"),
+        INSPECTOR_INSPECT("InspectorPanel.inspect");
+
+        private String name;
+
+        private Operation(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return the name of the instrumented method
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Instance for the Singleton pattern.
+     */
+    private static Instrumentation instance = new Instrumentation();
+
+    private volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private final Histogram[] histograms = new Histogram[Operation.values().length];
+
+    /**
+     * Private constructor for the Singleton pattern.
+     */
+    private Instrumentation() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new Histogram();
+        }
+    }
+
+    /**
+     * Getter for the Singleton pattern.
+     * 
+     * @return the one and only instance of Instrumentation
+     */
+    public static Instrumentation getInstance() {
+        return instance;
+    }
+
+    /**
+     * Publishes the instrumentation in the platform MBean server, does
+     * nothing if it is already published.
+     * 
+     * @throws JMException
+     *             if the MBean server refuses the instrumentation
+     */
+    public void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(this, name);
+        }
+    }
+
+    /**
+     * Starts measuring an operation.
+     * 
+     * @return the start time to pass to {@link #stop(Operation, long)}
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Records the duration of an operation, if the measurement was started
+     * while the instrumentation was enabled.
+     * 
+     * @param operation
+     *            the measured operation
+     * @param start
+     *            the value returned by {@link #start()}
+     */
+    public void stop(Operation operation, long start) {
+        if (start != DISABLED) {
+            histograms[operation.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the statistics of one operation.
+     * 
+     * @param operation
+     *            the operation
+     * @return the statistics of the operation
+     */
+    public OperationStatistics getStatistics(Operation operation) {
+        return new OperationStatistics(operation.getName(),
+                histograms[operation.ordinal()]);
+    }
+
+    @Override
+    public List<OperationStatistics> getOperations() {
+        List<OperationStatistics> result = new ArrayList<OperationStatistics>();
+        for (Operation operation : Operation.values()) {
+            result.add(getStatistics(operation));
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        for (Histogram histogram : histograms) {
+            histogram.reset();
+        }
+        EventDispatchWatchdog.getInstance().reset();
+    }
+
+    @Override
+    public String getEventDispatchReport() {
+        return EventDispatchWatchdog.getInstance().getReport();
+    }
+
+    @Override
+    public void dump(String filename) throws IOException {
+        dump(new File(filename));
+    }
+
+    /**
+     * Writes the current statistics into a text file, one line per
+     * operation, followed by the report of the
+     * {@link EventDispatchWatchdog}.
+     * 
+     * @param file
+     *            the file
+     * @throws IOException
+     *             if the file could not be written
+     */
+    public void dump(File file) throws IOException {
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "UTF-8"));
+        try {
+            writer.println("# OSMembrane instrumentation, " + new Date()
+                    + ", durations in ms");
+            writer.println(String.format(Locale.ENGLISH,
+                    "%-34s %10s %10s %10s %10s %10s %10s",
+                    "operation", "count", "mean", "p50", "p90", "p99", "max"));
+            for (OperationStatistics statistics : getOperations()) {
+                writer.println(String.format(Locale.ENGLISH,
+                        "%-34s %10d %10.3f %10.3f %10.3f %10.3f %10.3f",
+                        statistics.getName(), statistics.getCount(),
+                        statistics.getMean(), statistics.getMedian(),
+                        statistics.getPercentile90(),
+                        statistics.getPercentile99(), statistics.getMax()));
+            }
+
+            writer.println();
+            EventDispatchWatchdog.getInstance().writeReport(writer);
+        } finally {
+            writer.close();
+        }
+
+        if (writer.checkError()) {
+            throw new IOException("Could not write " + file);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.tools;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Management interface of {@link Instrumentation}, published over JMX as
+ * {@value Instrumentation#OBJECT_NAME}.
+ * 
+ * @author agent
+ */
+public interface InstrumentationMXBean {
+
+    /**
+     * @return true if the operations are recorded
+     */
+    boolean isEnabled();
+
+    /**
+     * Enables or disables the recording of the operations.
+     * 
+     * @param enabled
+     *            true to record the operations
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return the statistics of all instrumented operations
+     */
+    List<OperationStatistics> getOperations();
+
+    /**
+     * @return the stalls of the event dispatch thread recorded by the
+     *         {@link EventDispatchWatchdog}
+     */
+    String getEventDispatchReport();
+
+    /**
+     * Removes all recorded durations and stalls.
+     */
+    void reset();
+
+    /**
+     * Writes the current statistics and stalls into a text file.
+     * 
+     * @param filename
+     *            path of the file
+     * @throws IOException
+     *             if the file could not be written
+     */
+    void dump(String filename) throws IOException;
+}
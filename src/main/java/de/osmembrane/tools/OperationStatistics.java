@@ -0,0 +1,122 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.tools;
+
+import java.beans.ConstructorProperties;
+
+import de.osmembrane.tools.Instrumentation.Operation;
+
+/**
+ * Snapshot of the durations recorded by {@link Instrumentation} for one
+ * {@link Operation}, all durations in milliseconds.
+ * 
+ * @author agent
+ */
+public class OperationStatistics {
+
+    private static final double NANOS_PER_MILLISECOND = 1000.0 * 1000.0;
+
+    private final String name;
+    private final long count;
+    private final double mean;
+    private final double median;
+    private final double percentile90;
+    private final double percentile99;
+    private final double max;
+
+    /**
+     * Creates new statistics with the given values.
+     */
+    @ConstructorProperties({ "name", "count", "mean", "median",
+            "percentile90", "percentile99", "max" })
+    public OperationStatistics(String name, long count, double mean,
+            double median, double percentile90, double percentile99,
+            double max) {
+        this.name = name;
+        this.count = count;
+        this.mean = mean;
+        this.median = median;
+        this.percentile90 = percentile90;
+        this.percentile99 = percentile99;
+        this.max = max;
+    }
+
+    /**
+     * Creates the statistics of the durations in nanoseconds recorded in the
+     * histogram.
+     * 
+     * @param name
+     *            name of the operation
+     * @param histogram
+     *            the recorded durations
+     */
+    OperationStatistics(String name, Histogram histogram) {
+        this(name, histogram.getCount(), histogram.getMean()
+                / NANOS_PER_MILLISECOND, toMillis(histogram
+                .getValueAtPercentile(50.0)), toMillis(histogram
+                .getValueAtPercentile(90.0)), toMillis(histogram
+                .getValueAtPercentile(99.0)), toMillis(histogram.getMax()));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / NANOS_PER_MILLISECOND;
+    }
+
+    /**
+     * @return the name of the operation
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return how often the operation was recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean duration
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return the duration half of the operations stayed below
+     */
+    public double getMedian() {
+        return median;
+    }
+
+    /**
+     * @return the duration 90% of the operations stayed below
+     */
+    public double getPercentile90() {
+        return percentile90;
+    }
+
+    /**
+     * @return the duration 99% of the operations stayed below
+     */
+    public double getPercentile99() {
+        return percentile99;
+    }
+
+    /**
+     * @return the longest duration
+     */
+    public double getMax() {
+        return max;
+    }
+}
@@ -12,10 +12,7 @@
 package de.osmembrane.tools;
 
 import java.awt.event.ActionEvent;
-import java.awt.event.WindowEvent;
-import java.awt.event.WindowListener;
 import java.io.BufferedReader;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
@@ -27,6 +24,9 @@ import de.osmembrane.Application;
 import de.osmembrane.controller.ActionRegistry;
 import de.osmembrane.exceptions.ControlledException;
 import de.osmembrane.exceptions.ExceptionSeverity;
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.algorithms.ResultCache;
+import de.osmembrane.model.settings.RuntimeSample;
 import de.osmembrane.view.interfaces.IExecutionStateDialog;
 
 /**
@@ -34,17 +34,18 @@ import de.osmembrane.view.interfaces.IExecutionStateDialog;
  * 
  * @author jakob_jarosch
  */
-public class PipelineExecutor extends Thread implements WindowListener {
+public class PipelineExecutor extends AbstractPipelineExecutor {
 
-    private String osmosisPath;
-    private File workingDirectory;
     private List<String> parameters;
-    private IExecutionStateDialog dialog;
 
     private Class<? extends Action> callbackEvent;
 
     private int executionState = -1;
 
+    private double estimatedCost = 0;
+
+    private ResultCache resultCache;
+
     /**
      * Initialize the pipeline executor.
      * 
@@ -53,17 +54,8 @@ public class PipelineExecutor extends Thread implements WindowListener {
      */
     public PipelineExecutor(String osmosisPath, String workingDirectory,
             List<String> parameters, IExecutionStateDialog dialog) {
-        setPath(osmosisPath);
-        this.workingDirectory = new File(workingDirectory);
+        super(osmosisPath, workingDirectory, dialog);
         this.parameters = parameters;
-        this.dialog = dialog;
-        dialog.addWindowListener(this);
-
-        dialog.setState(I18N.getInstance().getString(
-                "Tools.PipelineExecutor.ParametersSet"));
-        dialog.setProgress(5);
-        dialog.setCloseButtonCaption(I18N.getInstance()
-                .getString("View.Cancel"));
     }
 
     /**
@@ -76,8 +68,33 @@ public class PipelineExecutor extends Thread implements WindowListener {
         this.callbackEvent = event;
     }
 
+    /**
+     * Sets the estimated cost of the executed pipeline, after a successful
+     * execution it is stored with the measured runtime to calibrate further
+     * estimates.
+     * 
+     * @param estimatedCost
+     *            the cost, nothing is stored if it is 0
+     */
+    public void setEstimatedCost(double estimatedCost) {
+        this.estimatedCost = estimatedCost;
+    }
+
+    /**
+     * Sets the result cache used by the executed pipeline, the written
+     * results are taken into the cache after a successful execution and
+     * removed otherwise.
+     * 
+     * @param resultCache
+     *            the result cache or null if none is used
+     */
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
     @Override
     public void run() {
+        long startTime = System.nanoTime();
         dialog.setState(I18N.getInstance().getString(
                 "Tools.PipelineExecutor.StartingOsmosis"));
         dialog.setProgress(10);
@@ -125,9 +142,19 @@ public class PipelineExecutor extends Thread implements WindowListener {
                         dialog.setCloseButtonCaption(I18N.getInstance()
                                 .getString("View.OK"));
                         dialog.setProgress(100);
+
+                        if (estimatedCost > 0) {
+                            double seconds = (System.nanoTime() - startTime) / 1e9;
+                            ModelProxy.getInstance().getSettings()
+                                    .addRuntimeSample(
+                                            new RuntimeSample(estimatedCost,
+                                                    seconds));
+                        }
+                        finishResultCache(true);
                     } else {
                         dialog.setState(I18N.getInstance().getString(
                                 "Tools.PipelineExecutor.Failed"));
+                        finishResultCache(false);
                         dialog.setCloseButtonCaption(I18N.getInstance()
                                 .getString("View.Close"));
                     }
@@ -135,16 +162,19 @@ public class PipelineExecutor extends Thread implements WindowListener {
                     executionState = exitValue;
                 } catch (InterruptedException e) {
                     interrupt();
+                    finishResultCache(false);
                 }
             } else {
                 process.destroy();
                 reader.close();
+                finishResultCache(false);
             }
 
         } catch (IOException e) {
             dialog.setState(I18N.getInstance().getString(
                     "Tools.PipelineExecutor.IOExecption"));
             dialog.setProgress(0);
+            finishResultCache(false);
             Application.handleException(new ControlledException(this,
                     ExceptionSeverity.WARNING, e, I18N.getInstance().getString(
                             "Tools.PipelineExecutor.IOExecption")));
@@ -152,61 +182,29 @@ public class PipelineExecutor extends Thread implements WindowListener {
     }
 
     /**
-     * Sets the osmosisPath and validates it.
-     * 
-     * @param osmosisPath
+     * Takes the written results into the result cache or removes them.
      */
-    private void setPath(String osmosisPath) {
-        if (osmosisPath == null) {
-            throw new IllegalArgumentException();
+    private void finishResultCache(boolean success) {
+        if (resultCache == null) {
+            return;
         }
-        File f = new File(osmosisPath);
-        if (!f.isFile() || !f.canExecute() || !f.canRead()) {
-            throw new IllegalArgumentException();
+        if (success) {
+            resultCache.commit();
+        } else {
+            resultCache.abort();
         }
-        this.osmosisPath = osmosisPath;
     }
 
     /**
-     * The Windows-closed action of the dialog in the view.
+     * Runs the callback action after a successful execution.
      */
     @Override
-    public void windowClosing(WindowEvent e) {
-        dialog.removeWindowListener(this);
-
-        if (this.isAlive()) {
-            this.interrupt();
-        } else {
-            if (callbackEvent != null && executionState == 0) {
-                ActionRegistry.getInstance().get(callbackEvent)
-                        .actionPerformed(new ActionEvent(this, 0, "finished"));
-            }
+    protected void closedAfterExecution() {
+        if (callbackEvent != null && executionState == 0) {
+            ActionRegistry.getInstance().get(callbackEvent).actionPerformed(
+                    new ActionEvent(this, 0, "finished"));
         }
     }
-
-    @Override
-    public void windowClosed(WindowEvent e) {
-    }
-
-    @Override
-    public void windowOpened(WindowEvent e) {
-    }
-
-    @Override
-    public void windowIconified(WindowEvent e) {
-    }
-
-    @Override
-    public void windowDeiconified(WindowEvent e) {
-    }
-
-    @Override
-    public void windowActivated(WindowEvent e) {
-    }
-
-    @Override
-    public void windowDeactivated(WindowEvent e) {
-    }
 }
 
 /**
@@ -0,0 +1,250 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.osmembrane.Application;
+import de.osmembrane.exceptions.ControlledException;
+import de.osmembrane.exceptions.ExceptionSeverity;
+import de.osmembrane.view.interfaces.IExecutionStateDialog;
+
+/**
+ * Executor for a sharded pipeline. All shards are executed as separate osmosis
+ * processes in parallel, afterwards the merge pipeline combines their outputs.
+ * The execution time of every shard and the reached speedup are reported.
+ * 
+ * @author agent
+ */
+public class ShardedPipelineExecutor extends AbstractPipelineExecutor {
+
+    private List<List<String>> shardParameters;
+    private List<String> mergeParameters;
+
+    /**
+     * Currently running osmosis processes.
+     */
+    private List<Process> processes = new ArrayList<Process>();
+
+    /**
+     * Initialize the sharded pipeline executor.
+     *
+     * @param shardParameters
+     *            osmosis parameters for each shard
+     * @param mergeParameters
+     *            osmosis parameters for the merge pipeline
+     *
+     * @throws IllegalArgumentException
+     *             when the osmosis executable is not runnable.
+     */
+    public ShardedPipelineExecutor(String osmosisPath, String workingDirectory,
+            List<List<String>> shardParameters, List<String> mergeParameters,
+            IExecutionStateDialog dialog) {
+        super(osmosisPath, workingDirectory, dialog);
+        this.shardParameters = shardParameters;
+        this.mergeParameters = mergeParameters;
+    }
+
+    @Override
+    public void run() {
+        dialog.setState(I18N.getInstance().getString(
+                "Tools.ShardedPipelineExecutor.RunningShards",
+                shardParameters.size()));
+        dialog.setProgress(10);
+
+        try {
+            /* start all shards at once */
+            List<ShardThread> shards = new ArrayList<ShardThread>();
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < shardParameters.size(); i++) {
+                ShardThread shard = new ShardThread(i + 1,
+                        startProcess(shardParameters.get(i)));
+                shard.start();
+                shards.add(shard);
+            }
+
+            boolean failed = false;
+            int finished = 0;
+            for (ShardThread shard : shards) {
+                shard.join();
+                failed |= (shard.getExitValue() != 0);
+                finished++;
+                dialog.setProgress(10 + 70 * finished / shards.size());
+            }
+            long wallTime = System.currentTimeMillis() - start;
+
+            if (isInterrupted()) {
+                return;
+            }
+
+            reportSpeedup(shards, wallTime);
+
+            if (failed) {
+                dialog.setState(I18N.getInstance().getString(
+                        "Tools.PipelineExecutor.Failed"));
+                dialog.setCloseButtonCaption(I18N.getInstance().getString(
+                        "View.Close"));
+                return;
+            }
+
+            /* combine the outputs of the shards */
+            dialog.setState(I18N.getInstance().getString(
+                    "Tools.ShardedPipelineExecutor.Merging"));
+            ShardThread merge = new ShardThread(0,
+                    startProcess(mergeParameters));
+            merge.start();
+            merge.join();
+
+            if (merge.getExitValue() == 0) {
+                dialog.setState(I18N.getInstance().getString(
+                        "Tools.PipelineExecutor.Finished"));
+                dialog.setCloseButtonCaption(I18N.getInstance().getString(
+                        "View.OK"));
+                dialog.setProgress(100);
+            } else {
+                dialog.setState(I18N.getInstance().getString(
+                        "Tools.PipelineExecutor.Failed"));
+                dialog.setCloseButtonCaption(I18N.getInstance().getString(
+                        "View.Close"));
+            }
+        } catch (InterruptedException e) {
+            destroyProcesses();
+        } catch (IOException e) {
+            destroyProcesses();
+            dialog.setState(I18N.getInstance().getString(
+                    "Tools.PipelineExecutor.IOException"));
+            dialog.setProgress(0);
+            Application.handleException(new ControlledException(this,
+                    ExceptionSeverity.WARNING, e, I18N.getInstance().getString(
+                            "Tools.PipelineExecutor.IOException")));
+        }
+    }
+
+    /**
+     * Writes the execution time of every shard and the speedup compared to a
+     * sequential execution of all shards to the dialog.
+     */
+    private void reportSpeedup(List<ShardThread> shards, long wallTime) {
+        long sequentialTime = 0;
+        for (ShardThread shard : shards) {
+            sequentialTime += shard.getDuration();
+        }
+
+        for (ShardThread shard : shards) {
+            addOutputLine(I18N.getInstance().getString(
+                    "Tools.ShardedPipelineExecutor.ShardTime",
+                    shard.getShard(), shard.getDuration() / 1000.0,
+                    100.0 * shard.getDuration() / Math.max(1, wallTime)));
+        }
+
+        addOutputLine(I18N.getInstance().getString(
+                "Tools.ShardedPipelineExecutor.Speedup", wallTime / 1000.0,
+                sequentialTime / 1000.0,
+                sequentialTime / (double) Math.max(1, wallTime)));
+    }
+
+    /**
+     * Starts a new osmosis process with the given parameters.
+     */
+    private synchronized Process startProcess(List<String> parameters)
+            throws IOException {
+        List<String> cmdLine = new ArrayList<String>(parameters.size() + 1);
+        cmdLine.add(osmosisPath);
+        cmdLine.addAll(parameters);
+
+        Process process = new ProcessBuilder(cmdLine)
+                .directory(workingDirectory).redirectErrorStream(true).start();
+        processes.add(process);
+        return process;
+    }
+
+    /**
+     * Kills all still running osmosis processes.
+     */
+    private synchronized void destroyProcesses() {
+        for (Process process : processes) {
+            process.destroy();
+        }
+    }
+
+    /**
+     * The output lines of all shards are written concurrently, so the access
+     * to the dialog is serialized.
+     */
+    private synchronized void addOutputLine(String line) {
+        dialog.addOutputLine(line);
+    }
+
+    /**
+     * Also kills the running osmosis processes.
+     */
+    @Override
+    protected void cancel() {
+        super.cancel();
+        destroyProcesses();
+    }
+
+    /**
+     * Forwards the output of a single osmosis process to the dialog and
+     * measures its execution time.
+     */
+    private class ShardThread extends Thread {
+
+        private int shard;
+        private Process process;
+        private long duration;
+        private int exitValue = -255;
+
+        public ShardThread(int shard, Process process) {
+            this.shard = shard;
+            this.process = process;
+        }
+
+        @Override
+        public void run() {
+            long start = System.currentTimeMillis();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    process.getInputStream()));
+            String prefix = (shard > 0) ? "[" + shard + "] " : "";
+
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    addOutputLine(prefix + line);
+                }
+                exitValue = process.waitFor();
+            } catch (IOException e) {
+                exitValue = -255;
+            } catch (InterruptedException e) {
+                exitValue = -255;
+            }
+
+            duration = System.currentTimeMillis() - start;
+        }
+
+        public int getShard() {
+            return shard;
+        }
+
+        public long getDuration() {
+            return duration;
+        }
+
+        public int getExitValue() {
+            return exitValue;
+        }
+    }
+}
@@ -11,10 +11,10 @@
 
 package de.osmembrane.view;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Observable;
-import java.util.Observer;
 
 import javax.swing.SwingUtilities;
 
@@ -23,6 +23,9 @@ import de.osmembrane.Main;
 import de.osmembrane.controller.ActionRegistry;
 import de.osmembrane.exceptions.ControlledException;
 import de.osmembrane.exceptions.ExceptionSeverity;
+import de.osmembrane.model.EventBus;
+import de.osmembrane.model.EventBus.Delivery;
+import de.osmembrane.model.ModelEventListener;
 import de.osmembrane.model.settings.SettingsObserverObject;
 import de.osmembrane.tools.I18N;
 import de.osmembrane.view.dialogs.ExceptionDialog;
@@ -36,7 +39,8 @@ import de.osmembrane.view.interfaces.IView;
  * @author tobias_kuhn
  * 
  */
-public class ViewRegistry extends Observable implements Observer {
+public class ViewRegistry implements
+        ModelEventListener<SettingsObserverObject> {
 
     /**
      * implements the error-handling dialog Note: This is important to be static
@@ -57,6 +61,11 @@ public class ViewRegistry extends Observable implements Observer {
      */
     private Map<Class<? extends IView>, IView> views = new HashMap<Class<? extends IView>, IView>();
 
+    /**
+     * the listeners of the views subscribed at the {@link EventBus}
+     */
+    private List<ModelEventListener<?>> listeners = new ArrayList<ModelEventListener<?>>();
+
     /**
      * initializes the view registry
      */
@@ -123,44 +132,59 @@ public class ViewRegistry extends Observable implements Observer {
         return (T) result;
     }
 
+    /**
+     * Subscribes a listener of a view at the {@link EventBus}. The events are
+     * delivered on the event dispatch thread, and the listener is removed
+     * together with the views.
+     * 
+     * @param type
+     *            the type of the model events
+     * @param listener
+     *            the listener
+     */
+    public <E> void subscribe(Class<E> type,
+            ModelEventListener<? super E> listener) {
+        EventBus.getInstance().subscribe(type, listener,
+                Delivery.EVENT_DISPATCH_THREAD);
+        listeners.add(listener);
+    }
+
     @Override
-    public void update(Observable o, Object arg) {
+    public void modelChanged(SettingsObserverObject soo) {
+        if (soo.getChangedEntry() == null) {
+            return;
+        }
+
         // if this means language change, do your worst
-        if (arg instanceof SettingsObserverObject) {
-            SettingsObserverObject soo = (SettingsObserverObject) arg;
-
-            // language change
-            switch (soo.getChangedEntry()) {
-            case ACTIVE_LANGUAGE:
-            case ACTIVE_PLAF:
-
-                exceptionDialog = null;
-                for (IView iv : views.values()) {
-                    iv.hideWindow();
-                    iv.dispose();
+        switch (soo.getChangedEntry()) {
+        case ACTIVE_LANGUAGE:
+        case ACTIVE_PLAF:
+
+            exceptionDialog = null;
+            for (IView iv : views.values()) {
+                iv.hideWindow();
+                iv.dispose();
+            }
+
+            views.clear();
+            for (ModelEventListener<?> listener : listeners) {
+                EventBus.getInstance().unsubscribe(listener);
+            }
+            listeners.clear();
+            // if Java GC understands that, I'm impressed
+            System.gc();
+
+            ActionRegistry.getInstance().reinitialize();
+
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    Main.getApplication().showMainFrame();
                 }
+            });
 
-                views.clear();
-                deleteObservers();
-                // if Java GC understands that, I'm impressed
-                System.gc();
-
-                ActionRegistry.getInstance().reinitialize();
-
-                SwingUtilities.invokeLater(new Runnable() {
-                    @Override
-                    public void run() {
-                        Main.getApplication().showMainFrame();
-                    }
-                });
-
-                break;
-            } /* switch */
-        }
-
-        // forward update() for Model classes
-        setChanged();
-        notifyObservers(arg);
+            break;
+        } /* switch */
     }
 
     /**
@@ -32,16 +32,19 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 
 import de.osmembrane.controller.ActionRegistry;
+import de.osmembrane.controller.BackgroundTask;
 import de.osmembrane.controller.actions.ExportPipelineAction;
 import de.osmembrane.model.persistence.FileType;
 import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.PipelineSnapshot;
 import de.osmembrane.tools.I18N;
 import de.osmembrane.view.AbstractDialog;
 import de.osmembrane.view.interfaces.ICommandLineDialog;
 
 /**
  * Simple dialog to display the generated command line, export it, or copy it to
- * the clipboard.
+ * the clipboard. The command line is generated from a snapshot of the pipeline
+ * in a {@link BackgroundTask}.
  * 
  * @see "Spezifikation.pdf, chapter 2.5 (German)"
  * 
@@ -60,7 +63,15 @@ public class CommandLineDialog extends AbstractDialog implements
      */
     private JTextArea commandline;
 
-    private AbstractPipeline pipeline;
+    /**
+     * the snapshot of the pipeline the command line is generated from
+     */
+    private PipelineSnapshot snapshot;
+
+    /**
+     * the running generation, if any
+     */
+    private BackgroundTask<String> generateTask;
 
     /**
      * Creates a new {@link CommandLineDialog}
@@ -175,12 +186,32 @@ public class CommandLineDialog extends AbstractDialog implements
 
     @Override
     public void setPipeline(AbstractPipeline pipeline) {
-        this.pipeline = pipeline;
+        this.snapshot = pipeline.getSnapshot();
         regenerate();
     }
 
     private void regenerate() {
-        this.commandline.setText(pipeline.generate(fileType));
+        if (generateTask != null) {
+            generateTask.cancel(true);
+        }
+        this.commandline.setText("");
+
+        final FileType generateType = fileType;
+        generateTask = new BackgroundTask<String>(I18N.getInstance()
+                .getString("View.CommandLineDialog.Progress")) {
+
+            @Override
+            protected String doInBackground() {
+                return snapshot.generate(generateType);
+            }
+
+            @Override
+            protected void succeeded(String result) {
+                commandline.setText(result);
+                commandline.setCaretPosition(0);
+            }
+        };
+        generateTask.start();
     }
 
 }
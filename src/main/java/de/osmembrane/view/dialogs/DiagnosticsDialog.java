@@ -0,0 +1,302 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.view.dialogs;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FlowLayout;
+import java.awt.Window;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JFileChooser;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.AbstractTableModel;
+
+import de.osmembrane.Application;
+import de.osmembrane.tools.EventDispatchWatchdog;
+import de.osmembrane.tools.I18N;
+import de.osmembrane.tools.Instrumentation;
+import de.osmembrane.tools.OperationStatistics;
+import de.osmembrane.view.AbstractDialog;
+
+/**
+ * Dialog showing the durations of the instrumented operations recorded by
+ * {@link Instrumentation} and the stalls of the event dispatch thread
+ * recorded by the {@link EventDispatchWatchdog}. It is not modal, so the
+ * statistics can be watched while working with the pipeline.
+ * 
+ * @author agent
+ * 
+ */
+public class DiagnosticsDialog extends AbstractDialog {
+
+    private static final long serialVersionUID = 2011040212170001L;
+
+    /**
+     * interval in ms to refresh the statistics while the dialog is shown
+     */
+    private static final int REFRESH_INTERVAL = 1000;
+
+    /**
+     * the model of the statistics table
+     */
+    private StatisticsTableModel statisticsModel;
+
+    /**
+     * text area showing the report of the {@link EventDispatchWatchdog}
+     */
+    private JTextArea stallsArea;
+
+    /**
+     * check box to enable the instrumentation
+     */
+    private JCheckBox enabledCheckBox;
+
+    /**
+     * timer to refresh the statistics
+     */
+    private Timer refreshTimer;
+
+    /**
+     * Creates a new {@link DiagnosticsDialog}.
+     */
+    public DiagnosticsDialog(Window owner) {
+        super(owner);
+        setModalityType(ModalityType.MODELESS);
+        setResizable(true);
+        setLayout(new BorderLayout());
+
+        // statistics
+        statisticsModel = new StatisticsTableModel();
+        JTable statisticsTable = new JTable(statisticsModel);
+        statisticsTable.getColumnModel().getColumn(0).setPreferredWidth(220);
+        JScrollPane statisticsScroll = new JScrollPane(statisticsTable);
+        statisticsScroll.setPreferredSize(new Dimension(720, 220));
+
+        // stalls of the event dispatch thread
+        stallsArea = new JTextArea();
+        stallsArea.setEditable(false);
+        stallsArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, stallsArea
+                .getFont().getSize()));
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab(I18N.getInstance().getString(
+                "View.DiagnosticsDialog.Operations"), statisticsScroll);
+        tabs.addTab(I18N.getInstance().getString(
+                "View.DiagnosticsDialog.EventDispatchStalls"), new JScrollPane(
+                stallsArea));
+        add(tabs, BorderLayout.CENTER);
+
+        // buttons
+        JPanel buttons = new JPanel();
+        buttons.setLayout(new FlowLayout(FlowLayout.RIGHT));
+
+        enabledCheckBox = new JCheckBox(I18N.getInstance().getString(
+                "View.DiagnosticsDialog.Enabled"));
+        enabledCheckBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                Instrumentation.getInstance().setEnabled(
+                        enabledCheckBox.isSelected());
+            }
+        });
+        buttons.add(enabledCheckBox);
+
+        JButton resetButton = new JButton(I18N.getInstance().getString(
+                "View.Reset"));
+        resetButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                Instrumentation.getInstance().reset();
+                refresh();
+            }
+        });
+        buttons.add(resetButton);
+
+        JButton dumpButton = new JButton(I18N.getInstance().getString(
+                "View.DiagnosticsDialog.Dump"));
+        dumpButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                dump();
+            }
+        });
+        buttons.add(dumpButton);
+
+        JButton closeButton = new JButton(I18N.getInstance().getString(
+                "View.Close"));
+        closeButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                hideWindow();
+            }
+        });
+        buttons.add(closeButton);
+
+        add(buttons, BorderLayout.SOUTH);
+
+        refreshTimer = new Timer(REFRESH_INTERVAL, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                refresh();
+            }
+        });
+
+        setTitle(I18N.getInstance().getString("View.DiagnosticsDialog"));
+
+        pack();
+        centerWindow();
+    }
+
+    @Override
+    public void showWindow() {
+        refresh();
+        refreshTimer.start();
+        super.showWindow();
+    }
+
+    @Override
+    public void hideWindow() {
+        refreshTimer.stop();
+        super.hideWindow();
+    }
+
+    /**
+     * Reads the current statistics from the {@link Instrumentation} and the
+     * {@link EventDispatchWatchdog}.
+     */
+    private void refresh() {
+        enabledCheckBox.setSelected(Instrumentation.getInstance().isEnabled());
+        statisticsModel.setStatistics(Instrumentation.getInstance()
+                .getOperations());
+
+        String report = EventDispatchWatchdog.getInstance().getReport();
+        if (!report.equals(stallsArea.getText())) {
+            stallsArea.setText(report);
+        }
+    }
+
+    /**
+     * Asks for a file and writes the current statistics into it.
+     */
+    private void dump() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter(I18N
+                .getInstance().getString(
+                        "View.DiagnosticsDialog.FileTypeDescription"), "txt"));
+
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            if (!file.getName().toLowerCase().endsWith(".txt")) {
+                file = new File(file.getPath() + ".txt");
+            }
+
+            try {
+                Instrumentation.getInstance().dump(file);
+            } catch (IOException e) {
+                Application.handleException(e);
+            }
+        }
+    }
+
+    /**
+     * Table model showing one {@link OperationStatistics} per row.
+     */
+    private class StatisticsTableModel extends AbstractTableModel {
+
+        private static final long serialVersionUID = 2011040212170002L;
+
+        private final String[] columns = {
+                I18N.getInstance().getString("View.DiagnosticsDialog.Operation"),
+                I18N.getInstance().getString("View.DiagnosticsDialog.Count"),
+                I18N.getInstance().getString("View.DiagnosticsDialog.Mean"),
+                I18N.getInstance().getString("View.DiagnosticsDialog.Median"),
+                I18N.getInstance().getString(
+                        "View.DiagnosticsDialog.Percentile90"),
+                I18N.getInstance().getString(
+                        "View.DiagnosticsDialog.Percentile99"),
+                I18N.getInstance().getString("View.DiagnosticsDialog.Max") };
+
+        private List<OperationStatistics> statistics = new ArrayList<OperationStatistics>();
+
+        public void setStatistics(List<OperationStatistics> statistics) {
+            this.statistics = statistics;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return statistics.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            switch (column) {
+            case 0:
+                return String.class;
+            case 1:
+                return Long.class;
+            default:
+                return String.class;
+            }
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            OperationStatistics operation = statistics.get(row);
+            switch (column) {
+            case 0:
+                return operation.getName();
+            case 1:
+                return operation.getCount();
+            case 2:
+                return format(operation.getMean());
+            case 3:
+                return format(operation.getMedian());
+            case 4:
+                return format(operation.getPercentile90());
+            case 5:
+                return format(operation.getPercentile99());
+            default:
+                return format(operation.getMax());
+            }
+        }
+
+        private String format(double millis) {
+            return String.format("%.3f", millis);
+        }
+    }
+}
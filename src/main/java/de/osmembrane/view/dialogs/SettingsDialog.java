@@ -97,6 +97,22 @@ public class SettingsDialog extends AbstractDialog implements ISettingsDialog {
      */
     private JCheckBox defaultParamExport;
 
+    /**
+     * Components to edit the automatic buffer insertion
+     */
+    private JCheckBox bufferInsertion;
+    private JSpinner bufferMemoryBudget;
+
+    /**
+     * Component to edit the size of the result cache
+     */
+    private JSpinner resultCacheSize;
+
+    /**
+     * Component to switch the single canvas rendering
+     */
+    private JCheckBox singleCanvas;
+
     /**
      * Components to edit how much undo steps shall be available
      */
@@ -348,6 +364,16 @@ public class SettingsDialog extends AbstractDialog implements ISettingsDialog {
         settings.add(defaultZoom, gbc);
         gbc.gridwidth = 1;
 
+        gbc.gridy = 8;
+        gbc.gridx = 0;
+        gbc.gridwidth = 2;
+        singleCanvas = new JCheckBox(I18N.getInstance().getString(
+                "Model.Settings.Type.SINGLE_CANVAS_RENDERING"));
+        singleCanvas.setToolTipText(I18N.getInstance().getString(
+                "Model.Settings.Type.SINGLE_CANVAS_RENDERING.Description"));
+        settings.add(singleCanvas, gbc);
+        gbc.gridwidth = 1;
+
         gbc.gridy = 0;
         gbc.gridx = 2;
         gbc.gridwidth = 2;
@@ -398,8 +424,52 @@ public class SettingsDialog extends AbstractDialog implements ISettingsDialog {
                 "Model.Settings.Type.MAXIMUM_UNDO_STEPS.Description"));
         settings.add(maxUndoSteps, gbc);
 
+        gbc.gridy = 4;
+        gbc.gridx = 2;
+        gbc.gridwidth = 2;
+        bufferInsertion = new JCheckBox(I18N.getInstance().getString(
+                "Model.Settings.Type.AUTOMATIC_BUFFER_INSERTION"));
+        bufferInsertion.setToolTipText(I18N.getInstance().getString(
+                "Model.Settings.Type.AUTOMATIC_BUFFER_INSERTION.Description"));
+        bufferInsertion.addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                bufferMemoryBudget.setEnabled(bufferInsertion.isSelected());
+            }
+        });
+        settings.add(bufferInsertion, gbc);
+        gbc.gridwidth = 1;
+
+        gbc.gridy = 5;
+        gbc.gridx = 2;
+        settings.add(
+                new JLabel(I18N.getInstance().getString(
+                        "Model.Settings.Type.BUFFER_MEMORY_BUDGET")
+                        + ":"), gbc);
+        gbc.gridx = 3;
+        bufferMemoryBudget = new JSpinner();
+        bufferMemoryBudget.setPreferredSize(new Dimension(minSpinnerWidth,
+                bufferMemoryBudget.getPreferredSize().height));
+        bufferMemoryBudget.setToolTipText(I18N.getInstance().getString(
+                "Model.Settings.Type.BUFFER_MEMORY_BUDGET.Description"));
+        settings.add(bufferMemoryBudget, gbc);
+
         gbc.gridy = 6;
         gbc.gridx = 2;
+        settings.add(
+                new JLabel(I18N.getInstance().getString(
+                        "Model.Settings.Type.RESULT_CACHE_SIZE")
+                        + ":"), gbc);
+        gbc.gridx = 3;
+        resultCacheSize = new JSpinner();
+        resultCacheSize.setPreferredSize(new Dimension(minSpinnerWidth,
+                resultCacheSize.getPreferredSize().height));
+        resultCacheSize.setToolTipText(I18N.getInstance().getString(
+                "Model.Settings.Type.RESULT_CACHE_SIZE.Description"));
+        settings.add(resultCacheSize, gbc);
+
+        gbc.gridy = 7;
+        gbc.gridx = 2;
         rasterSizeEnable = new JCheckBox(I18N.getInstance().getString(
                 "Model.Settings.Type.PIPELINE_RASTER_SIZE")
                 + ":");
@@ -414,7 +484,7 @@ public class SettingsDialog extends AbstractDialog implements ISettingsDialog {
         rasterSizeDisplay = new JLabel("");
         settings.add(rasterSizeDisplay, gbc);
 
-        gbc.gridy = 7;
+        gbc.gridy = 8;
         gbc.gridx = 2;
         gbc.gridwidth = 2;
         rasterSize = new JSlider(1, 100);
@@ -535,6 +605,18 @@ public class SettingsDialog extends AbstractDialog implements ISettingsDialog {
         case MAXIMUM_UNDO_STEPS:
             return this.maxUndoSteps.getValue();
 
+        case AUTOMATIC_BUFFER_INSERTION:
+            return this.bufferInsertion.isSelected();
+
+        case BUFFER_MEMORY_BUDGET:
+            return this.bufferMemoryBudget.getValue();
+
+        case RESULT_CACHE_SIZE:
+            return this.resultCacheSize.getValue();
+
+        case SINGLE_CANVAS_RENDERING:
+            return this.singleCanvas.isSelected();
+
         case PIPELINE_RASTER_SIZE:
             int y = this.rasterSize.getValue();
             return rasterSizeToModel(y);
@@ -604,6 +686,23 @@ public class SettingsDialog extends AbstractDialog implements ISettingsDialog {
             this.maxUndoSteps.setValue((Integer) value);
             break;
 
+        case AUTOMATIC_BUFFER_INSERTION:
+            this.bufferInsertion.setSelected((Boolean) value);
+            this.bufferMemoryBudget.setEnabled((Boolean) value);
+            break;
+
+        case BUFFER_MEMORY_BUDGET:
+            this.bufferMemoryBudget.setValue((Integer) value);
+            break;
+
+        case RESULT_CACHE_SIZE:
+            this.resultCacheSize.setValue((Integer) value);
+            break;
+
+        case SINGLE_CANVAS_RENDERING:
+            this.singleCanvas.setSelected((Boolean) value);
+            break;
+
         case PIPELINE_RASTER_SIZE:
             int rasterSize = rasterSizeFromModel((Integer) value);
             this.rasterSizeEnable.setSelected(rasterSize != 0);
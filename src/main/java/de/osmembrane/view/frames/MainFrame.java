@@ -45,23 +45,27 @@ import javax.swing.UIManager;
 
 import de.osmembrane.controller.ActionRegistry;
 import de.osmembrane.controller.actions.ArrangePipelineAction;
+import de.osmembrane.controller.actions.CacheFunctionResultAction;
 import de.osmembrane.controller.actions.ChangePipelineSettingsAction;
 import de.osmembrane.controller.actions.ChangeSettingsAction;
 import de.osmembrane.controller.actions.DeleteSelectionAction;
 import de.osmembrane.controller.actions.DuplicateFunctionAction;
 import de.osmembrane.controller.actions.ExecutePipelineAction;
+import de.osmembrane.controller.actions.ExecuteShardedPipelineAction;
 import de.osmembrane.controller.actions.ExitAction;
 import de.osmembrane.controller.actions.ExportPipelineAction;
 import de.osmembrane.controller.actions.GeneratePipelineAction;
 import de.osmembrane.controller.actions.ImportPipelineAction;
 import de.osmembrane.controller.actions.LoadPipelineAction;
 import de.osmembrane.controller.actions.NewPipelineAction;
+import de.osmembrane.controller.actions.OptimizePipelineAction;
 import de.osmembrane.controller.actions.PreviewPipelineAction;
 import de.osmembrane.controller.actions.RedoAction;
 import de.osmembrane.controller.actions.ResetViewAction;
 import de.osmembrane.controller.actions.SaveAsPipelineAction;
 import de.osmembrane.controller.actions.SavePipelineAction;
 import de.osmembrane.controller.actions.ShowAboutAction;
+import de.osmembrane.controller.actions.ShowDiagnosticsAction;
 import de.osmembrane.controller.actions.ShowHelpAction;
 import de.osmembrane.controller.actions.ShowQuickstartAction;
 import de.osmembrane.controller.actions.UndoAction;
@@ -81,6 +85,7 @@ import de.osmembrane.view.panels.InspectorPanel;
 import de.osmembrane.view.panels.LibraryPanel;
 import de.osmembrane.view.panels.LibraryPanelGroup;
 import de.osmembrane.view.panels.PipelinePanel;
+import de.osmembrane.view.panels.StatusbarPanel;
 import de.osmembrane.view.panels.Tool;
 
 /**
@@ -209,6 +214,8 @@ public class MainFrame extends AbstractFrame implements IMainFrame {
         editMenu.add(new JSeparator());
         editMenu.add(ActionRegistry.getInstance().get(
                 DuplicateFunctionAction.class));
+        editMenu.add(ActionRegistry.getInstance().get(
+                CacheFunctionResultAction.class));
         editMenu.add(ActionRegistry.getInstance().get(
                 DeleteSelectionAction.class));
         menuBar.add(editMenu);
@@ -226,6 +233,8 @@ public class MainFrame extends AbstractFrame implements IMainFrame {
                 "View.Menu.Pipeline"));
         pipelineMenu.add(ActionRegistry.getInstance().get(
                 ArrangePipelineAction.class));
+        pipelineMenu.add(ActionRegistry.getInstance().get(
+                OptimizePipelineAction.class));
         pipelineMenu.add(ActionRegistry.getInstance().get(
                 ChangePipelineSettingsAction.class));
         pipelineMenu.add(new JSeparator());
@@ -234,6 +243,8 @@ public class MainFrame extends AbstractFrame implements IMainFrame {
         pipelineMenu.add(new JSeparator());
         pipelineMenu.add(ActionRegistry.getInstance().get(
                 ExecutePipelineAction.class));
+        pipelineMenu.add(ActionRegistry.getInstance().get(
+                ExecuteShardedPipelineAction.class));
         pipelineMenu.add(ActionRegistry.getInstance().get(
                 PreviewPipelineAction.class));
         menuBar.add(pipelineMenu);
@@ -242,6 +253,8 @@ public class MainFrame extends AbstractFrame implements IMainFrame {
                 "View.Menu.Extras"));
         extrasMenu.add(ActionRegistry.getInstance().get(
                 ChangeSettingsAction.class));
+        extrasMenu.add(ActionRegistry.getInstance().get(
+                ShowDiagnosticsAction.class));
         menuBar.add(extrasMenu);
 
         JMenu aboutMenu = new JMenu(I18N.getInstance().getString(
@@ -259,6 +272,8 @@ public class MainFrame extends AbstractFrame implements IMainFrame {
         JPopupMenu popupMenu = new JPopupMenu();
         popupMenu.add(ActionRegistry.getInstance().get(
                 DuplicateFunctionAction.class));
+        popupMenu.add(ActionRegistry.getInstance().get(
+                CacheFunctionResultAction.class));
         popupMenu.add(ActionRegistry.getInstance().get(
                 DeleteSelectionAction.class));
         popupMenu.add(new JSeparator());
@@ -402,6 +417,9 @@ public class MainFrame extends AbstractFrame implements IMainFrame {
         splitMain.setResizeWeight(1.0);
         getContentPane().add(splitMain);
 
+        // progress of the background tasks
+        getContentPane().add(new StatusbarPanel(), BorderLayout.SOUTH);
+
         // set the application icon
         Image icon = getToolkit().getImage(
                 getClass().getResource(
@@ -12,18 +12,27 @@
 package de.osmembrane.view.panels;
 
 import java.awt.Color;
+import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
 import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.awt.image.WritableRaster;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import javax.swing.ImageIcon;
 import javax.swing.JPanel;
 
+import de.osmembrane.resources.Constants;
+
 /**
  * A {@link JPanel} component with the ability to create colored {@link Image}s
  * with icons from an {@link ImageIcon} display template.
@@ -38,6 +47,11 @@ import javax.swing.JPanel;
  * <b>It is recommended you use the static ability of prerendering since that
  * will save a lot of memory and processing power.</b>
  * 
+ * The prerendered images have the size of the template. To avoid scaling them
+ * on every paint, {@link DisplayTemplatePanel#giveTile} keeps them scaled to
+ * about the device pixels they are currently drawn in, so painting is close
+ * to a plain copy, also on screens scaled for high resolutions.
+ * 
  * @author tobias_kuhn
  * 
  */
@@ -56,6 +70,17 @@ public abstract class DisplayTemplatePanel extends JPanel {
      */
     private static DisplayTemplatePanel prerenderPanel;
 
+    /**
+     * Map used for the pre-scaled tiles, in the order of their last use.
+     */
+    private static Map<Tile, Image> tiles = new LinkedHashMap<Tile, Image>(16,
+            0.75f, true);
+
+    /**
+     * Memory used by all tiles in bytes
+     */
+    private static long tileBytes;
+
     /**
      * Renders the correct pre-rendered display image based on template in the
      * given color and with the given icon.
@@ -148,4 +173,127 @@ public abstract class DisplayTemplatePanel extends JPanel {
         return (prerender != null) ? prerender.get(forObject) : null;
     }
 
+    /**
+     * Returns a prerendered {@link Image} scaled to the device pixels of the
+     * given size on g, which has to be drawn into the given size again. As
+     * every prerendered image stands for one template, color and icon, the
+     * tiles are kept per color, icon and size. The size is rounded up to one
+     * of a few sizes per doubling, so a zoom animation does not create a tile
+     * for every frame, and the least recently used tiles are removed if they
+     * exceed {@link Constants#DISPLAY_TILE_CACHE_SIZE}.
+     * 
+     * @param display
+     *            the prerendered image
+     * @param g
+     *            the {@link Graphics} the image is drawn on
+     * @param width
+     *            the width to draw the image in
+     * @param height
+     *            the height to draw the image in
+     * @return display scaled to about the device pixels of width and height
+     */
+    protected static Image giveTile(Image display, Graphics g, int width,
+            int height) {
+        double scaleX = 1.0;
+        double scaleY = 1.0;
+        if (g instanceof Graphics2D) {
+            AffineTransform transform = ((Graphics2D) g).getTransform();
+            scaleX = Math.hypot(transform.getScaleX(), transform.getShearY());
+            scaleY = Math.hypot(transform.getShearX(), transform.getScaleY());
+        }
+
+        Tile key = new Tile(display, getBucket(width * scaleX),
+                getBucket(height * scaleY));
+        Image tile = tiles.get(key);
+        if (tile != null) {
+            return tile;
+        }
+
+        tile = scale(display, key.width, key.height);
+        tiles.put(key, tile);
+        tileBytes += key.getBytes();
+
+        // remove the least recently used ones, but never the new one
+        long maximum = Constants.DISPLAY_TILE_CACHE_SIZE * 1024L * 1024L;
+        Iterator<Tile> it = tiles.keySet().iterator();
+        while (tileBytes > maximum && tiles.size() > 1) {
+            Tile eldest = it.next();
+            it.remove();
+            tileBytes -= eldest.getBytes();
+        }
+
+        return tile;
+    }
+
+    /**
+     * Rounds a size in device pixels up to the next of eight sizes per
+     * doubling, so a tile is at most 12.5% larger than drawn.
+     */
+    private static int getBucket(double size) {
+        int pixels = Math.max(1, (int) Math.ceil(size));
+        int step = Math.max(1, Integer.highestOneBit(pixels) / 8);
+        return (pixels + step - 1) / step * step;
+    }
+
+    /**
+     * Scales an image to an image compatible to the screen, so drawing it
+     * needs no conversion.
+     */
+    private static Image scale(Image display, int width, int height) {
+        BufferedImage result;
+        if (GraphicsEnvironment.isHeadless()) {
+            result = new BufferedImage(width, height,
+                    BufferedImage.TYPE_INT_ARGB);
+        } else {
+            result = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration()
+                    .createCompatibleImage(width, height,
+                            Transparency.TRANSLUCENT);
+        }
+
+        Graphics2D g = result.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(display, 0, 0, width, height, null);
+        g.dispose();
+
+        return result;
+    }
+
+    /**
+     * Identifies a tile by its prerendered image and its size.
+     */
+    private static final class Tile {
+
+        private final Image display;
+        private final int width;
+        private final int height;
+
+        public Tile(Image display, int width, int height) {
+            this.display = display;
+            this.width = width;
+            this.height = height;
+        }
+
+        public long getBytes() {
+            return 4L * width * height;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Tile)) {
+                return false;
+            }
+            Tile other = (Tile) obj;
+            return (display == other.display) && (width == other.width)
+                    && (height == other.height);
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(display) * 31 + width) * 31
+                    + height;
+        }
+    }
+
 }
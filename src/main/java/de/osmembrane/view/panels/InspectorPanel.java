@@ -22,8 +22,11 @@ import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.swing.Action;
 import javax.swing.BorderFactory;
@@ -42,12 +45,15 @@ import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.JToggleButton.ToggleButtonModel;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellEditor;
 
 import de.osmembrane.Application;
 import de.osmembrane.controller.ActionRegistry;
+import de.osmembrane.controller.BackgroundTask;
 import de.osmembrane.controller.actions.EditBoundingBoxPropertyAction;
 import de.osmembrane.controller.actions.EditDirectoryPropertyAction;
 import de.osmembrane.controller.actions.EditFilePropertyAction;
@@ -59,13 +65,23 @@ import de.osmembrane.controller.events.ContainingEvent;
 import de.osmembrane.controller.events.ContainingFunctionChangeParameterEvent;
 import de.osmembrane.exceptions.ControlledException;
 import de.osmembrane.exceptions.ExceptionSeverity;
+import de.osmembrane.model.ModelEventListener;
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.algorithms.PipelineEstimate;
+import de.osmembrane.model.algorithms.PipelineEstimator;
 import de.osmembrane.model.pipeline.AbstractFunction;
 import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.AbstractPipeline;
 import de.osmembrane.model.pipeline.AbstractTask;
+import de.osmembrane.model.pipeline.ParameterType;
+import de.osmembrane.model.pipeline.PipelineSnapshot;
 import de.osmembrane.model.pipeline.PipelineObserverObject;
+import de.osmembrane.model.pipeline.PipelineObserverObject.FunctionChange;
 import de.osmembrane.resources.Resource;
 import de.osmembrane.tools.I18N;
 import de.osmembrane.tools.IconLoader.Size;
+import de.osmembrane.tools.Instrumentation;
+import de.osmembrane.tools.Instrumentation.Operation;
 import de.osmembrane.view.ViewRegistry;
 import de.osmembrane.view.components.JRowTable;
 import de.osmembrane.view.components.JTextFieldWithButton;
@@ -80,7 +96,8 @@ import de.osmembrane.view.components.RowEditorModel;
  * @author tobias_kuhn
  * 
  */
-public class InspectorPanel extends JPanel implements Observer {
+public class InspectorPanel extends JPanel implements
+        ModelEventListener<PipelineObserverObject> {
 
     private static final long serialVersionUID = -4331036066478472018L;
 
@@ -89,6 +106,22 @@ public class InspectorPanel extends JPanel implements Observer {
      */
     private JLabel functionName;
 
+    /**
+     * the {@link JLabel} that shows the resource estimate of the function and
+     * the pipeline
+     */
+    private JLabel estimate;
+
+    /**
+     * collects the changes of the pipeline until the estimate is updated
+     */
+    private Timer estimateTimer;
+
+    /**
+     * the running estimation, if any
+     */
+    private BackgroundTask<String> estimateTask;
+
     /*
      * the JRowTable that displays the data of the function along with its
      * InspectorPanelTableModel and RowEditorModel.
@@ -103,6 +136,23 @@ public class InspectorPanel extends JPanel implements Observer {
      */
     private InspectorPanelTableTaskComboBoxModel taskComboModel;
 
+    /**
+     * the editor for the task row, with the taskComboModel
+     */
+    private TableCellEditor taskEditor;
+
+    /**
+     * the row editors of the parameters, created once per parameter type and
+     * reused for every inspected function
+     */
+    private Map<ParameterType, List<InspectorPanelParameterEditor>> parameterEditors;
+
+    /**
+     * the row editors currently bound to the parameters of the inspected
+     * function, in the order of the parameters
+     */
+    private List<InspectorPanelParameterEditor> rowEditors;
+
     /**
      * the {@link JPanel} and {@link JLabel} that display the context-sensitive
      * help
@@ -131,6 +181,14 @@ public class InspectorPanel extends JPanel implements Observer {
      */
     private static final String EDIT_BUTTON_CAPTION = "...";
 
+    private static final long MEGABYTE = 1024 * 1024;
+
+    /**
+     * Milliseconds without a change of the pipeline before the estimate is
+     * updated
+     */
+    private static final int ESTIMATE_DELAY = 300;
+
     /**
      * the reference to the {@link AbstractFunction} which is currently
      * inspected
@@ -148,8 +206,8 @@ public class InspectorPanel extends JPanel implements Observer {
      * Initializes the {@link InspectorPanel} and display
      */
     public InspectorPanel() {
-        // register as observer
-        ViewRegistry.getInstance().addObserver(this);
+        // register as listener
+        ViewRegistry.getInstance().subscribe(PipelineObserverObject.class, this);
 
         // caption
         functionName = new JLabel(I18N.getInstance().getString(
@@ -180,8 +238,26 @@ public class InspectorPanel extends JPanel implements Observer {
         buttons.add(savePreset);
         functionCaption.add(buttons, BorderLayout.EAST);
 
+        estimate = new JLabel();
+        estimateTimer = new Timer(ESTIMATE_DELAY, new ActionListener() {
+
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                startEstimate();
+            }
+        });
+        estimateTimer.setRepeats(false);
+        estimate.setFont(estimate.getFont().deriveFont(Font.PLAIN,
+                0.9f * estimate.getFont().getSize()));
+        estimate.setHorizontalAlignment(SwingConstants.CENTER);
+        functionCaption.add(estimate, BorderLayout.SOUTH);
+
         // display
         taskComboModel = new InspectorPanelTableTaskComboBoxModel();
+        taskEditor = new DefaultCellEditor(new JComboBox(taskComboModel));
+        parameterEditors = new EnumMap<ParameterType, List<InspectorPanelParameterEditor>>(
+                ParameterType.class);
+        rowEditors = new ArrayList<InspectorPanelParameterEditor>();
 
         rowEditorModel = new RowEditorModel();
         propertyTableModel = new InspectorPanelTableModel();
@@ -321,35 +397,223 @@ public class InspectorPanel extends JPanel implements Observer {
     }
 
     @Override
-    public void update(Observable o, Object arg) {
-        if ((inspecting != null) && (arg instanceof PipelineObserverObject)) {
-            PipelineObserverObject poo = (PipelineObserverObject) arg;
-
+    public void modelChanged(PipelineObserverObject poo) {
+        if (inspecting != null) {
             switch (poo.getType()) {
             case ADD_FUNCTION:
             case CHANGE_FUNCTION:
-                if (poo.getChangedFunction().equals(inspecting)) {
+                if (poo.getFunctionChange() == FunctionChange.COORDINATE) {
+                    /* moving a function changes nothing shown here */
+                    break;
+                }
+                if (!poo.getChangedFunction().equals(inspecting)) {
+                    /* might change the entities reaching this function */
+                    updateEstimate();
+                } else if (poo.getFunctionChange() == FunctionChange.PARAMETER) {
+                    updateParameter(poo.getChangedParameter());
+                    updateEstimate();
+                } else {
                     inspect(inspecting);
                     repaint();
                 }
                 break;
             case DELETE_FUNCTION:
                 if (!poo.getChangedFunction().equals(inspecting)) {
+                    updateEstimate();
                     break;
                 }
             case FULLCHANGE:
                 inspect(null);
                 break;
+            case ADD_CONNECTION:
+            case DELETE_CONNECTION:
+                updateEstimate();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Shows the new value of one parameter of the inspected function, without
+     * touching the other rows.
+     * 
+     * @param changed
+     *            the changed parameter
+     */
+    private void updateParameter(AbstractParameter changed) {
+        AbstractParameter[] parameters = inspecting.getActiveTask()
+                .getParameters();
+        for (int i = 0; (i < parameters.length) && (i < rowEditors.size()); i++) {
+            if (parameters[i] == changed) {
+                final int row = i + 1;
+                final InspectorPanelParameterEditor editor = rowEditors.get(i);
+
+                if (propertyTable.getEditingRow() == row) {
+                    // the table is just committing this row, wait for it
+                    SwingUtilities.invokeLater(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (rowEditors.contains(editor)) {
+                                editor.refresh();
+                                propertyTableModel
+                                        .fireTableRowsUpdated(row, row);
+                            }
+                        }
+                    });
+                } else {
+                    editor.refresh();
+                    propertyTableModel.fireTableRowsUpdated(row, row);
+                }
+                return;
             }
         }
     }
 
+    /**
+     * Returns a cached row editor for a parameter type, or creates it. The
+     * n-th parameter of a type in a task gets the n-th editor for that type.
+     * 
+     * @param type
+     *            the {@link ParameterType} to edit
+     * @param used
+     *            the count of editors already used per type, is increased
+     * @return an editor for type, not yet used in the current task
+     */
+    private InspectorPanelParameterEditor giveParameterEditor(
+            ParameterType type, Map<ParameterType, Integer> used) {
+        List<InspectorPanelParameterEditor> editors = parameterEditors
+                .get(type);
+        if (editors == null) {
+            editors = new ArrayList<InspectorPanelParameterEditor>();
+            parameterEditors.put(type, editors);
+        }
+
+        int index = used.containsKey(type) ? used.get(type) : 0;
+        used.put(type, index + 1);
+
+        if (index < editors.size()) {
+            return editors.get(index);
+        }
+
+        InspectorPanelParameterEditor created;
+        switch (type) {
+        case ENUM:
+            // use ComboBox with enum values
+            created = new InspectorPanelEnumEditor();
+            break;
+        case BOOLEAN:
+            // use CheckBox with true/false
+            created = new InspectorPanelBooleanEditor();
+            break;
+        case BBOX:
+            // use JTFWB with EditBBAction
+            created = new InspectorPanelButtonEditor(
+                    EditBoundingBoxPropertyAction.class);
+            break;
+        case LIST:
+            // use JTFWB with EditListAction
+            created = new InspectorPanelButtonEditor(
+                    EditListPropertyAction.class);
+            break;
+        case FILENAME:
+            // use JTFWB with EditFileAction
+            created = new InspectorPanelButtonEditor(
+                    EditFilePropertyAction.class);
+            break;
+        case DIRECTORY:
+            // use JTFWB with EditDirectoryAction
+            created = new InspectorPanelButtonEditor(
+                    EditDirectoryPropertyAction.class);
+            break;
+        default:
+            // use a plain string JTextField
+            created = new InspectorPanelTextEditor();
+        }
+        editors.add(created);
+        return created;
+    }
+
+    /**
+     * Shows the resource estimate of the inspected function and of the whole
+     * pipeline. The estimate is calculated in the background, once the
+     * pipeline has not been changed for {@link #ESTIMATE_DELAY} ms.
+     */
+    private void updateEstimate() {
+        if (estimateTask != null) {
+            estimateTask.cancel(true);
+            estimateTask = null;
+        }
+
+        if (inspecting == null) {
+            estimateTimer.stop();
+            estimate.setText("");
+            return;
+        }
+        estimateTimer.restart();
+    }
+
+    /**
+     * Estimates a snapshot of the pipeline in a {@link BackgroundTask}.
+     */
+    private void startEstimate() {
+        if (inspecting == null) {
+            return;
+        }
+
+        /* the copies in the snapshot are in the order of the functions */
+        AbstractPipeline pipeline = ModelProxy.getInstance().getPipeline();
+        final int index = Arrays.asList(pipeline.getFunctions()).indexOf(
+                inspecting);
+        final PipelineSnapshot snapshot = pipeline.getSnapshot();
+        if (index < 0) {
+            return;
+        }
+
+        estimateTask = new BackgroundTask<String>(I18N.getInstance()
+                .getString("View.Inspector.EstimateProgress")) {
+
+            @Override
+            protected String doInBackground() {
+                List<AbstractFunction> functions = snapshot.copy()
+                        .getFunctions();
+                AbstractFunction function = functions.get(index);
+                PipelineEstimate pe = new PipelineEstimator(functions)
+                        .estimate();
+
+                String unknownSources = "";
+                if (!pe.getUnknownSources().isEmpty()) {
+                    unknownSources = I18N.getInstance().getString(
+                            "View.Inspector.EstimateUnknownSources",
+                            pe.getUnknownSources().size());
+                }
+
+                return I18N.getInstance().getString(
+                        "View.Inspector.Estimate",
+                        pe.getInputEntities(function),
+                        pe.getOutputEntities(function),
+                        pe.getMemory(function) / MEGABYTE,
+                        pe.getPeakMemory() / MEGABYTE,
+                        pe.getTempDisk() / MEGABYTE,
+                        pe.getDuration() / 60.0, unknownSources);
+            }
+
+            @Override
+            protected void succeeded(String result) {
+                estimate.setText(result);
+            }
+        };
+        estimateTask.start();
+    }
+
     /**
      * @param inspect
      *            the inspected function to set
      */
     public void inspect(AbstractFunction inspect) {
+        long start = Instrumentation.getInstance().start();
+
         rowEditorModel.clear();
+        rowEditors.clear();
         TableCellEditor tce = propertyTable.getCellEditor();
         if (tce != null) {
             Object value = tce.getCellEditorValue();
@@ -388,138 +652,31 @@ public class InspectorPanel extends JPanel implements Observer {
         } else {
             functionName.setText(inspect.getFriendlyName());
 
-            rowEditorModel.setEditorRow(0, new DefaultCellEditor(new JComboBox(
-                    taskComboModel)));
-
-            // find the appropriate RowEditors for the parameters
-            for (int i = 0; i < inspect.getActiveTask().getParameters().length; i++) {
-                final AbstractParameter ap = inspect.getActiveTask()
-                        .getParameters()[i];
-
-                String realValue = (ap.getValue() != null) ? ap.getValue() : ap
-                        .getDefaultValue();
-
-                switch (ap.getType()) {
-
-                case ENUM:
-                    // use ComboBox with enum values
-                    InspectorPanelTableCustomEnumComboBoxModel iptcecbm = new InspectorPanelTableCustomEnumComboBoxModel(
-                            ap);
-                    DefaultCellEditor dceEnum = new DefaultCellEditor(
-                            new JComboBox(iptcecbm));
-                    rowEditorModel.setEditorRow(i + 1, dceEnum);
-                    break;
-
-                case BOOLEAN:
-                    // use CheckBox with true/false
-                    JCheckBox jcb = new JCheckBox();
-                    jcb.setModel(new InspectorPanelTableBooleanCheckBoxModel(ap));
-                    jcb.setSelected(realValue.equals(Boolean.TRUE.toString()));
-
-                    DefaultCellEditor dceBoolean = new DefaultCellEditor(jcb);
-                    rowEditorModel.setEditorRow(i + 1, dceBoolean);
-                    break;
-
-                case BBOX:
-                    // use JTFWB with EditBBAction
-                    JTextFieldWithButton jtfwbBB = new JTextFieldWithButton(
-                            realValue, EDIT_BUTTON_CAPTION);
-                    jtfwbBB.fieldNoBorders();
-                    // jtfwbBB.setValue("(Bounding Box)", false);
-                    jtfwbBB.addButtonActionListener(new ActionListener() {
-                        @Override
-                        public void actionPerformed(ActionEvent e) {
-                            propertyTable.removeEditor();
-                            Action aBB = ActionRegistry.getInstance().get(
-                                    EditBoundingBoxPropertyAction.class);
-                            ContainingEvent ceBB = new ContainingEvent(this, ap);
-                            aBB.actionPerformed(ceBB);
-                        }
-                    });
-                    rowEditorModel.setEditorRow(i + 1,
-                            new JTextFieldWithButtonCellEditor(jtfwbBB));
-                    break;
-
-                case LIST:
-                    // use JTFWB with EditListAction
-                    JTextFieldWithButton jtwbList = new JTextFieldWithButton(
-                            realValue, EDIT_BUTTON_CAPTION);
-                    jtwbList.fieldNoBorders();
-                    jtwbList.addButtonActionListener(new ActionListener() {
-
-                        @Override
-                        public void actionPerformed(ActionEvent e) {
-                            propertyTable.removeEditor();
-                            Action aList = ActionRegistry.getInstance().get(
-                                    EditListPropertyAction.class);
-                            ContainingEvent ceList = new ContainingEvent(this,
-                                    ap);
-                            aList.actionPerformed(ceList);
-                        }
-                    });
-                    rowEditorModel.setEditorRow(i + 1,
-                            new JTextFieldWithButtonCellEditor(jtwbList));
-                    break;
-
-                case FILENAME:
-                    // use JTFWB with EditFileAction
-                    JTextFieldWithButton jtwbFile = new JTextFieldWithButton(
-                            realValue, EDIT_BUTTON_CAPTION);
-                    jtwbFile.fieldNoBorders();
-                    jtwbFile.addButtonActionListener(new ActionListener() {
-
-                        @Override
-                        public void actionPerformed(ActionEvent e) {
-                            propertyTable.removeEditor();
-                            Action aList = ActionRegistry.getInstance().get(
-                                    EditFilePropertyAction.class);
-                            ContainingEvent ceFile = new ContainingEvent(this,
-                                    ap);
-                            aList.actionPerformed(ceFile);
-                        }
-                    });
-                    rowEditorModel.setEditorRow(i + 1,
-                            new JTextFieldWithButtonCellEditor(jtwbFile));
-                    break;
-
-                case DIRECTORY:
-                    // use JTFWB with EditDirectoryAction
-                    JTextFieldWithButton jtwbDir = new JTextFieldWithButton(
-                            realValue, EDIT_BUTTON_CAPTION);
-                    jtwbDir.fieldNoBorders();
-                    jtwbDir.addButtonActionListener(new ActionListener() {
-
-                        @Override
-                        public void actionPerformed(ActionEvent e) {
-                            propertyTable.removeEditor();
-                            Action aList = ActionRegistry.getInstance().get(
-                                    EditDirectoryPropertyAction.class);
-                            ContainingEvent ceDir = new ContainingEvent(this,
-                                    ap);
-                            aList.actionPerformed(ceDir);
-                        }
-                    });
-                    rowEditorModel.setEditorRow(i + 1,
-                            new JTextFieldWithButtonCellEditor(jtwbDir));
-                    break;
-
-                default:
-                    // use a plain string JTextField
-                    JTextField textField = new JTextField(realValue);
-                    textField.setOpaque(true);
-                    textField.setBorder(null);
-                    DefaultCellEditor dce = new DefaultCellEditor(textField);
-                    dce.setClickCountToStart(1);
-                    rowEditorModel.setEditorRow(i + 1, dce);
-
-                }
-            } /* for */
+            rowEditorModel.setEditorRow(0, taskEditor);
+
+            // bind the cached RowEditors to the parameters
+            Map<ParameterType, Integer> used = new EnumMap<ParameterType, Integer>(
+                    ParameterType.class);
+            AbstractParameter[] parameters = inspect.getActiveTask()
+                    .getParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                InspectorPanelParameterEditor editor = giveParameterEditor(
+                        parameters[i].getType(), used);
+                editor.bind(parameters[i]);
+                rowEditors.add(editor);
+                rowEditorModel.setEditorRow(i + 1, editor.getEditor());
+            }
         }
+        taskComboModel.refresh();
+
+        updateEstimate();
 
         setDefault.setEnabled((inspect != null));
         loadPreset.setEnabled((inspect != null));
         savePreset.setEnabled((inspect != null));
         propertyTableModel.fireTableDataChanged();
+
+        Instrumentation.getInstance().stop(Operation.INSPECTOR_INSPECT, start);
     }
 
     /**
@@ -644,6 +801,13 @@ public class InspectorPanel extends JPanel implements Observer {
 
         private static final long serialVersionUID = 5611487798519928339L;
 
+        /**
+         * Tells the combo box the tasks of another function are shown.
+         */
+        public void refresh() {
+            fireContentsChanged(this, -1, -1);
+        }
+
         @Override
         public int getSize() {
             if (inspecting == null) {
@@ -713,19 +877,19 @@ public class InspectorPanel extends JPanel implements Observer {
         private AbstractParameter param;
 
         /**
-         * Creates a new {@link InspectorPanelTableCustomEnumComboBoxModel}
+         * Sets the parameter to be edited.
          * 
          * @param param
          *            the enum parameter to be edited
          */
-        public InspectorPanelTableCustomEnumComboBoxModel(
-                AbstractParameter param) {
+        public void setParam(AbstractParameter param) {
             this.param = param;
+            fireContentsChanged(this, -1, -1);
         }
 
         @Override
         public int getSize() {
-            return param.getEnumValue().length;
+            return (param != null) ? param.getEnumValue().length : 0;
         }
 
         @Override
@@ -735,6 +899,9 @@ public class InspectorPanel extends JPanel implements Observer {
 
         @Override
         public Object getSelectedItem() {
+            if (param == null) {
+                return null;
+            }
             String realValue = (param.getValue() != null) ? param.getValue()
                     : param.getDefaultValue();
             return realValue;
@@ -742,7 +909,8 @@ public class InspectorPanel extends JPanel implements Observer {
 
         @Override
         public void setSelectedItem(Object anObject) {
-            if ((anObject != null) && (anObject instanceof String)) {
+            if ((param != null) && (anObject != null)
+                    && (anObject instanceof String)) {
                 ContainingFunctionChangeParameterEvent cfcpe = new ContainingFunctionChangeParameterEvent(
                         this, inspecting);
 
@@ -780,17 +948,27 @@ public class InspectorPanel extends JPanel implements Observer {
 
         /**
          * Creates a new {@link InspectorPanelTableBooleanCheckBoxModel}
+         */
+        public InspectorPanelTableBooleanCheckBoxModel() {
+            this.lastSetFire = System.currentTimeMillis();
+        }
+
+        /**
+         * Sets the parameter to be edited.
          * 
          * @param param
          *            the boolean parameter to be edited
          */
-        public InspectorPanelTableBooleanCheckBoxModel(AbstractParameter param) {
+        public void setParam(AbstractParameter param) {
             this.param = param;
-            this.lastSetFire = System.currentTimeMillis();
+            fireStateChanged();
         }
 
         @Override
         public boolean isSelected() {
+            if (param == null) {
+                return false;
+            }
             String realValue = (param.getValue() != null) ? param.getValue()
                     : param.getDefaultValue();
             return realValue.equals(Boolean.TRUE.toString());
@@ -803,7 +981,7 @@ public class InspectorPanel extends JPanel implements Observer {
              * not constantly recall itself. (= 50msec blocking)
              */
             long now = System.currentTimeMillis();
-            if (now - lastSetFire < 50) {
+            if ((param == null) || (now - lastSetFire < 50)) {
                 return;
             }
             lastSetFire = System.currentTimeMillis();
@@ -831,6 +1009,182 @@ public class InspectorPanel extends JPanel implements Observer {
 
     } /* InspectorPanelTableBooleanCheckBoxModel */
 
+    /**
+     * A row editor of the {@link InspectorPanel}'s table for one
+     * {@link ParameterType}. It is created once and bound to the parameter of
+     * the row it is currently used in.
+     * 
+     * @author agent
+     * 
+     */
+    abstract class InspectorPanelParameterEditor {
+
+        /**
+         * the parameter currently edited
+         */
+        protected AbstractParameter param;
+
+        /**
+         * Binds this editor to another parameter and shows its value.
+         * 
+         * @param param
+         *            the parameter to be edited
+         */
+        public void bind(AbstractParameter param) {
+            this.param = param;
+            refresh();
+        }
+
+        /**
+         * @return the value of the parameter, its default value if it has none
+         */
+        protected String getRealValue() {
+            return (param.getValue() != null) ? param.getValue() : param
+                    .getDefaultValue();
+        }
+
+        /**
+         * @return the {@link TableCellEditor} for the row
+         */
+        public abstract TableCellEditor getEditor();
+
+        /**
+         * Shows the current value of the parameter.
+         */
+        public abstract void refresh();
+
+    } /* InspectorPanelParameterEditor */
+
+    /**
+     * Row editor for enum parameters, a combo box with the enum values.
+     */
+    class InspectorPanelEnumEditor extends InspectorPanelParameterEditor {
+
+        private InspectorPanelTableCustomEnumComboBoxModel model = new InspectorPanelTableCustomEnumComboBoxModel();
+
+        private DefaultCellEditor editor = new DefaultCellEditor(new JComboBox(
+                model));
+
+        @Override
+        public TableCellEditor getEditor() {
+            return editor;
+        }
+
+        @Override
+        public void refresh() {
+            model.setParam(param);
+        }
+
+    } /* InspectorPanelEnumEditor */
+
+    /**
+     * Row editor for boolean parameters, a check box.
+     */
+    class InspectorPanelBooleanEditor extends InspectorPanelParameterEditor {
+
+        private InspectorPanelTableBooleanCheckBoxModel model = new InspectorPanelTableBooleanCheckBoxModel();
+
+        private DefaultCellEditor editor;
+
+        /**
+         * Creates a new {@link InspectorPanelBooleanEditor}
+         */
+        public InspectorPanelBooleanEditor() {
+            JCheckBox jcb = new JCheckBox();
+            jcb.setModel(model);
+            editor = new DefaultCellEditor(jcb);
+        }
+
+        @Override
+        public TableCellEditor getEditor() {
+            return editor;
+        }
+
+        @Override
+        public void refresh() {
+            model.setParam(param);
+        }
+
+    } /* InspectorPanelBooleanEditor */
+
+    /**
+     * Row editor for parameters edited in a dialog, a text field with a button
+     * to open the dialog.
+     */
+    class InspectorPanelButtonEditor extends InspectorPanelParameterEditor {
+
+        private JTextFieldWithButton field;
+
+        private JTextFieldWithButtonCellEditor editor;
+
+        /**
+         * Creates a new {@link InspectorPanelButtonEditor}
+         * 
+         * @param editAction
+         *            the action to edit the parameter, receives a
+         *            {@link ContainingEvent} with the parameter
+         */
+        public InspectorPanelButtonEditor(
+                final Class<? extends Action> editAction) {
+            field = new JTextFieldWithButton("", EDIT_BUTTON_CAPTION);
+            field.fieldNoBorders();
+            field.addButtonActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    propertyTable.removeEditor();
+                    Action action = ActionRegistry.getInstance().get(
+                            editAction);
+                    ContainingEvent ce = new ContainingEvent(this, param);
+                    action.actionPerformed(ce);
+                }
+            });
+            editor = new JTextFieldWithButtonCellEditor(field);
+        }
+
+        @Override
+        public TableCellEditor getEditor() {
+            return editor;
+        }
+
+        @Override
+        public void refresh() {
+            field.setValue(getRealValue());
+        }
+
+    } /* InspectorPanelButtonEditor */
+
+    /**
+     * Row editor for all other parameters, a plain text field.
+     */
+    class InspectorPanelTextEditor extends InspectorPanelParameterEditor {
+
+        private JTextField textField;
+
+        private DefaultCellEditor editor;
+
+        /**
+         * Creates a new {@link InspectorPanelTextEditor}
+         */
+        public InspectorPanelTextEditor() {
+            textField = new JTextField();
+            textField.setOpaque(true);
+            textField.setBorder(null);
+            editor = new DefaultCellEditor(textField);
+            editor.setClickCountToStart(1);
+        }
+
+        @Override
+        public TableCellEditor getEditor() {
+            return editor;
+        }
+
+        @Override
+        public void refresh() {
+            textField.setText(getRealValue());
+        }
+
+    } /* InspectorPanelTextEditor */
+
     /**
      * The custom cell renderer for the display table of the
      * {@link InspectorPanel}.
@@ -16,13 +16,18 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Point;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.ImageIcon;
 import javax.swing.SwingUtilities;
@@ -61,6 +66,27 @@ public class LibraryFunction extends DisplayTemplatePanel {
      */
     protected static final double LIBRARY_FUNCTION_MIN_DRAG_DISTANCE = 32.0;
 
+    /**
+     * The maximum count of laid out texts kept in {@link #layouts}.
+     */
+    private static final int MAXIMUM_CACHED_LAYOUTS = 1024;
+
+    /**
+     * The laid out texts, per text, font and width. Since the font size
+     * depends on the zoom, this keeps a layout per zoom level. The least
+     * recently used layouts are removed.
+     */
+    private static Map<TextKey, GlyphVector[]> layouts = new LinkedHashMap<TextKey, GlyphVector[]>(
+            16, 0.75f, true) {
+        private static final long serialVersionUID = 2011032211300001L;
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<TextKey, GlyphVector[]> eldest) {
+            return size() > MAXIMUM_CACHED_LAYOUTS;
+        }
+    };
+
     /**
      * The {@link ImageIcon} resource that keeps an image template used to
      * prerender the actual image that will be drawn on this function
@@ -84,6 +110,16 @@ public class LibraryFunction extends DisplayTemplatePanel {
      */
     protected Image displayHighlight;
 
+    /**
+     * The color of the function group
+     */
+    protected Color color;
+
+    /**
+     * The color of the function group, if highlighted
+     */
+    protected Color highlightColor;
+
     /**
      * Whether this function is currently highlighted
      */
@@ -130,6 +166,12 @@ public class LibraryFunction extends DisplayTemplatePanel {
                 (int) (displayTemplate.getIconWidth() * Constants.DEFAULT_SIZE_FACTOR),
                 (int) (displayTemplate.getIconHeight() * Constants.DEFAULT_SIZE_FACTOR)));
 
+        color = modelFunctionPrototype.getParent().getColor();
+        float[] colorRGB = color.getComponents(null);
+        highlightColor = new Color(Math.min(1.0f, colorRGB[0] + 0.25f),
+                Math.min(1.0f, colorRGB[1] + 0.25f), Math.min(1.0f,
+                        colorRGB[2] + 0.25f));
+
         List<Image> prerender = DisplayTemplatePanel
                 .givePrerender(modelFunctionPrototype.getParent());
         if (prerender != null) {
@@ -139,13 +181,6 @@ public class LibraryFunction extends DisplayTemplatePanel {
 
         } else {
             // images are not prerendered, create them
-            Color color = modelFunctionPrototype.getParent().getColor();
-            float[] colorRGB = color.getComponents(null);
-            Color highlightColor = new Color(
-                    Math.min(1.0f, colorRGB[0] + 0.25f), Math.min(1.0f,
-                            colorRGB[1] + 0.25f), Math.min(1.0f,
-                            colorRGB[2] + 0.25f));
-
             display = DisplayTemplatePanel.prerenderDisplay(
                     modelFunctionPrototype.getParent(), displayTemplate, color,
                     modelFunctionPrototype.getIcon());
@@ -288,16 +323,15 @@ public class LibraryFunction extends DisplayTemplatePanel {
      *            where to draw
      */
     protected void paintAt(Graphics g, Point at) {
-        if (highlighted) {
-            g.drawImage(displayHighlight, at.x, at.y, getWidth(), getHeight(),
-                    this);
-        } else {
-            g.drawImage(display, at.x, at.y, getWidth(), getHeight(), this);
-        }
+        Image tile = DisplayTemplatePanel.giveTile(
+                highlighted ? displayHighlight : display, g, getWidth(),
+                getHeight());
+        g.drawImage(tile, at.x, at.y, getWidth(), getHeight(), this);
 
-        // get applicable font
-        g.setFont(g.getFont().deriveFont(Font.BOLD)
-                .deriveFont(g.getFont().getSize() * getHeight() / 90.0f));
+        // get applicable font, in whole points to share the layouts
+        g.setFont(g.getFont().deriveFont(Font.BOLD,
+                Math.max(1, Math.round(g.getFont().getSize() * getHeight()
+                        / 90.0f))));
 
         printCenteredString(g, modelFunctionPrototype.getFriendlyName(), at.x,
                 at.y + 0.8 * getHeight());
@@ -318,11 +352,39 @@ public class LibraryFunction extends DisplayTemplatePanel {
      */
     protected void printCenteredString(Graphics g, String str, double x,
             double y) {
+        Graphics2D g2 = (Graphics2D) g;
+        TextKey key = new TextKey(str, g.getFont(), getWidth(),
+                g2.getFontRenderContext());
+        GlyphVector[] lines = layouts.get(key);
+        if (lines == null) {
+            lines = layout(g2, str);
+            layouts.put(key, lines);
+        }
+
+        // print the lines
+        int fontHeight = g.getFontMetrics().getHeight();
+        for (int i = lines.length - 1; i >= 0; i--) {
+            GlyphVector line = lines[(lines.length - 1) - i];
+            g2.drawGlyphVector(line, (float) ((int) x + (getWidth() - (int) line
+                    .getLogicalBounds().getWidth()) / 2), (float) ((int) y - i
+                    * fontHeight));
+        }
+    }
 
+    /**
+     * Separates a string into lines fitting into the width of this function
+     * and lays them out for the font of g.
+     * 
+     * @param g
+     *            Graphics to draw upon
+     * @param str
+     *            String to display with line breaks
+     * @return the laid out lines
+     */
+    private GlyphVector[] layout(Graphics2D g, String str) {
         // find out how large this is gonna be
         FontMetrics fm = g.getFontMetrics();
         int fontWidth = 0;
-        int fontHeight = fm.getHeight();
 
         List<String> lines = new ArrayList<String>();
         String line = new String();
@@ -354,12 +416,12 @@ public class LibraryFunction extends DisplayTemplatePanel {
             lines.add(line);
         }
 
-        // print the lines
-        for (int i = lines.size() - 1; i >= 0; i--) {
-            line = lines.get((lines.size() - 1) - i);
-            g.drawString(line, (int) x + (getWidth() - fm.stringWidth(line))
-                    / 2, (int) y - i * fontHeight);
+        GlyphVector[] result = new GlyphVector[lines.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = g.getFont().createGlyphVector(
+                    g.getFontRenderContext(), lines.get(i));
         }
+        return result;
     }
 
     /**
@@ -389,4 +451,40 @@ public class LibraryFunction extends DisplayTemplatePanel {
         repaint();
     }
 
+    /**
+     * Identifies a laid out text by its text, font, width and the rendering
+     * context.
+     */
+    private static final class TextKey {
+
+        private final String text;
+        private final Font font;
+        private final int width;
+        private final FontRenderContext context;
+
+        public TextKey(String text, Font font, int width,
+                FontRenderContext context) {
+            this.text = text;
+            this.font = font;
+            this.width = width;
+            this.context = context;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TextKey)) {
+                return false;
+            }
+            TextKey other = (TextKey) obj;
+            return text.equals(other.text) && font.equals(other.font)
+                    && (width == other.width)
+                    && context.equals(other.context);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((text.hashCode() * 31 + font.hashCode()) * 31 + width)
+                    * 31 + context.hashCode();
+        }
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.view.panels;
+
+import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the bounding box around the bounds of all {@link PipelineFunction}s
+ * in object coordinates. Every edge is kept as a counted set of the edges of
+ * all functions, so a moved, added or removed function updates the bounding
+ * box without looking at the other functions.
+ * 
+ * @author agent
+ * 
+ */
+class PipelineBounds {
+
+    private Map<Object, Rectangle2D> known = new HashMap<Object, Rectangle2D>();
+
+    private TreeMap<Double, Integer> lefts = new TreeMap<Double, Integer>();
+    private TreeMap<Double, Integer> tops = new TreeMap<Double, Integer>();
+    private TreeMap<Double, Integer> rights = new TreeMap<Double, Integer>();
+    private TreeMap<Double, Integer> bottoms = new TreeMap<Double, Integer>();
+
+    /**
+     * Sets the bounds of an object, replaces its former bounds.
+     *
+     * @param key
+     *            the object
+     * @param bounds
+     *            its bounds in object coordinates
+     */
+    public void put(Object key, Rectangle2D bounds) {
+        Rectangle2D old = known.get(key);
+        if (bounds.equals(old)) {
+            return;
+        }
+        remove(key);
+
+        known.put(key, bounds);
+        add(lefts, bounds.getMinX());
+        add(tops, bounds.getMinY());
+        add(rights, bounds.getMaxX());
+        add(bottoms, bounds.getMaxY());
+    }
+
+    /**
+     * Removes the bounds of an object.
+     *
+     * @param key
+     *            the object
+     */
+    public void remove(Object key) {
+        Rectangle2D old = known.remove(key);
+        if (old != null) {
+            remove(lefts, old.getMinX());
+            remove(tops, old.getMinY());
+            remove(rights, old.getMaxX());
+            remove(bottoms, old.getMaxY());
+        }
+    }
+
+    /**
+     * @return whether no bounds are known
+     */
+    public boolean isEmpty() {
+        return known.isEmpty();
+    }
+
+    /**
+     * @return the smallest x coordinate of all bounds
+     */
+    public double getLeft() {
+        return lefts.firstKey();
+    }
+
+    /**
+     * @return the smallest y coordinate of all bounds
+     */
+    public double getTop() {
+        return tops.firstKey();
+    }
+
+    /**
+     * @return the largest x coordinate of all bounds
+     */
+    public double getRight() {
+        return rights.lastKey();
+    }
+
+    /**
+     * @return the largest y coordinate of all bounds
+     */
+    public double getBottom() {
+        return bottoms.lastKey();
+    }
+
+    private void add(TreeMap<Double, Integer> edges, double edge) {
+        Integer count = edges.get(edge);
+        edges.put(edge, (count == null) ? 1 : count + 1);
+    }
+
+    private void remove(TreeMap<Double, Integer> edges, double edge) {
+        Integer count = edges.get(edge);
+        if (count == null || count <= 1) {
+            edges.remove(edge);
+        } else {
+            edges.put(edge, count - 1);
+        }
+    }
+}
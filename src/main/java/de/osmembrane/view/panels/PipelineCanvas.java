@@ -0,0 +1,216 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.view.panels;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.border.Border;
+
+/**
+ * Draws all {@link PipelineFunction}s, {@link PipelineConnector}s and
+ * {@link PipelineLink}s of a {@link PipelinePanel} on one component, instead
+ * of having a component for each of them. Only the objects in the painted
+ * area are drawn, the links are filled together per color. The mouse events
+ * are dispatched to the object under the cursor.
+ * 
+ * @author agent
+ * 
+ */
+public class PipelineCanvas extends JComponent {
+
+    private static final long serialVersionUID = 2011032114120001L;
+
+    /**
+     * {@link PipelinePanel} this canvas draws
+     */
+    private PipelinePanel pipeline;
+
+    /**
+     * The object under the cursor, to show its hint
+     */
+    private Object hovered;
+
+    /**
+     * Creates a new {@link PipelineCanvas}
+     *
+     * @param pipeline
+     *            the {@link PipelinePanel} to draw and forward events to
+     */
+    public PipelineCanvas(final PipelinePanel pipeline) {
+        this.pipeline = pipeline;
+        this.setOpaque(false);
+
+        addMouseListener(new MouseListener() {
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                forward(e);
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                MouseEvent pipelineEvent = SwingUtilities.convertMouseEvent(
+                        PipelineCanvas.this, e, pipeline);
+                Object pressed = pipeline.getObjectAt(e.getPoint());
+
+                if (pressed instanceof PipelineFunction) {
+                    ((PipelineFunction) pressed).pressed(pipelineEvent);
+                } else if (pressed instanceof PipelineConnector) {
+                    ((PipelineConnector) pressed).pressed(pipelineEvent);
+                } else if (pressed instanceof PipelineLink) {
+                    ((PipelineLink) pressed).pressed(pipelineEvent);
+                } else {
+                    pipeline.dispatchEvent(pipelineEvent);
+                }
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                hover(null);
+            }
+
+            @Override
+            public void mouseEntered(MouseEvent e) {
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+            }
+        });
+
+        addMouseMotionListener(new MouseMotionListener() {
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                hover(pipeline.getObjectAt(e.getPoint()));
+                forward(e);
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                forward(e);
+            }
+        });
+    }
+
+    /**
+     * Forwards a mouse event to the {@link PipelinePanel}
+     */
+    private void forward(MouseEvent e) {
+        pipeline.dispatchEvent(SwingUtilities.convertMouseEvent(this, e,
+                pipeline));
+    }
+
+    /**
+     * Shows the hint of the function under the cursor, like the
+     * {@link PipelineFunction} components do when entered.
+     */
+    private void hover(Object object) {
+        if (object == hovered) {
+            return;
+        }
+        hovered = object;
+
+        if (object instanceof PipelineFunction) {
+            pipeline.setHint(((PipelineFunction) object)
+                    .getModelFunctionPrototype().getDescription());
+        } else {
+            pipeline.setHint(InspectorPanel.VALID_EMPTY_HINT);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle area = g.getClipBounds();
+        if (area == null) {
+            area = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+
+        Collection<PipelineFunction> functions = pipeline.getFunctionsIn(area);
+        Collection<PipelineLink> links = pipeline.getLinksIn(area);
+
+        // links below connectors below functions, like the layers
+        boolean lowDetail = pipeline.isLowDetail();
+        paintLinks((Graphics2D) g, links, lowDetail);
+        if (!lowDetail) {
+            for (PipelineFunction pf : functions) {
+                for (PipelineConnector pc : pf.getConnectors()) {
+                    Graphics cg = g.create(pc.getX(), pc.getY(),
+                            pc.getWidth(), pc.getHeight());
+                    pc.paintComponent(cg);
+                    cg.dispose();
+                }
+            }
+        }
+        for (PipelineFunction pf : functions) {
+            Graphics fg = g.create(pf.getX(), pf.getY(), pf.getWidth(),
+                    pf.getHeight());
+            pf.paintComponent(fg);
+
+            Border border = pf.getBorder();
+            if (border != null) {
+                border.paintBorder(pf, fg, 0, 0, pf.getWidth(), pf.getHeight());
+            }
+            fg.dispose();
+        }
+    }
+
+    /**
+     * Collects the shapes of all links with the same color in one path and
+     * fills each path at once. With low detail, only the lines of the links
+     * are collected and drawn.
+     */
+    private void paintLinks(Graphics2D g, Collection<PipelineLink> links,
+            boolean lowDetail) {
+        Map<Color, Path2D> batches = new LinkedHashMap<Color, Path2D>();
+        for (PipelineLink pl : links) {
+            Shape shape = lowDetail ? pl.getLine() : pl.getShape();
+            if (shape == null) {
+                continue;
+            }
+
+            Color color = pl.getDisplayColor();
+            Path2D batch = batches.get(color);
+            if (batch == null) {
+                batch = new Path2D.Double(Path2D.WIND_NON_ZERO);
+                batches.put(color, batch);
+            }
+            batch.append(
+                    shape.getPathIterator(
+                            AffineTransform.getTranslateInstance(pl.getX(),
+                                    pl.getY())), false);
+        }
+
+        for (Map.Entry<Color, Path2D> batch : batches.entrySet()) {
+            g.setColor(batch.getKey());
+            if (lowDetail) {
+                g.draw(batch.getValue());
+            } else {
+                g.fill(batch.getValue());
+            }
+        }
+    }
+}
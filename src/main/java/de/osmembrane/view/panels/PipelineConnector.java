@@ -18,8 +18,12 @@ import java.awt.Image;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.swing.ImageIcon;
 import javax.swing.SwingUtilities;
@@ -86,16 +90,16 @@ public class PipelineConnector extends DisplayTemplatePanel {
     private int amount;
 
     /**
-     * list of {@link PipelineLink}s going from this connector to other
-     * connectors
+     * map of {@link PipelineLink}s going from this connector to other
+     * connectors, by their destination
      */
-    private List<PipelineLink> outLinks;
+    private Map<PipelineConnector, PipelineLink> outLinks;
 
     /**
-     * lists of {@link PipelineLink}s coming in from other connectors to this
+     * set of {@link PipelineLink}s coming in from other connectors to this
      * connector
      */
-    private List<PipelineLink> inLinks;
+    private Set<PipelineLink> inLinks;
 
     /**
      * Creates a new connector for a model {@link Connector} on a
@@ -130,8 +134,8 @@ public class PipelineConnector extends DisplayTemplatePanel {
         this.id = id;
         this.amount = amount;
 
-        this.outLinks = new ArrayList<PipelineLink>();
-        this.inLinks = new ArrayList<PipelineLink>();
+        this.outLinks = new LinkedHashMap<PipelineConnector, PipelineLink>();
+        this.inLinks = new LinkedHashSet<PipelineLink>();
 
         this.addMouseListener(new MouseListener() {
 
@@ -146,14 +150,8 @@ public class PipelineConnector extends DisplayTemplatePanel {
 
             @Override
             public void mousePressed(MouseEvent e) {
-                MouseEvent pipelineEvent = SwingUtilities.convertMouseEvent(
-                        PipelineConnector.this, e, pipeline);
-
-                if (pipeline.getActiveTool() == Tool.DEFAULT_MAGIC_TOOL) {
-                    pipeline.connect(parentFunction);
-                } else {
-                    pipeline.dispatchEvent(pipelineEvent);
-                }
+                pressed(SwingUtilities.convertMouseEvent(
+                        PipelineConnector.this, e, pipeline));
             }
 
             @Override
@@ -219,73 +217,87 @@ public class PipelineConnector extends DisplayTemplatePanel {
     }
 
     /**
-     * Generates all outLinks that the model maintains
+     * Handles a mouse press on this connector, depending on the tool.
+     * 
+     * @param pipelineEvent
+     *            the event, in the coordinates of the {@link PipelinePanel}
      */
-    public void generateLinksFromModel() {
-        if (isOutpipes) {
-            createLinks();
+    protected void pressed(MouseEvent pipelineEvent) {
+        if (pipeline.getActiveTool() == Tool.DEFAULT_MAGIC_TOOL) {
+            pipeline.connect(parentFunction);
+        } else {
+            pipeline.dispatchEvent(pipelineEvent);
         }
     }
 
     /**
-     * Creates all the outflowing {@link PipelineLink}s from this connector.
+     * Arranges all {@link PipelineLink}s to conform to this connector
      */
-    private void createLinks() {
-        for (AbstractConnector ac : modelConnector.getConnections()) {
-            PipelineConnector toCon = pipeline.findConnector(ac);
-            PipelineLink pl = new PipelineLink(pipeline, this, toCon);
-
-            // out link here
-            outLinks.add(pl);
-            // in link there
-            toCon.inLinks.add(pl);
+    public void arrangeLinks() {
+        for (PipelineLink pl : outLinks.values()) {
+            arrangeLink(pl);
         }
     }
 
     /**
-     * Arranges all {@link PipelineLink}s to conform to this connector
+     * Arranges one outgoing {@link PipelineLink} to conform to this connector
+     * 
+     * @param pl
+     *            the link, must start at this connector
      */
-    public void arrangeLinks() {
-        for (PipelineLink pl : outLinks) {
-            PipelineConnector dest = pl.getLinkDestination();
-
-            /* set size, set location */
-            if (this.getX() < dest.getX()) {
-                // arrow goes like ----->
-                if (this.getY() < dest.getY()) {
-                    // left top to right bottom
-                    pl.setLocation(this.getX(), this.getY());
-                    pl.setSize(dest.getWidth() + dest.getX() - this.getX(),
-                            dest.getHeight() + dest.getY() - this.getY());
-                } else {
-                    // left bottom to right top
-                    pl.setLocation(this.getX(), dest.getY());
-                    pl.setSize(dest.getWidth() + dest.getX() - this.getX(),
-                            this.getHeight() + this.getY() - dest.getY());
-                }
+    public void arrangeLink(PipelineLink pl) {
+        PipelineConnector dest = pl.getLinkDestination();
+
+        /* set size, set location */
+        if (this.getX() < dest.getX()) {
+            // arrow goes like ----->
+            if (this.getY() < dest.getY()) {
+                // left top to right bottom
+                pl.setLocation(this.getX(), this.getY());
+                pl.setSize(dest.getWidth() + dest.getX() - this.getX(),
+                        dest.getHeight() + dest.getY() - this.getY());
             } else {
-                // arrow goes like <-----
-                if (this.getY() < dest.getY()) {
-                    // right top to left bottom
-                    pl.setLocation(dest.getX(), this.getY());
-                    pl.setSize(this.getWidth() + this.getX() - dest.getX(),
-                            dest.getHeight() + dest.getY() - this.getY());
-                } else {
-                    // right bottom to left top
-                    pl.setLocation(dest.getX(), dest.getY());
-                    pl.setSize(this.getWidth() + this.getX() - dest.getX(),
-                            this.getHeight() + this.getY() - dest.getY());
-                }
+                // left bottom to right top
+                pl.setLocation(this.getX(), dest.getY());
+                pl.setSize(dest.getWidth() + dest.getX() - this.getX(),
+                        this.getHeight() + this.getY() - dest.getY());
+            }
+        } else {
+            // arrow goes like <-----
+            if (this.getY() < dest.getY()) {
+                // right top to left bottom
+                pl.setLocation(dest.getX(), this.getY());
+                pl.setSize(this.getWidth() + this.getX() - dest.getX(),
+                        dest.getHeight() + dest.getY() - this.getY());
+            } else {
+                // right bottom to left top
+                pl.setLocation(dest.getX(), dest.getY());
+                pl.setSize(this.getWidth() + this.getX() - dest.getX(),
+                        this.getHeight() + this.getY() - dest.getY());
             }
-
-            pl.regenerateLine();
         }
 
+        pl.regenerateLine();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
-        g.drawImage(display, 0, 0, getWidth(), getHeight(), this);
+        if (pipeline.isLowDetail()) {
+            return;
+        }
+        g.drawImage(DisplayTemplatePanel.giveTile(display, g, getWidth(),
+                getHeight()), 0, 0, getWidth(), getHeight(), this);
+    }
+
+    /**
+     * Lets this connector represent another model {@link Connector} of the
+     * same type, see {@link PipelineFunction#setModelFunction}.
+     * 
+     * @param modelConnector
+     *            connector in the model which is represented
+     */
+    public void setModelConnector(AbstractConnector modelConnector) {
+        this.modelConnector = modelConnector;
     }
 
     /**
@@ -319,16 +331,16 @@ public class PipelineConnector extends DisplayTemplatePanel {
     }
 
     /**
-     * @return the list of {@link PipelineLink}s flowing out from this connector
+     * @return the {@link PipelineLink}s flowing out from this connector
      */
-    public List<PipelineLink> getOutLinks() {
-        return this.outLinks;
+    public Collection<PipelineLink> getOutLinks() {
+        return this.outLinks.values();
     }
 
     /**
-     * @return the list of {@link PipelineLink}s coming in to this connector
+     * @return the {@link PipelineLink}s coming in to this connector
      */
-    public List<PipelineLink> getInLinks() {
+    public Collection<PipelineLink> getInLinks() {
         return this.inLinks;
     }
 
@@ -341,7 +353,7 @@ public class PipelineConnector extends DisplayTemplatePanel {
      */
     public PipelineLink addLinkTo(PipelineConnector toConnector) {
         PipelineLink pl = new PipelineLink(pipeline, this, toConnector);
-        outLinks.add(pl);
+        outLinks.put(toConnector, pl);
         toConnector.inLinks.add(pl);
         return pl;
     }
@@ -354,24 +366,12 @@ public class PipelineConnector extends DisplayTemplatePanel {
      * @return the removed link, or null if none found
      */
     public PipelineLink removeLinkTo(PipelineConnector toConnector) {
-        PipelineLink result = null;
-
         // out from here
-        for (int i = 0; i < outLinks.size(); i++) {
-            result = outLinks.get(i);
-
-            if (result.doesLink(this, toConnector)) {
-                outLinks.remove(i);
-                break;
-            }
-        }
+        PipelineLink result = outLinks.remove(toConnector);
 
         // in to there
-        for (int i = 0; i < toConnector.inLinks.size(); i++) {
-            if (toConnector.inLinks.get(i).equals(result)) {
-                toConnector.inLinks.remove(i);
-                break;
-            }
+        if (result != null) {
+            toConnector.inLinks.remove(result);
         }
 
         return result;
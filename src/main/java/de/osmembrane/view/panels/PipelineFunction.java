@@ -11,6 +11,7 @@
 
 package de.osmembrane.view.panels;
 
+import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Point;
@@ -27,6 +28,7 @@ import de.osmembrane.model.pipeline.AbstractConnector;
 import de.osmembrane.model.pipeline.AbstractFunction;
 import de.osmembrane.model.pipeline.Connector;
 import de.osmembrane.model.pipeline.Function;
+import de.osmembrane.resources.Constants;
 
 /**
  * The pipeline function, i.e. the visual representation of a model
@@ -107,22 +109,8 @@ public class PipelineFunction extends LibraryFunction {
 
             @Override
             public void mousePressed(MouseEvent e) {
-                MouseEvent pipelineEvent = SwingUtilities.convertMouseEvent(
-                        PipelineFunction.this, e, pipeline);
-
-                switch (pipeline.getActiveTool()) {
-                case DEFAULT_MAGIC_TOOL:
-                case SELECTION_TOOL:
-                    pipeline.selected(PipelineFunction.this);
-                    pipeline.setDraggingFrom(pipelineEvent.getPoint());
-                    break;
-                case VIEW_TOOL:
-                    pipeline.dispatchEvent(pipelineEvent);
-                    break;
-                case CONNECTION_TOOL:
-                    pipeline.connect(PipelineFunction.this);
-                    break;
-                }
+                pressed(SwingUtilities.convertMouseEvent(
+                        PipelineFunction.this, e, pipeline));
             }
 
             @Override
@@ -163,6 +151,28 @@ public class PipelineFunction extends LibraryFunction {
         });
     }
 
+    /**
+     * Handles a mouse press on this function, depending on the tool.
+     * 
+     * @param pipelineEvent
+     *            the event, in the coordinates of the {@link PipelinePanel}
+     */
+    protected void pressed(MouseEvent pipelineEvent) {
+        switch (pipeline.getActiveTool()) {
+        case DEFAULT_MAGIC_TOOL:
+        case SELECTION_TOOL:
+            pipeline.selected(this);
+            pipeline.setDraggingFrom(pipelineEvent.getPoint());
+            break;
+        case VIEW_TOOL:
+            pipeline.dispatchEvent(pipelineEvent);
+            break;
+        case CONNECTION_TOOL:
+            pipeline.connect(this);
+            break;
+        }
+    }
+
     /**
      * Creates & adds {@link PipelineConnector}s from connectorList for this
      * function
@@ -224,12 +234,83 @@ public class PipelineFunction extends LibraryFunction {
     protected void paintComponent(Graphics g) {
         highlighted = this.equals(pipeline.getSelected());
 
+        if (pipeline.isLowDetail()) {
+            g.setColor(highlighted ? highlightColor : color);
+            g.fillRect(0, 0, getWidth(), getHeight());
+            return;
+        }
+
         super.paintComponent(g);
 
-        g.setFont(g.getFont().deriveFont(Font.PLAIN)
-                .deriveFont((int) (g.getFont().getSize() * 0.9)));
+        g.setFont(g.getFont().deriveFont(Font.PLAIN,
+                (int) (g.getFont().getSize() * 0.9)));
         printCenteredString(g, modelFunction.getActiveTask().getName(), 0,
                 0 + 0.33 * getHeight());
+
+        // mark functions whose result is cached
+        if (modelFunction.isResultCached()) {
+            int size = getHeight() / 8;
+            g.setColor(Constants.ENTITY_STREAM_TYPE_COLOR);
+            g.fillOval(getWidth() - 2 * size, size, size, size);
+            g.setColor(Color.DARK_GRAY);
+            g.drawOval(getWidth() - 2 * size, size, size, size);
+        }
+    }
+
+    /**
+     * Checks whether this {@link PipelineFunction} can represent another
+     * model {@link Function}, i.e. it is of the same group and has the same
+     * connectors.
+     * 
+     * @param newModelFunction
+     *            the function out of the model
+     * @return true if {@link #setModelFunction(AbstractFunction)} may be
+     *         called with newModelFunction
+     */
+    public boolean canRepresent(AbstractFunction newModelFunction) {
+        if (!modelFunction.getParent().equals(newModelFunction.getParent())) {
+            return false;
+        }
+
+        return sameTypes(modelFunction.getInConnectors(),
+                newModelFunction.getInConnectors())
+                && sameTypes(modelFunction.getOutConnectors(),
+                        newModelFunction.getOutConnectors());
+    }
+
+    private boolean sameTypes(AbstractConnector[] a, AbstractConnector[] b) {
+        if (a.length != b.length) {
+            return false;
+        }
+        for (int i = 0; i < a.length; i++) {
+            if (a[i].getType() != b[i].getType()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lets this {@link PipelineFunction} represent another model
+     * {@link Function}, which has been restored from the one represented
+     * before. The {@link PipelineConnector}s are kept.
+     * 
+     * @param newModelFunction
+     *            the function out of the model, must be representable
+     * @see #canRepresent(AbstractFunction)
+     */
+    public void setModelFunction(AbstractFunction newModelFunction) {
+        this.modelFunction = newModelFunction;
+        this.modelFunctionPrototype = newModelFunction;
+
+        AbstractConnector[] in = newModelFunction.getInConnectors();
+        AbstractConnector[] out = newModelFunction.getOutConnectors();
+        for (PipelineConnector pc : connectors) {
+            pc.setModelConnector(pc.isOutpipes() ? out[pc.getId()] : in[pc
+                    .getId()]);
+        }
+
+        repaint();
     }
 
     /**
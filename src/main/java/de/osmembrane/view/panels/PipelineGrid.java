@@ -0,0 +1,212 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.view.panels;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * A uniform grid over object coordinates which finds the objects whose
+ * bounds intersect an area without looking at all the other objects. Every
+ * object is registered in all cells its bounds touch. A query is limited to
+ * the bounding box of all objects, and if it still covers more cells than
+ * are occupied, the occupied cells are looked at instead.
+ * 
+ * @param <T>
+ *            type of the indexed objects
+ * 
+ * @author agent
+ * 
+ */
+class PipelineGrid<T> {
+
+    /**
+     * edge length of a cell in object coordinates
+     */
+    private double cellSize;
+
+    private Map<T, Rectangle2D> known = new HashMap<T, Rectangle2D>();
+
+    private Map<Long, List<T>> cells = new HashMap<Long, List<T>>();
+
+    private PipelineBounds extent = new PipelineBounds();
+
+    /**
+     * the largest width and height ever indexed
+     */
+    private double maxWidth;
+    private double maxHeight;
+
+    /**
+     * Creates a new, empty grid.
+     *
+     * @param cellSize
+     *            edge length of a cell in object coordinates, should be about
+     *            the size of the indexed objects
+     */
+    public PipelineGrid(double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Sets the bounds of an object, replaces its former bounds.
+     *
+     * @param key
+     *            the object
+     * @param bounds
+     *            its bounds in object coordinates
+     */
+    public void put(T key, Rectangle2D bounds) {
+        Rectangle2D old = known.get(key);
+        if (bounds.equals(old)) {
+            return;
+        }
+        remove(key);
+
+        known.put(key, bounds);
+        extent.put(key, bounds);
+
+        long right = getCell(bounds.getMaxX());
+        long bottom = getCell(bounds.getMaxY());
+        for (long x = getCell(bounds.getMinX()); x <= right; x++) {
+            for (long y = getCell(bounds.getMinY()); y <= bottom; y++) {
+                long cell = getKey(x, y);
+                List<T> entries = cells.get(cell);
+                if (entries == null) {
+                    entries = new ArrayList<T>(2);
+                    cells.put(cell, entries);
+                }
+                entries.add(key);
+            }
+        }
+
+        maxWidth = Math.max(maxWidth, bounds.getWidth());
+        maxHeight = Math.max(maxHeight, bounds.getHeight());
+    }
+
+    /**
+     * Removes an object.
+     *
+     * @param key
+     *            the object
+     */
+    public void remove(Object key) {
+        Rectangle2D old = known.remove(key);
+        if (old == null) {
+            return;
+        }
+        extent.remove(key);
+
+        long right = getCell(old.getMaxX());
+        long bottom = getCell(old.getMaxY());
+        for (long x = getCell(old.getMinX()); x <= right; x++) {
+            for (long y = getCell(old.getMinY()); y <= bottom; y++) {
+                long cell = getKey(x, y);
+                List<T> entries = cells.get(cell);
+                entries.remove(key);
+                if (entries.isEmpty()) {
+                    cells.remove(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds all objects whose bounds intersect an area.
+     *
+     * @param area
+     *            the area in object coordinates
+     * @return the objects, in no particular order
+     */
+    public Set<T> query(Rectangle2D area) {
+        Set<T> result = new LinkedHashSet<T>();
+        if (extent.isEmpty()) {
+            return result;
+        }
+
+        /* nothing lies outside of the bounding box of all objects */
+        long left = getCell(Math.max(area.getMinX(), extent.getLeft()));
+        long top = getCell(Math.max(area.getMinY(), extent.getTop()));
+        long right = getCell(Math.min(area.getMaxX(), extent.getRight()));
+        long bottom = getCell(Math.min(area.getMaxY(), extent.getBottom()));
+        if (left > right || top > bottom) {
+            return result;
+        }
+
+        if ((right - left + 1) * (bottom - top + 1) > cells.size()) {
+            for (Entry<Long, List<T>> cell : cells.entrySet()) {
+                long key = cell.getKey();
+                long x = key >> 32;
+                long y = (int) key;
+                if (x >= left && x <= right && y >= top && y <= bottom) {
+                    collect(cell.getValue(), area, result);
+                }
+            }
+        } else {
+            for (long x = left; x <= right; x++) {
+                for (long y = top; y <= bottom; y++) {
+                    List<T> entries = cells.get(getKey(x, y));
+                    if (entries != null) {
+                        collect(entries, area, result);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the largest width of all objects ever indexed
+     */
+    public double getMaxWidth() {
+        return maxWidth;
+    }
+
+    /**
+     * @return the largest height of all objects ever indexed
+     */
+    public double getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * Adds the entries of a cell which intersect an area to the result.
+     */
+    private void collect(List<T> entries, Rectangle2D area, Set<T> result) {
+        for (T key : entries) {
+            if (known.get(key).intersects(area)) {
+                result.add(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the row or column of the cells a coordinate lies in.
+     */
+    private long getCell(double coordinate) {
+        return (long) Math.floor(coordinate / cellSize);
+    }
+
+    /**
+     * Returns the key of a cell, column in the upper and row in the lower
+     * half.
+     */
+    private static long getKey(long x, long y) {
+        return (x << 32) ^ (y & 0xffffffffL);
+    }
+}
@@ -13,17 +13,21 @@ package de.osmembrane.view.panels;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Point;
-import java.awt.Polygon;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
+import java.util.EnumMap;
+import java.util.Map;
 
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 
+import de.osmembrane.model.pipeline.ConnectorType;
 import de.osmembrane.resources.Constants;
 
 /**
@@ -47,11 +51,36 @@ public class PipelineLink extends JPanel {
      */
     protected Color color;
 
+    /**
+     * {@link Color} this connection will be drawn in when it is selected
+     */
+    protected Color highlightColor;
+
+    /**
+     * The highlight colors of all {@link ConnectorType}s
+     */
+    private static final Map<ConnectorType, Color> HIGHLIGHT_COLORS = new EnumMap<ConnectorType, Color>(
+            ConnectorType.class);
+
+    static {
+        for (ConnectorType type : ConnectorType.values()) {
+            HIGHLIGHT_COLORS.put(type, highlight(type.getColor()));
+        }
+    }
+
     /**
      * The coordinates of the line to draw
      */
     protected Line2D line;
 
+    /**
+     * The line and the arrow head to fill, computed whenever the line is
+     * regenerated
+     */
+    protected Path2D shape;
+
+    private static final double SQRT_HALF = Math.sqrt(0.5);
+
     /**
      * The specific widths of the actual line in object coordinates
      */
@@ -83,6 +112,8 @@ public class PipelineLink extends JPanel {
         this.linkSource = linkSource;
         this.linkDestination = linkDestination;
         this.color = linkSource.getModelConnector().getType().getColor();
+        this.highlightColor = HIGHLIGHT_COLORS.get(linkSource
+                .getModelConnector().getType());
         this.line = new Line2D.Double();
 
         this.setOpaque(false);
@@ -98,17 +129,8 @@ public class PipelineLink extends JPanel {
 
             @Override
             public void mousePressed(MouseEvent e) {
-                MouseEvent pipelineEvent = SwingUtilities.convertMouseEvent(
-                        PipelineLink.this, e, pipeline);
-
-                switch (pipeline.getActiveTool()) {
-                case DEFAULT_MAGIC_TOOL:
-                case SELECTION_TOOL:
-                    pipeline.selected(PipelineLink.this);
-                    break;
-                default:
-                    pipeline.dispatchEvent(pipelineEvent);
-                }
+                pressed(SwingUtilities.convertMouseEvent(PipelineLink.this, e,
+                        pipeline));
             }
 
             @Override
@@ -147,6 +169,23 @@ public class PipelineLink extends JPanel {
         });
     }
 
+    /**
+     * Handles a mouse press on this link, depending on the tool.
+     * 
+     * @param pipelineEvent
+     *            the event, in the coordinates of the {@link PipelinePanel}
+     */
+    protected void pressed(MouseEvent pipelineEvent) {
+        switch (pipeline.getActiveTool()) {
+        case DEFAULT_MAGIC_TOOL:
+        case SELECTION_TOOL:
+            pipeline.selected(this);
+            break;
+        default:
+            pipeline.dispatchEvent(pipelineEvent);
+        }
+    }
+
     /**
      * Constructor only applying the {@link PipelinePanel} for descendant
      * classes.
@@ -196,82 +235,130 @@ public class PipelineLink extends JPanel {
         }
 
         line.setLine(left, right);
+        shape = createShape();
         repaint();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
-        if (this.equals(pipeline.getSelected())) {
-            float[] colorRGB = color.getComponents(null);
-            Color highlightColor = new Color(
-                    Math.min(1.0f, colorRGB[0] + 0.25f), Math.min(1.0f,
-                            colorRGB[1] + 0.25f), Math.min(1.0f,
-                            colorRGB[2] + 0.25f));
-            g.setColor(highlightColor);
-        } else {
-            g.setColor(color);
-        }
-
-        Polygon p = new Polygon();
-        int drawWidth = pipeline.objToWindowDelta(new Point2D.Double(0.0,
-                LINE_DRAWING_WIDTH * Constants.DEFAULT_ZOOM_SIZE)).y;
-
-        // use the dot product, Luke
-        double deltaX = line.getX2() - line.getX1();
-        double deltaY = line.getY2() - line.getY1();
-        double length = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
-        double alpha = Math.acos(-1.0 * (line.getX2() - line.getX1()) / length);
-
-        // if alpha too large to get returned by acos
-        if (line.getY2() > line.getY1()) {
-            alpha = 2.0 * Math.PI - alpha;
+        if (pipeline.isLowDetail()) {
+            g.setColor(getDisplayColor());
+            ((Graphics2D) g).draw(line);
+        } else if (shape != null) {
+            g.setColor(getDisplayColor());
+            ((Graphics2D) g).fill(shape);
         }
+    }
 
-        // alpha = the clockwise counted angle from the x-axis to the left
-        // y = sin(alpha), x = cos(alpha)
+    /**
+     * @return the {@link Color} to fill the link with, brighter if it is
+     *         selected
+     */
+    protected Color getDisplayColor() {
+        return this.equals(pipeline.getSelected()) ? highlightColor : color;
+    }
 
-        p.addPoint(
-                (int) (line.getX1() + (Math.cos(alpha - 0.25 * Math.PI) * drawWidth)),
-                (int) (line.getY1() + (Math.sin(alpha - 0.25 * Math.PI) * drawWidth)));
-        p.addPoint(
-                (int) (line.getX1() + (Math.cos(alpha + 0.25 * Math.PI) * drawWidth)),
-                (int) (line.getY1() + (Math.sin(alpha + 0.25 * Math.PI) * drawWidth)));
+    /**
+     * @return the line from the source to the destination in the coordinates
+     *         of this link
+     */
+    protected Line2D getLine() {
+        return line;
+    }
 
-        p.addPoint(
-                (int) (line.getX2() + (Math.cos(alpha + 0.25 * Math.PI) * drawWidth)),
-                (int) (line.getY2() + (Math.sin(alpha + 0.25 * Math.PI) * drawWidth)));
-        p.addPoint(
-                (int) (line.getX2() + (Math.cos(alpha - 0.25 * Math.PI) * drawWidth)),
-                (int) (line.getY2() + (Math.sin(alpha - 0.25 * Math.PI) * drawWidth)));
+    /**
+     * @return the shape of the link as computed by the last
+     *         {@link #regenerateLine()}, null if it has never been arranged
+     */
+    protected Path2D getShape() {
+        return shape;
+    }
 
-        g.fillPolygon(p);
+    /**
+     * Brightens a color to highlight a selected link.
+     * 
+     * @param color
+     *            the normal color
+     * @return the highlight color
+     */
+    protected static Color highlight(Color color) {
+        float[] colorRGB = color.getComponents(null);
+        return new Color(Math.min(1.0f, colorRGB[0] + 0.25f), Math.min(1.0f,
+                colorRGB[1] + 0.25f), Math.min(1.0f, colorRGB[2] + 0.25f));
+    }
 
-        // some radius, some tip
+    /**
+     * Creates the shape of the line and the arrow head in the coordinates of
+     * this link, for the current line and zoom.
+     * 
+     * @return the shape to fill
+     */
+    protected Path2D createShape() {
+        double drawWidth = pipeline.objToWindowDelta(new Point2D.Double(0.0,
+                LINE_DRAWING_WIDTH * Constants.DEFAULT_ZOOM_SIZE)).y;
         double arrowRadius = pipeline.objToWindowDelta(
                 new Point2D.Double(CONNECTOR_WIDTH
                         * Constants.DEFAULT_ZOOM_SIZE / 2.0, 0.0)).getX();
 
-        Polygon arrowHead = new Polygon();
+        return createShape(line, drawWidth, arrowRadius);
+    }
+
+    /**
+     * Creates the shape of a line with an arrow head at its end.
+     * 
+     * @param line
+     *            the line, from the start to the end point
+     * @param drawWidth
+     *            the distance of the corners of the line to its end points
+     * @param arrowRadius
+     *            the length of the sides of the arrow head
+     * @return the shape to fill
+     */
+    static Path2D createShape(Line2D line, double drawWidth,
+            double arrowRadius) {
+        double deltaX = line.getX2() - line.getX1();
+        double deltaY = line.getY2() - line.getY1();
+        double length = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+
+        Path2D shape = new Path2D.Double(Path2D.WIND_NON_ZERO);
+        if (length == 0.0) {
+            return shape;
+        }
+
+        /*
+         * alpha = the clockwise counted angle from the x-axis to the left, the
+         * directions 45 degrees around it follow from the addition theorems,
+         * so no trigonometric function is needed
+         */
+        double cosAlpha = -deltaX / length;
+        double sinAlpha = -deltaY / length;
+        double minusX = (cosAlpha + sinAlpha) * SQRT_HALF;
+        double minusY = (sinAlpha - cosAlpha) * SQRT_HALF;
+        double plusX = (cosAlpha - sinAlpha) * SQRT_HALF;
+        double plusY = (sinAlpha + cosAlpha) * SQRT_HALF;
+
+        shape.moveTo(line.getX1() + minusX * drawWidth, line.getY1() + minusY
+                * drawWidth);
+        shape.lineTo(line.getX1() + plusX * drawWidth, line.getY1() + plusY
+                * drawWidth);
+        shape.lineTo(line.getX2() + plusX * drawWidth, line.getY2() + plusY
+                * drawWidth);
+        shape.lineTo(line.getX2() + minusX * drawWidth, line.getY2() + minusY
+                * drawWidth);
+        shape.closePath();
 
         // arrow goes like left -----> right
         double tipLength = (length - arrowRadius) / length;
-        Point2D arrowTip = new Point2D.Double(line.getX1()
-                + (line.getX2() - line.getX1()) * tipLength, line.getY1()
-                + (line.getY2() - line.getY1()) * tipLength);
-
-        arrowHead.addPoint(
-                (int) (arrowTip.getX() + arrowRadius
-                        * Math.cos(alpha - 0.25 * Math.PI)),
-                (int) (arrowTip.getY() + arrowRadius
-                        * Math.sin(alpha - 0.25 * Math.PI)));
-        arrowHead.addPoint((int) arrowTip.getX(), (int) arrowTip.getY());
-        arrowHead.addPoint(
-                (int) (arrowTip.getX() + arrowRadius
-                        * Math.cos(alpha + 0.25 * Math.PI)),
-                (int) (arrowTip.getY() + arrowRadius
-                        * Math.sin(alpha + 0.25 * Math.PI)));
-
-        g.fillPolygon(arrowHead);
+        double tipX = line.getX1() + deltaX * tipLength;
+        double tipY = line.getY1() + deltaY * tipLength;
+
+        // same orientation as the line, so the overlap is filled
+        shape.moveTo(tipX + arrowRadius * plusX, tipY + arrowRadius * plusY);
+        shape.lineTo(tipX, tipY);
+        shape.lineTo(tipX + arrowRadius * minusX, tipY + arrowRadius * minusY);
+        shape.closePath();
+
+        return shape;
     }
 
     @Override
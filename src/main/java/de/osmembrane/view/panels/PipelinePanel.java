@@ -13,11 +13,15 @@ package de.osmembrane.view.panels;
 
 import java.awt.Adjustable;
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Cursor;
 import java.awt.GridLayout;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.AdjustmentEvent;
 import java.awt.event.AdjustmentListener;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
@@ -26,12 +30,15 @@ import java.awt.event.MouseWheelListener;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.Set;
 
 import javax.swing.Action;
 import javax.swing.BorderFactory;
@@ -45,12 +52,14 @@ import de.osmembrane.controller.ActionRegistry;
 import de.osmembrane.controller.actions.AddConnectionAction;
 import de.osmembrane.controller.actions.AddFunctionAction;
 import de.osmembrane.controller.actions.DeleteSelectionAction;
+import de.osmembrane.controller.actions.CacheFunctionResultAction;
 import de.osmembrane.controller.actions.DuplicateFunctionAction;
 import de.osmembrane.controller.actions.MoveFunctionAction;
 import de.osmembrane.controller.events.ConnectingFunctionsEvent;
 import de.osmembrane.controller.events.ContainingLocationEvent;
 import de.osmembrane.exceptions.ControlledException;
 import de.osmembrane.exceptions.ExceptionSeverity;
+import de.osmembrane.model.ModelEventListener;
 import de.osmembrane.model.ModelProxy;
 import de.osmembrane.model.pipeline.AbstractConnector;
 import de.osmembrane.model.pipeline.AbstractFunction;
@@ -58,7 +67,10 @@ import de.osmembrane.model.pipeline.Connector;
 import de.osmembrane.model.pipeline.PipelineObserverObject;
 import de.osmembrane.model.pipeline.PipelineObserverObject.ChangeType;
 import de.osmembrane.model.settings.SettingType;
+import de.osmembrane.model.settings.SettingsObserverObject;
 import de.osmembrane.tools.I18N;
+import de.osmembrane.tools.Instrumentation;
+import de.osmembrane.tools.Instrumentation.Operation;
 import de.osmembrane.view.ViewRegistry;
 import de.osmembrane.view.components.JSilentScrollBar;
 import de.osmembrane.view.interfaces.IZoomDevice;
@@ -101,14 +113,21 @@ import de.osmembrane.view.interfaces.IZoomDevice;
  * @author tobias_kuhn
  * 
  */
-public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
+public class PipelinePanel extends JPanel implements
+        ModelEventListener<Object>, IZoomDevice {
 
     private static final long serialVersionUID = 2544369818627179591L;
 
     /**
-     * list of {@link PipelineFunction} currently being present on the panel
+     * set of {@link PipelineFunction} currently being present on the panel
      */
-    private List<PipelineFunction> functions;
+    private Set<PipelineFunction> functions;
+
+    /**
+     * map of {@link PipelineFunction} for the {@link AbstractFunction}s in the
+     * model, by identity of the model function
+     */
+    private Map<AbstractFunction, PipelineFunction> functionMap;
 
     /**
      * map of {@link PipelineConnector} for the {@link Connector}s in the model,
@@ -141,6 +160,13 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
     private static final Integer FUNCTION_LAYER = new Integer(3);
     private static final Integer CONNECTOR_LAYER = new Integer(2);
     private static final Integer LINK_LAYER = new Integer(1);
+    private static final Integer CANVAS_LAYER = new Integer(0);
+
+    /**
+     * Edge length of a cell of the spatial indices in object coordinates,
+     * about the size of a function.
+     */
+    private static final double INDEX_CELL_SIZE = 128.0;
 
     /**
      * Saves the point (in object coordinates) when a drag and drop action
@@ -157,6 +183,12 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
     protected static final double DEFAULT_ZOOM = 1.0;
     private final static double PIXEL_PER_ZOOM_LEVEL = 100.00;
 
+    /**
+     * Below this zoom, only the outlines of the pipeline are drawn, see
+     * {@link #isLowDetail()}.
+     */
+    private final static double LOW_DETAIL_ZOOM = 0.4;
+
     /**
      * The links to the {@link InspectorPanel} used for communication between
      * these two components.
@@ -177,6 +209,52 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
     private Point2D objTopLeft;
     private Point2D objBottomRight;
 
+    /**
+     * The bounds of all {@link PipelineFunction}s in object space, used to
+     * maintain objTopLeft and objBottomRight.
+     */
+    private PipelineBounds bounds;
+
+    /**
+     * Spatial index of the {@link PipelineFunction}s in object space.
+     */
+    private PipelineGrid<PipelineFunction> functionIndex;
+
+    /**
+     * Spatial index of the {@link PipelineLink}s in object space.
+     */
+    private PipelineGrid<PipelineLink> linkIndex;
+
+    /**
+     * The {@link PipelineFunction}s which have to be arranged again after a
+     * change of the model, together with their connectors and links.
+     */
+    private Set<PipelineFunction> dirtyFunctions;
+
+    /**
+     * The area of removed components, which has to be repainted.
+     */
+    private Rectangle dirtyArea;
+
+    /**
+     * The canvas all functions, connectors and links are drawn on if the
+     * single canvas rendering is enabled, null otherwise. The components are
+     * then not added to the layeredPane, they only keep their arrangement.
+     */
+    private PipelineCanvas canvas;
+
+    /**
+     * Counts the changes of the view transformation with the single canvas
+     * rendering.
+     */
+    private long arrangement;
+
+    /**
+     * The arrangement count when a {@link PipelineFunction} was arranged the
+     * last time, so only the visible functions are arranged on every change.
+     */
+    private Map<PipelineFunction, Long> arrangedAt;
+
     /**
      * The currently selected {@link Tool}.
      */
@@ -213,7 +291,8 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
         setLayout(new GridLayout(1, 1));
 
         // internal values
-        this.functions = new ArrayList<PipelineFunction>();
+        this.functions = new LinkedHashSet<PipelineFunction>();
+        this.functionMap = new IdentityHashMap<AbstractFunction, PipelineFunction>();
         this.connectors = new HashMap<AbstractConnector, PipelineConnector>();
         this.functionInspector = functionInspector;
 
@@ -239,6 +318,11 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
 
         this.objTopLeft = new Point2D.Double();
         this.objBottomRight = new Point2D.Double();
+        this.bounds = new PipelineBounds();
+        this.functionIndex = new PipelineGrid<PipelineFunction>(INDEX_CELL_SIZE);
+        this.linkIndex = new PipelineGrid<PipelineLink>(INDEX_CELL_SIZE);
+        this.dirtyFunctions = new LinkedHashSet<PipelineFunction>();
+        this.arrangedAt = new HashMap<PipelineFunction, Long>();
 
         this.activeTool = Tool.DEFAULT_MAGIC_TOOL;
         this.selected = null;
@@ -259,8 +343,34 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
 
         this.layeredPane.add(this.connectionPreview);
 
-        // register as observer
-        ViewRegistry.getInstance().addObserver(this);
+        // the canvas always covers the whole layeredPane
+        this.layeredPane.addComponentListener(new ComponentListener() {
+
+            @Override
+            public void componentResized(ComponentEvent e) {
+                if (canvas != null) {
+                    canvas.setSize(layeredPane.getSize());
+                }
+            }
+
+            @Override
+            public void componentMoved(ComponentEvent e) {
+            }
+
+            @Override
+            public void componentShown(ComponentEvent e) {
+            }
+
+            @Override
+            public void componentHidden(ComponentEvent e) {
+            }
+        });
+        setCanvasRendering((Boolean) ModelProxy.getInstance().getSettings()
+                .getValue(SettingType.SINGLE_CANVAS_RENDERING));
+
+        // register as listener
+        ViewRegistry.getInstance().subscribe(PipelineObserverObject.class, this);
+        ViewRegistry.getInstance().subscribe(SettingsObserverObject.class, this);
 
         // all listeners for all kind of events
 
@@ -333,6 +443,7 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
                             pf.setLocation(objToWindow(pf.getModelLocation()));
                             pf.arrangeConnectors();
                             pf.arrangeLinks();
+                            repaintCanvas();
                             // return, so we don't create an undo step
                             return;
                         }
@@ -470,6 +581,7 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
                                 }
                             }
                         }
+                        repaintCanvas();
 
                     } /* if something selected */
                 }
@@ -478,7 +590,7 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
         });
 
         // necessary to initialize with correct model reflection
-        update(null, new PipelineObserverObject(ChangeType.FULLCHANGE, null));
+        modelChanged(new PipelineObserverObject(ChangeType.FULLCHANGE, null));
     }
 
     /**
@@ -657,6 +769,18 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
         return new Point((int) result.getX(), (int) result.getY());
     }
 
+    /**
+     * Whether the pipeline is zoomed out so far that details are not
+     * recognizable anymore. Then {@link PipelineFunction}s are drawn as flat
+     * rectangles without text, {@link PipelineConnector}s are not drawn and
+     * {@link PipelineLink}s are drawn as single pixel lines.
+     * 
+     * @return true, if only the outlines should be drawn
+     */
+    public boolean isLowDetail() {
+        return objectToWindow.getScaleX() * currentDisplay.getScaleX() < LOW_DETAIL_ZOOM;
+    }
+
     @Override
     public void zoomIn() {
         zoom(new Point(getWidth() / 2, getHeight() / 2), DEFAULT_ZOOM_IN);
@@ -767,7 +891,9 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
      * <b>Note:</b> All addition and removal of objects must be done here.
      */
     @Override
-    public void update(Observable o, Object arg) {
+    public void modelChanged(Object arg) {
+        long start = Instrumentation.getInstance().start();
+
         // check for notice from the pipeline model
         if (arg instanceof PipelineObserverObject) {
             PipelineObserverObject poo = (PipelineObserverObject) arg;
@@ -779,121 +905,60 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
                 PipelineFunction pfAdd = new PipelineFunction(
                         poo.getChangedFunction(), this);
                 functions.add(pfAdd);
+                functionMap.put(pfAdd.getModelFunction(), pfAdd);
 
-                layeredPane.add(pfAdd, FUNCTION_LAYER);
+                addComponent(pfAdd, FUNCTION_LAYER);
                 for (PipelineConnector pc : pfAdd.getConnectors()) {
                     connectors.put(pc.getModelConnector(), pc);
-                    layeredPane.add(pc, CONNECTOR_LAYER);
+                    addComponent(pc, CONNECTOR_LAYER);
 
                     for (PipelineLink pl : pc.getOutLinks()) {
-                        layeredPane.add(pl, LINK_LAYER);
+                        addComponent(pl, LINK_LAYER);
                     }
                 }
 
+                markDirty(pfAdd);
+
                 // automatically select the newly added function
                 selected(pfAdd);
                 break;
 
             // properties of a function changed
             case CHANGE_FUNCTION:
-                for (PipelineFunction pfChange : functions) {
-                    if (pfChange.getModelFunction().equals(
-                            poo.getChangedFunction())) {
-
-                        // if this function has links to its in-connectors,
-                        // arrange those functions too
-                        for (PipelineConnector pc : pfChange.getConnectors()) {
-                            if (!pc.isOutpipes()) {
-                                for (PipelineLink pl : pc.getInLinks()) {
-                                    pl.getLinkSource().arrangeLinks();
-                                }
-                            }
-                        }
-                    } /* if pfChange.equals(poo) */
+                PipelineFunction pfChange = functionMap.get(poo
+                        .getChangedFunction());
+                if (pfChange != null) {
+                    // the links are arranged together with the function
+                    markDirty(pfChange);
                 }
                 break;
 
             // a function got removed
             case DELETE_FUNCTION:
-                for (int i = 0; i < functions.size(); i++) {
-                    PipelineFunction pfDelete = functions.get(i);
-
-                    if (pfDelete.getModelFunction().equals(
-                            poo.getChangedFunction())) {
-
-                        // clean-up on isle three
-                        layeredPane.remove(pfDelete);
-                        for (PipelineConnector pc : pfDelete.getConnectors()) {
-                            // delete in links
-                            int j = 0;
-                            while (j < pc.getInLinks().size()) {
-                                PipelineLink pl = pc.getInLinks().get(j);
-                                pl.getLinkSource().removeLinkTo(
-                                        pl.getLinkDestination());
-                                layeredPane.remove(pl);
-                                j++;
-                            }
-
-                            // delete out links
-                            int k = 0;
-                            while (k < pc.getOutLinks().size()) {
-                                PipelineLink pl = pc.getOutLinks().get(k);
-                                pl.getLinkSource().removeLinkTo(
-                                        pl.getLinkDestination());
-                                layeredPane.remove(pl);
-                                k++;
-                            }
-
-                            // delete connector
-                            connectors.remove(pc.getModelConnector());
-                            layeredPane.remove(pc);
-                        }
+                PipelineFunction pfDelete = functionMap.remove(poo
+                        .getChangedFunction());
+                if (pfDelete != null) {
+                    // deselect stuff if necessary
+                    if (pfDelete.equals(selected)) {
+                        selected(null);
+                    }
 
-                        // deselect stuff if necessary
-                        if (pfDelete.equals(selected)) {
-                            selected(null);
-                        }
-                        functions.remove(i);
-                        break;
+                    // clean-up on isle three
+                    for (PipelineConnector pc : pfDelete.getConnectors()) {
+                        connectors.remove(pc.getModelConnector());
                     }
+                    removeFunction(pfDelete);
+                    functions.remove(pfDelete);
                 }
                 break;
 
             // the whole pipeline was exchanged
             case FULLCHANGE:
-                // let's pray for the GC to get this right
-                functions.clear();
-                connectors.clear();
-                layeredPane.removeAll();
-                System.gc();
-
-                layeredPane.add(connectionPreview);
-
-                for (AbstractFunction af : ModelProxy.getInstance()
-                        .getPipeline().getFunctions()) {
-                    PipelineFunction pfFullChange = new PipelineFunction(af,
-                            this);
-
-                    functions.add(pfFullChange);
-
-                    layeredPane.add(pfFullChange, FUNCTION_LAYER);
-                    for (PipelineConnector pc : pfFullChange.getConnectors()) {
-                        connectors.put(pc.getModelConnector(), pc);
-                        layeredPane.add(pc, CONNECTOR_LAYER);
-                    }
-                }
-
-                // start linking when all connectors are truly known
-                for (PipelineConnector pc : connectors.values()) {
-                    pc.generateLinksFromModel();
-
-                    for (PipelineLink pl : pc.getOutLinks()) {
-                        layeredPane.add(pl, LINK_LAYER);
-                    }
-                }
-
                 // deselect stuff
                 selected(null);
+
+                reconcile(ModelProxy.getInstance().getPipeline()
+                        .getFunctions());
                 break;
 
             // new connection added
@@ -902,7 +967,9 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
                         .getChangedConnectors()[0]);
                 PipelineLink plAdd = sourceAdd.addLinkTo(findConnector(poo
                         .getChangedConnectors()[1]));
-                layeredPane.add(plAdd, LINK_LAYER);
+                addComponent(plAdd, LINK_LAYER);
+                markDirty(plAdd.getLinkSource().getParentFunction());
+                markDirty(plAdd.getLinkDestination().getParentFunction());
                 break;
 
             // connection deleted
@@ -912,46 +979,407 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
                 PipelineLink plDel = sourceDel.removeLinkTo(findConnector(poo
                         .getChangedConnectors()[1]));
                 if (plDel != null) {
-                    layeredPane.remove(plDel);
+                    removeComponent(plDel);
                 }
+                markDirty(sourceDel.getParentFunction());
+                markDirty(findConnector(poo.getChangedConnectors()[1])
+                        .getParentFunction());
                 break;
             }
+        } else if (arg instanceof SettingsObserverObject) {
+            SettingType changed = ((SettingsObserverObject) arg)
+                    .getChangedEntry();
+            if (changed == null
+                    || changed == SettingType.SINGLE_CANVAS_RENDERING) {
+                setCanvasRendering((Boolean) ModelProxy.getInstance()
+                        .getSettings()
+                        .getValue(SettingType.SINGLE_CANVAS_RENDERING));
+            }
         }
 
-        arrange(true);
-        layeredPane.repaint();
+        // only the changed functions, the moved components repaint
+        // themselves
+        arrangeDirty();
+        updateScrollbars();
+        if (dirtyArea != null) {
+            layeredPane.repaint(dirtyArea);
+            dirtyArea = null;
+        }
 
         // this is better reset here
         connectionStart = null;
 
-        // recreate topleft and bottomright
-        calculateEdges();
-        updateScrollbars();
+        Instrumentation.getInstance().stop(Operation.PIPELINE_PANEL_UPDATE, start);
+    }
+
+    /**
+     * Brings the present {@link PipelineFunction}s, {@link PipelineConnector}s
+     * and {@link PipelineLink}s in line with the exchanged functions of the
+     * model. Functions are matched by their instance id, so the components of
+     * unchanged functions are kept and only the differences are created,
+     * removed and arranged.
+     * 
+     * @param modelFunctions
+     *            the functions now in the model
+     */
+    private void reconcile(AbstractFunction[] modelFunctions) {
+        Map<Long, PipelineFunction> former = new HashMap<Long, PipelineFunction>();
+        for (PipelineFunction pf : functions) {
+            former.put(pf.getModelFunction().getInstanceId(), pf);
+        }
 
+        Set<PipelineFunction> present = new LinkedHashSet<PipelineFunction>();
+        List<PipelineFunction> removed = new ArrayList<PipelineFunction>();
+        for (AbstractFunction af : modelFunctions) {
+            PipelineFunction pf = former.remove(af.getInstanceId());
+
+            if (pf != null && pf.canRepresent(af)) {
+                Rectangle2D formerBounds = getObjectBounds(pf);
+                boolean formerComplete = pf.getModelFunction().isComplete();
+
+                pf.setModelFunction(af);
+                if (!formerBounds.equals(getObjectBounds(pf))
+                        || formerComplete != af.isComplete()) {
+                    markDirty(pf);
+                }
+            } else {
+                if (pf != null) {
+                    removed.add(pf);
+                }
+
+                pf = new PipelineFunction(af, this);
+                addComponent(pf, FUNCTION_LAYER);
+                for (PipelineConnector pc : pf.getConnectors()) {
+                    addComponent(pc, CONNECTOR_LAYER);
+                }
+                markDirty(pf);
+            }
+            present.add(pf);
+        }
+        removed.addAll(former.values());
+
+        // the model connectors are new objects after every exchange
+        connectors.clear();
+        for (PipelineFunction pf : present) {
+            for (PipelineConnector pc : pf.getConnectors()) {
+                connectors.put(pc.getModelConnector(), pc);
+            }
+        }
+
+        for (PipelineFunction pf : removed) {
+            removeFunction(pf);
+        }
+        functions = present;
+        functionMap.clear();
+        for (PipelineFunction pf : present) {
+            functionMap.put(pf.getModelFunction(), pf);
+        }
+
+        // start linking when all connectors are truly known
+        for (PipelineFunction pf : functions) {
+            for (PipelineConnector pc : pf.getConnectors()) {
+                if (pc.isOutpipes()) {
+                    reconcileLinks(pc);
+                }
+            }
+        }
     }
 
     /**
-     * Calculates objTopLeft and objBottomRight.
+     * Removes a {@link PipelineFunction} with its connectors and all links
+     * from and to it from the panel.
+     * 
+     * @param pf
+     *            the function to remove
      */
-    private void calculateEdges() {
-        if (functions.size() > 0) {
-            double left = Double.MAX_VALUE;
-            double top = Double.MAX_VALUE;
-            double right = Double.MIN_VALUE;
-            double bottom = Double.MIN_VALUE;
+    private void removeFunction(PipelineFunction pf) {
+        removeComponent(pf);
+        for (PipelineConnector pc : pf.getConnectors()) {
+            for (PipelineLink pl : new ArrayList<PipelineLink>(pc
+                    .getInLinks())) {
+                markDirty(pl.getLinkSource().getParentFunction());
+                pl.getLinkSource().removeLinkTo(pc);
+                removeComponent(pl);
+            }
+            for (PipelineLink pl : new ArrayList<PipelineLink>(pc
+                    .getOutLinks())) {
+                markDirty(pl.getLinkDestination().getParentFunction());
+                pc.removeLinkTo(pl.getLinkDestination());
+                removeComponent(pl);
+            }
+            removeComponent(pc);
+        }
+
+        dirtyFunctions.remove(pf);
+        bounds.remove(pf);
+    }
+
+    /**
+     * Brings the out links of a {@link PipelineConnector} in line with the
+     * connections of its model connector.
+     * 
+     * @param pc
+     *            the out connector
+     */
+    private void reconcileLinks(PipelineConnector pc) {
+        Set<PipelineConnector> targets = new LinkedHashSet<PipelineConnector>();
+        for (AbstractConnector ac : pc.getModelConnector().getConnections()) {
+            targets.add(findConnector(ac));
+        }
 
+        for (PipelineLink pl : new ArrayList<PipelineLink>(pc.getOutLinks())) {
+            PipelineConnector dest = pl.getLinkDestination();
+            if (!targets.remove(dest)) {
+                pc.removeLinkTo(dest);
+                removeComponent(pl);
+                markDirty(pc.getParentFunction());
+                markDirty(dest.getParentFunction());
+            }
+        }
+
+        for (PipelineConnector dest : targets) {
+            addComponent(pc.addLinkTo(dest), LINK_LAYER);
+            markDirty(pc.getParentFunction());
+            markDirty(dest.getParentFunction());
+        }
+    }
+
+    /**
+     * Marks a {@link PipelineFunction} to be arranged again.
+     * 
+     * @param pf
+     *            the changed function
+     */
+    private void markDirty(PipelineFunction pf) {
+        dirtyFunctions.add(pf);
+    }
+
+    /**
+     * Adds a component to the layeredPane, if it is not drawn on the canvas.
+     * 
+     * @param component
+     *            the component to add
+     * @param layer
+     *            the layer of the component
+     */
+    private void addComponent(Component component, Integer layer) {
+        if (canvas == null) {
+            layeredPane.add(component, layer);
+        }
+    }
+
+    /**
+     * Removes a component from the layeredPane and remembers its area to be
+     * repainted.
+     * 
+     * @param component
+     *            the component to remove
+     */
+    private void removeComponent(Component component) {
+        if (dirtyArea == null) {
+            dirtyArea = component.getBounds();
+        } else {
+            dirtyArea.add(component.getBounds());
+        }
+        layeredPane.remove(component);
+        functionIndex.remove(component);
+        linkIndex.remove(component);
+        arrangedAt.remove(component);
+    }
+
+    /**
+     * Arranges all dirty {@link PipelineFunction}s, their connectors, their
+     * outgoing and their incoming links.
+     */
+    private void arrangeDirty() {
+        for (PipelineFunction pf : dirtyFunctions) {
+            arrange(pf);
+            Rectangle2D objectBounds = getObjectBounds(pf);
+            bounds.put(pf, objectBounds);
+            functionIndex.put(pf, objectBounds);
+        }
+
+        // now all changed connectors are arranged and we can arrange the links
+        for (PipelineFunction pf : dirtyFunctions) {
+            for (PipelineConnector pc : pf.getConnectors()) {
+                for (PipelineLink pl : pc.isOutpipes() ? pc.getOutLinks() : pc
+                        .getInLinks()) {
+                    arrange(pl);
+                    linkIndex.put(pl, getObjectBounds(pl));
+                }
+            }
+        }
+
+        dirtyFunctions.clear();
+        calculateEdges();
+        repaintCanvas();
+    }
+
+    /**
+     * Enables or disables the single canvas rendering. With it, the
+     * functions, connectors and links are not added to the layeredPane, but
+     * drawn by one {@link PipelineCanvas}.
+     * 
+     * @param enabled
+     *            whether the single canvas rendering shall be used
+     */
+    private void setCanvasRendering(boolean enabled) {
+        if (enabled == (canvas != null)) {
+            return;
+        }
+
+        if (enabled) {
             for (PipelineFunction pf : functions) {
-                double thisX = pf.getModelLocation().getX();
-                double thisY = pf.getModelLocation().getY();
+                layeredPane.remove(pf);
+                for (PipelineConnector pc : pf.getConnectors()) {
+                    layeredPane.remove(pc);
+                }
+                for (PipelineLink pl : pf.getAllOutLinks()) {
+                    layeredPane.remove(pl);
+                }
+            }
+
+            canvas = new PipelineCanvas(this);
+            canvas.setSize(layeredPane.getSize());
+            layeredPane.add(canvas, CANVAS_LAYER, -1);
+        } else {
+            layeredPane.remove(canvas);
+            canvas = null;
 
-                left = Math.min(left, thisX);
-                top = Math.min(top, thisY);
-                right = Math.max(right, thisX + pf.getPreferredSize().width);
-                bottom = Math.max(bottom, thisY + pf.getPreferredSize().height);
+            for (PipelineFunction pf : functions) {
+                layeredPane.add(pf, FUNCTION_LAYER);
+                for (PipelineConnector pc : pf.getConnectors()) {
+                    layeredPane.add(pc, CONNECTOR_LAYER);
+                }
+                for (PipelineLink pl : pf.getAllOutLinks()) {
+                    layeredPane.add(pl, LINK_LAYER);
+                }
+            }
+        }
+
+        arrange(true);
+        layeredPane.repaint();
+    }
+
+    /**
+     * Repaints the canvas, if the single canvas rendering is enabled.
+     */
+    private void repaintCanvas() {
+        if (canvas != null) {
+            canvas.repaint();
+        }
+    }
+
+    /**
+     * Returns the {@link PipelineFunction}s in an area of the window and
+     * arranges them, if necessary.
+     * 
+     * @param area
+     *            the area in window coordinates
+     * @return the functions in the area
+     */
+    protected Collection<PipelineFunction> getFunctionsIn(Rectangle area) {
+        Set<PipelineFunction> result = functionIndex
+                .query(windowToObj(area));
+
+        // the dragged function is not yet moved in the index
+        if (selected instanceof PipelineFunction) {
+            result.add((PipelineFunction) selected);
+        }
+
+        for (PipelineFunction pf : result) {
+            ensureArranged(pf);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the {@link PipelineLink}s in an area of the window and arranges
+     * them.
+     * 
+     * @param area
+     *            the area in window coordinates
+     * @return the links in the area
+     */
+    protected Collection<PipelineLink> getLinksIn(Rectangle area) {
+        Set<PipelineLink> result = linkIndex.query(windowToObj(area));
+
+        // the links of the dragged function are not yet moved in the index
+        if (selected instanceof PipelineFunction) {
+            for (PipelineConnector pc : ((PipelineFunction) selected)
+                    .getConnectors()) {
+                result.addAll(pc.isOutpipes() ? pc.getOutLinks() : pc
+                        .getInLinks());
             }
+        }
+
+        for (PipelineLink pl : result) {
+            arrange(pl);
+        }
+        return result;
+    }
+
+    /**
+     * Arranges a {@link PipelineFunction} if it has not been arranged since
+     * the last change of the view transformation.
+     * 
+     * @param pf
+     *            the function
+     */
+    private void ensureArranged(PipelineFunction pf) {
+        Long arrangedAtCount = arrangedAt.get(pf);
+        if (arrangedAtCount == null || arrangedAtCount != arrangement) {
+            arrange(pf);
+        }
+    }
+
+    /**
+     * Arranges a {@link PipelineLink} between its two connectors, the
+     * functions of both are arranged first if necessary.
+     * 
+     * @param pl
+     *            the link
+     */
+    private void arrange(PipelineLink pl) {
+        ensureArranged(pl.getLinkSource().getParentFunction());
+        ensureArranged(pl.getLinkDestination().getParentFunction());
+        pl.getLinkSource().arrangeLink(pl);
+    }
 
-            objTopLeft.setLocation(left, top);
-            objBottomRight.setLocation(right, bottom);
+    /**
+     * @return area in object coordinates
+     */
+    private Rectangle2D windowToObj(Rectangle area) {
+        Rectangle2D result = new Rectangle2D.Double();
+        result.setFrameFromDiagonal(windowToObj(area.getLocation()),
+                windowToObj(new Point(area.x + area.width, area.y
+                        + area.height)));
+        return result;
+    }
+
+    /**
+     * @return the bounds of a {@link PipelineFunction} in object space
+     */
+    private Rectangle2D getObjectBounds(PipelineFunction pf) {
+        return new Rectangle2D.Double(pf.getModelLocation().getX(), pf
+                .getModelLocation().getY(), pf.getPreferredSize().width,
+                pf.getPreferredSize().height);
+    }
+
+    /**
+     * @return the bounds of an arranged {@link PipelineLink} in object space
+     */
+    private Rectangle2D getObjectBounds(PipelineLink pl) {
+        return windowToObj(pl.getBounds());
+    }
+
+    /**
+     * Calculates objTopLeft and objBottomRight from the maintained bounds.
+     */
+    private void calculateEdges() {
+        if (!bounds.isEmpty()) {
+            objTopLeft.setLocation(bounds.getLeft(), bounds.getTop());
+            objBottomRight.setLocation(bounds.getRight(), bounds.getBottom());
         } else {
             objTopLeft.setLocation(0, 0);
             objBottomRight.setLocation(0, 0);
@@ -987,19 +1415,29 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
      *            infinite recursion
      */
     private void arrange(boolean updateScrolls) {
-        for (PipelineFunction pf : functions) {
-            arrange(pf);
-        }
+        long start = Instrumentation.getInstance().start();
 
-        // now all connectors are arranged and we can arrange the links
-        for (PipelineFunction pf : functions) {
-            pf.arrangeLinks();
+        if (canvas != null) {
+            // only the visible functions are arranged while painting
+            arrangement++;
+            canvas.repaint();
+        } else {
+            for (PipelineFunction pf : functions) {
+                arrange(pf);
+            }
+
+            // now all connectors are arranged and we can arrange the links
+            for (PipelineFunction pf : functions) {
+                pf.arrangeLinks();
+            }
         }
 
-        calculateEdges();
+        // the bounds in object space do not change by moving or zooming
         if (updateScrolls) {
             updateScrollbars();
         }
+
+        Instrumentation.getInstance().stop(Operation.PIPELINE_PANEL_ARRANGE, start);
     }
 
     /**
@@ -1026,6 +1464,7 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
         }
 
         pf.arrangeConnectors();
+        arrangedAt.put(pf, arrangement);
     }
 
     /**
@@ -1078,6 +1517,14 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
      *            child function to be selected
      */
     public void selected(Object childObject) {
+        // the borders of the former and the new selection change
+        if (selected instanceof PipelineFunction) {
+            markDirty((PipelineFunction) selected);
+        }
+        if (childObject instanceof PipelineFunction) {
+            markDirty((PipelineFunction) childObject);
+        }
+
         selected = childObject;
 
         if (selected != null) {
@@ -1102,7 +1549,7 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
             repaint();
         }
 
-        arrange(false);
+        arrangeDirty();
 
         // enable deleting & duplicating
         ActionRegistry.getInstance().get(DeleteSelectionAction.class)
@@ -1113,6 +1560,8 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
                 .setEnabled(
                         (selected != null)
                                 && (selected instanceof PipelineFunction));
+        ActionRegistry.getInstance().get(CacheFunctionResultAction.class)
+                .setEnabled(selected instanceof PipelineFunction);
     }
 
     /**
@@ -1230,10 +1679,18 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
          */
         int grace = 0;
 
-        for (PipelineFunction pf : functions) {
+        // only functions closer than their size can collide
+        Point2D objPoint = windowToObj(newPoint);
+        double width = functionIndex.getMaxWidth();
+        double height = functionIndex.getMaxHeight();
+        Rectangle2D area = new Rectangle2D.Double(objPoint.getX() - width,
+                objPoint.getY() - height, 2.0 * width, 2.0 * height);
+
+        for (PipelineFunction pf : functionIndex.query(area)) {
             if (pf.equals(ignore)) {
                 continue;
             }
+            ensureArranged(pf);
 
             if ((newPoint.x >= pf.getX() - pf.getWidth() + grace)
                     && (newPoint.y >= pf.getY() - pf.getHeight() + grace)
@@ -1246,6 +1703,46 @@ public class PipelinePanel extends JPanel implements Observer, IZoomDevice {
         return false;
     }
 
+    /**
+     * Finds the topmost object drawn at a position, i.e. a
+     * {@link PipelineFunction}, a {@link PipelineConnector} or a
+     * {@link PipelineLink}.
+     * 
+     * @param at
+     *            the position in window coordinates
+     * @return the object at that position, null if there is none
+     */
+    public Object getObjectAt(Point at) {
+        // connectors stick out of their functions by half their width
+        Point2D objPoint = windowToObj(at);
+        double tolerance = INDEX_CELL_SIZE / 4.0;
+        Rectangle2D area = new Rectangle2D.Double(objPoint.getX() - tolerance,
+                objPoint.getY() - tolerance, 2.0 * tolerance, 2.0 * tolerance);
+
+        Set<PipelineFunction> nearFunctions = functionIndex.query(area);
+        for (PipelineFunction pf : nearFunctions) {
+            ensureArranged(pf);
+            if (pf.getBounds().contains(at)) {
+                return pf;
+            }
+        }
+        for (PipelineFunction pf : nearFunctions) {
+            for (PipelineConnector pc : pf.getConnectors()) {
+                if (pc.getBounds().contains(at)) {
+                    return pc;
+                }
+            }
+        }
+        for (PipelineLink pl : linkIndex.query(area)) {
+            arrange(pl);
+            if (pl.contains(at.x - pl.getX(), at.y - pl.getY())) {
+                return pl;
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Finds the next free & usable position on the pipeline panel, based on a
      * preferred location.
@@ -49,6 +49,7 @@ public class PipelinePreviewLink extends PipelineLink {
         super(panel);
         this.line = new Line2D.Double();
         this.color = Constants.DEFAULT_FUNCTIONGROUP_COLOR;
+        this.highlightColor = highlight(color);
     }
 
     /**
@@ -112,6 +113,7 @@ public class PipelinePreviewLink extends PipelineLink {
                 - basicY);
 
         line.setLine(left, right);
+        shape = createShape();
         repaint();
     }
 
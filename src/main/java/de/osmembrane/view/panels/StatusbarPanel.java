@@ -0,0 +1,116 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.view.panels;
+
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+
+import de.osmembrane.model.ModelEventListener;
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.statusbar.AbstractStatusbar;
+import de.osmembrane.model.statusbar.StatusbarEntry;
+import de.osmembrane.model.statusbar.StatusbarObserverObject;
+import de.osmembrane.tools.I18N;
+import de.osmembrane.view.ViewRegistry;
+
+/**
+ * Panel showing the latest {@link StatusbarEntry} with a progress bar, like
+ * the ones of the background tasks, and a button to cancel it. The panel is
+ * hidden while there is no such entry.
+ * 
+ * @author agent
+ * 
+ */
+public class StatusbarPanel extends JPanel implements
+        ModelEventListener<StatusbarObserverObject> {
+
+    private static final long serialVersionUID = 2011040415210001L;
+
+    /**
+     * the message of the shown entry
+     */
+    private JLabel message;
+
+    /**
+     * the progress of the shown entry
+     */
+    private JProgressBar progress;
+
+    /**
+     * the button to cancel the shown entry
+     */
+    private JButton cancel;
+
+    /**
+     * the shown entry
+     */
+    private StatusbarEntry entry;
+
+    /**
+     * Creates a new {@link StatusbarPanel}
+     */
+    public StatusbarPanel() {
+        ViewRegistry.getInstance().subscribe(StatusbarObserverObject.class,
+                this);
+
+        setLayout(new FlowLayout(FlowLayout.RIGHT));
+
+        message = new JLabel();
+        add(message);
+
+        progress = new JProgressBar(0, 100);
+        add(progress);
+
+        cancel = new JButton(I18N.getInstance().getString("View.Cancel"));
+        cancel.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (entry != null) {
+                    entry.cancel();
+                }
+            }
+        });
+        add(cancel);
+
+        modelChanged(null);
+    }
+
+    @Override
+    public void modelChanged(StatusbarObserverObject soo) {
+        AbstractStatusbar statusbar = ModelProxy.getInstance().getStatusbar();
+
+        entry = null;
+        for (StatusbarEntry current : statusbar.getStatusbarEntries()) {
+            if (current.isProgressbarUsed() && current.getProgress() < 1.0) {
+                entry = current;
+            }
+        }
+
+        if (entry == null) {
+            setVisible(false);
+            return;
+        }
+
+        message.setText(entry.getMessage());
+        /* tasks which report no progress are still running */
+        progress.setIndeterminate(entry.getProgress() <= 0.0);
+        progress.setValue((int) (entry.getProgress() * 100));
+        cancel.setEnabled(entry.isCancelable() && !entry.isCancelled());
+        setVisible(true);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.osmembrane.Application;
+import de.osmembrane.model.algorithms.BufferInserter;
+import de.osmembrane.model.parser.ParserFactory;
+import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.persistence.PipelinePersistenceObject;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.ConnectorException;
+import de.osmembrane.model.settings.SettingType;
+import de.osmembrane.resources.Constants;
+
+/**
+ * Tests the automatic buffer insertion.
+ * 
+ * @author agent
+ */
+public class BufferInserterTest {
+
+    private static AbstractPipeline pl;
+
+    private static Object useShortTaskNames;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Application a = new Application();
+        a.createModels();
+        a.initiate();
+
+        pl = ModelProxy.getInstance().getPipeline();
+        useShortTaskNames = ModelProxy.getInstance().getSettings()
+                .getValue(SettingType.USE_SHORT_TASK_NAMES_IF_AVAILABLE);
+        ModelProxy.getInstance().getSettings()
+                .setValue(SettingType.USE_SHORT_TASK_NAMES_IF_AVAILABLE, false);
+    }
+
+    @AfterClass
+    public static void tearDownAfterClass() throws Exception {
+        ModelProxy
+                .getInstance()
+                .getSettings()
+                .setValue(SettingType.USE_SHORT_TASK_NAMES_IF_AVAILABLE,
+                        useShortTaskNames);
+    }
+
+    @After
+    public void tearDown() {
+        pl.clear();
+    }
+
+    /**
+     * read-pbf, bounding-polygon and write-xml are all CPU-heavy, so each of
+     * the first two gets a buffer behind it.
+     */
+    @Test
+    public void testInsertBuffers() throws ConnectorException {
+        AbstractFunction read = createFunction("read-pbf", "in.osm.pbf");
+        AbstractFunction polygon = createFunction("bounding-polygon",
+                "area.poly");
+        AbstractFunction write = createFunction("write-xml", "out.osm");
+
+        read.addConnectionTo(polygon);
+        polygon.addConnectionTo(write);
+
+        String result = generateWithBuffers();
+        int capacity = BufferInserter.getBufferCapacity(
+                Constants.DEFAULT_BUFFER_MEMORY_BUDGET, 2);
+
+        assertEquals(2, count(result, "--buffer "));
+        assertTrue(result.contains("bufferCapacity=" + capacity));
+
+        /* the pipeline of the user stays untouched */
+        assertEquals(3, pl.getFunctions().length);
+    }
+
+    /**
+     * A cheap filter between two CPU-heavy tasks is not worth an own thread.
+     */
+    @Test
+    public void testNoBufferForCheapTasks() throws ConnectorException {
+        AbstractFunction read = createFunction("read-pbf", "in.osm.pbf");
+        AbstractFunction filter = createFunction("node-key", null);
+        AbstractFunction write = createFunction("write-null", null);
+
+        read.addConnectionTo(filter);
+        filter.addConnectionTo(write);
+
+        assertEquals(0, count(generateWithBuffers(), "--buffer "));
+    }
+
+    @Test
+    public void testBufferCapacity() {
+        assertEquals(262144, BufferInserter.getBufferCapacity(256, 2));
+        assertEquals(100, BufferInserter.getBufferCapacity(0, 1));
+        assertEquals(1000000, BufferInserter.getBufferCapacity(100000, 1));
+    }
+
+    private AbstractFunction createFunction(String taskName, String file) {
+        AbstractFunction function = ModelProxy.getInstance().getFunctions()
+                .getMatchingFunctionForTaskName(taskName);
+        assertNotNull(taskName + " not found", function);
+
+        if (file != null) {
+            for (AbstractParameter param : function.getActiveTask()
+                    .getParameters()) {
+                if (param.getName().equals("file")) {
+                    param.setValue(file);
+                }
+            }
+        }
+
+        pl.addFunction(function);
+        return function;
+    }
+
+    private String generateWithBuffers() throws ConnectorException {
+        List<AbstractFunction> functions = new BufferInserter(
+                Arrays.asList(pl.getFunctions()),
+                Constants.DEFAULT_BUFFER_MEMORY_BUDGET).insertBuffers();
+        return ParserFactory
+                .getInstance()
+                .getParser(FileType.BASH.getParserClass())
+                .parsePipeline(
+                        new PipelinePersistenceObject(functions, pl
+                                .getSettings()));
+    }
+
+    private int count(String text, String pattern) {
+        int count = 0;
+        for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern,
+                i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
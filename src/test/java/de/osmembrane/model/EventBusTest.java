@@ -0,0 +1,178 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import de.osmembrane.model.EventBus.Delivery;
+
+/**
+ * Simple test for {@link EventBus}.
+ * 
+ * @author agent
+ */
+public class EventBusTest {
+
+    /**
+     * Immediate listeners get every event of their type until they are
+     * unsubscribed.
+     */
+    @Test
+    public void testImmediate() {
+        final List<Object> received = new CopyOnWriteArrayList<Object>();
+        ModelEventListener<Integer> listener = new ModelEventListener<Integer>() {
+            @Override
+            public void modelChanged(Integer event) {
+                received.add(event);
+            }
+        };
+
+        EventBus.getInstance().subscribe(Integer.class, listener,
+                Delivery.IMMEDIATE);
+        EventBus.getInstance().publish(1);
+        EventBus.getInstance().publish("no integer");
+        EventBus.getInstance().publish(2);
+        EventBus.getInstance().unsubscribe(listener);
+        EventBus.getInstance().publish(3);
+
+        assertEquals(Arrays.<Object> asList(1, 2), received);
+    }
+
+    /**
+     * A background listener only interested in the latest event gets the
+     * last of the events published while it was busy.
+     */
+    @Test
+    public void testBackgroundLatest() throws InterruptedException {
+        final List<Object> received = new CopyOnWriteArrayList<Object>();
+        final CountDownLatch busy = new CountDownLatch(1);
+        final CountDownLatch published = new CountDownLatch(1);
+        ModelEventListener<Integer> listener = new ModelEventListener<Integer>() {
+            @Override
+            public void modelChanged(Integer event) {
+                received.add(event);
+                if (event == 0) {
+                    busy.countDown();
+                    try {
+                        published.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+
+        EventBus.getInstance().subscribeLatest(Integer.class, listener,
+                Delivery.BACKGROUND);
+        EventBus.getInstance().publish(0);
+        busy.await();
+        for (int i = 1; i < 10; i++) {
+            EventBus.getInstance().publish(i);
+        }
+        published.countDown();
+        EventBus.getInstance().flush();
+        EventBus.getInstance().unsubscribe(listener);
+
+        assertEquals(Arrays.<Object> asList(0, 9), received);
+    }
+
+    /**
+     * Queued events are dropped when a later event of the same group
+     * supersedes them.
+     */
+    @Test
+    public void testBackgroundCoalesced() throws InterruptedException {
+        final List<Object> received = new CopyOnWriteArrayList<Object>();
+        final CountDownLatch busy = new CountDownLatch(1);
+        final CountDownLatch published = new CountDownLatch(1);
+        ModelEventListener<Object> listener = new ModelEventListener<Object>() {
+            @Override
+            public void modelChanged(Object event) {
+                received.add(event);
+                if (event instanceof String) {
+                    busy.countDown();
+                    try {
+                        published.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+
+        TestEvent zoom1 = new TestEvent("settings", "zoom", false);
+        TestEvent language = new TestEvent("settings", "language", false);
+        TestEvent zoom2 = new TestEvent("settings", "zoom", false);
+        TestEvent add = new TestEvent("pipeline", null, false);
+        TestEvent full = new TestEvent("pipeline", null, true);
+        TestEvent delete = new TestEvent("pipeline", null, false);
+
+        EventBus.getInstance().subscribe(Object.class, listener,
+                Delivery.BACKGROUND);
+        EventBus.getInstance().publish("busy");
+        busy.await();
+        try {
+            for (Object event : new Object[] { zoom1, add, language, zoom2,
+                    full, delete }) {
+                EventBus.getInstance().publish(event);
+            }
+        } finally {
+            published.countDown();
+        }
+        EventBus.getInstance().flush();
+        EventBus.getInstance().unsubscribe(listener);
+
+        assertEquals(Arrays.<Object> asList("busy", language, zoom2, full,
+                delete), received);
+    }
+
+    /**
+     * An event of a group, superseding the earlier ones with the same key or
+     * all of the group.
+     */
+    private static class TestEvent implements CoalescableEvent {
+
+        private final String group;
+
+        private final String key;
+
+        private final boolean supersedesGroup;
+
+        public TestEvent(String group, String key, boolean supersedesGroup) {
+            this.group = group;
+            this.key = key;
+            this.supersedesGroup = supersedesGroup;
+        }
+
+        @Override
+        public Object getCoalescingGroup() {
+            return group;
+        }
+
+        @Override
+        public Object getCoalescingKey() {
+            return (key != null) ? key : this;
+        }
+
+        @Override
+        public boolean supersedesGroup() {
+            return supersedesGroup;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.osmembrane.Application;
+import de.osmembrane.model.parser.IParser;
+import de.osmembrane.model.parser.ParserFactory;
+import de.osmembrane.model.persistence.AbstractPersistence;
+import de.osmembrane.model.persistence.FileType;
+import de.osmembrane.model.persistence.PersistenceFactory;
+import de.osmembrane.model.persistence.PipelinePersistenceObject;
+import de.osmembrane.model.pipeline.AbstractConnector;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.ConnectorType;
+import de.osmembrane.model.pipeline.CopyType;
+import de.osmembrane.model.pipeline.Pipeline;
+import de.osmembrane.model.pipeline.PipelineGenerator;
+import de.osmembrane.model.pipeline.PipelineSettings;
+
+/**
+ * Checks that the pipeline operations scale linearly. Every operation runs on
+ * generated pipelines of 1k, 10k and 50k functions, the first one warms up
+ * the JIT. The time and the allocation per function at 50k functions have to
+ * stay within a small factor of the ones at 10k, an operation which is
+ * quadratic in the number of functions would need five times as much.
+ * 
+ * @author agent
+ */
+public class PipelineScaleTest {
+
+    private static final int[] SIZES = { 1000, 10000, 50000 };
+
+    /**
+     * Size the larger sizes are compared to.
+     */
+    private static final int REFERENCE_SIZE = 10000;
+
+    /**
+     * Factor the time per function may grow by from the reference size.
+     */
+    private static final double TIME_GROWTH = 3.0;
+
+    /**
+     * Factor the allocation per function may grow by from the reference
+     * size.
+     */
+    private static final double ALLOCATION_GROWTH = 2.0;
+
+    /**
+     * Time every operation may take additionally, for garbage collection
+     * and the like.
+     */
+    private static final long NOISE_NANOS = 100L * 1000 * 1000;
+
+    /**
+     * Heap a function of a generated pipeline may retain.
+     */
+    private static final long RETAINED_BYTES_PER_FUNCTION = 900;
+
+    /**
+     * Time and allocation per function of the operations at the reference
+     * size, by name.
+     */
+    private Map<String, double[]> references = new HashMap<String, double[]>();
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Application a = new Application();
+        a.createModels();
+    }
+
+    /**
+     * A large pipeline whose parameters were only read keeps no parameter
+     * objects, so it needs less than {@link #RETAINED_BYTES_PER_FUNCTION} per
+     * function; before the parameters were created on demand it needed about
+     * 1,900 bytes.
+     */
+    @Test
+    public void testRetainedHeap() throws Exception {
+        /* loads the classes and caches the first pipeline needs */
+        untouchedGenerator().generatePipeline(SIZES[0]).generate(
+                FileType.BASH);
+
+        int size = SIZES[SIZES.length - 1];
+        long used = getUsedHeap();
+
+        Pipeline pipeline = untouchedGenerator().generatePipeline(size);
+        assertTrue(pipeline.generate(FileType.BASH).length() > size);
+
+        long retained = (getUsedHeap() - used) / size;
+        assertTrue(String.format("%d functions retain %d bytes each", size,
+                retained), retained <= RETAINED_BYTES_PER_FUNCTION);
+        assertEquals(size, pipeline.getFunctions().length);
+    }
+
+    @Test
+    public void testAdd() throws Exception {
+        for (int size : SIZES) {
+            final List<AbstractFunction> functions = generator().generate(size);
+            final Pipeline pipeline = new Pipeline(true, true);
+
+            measure("add", size, new Operation() {
+                @Override
+                public void run() {
+                    for (AbstractFunction function : functions) {
+                        pipeline.addFunction(function);
+                    }
+                }
+            });
+
+            assertEquals(size, pipeline.getFunctions().length);
+        }
+    }
+
+    @Test
+    public void testConnect() throws Exception {
+        for (int size : SIZES) {
+            List<AbstractFunction> generated = generator().generate(size);
+
+            /* copies without connections, connected again while measuring */
+            final Pipeline pipeline = new Pipeline(true, true);
+            final Map<AbstractFunction, AbstractFunction> copies = new IdentityHashMap<AbstractFunction, AbstractFunction>();
+            for (AbstractFunction function : generated) {
+                AbstractFunction copy = function
+                        .copy(CopyType.WITHOUT_VALUES_AND_POSITION);
+                pipeline.addFunction(copy);
+                copies.put(function, copy);
+            }
+
+            final List<AbstractFunction[]> connections = new ArrayList<AbstractFunction[]>();
+            for (AbstractFunction function : generated) {
+                for (AbstractConnector in : function.getInConnectors()) {
+                    for (AbstractConnector out : in.getConnections()) {
+                        connections.add(new AbstractFunction[] {
+                                copies.get(out.getParent()),
+                                copies.get(function) });
+                    }
+                }
+            }
+
+            measure("connect", size, new Operation() {
+                @Override
+                public void run() throws Exception {
+                    for (AbstractFunction[] connection : connections) {
+                        connection[0].addConnectionTo(connection[1]);
+                    }
+                }
+            });
+
+            assertFalse(pipeline.hasLoop());
+        }
+    }
+
+    @Test
+    public void testUndo() throws Exception {
+        for (int size : SIZES) {
+            final Pipeline pipeline = new Pipeline(true, false);
+            pipeline.replaceFunctions(generator().generate(size));
+            int connections = countConnections(Arrays.asList(pipeline
+                    .getFunctions()));
+            final AbstractFunction added = pipeline.getFunctions()[0]
+                    .copy(CopyType.WITHOUT_VALUES_AND_POSITION);
+
+            measure("undo", size, new Operation() {
+                @Override
+                public void run() {
+                    pipeline.addFunction(added);
+                    pipeline.undo();
+                }
+            });
+
+            assertEquals(size, pipeline.getFunctions().length);
+            assertEquals(connections, countConnections(Arrays
+                    .asList(pipeline.getFunctions())));
+        }
+    }
+
+    @Test
+    public void testGenerate() throws Exception {
+        for (int size : SIZES) {
+            final Pipeline pipeline = generator().generatePipeline(size);
+            final String[] script = new String[1];
+
+            measure("generate", size, new Operation() {
+                @Override
+                public void run() {
+                    script[0] = pipeline.generate(FileType.BASH);
+                }
+            });
+
+            assertTrue(script[0].length() > size);
+        }
+    }
+
+    @Test
+    public void testParseRoundTrip() throws Exception {
+        for (int size : SIZES) {
+            final Pipeline pipeline = generator().generatePipeline(size);
+            final IParser parser = ParserFactory.getInstance().getParser(
+                    FileType.BASH.getParserClass());
+            final PipelinePersistenceObject[] parsed = new PipelinePersistenceObject[1];
+
+            measure("parse round-trip", size, new Operation() {
+                @Override
+                public void run() throws Exception {
+                    parsed[0] = parser.parseString(pipeline
+                            .generate(FileType.BASH));
+                }
+            });
+
+            assertEquals(size, parsed[0].getFunctions().size());
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        final AbstractPersistence persistence = PersistenceFactory
+                .getInstance().getPersistence(
+                        FileType.OSMEMBRANE.getPersistenceClass());
+        File file = File.createTempFile("scale", ".osmembrane");
+        final URL url = file.toURI().toURL();
+
+        try {
+            for (int size : SIZES) {
+                final PipelinePersistenceObject pipeline = new PipelinePersistenceObject(
+                        generator().generate(size), new PipelineSettings());
+                final Object[] loaded = new Object[1];
+
+                measure("save", size, new Operation() {
+                    @Override
+                    public void run() throws Exception {
+                        persistence.save(url, pipeline);
+                    }
+                });
+                measure("load", size, new Operation() {
+                    @Override
+                    public void run() throws Exception {
+                        loaded[0] = persistence.load(url);
+                    }
+                });
+
+                List<AbstractFunction> functions = ((PipelinePersistenceObject) loaded[0])
+                        .getFunctions();
+                assertEquals(size, functions.size());
+                assertEquals(countConnections(pipeline.getFunctions()),
+                        countConnections(functions));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Returns a generator for pipelines of all connector types, with a part
+     * of the parameters set.
+     */
+    private PipelineGenerator generator() {
+        return new PipelineGenerator(PipelineGenerator.DEFAULT_SEED)
+                .setMaximumFanOut(3).setFanIn(0.9)
+                .setConnectorTypes(ConnectorType.values())
+                .setParameterShare(0.3);
+    }
+
+    /**
+     * Returns a generator for pipelines of all connector types, without set
+     * parameters.
+     */
+    private PipelineGenerator untouchedGenerator() {
+        return new PipelineGenerator(PipelineGenerator.DEFAULT_SEED)
+                .setMaximumFanOut(3).setFanIn(0.9)
+                .setConnectorTypes(ConnectorType.values());
+    }
+
+    private int countConnections(List<AbstractFunction> functions) {
+        int count = 0;
+        for (AbstractFunction function : functions) {
+            for (AbstractConnector out : function.getOutConnectors()) {
+                count += out.getConnections().length;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Runs an operation once. Keeps the time and allocation per function at
+     * the reference size and checks the larger sizes against them.
+     */
+    private void measure(String name, int size, Operation operation)
+            throws Exception {
+        System.gc();
+
+        long allocated = getAllocatedBytes();
+        long start = System.nanoTime();
+        operation.run();
+        long time = System.nanoTime() - start;
+        allocated = getAllocatedBytes() - allocated;
+
+        if (size == REFERENCE_SIZE) {
+            references.put(name, new double[] { (double) time / size,
+                    (double) allocated / size });
+        } else if (size > REFERENCE_SIZE) {
+            double[] reference = references.get(name);
+            assertTrue(String.format(
+                    "%s of %d functions took %d ms, %.0f ns per function "
+                            + "after %.0f ns at %d", name, size,
+                    time / 1000000, (double) time / size, reference[0],
+                    REFERENCE_SIZE), time <= TIME_GROWTH * reference[0]
+                    * size + NOISE_NANOS);
+            assertTrue(String.format(
+                    "%s of %d functions allocated %d MB, %.0f bytes per "
+                            + "function after %.0f bytes at %d", name,
+                    size, allocated / (1024 * 1024), (double) allocated
+                            / size, reference[1], REFERENCE_SIZE),
+                    allocated <= ALLOCATION_GROWTH * reference[1] * size);
+        }
+    }
+
+    /**
+     * Returns the heap used by reachable objects.
+     */
+    private long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread so far, or 0 if the
+     * JVM does not count them.
+     */
+    private long getAllocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread()
+                        .getId());
+            }
+        }
+        return 0;
+    }
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
@@ -14,6 +14,7 @@ import java.awt.geom.Point2D;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Map;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -29,10 +30,16 @@ import de.osmembrane.model.pipeline.AbstractConnector;
 import de.osmembrane.model.pipeline.AbstractFunction;
 import de.osmembrane.model.pipeline.AbstractFunctionGroup;
 import de.osmembrane.model.pipeline.AbstractFunctionPrototype;
+import de.osmembrane.model.pipeline.AbstractParameter;
 import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.AbstractTask;
 import de.osmembrane.model.pipeline.ConnectorException;
 import de.osmembrane.model.pipeline.ConnectorType;
 import de.osmembrane.model.pipeline.CopyType;
+import de.osmembrane.model.pipeline.PipelineSnapshot;
+import de.osmembrane.model.settings.AbstractSettings;
+import de.osmembrane.model.settings.SettingType;
+import de.osmembrane.model.settings.UnparsableFormatException;
 import de.osmembrane.resources.Constants;
 import de.osmembrane.tools.Tools;
 
@@ -175,6 +182,28 @@ public class PipelineTest {
                 pl.getFunctions().length);
     }
 
+    /**
+     * Test method for
+     * {@link de.osmembrane.model.pipeline.AbstractFunction#getInstanceId()}.
+     */
+    @Test
+    public void testInstanceId() {
+        AbstractFunction first = prototype
+                .copy(CopyType.WITHOUT_VALUES_AND_POSITION);
+        AbstractFunction second = first.copy(CopyType.COPY_ALL);
+        assertFalse("copy kept the instance id",
+                first.getInstanceId() == second.getInstanceId());
+
+        pl.addFunction(first);
+        pl.addFunction(second);
+        assertTrue("undo could not be done", pl.undo());
+
+        assertEquals("not exactly 1 function present", 1,
+                pl.getFunctions().length);
+        assertEquals("undo changed the instance id", first.getInstanceId(),
+                pl.getFunctions()[0].getInstanceId());
+    }
+
     /**
      * Test method for {@link de.osmembrane.model.pipeline.Pipeline#undo()} and
      * {@link de.osmembrane.model.pipeline.Pipeline#redo()}.
@@ -669,6 +698,112 @@ public class PipelineTest {
         assertTrue(result.contains(af.getActiveTask().getName()));
     }
 
+    /**
+     * Test method for
+     * {@link de.osmembrane.model.pipeline.Pipeline#getSnapshot()}, the
+     * snapshot must not follow later changes of the pipeline and arrange the
+     * functions like {@link AbstractPipeline#arrangePipeline()}.
+     * 
+     * @throws ConnectorException
+     */
+    @Test
+    public void testSnapshot() throws ConnectorException {
+        examplePipeline();
+        PipelineSnapshot snapshot = pl.getSnapshot();
+        String generated = pl.generate(FileType.BASH);
+
+        Map<AbstractFunction, Point2D> arranged = snapshot.arrange();
+        pl.arrangePipeline();
+        for (AbstractFunction function : pl.getFunctions()) {
+            assertEquals(function.getUnrasteredCoordinate(),
+                    arranged.get(function));
+        }
+
+        pl.addFunction(prototype.copy(CopyType.COPY_ALL));
+        assertEquals(generated, snapshot.generate(FileType.BASH));
+    }
+
+    /**
+     * Test method for
+     * {@link de.osmembrane.model.pipeline.Function#copy(CopyType)}, the
+     * tasks of the copy must belong to it and keep the values of inactive
+     * tasks.
+     */
+    @Test
+    public void testCopyTasks() {
+        AbstractFunction af = prototype.copy(CopyType.COPY_ALL);
+        AbstractParameter param = af.getAvailableTasks()[1].getParameters()[0];
+        param.setValue("osmembrane");
+
+        AbstractFunction copy = af.copy(CopyType.COPY_ALL);
+        for (AbstractTask task : copy.getAvailableTasks()) {
+            assertEquals(copy, task.getParent());
+        }
+        assertEquals(af.getActiveTask().getName(), copy.getActiveTask()
+                .getName());
+        assertEquals("osmembrane", copy.getAvailableTasks()[1]
+                .getParameters()[0].getValue());
+
+        AbstractFunction empty = af.copy(CopyType.WITHOUT_VALUES_AND_POSITION);
+        assertTrue(empty.getAvailableTasks()[1].getParameters()[0]
+                .isDefaultValue());
+    }
+
+    /**
+     * Test method for
+     * {@link de.osmembrane.model.pipeline.Task#getParameters()}, parameters
+     * without values stay the same instances while they are used and keep a
+     * value set on them.
+     */
+    @Test
+    public void testParametersWhileUsed() {
+        AbstractFunction af = prototype.copy(CopyType.COPY_ALL);
+        AbstractTask task = af.getActiveTask();
+        AbstractParameter[] params = task.getParameters();
+        System.gc();
+        assertTrue(params[0] == task.getParameters()[0]);
+
+        params[0].setValue("osmembrane");
+        params = null;
+        System.gc();
+        assertEquals("osmembrane", task.getParameters()[0].getValue());
+        assertEquals("osmembrane", af.copy(CopyType.COPY_ALL).getActiveTask()
+                .getParameters()[0].getValue());
+    }
+
+    /**
+     * Test method for
+     * {@link de.osmembrane.model.pipeline.Function#getCoordinate()}, the
+     * rastered coordinate must follow changes of the raster size and the
+     * position.
+     * 
+     * @throws UnparsableFormatException
+     */
+    @Test
+    public void testRasteredCoordinate() throws UnparsableFormatException {
+        AbstractSettings settings = ModelProxy.getInstance().getSettings();
+        Object rasterSize = settings.getValue(SettingType.PIPELINE_RASTER_SIZE);
+        try {
+            AbstractFunction af = prototype.copy(CopyType.COPY_ALL);
+            af.setCoordinate(new Point2D.Double(14.0, 26.0));
+
+            settings.setValue(SettingType.PIPELINE_RASTER_SIZE, 10);
+            assertEquals(10, settings.getSnapshot().getPipelineRasterSize());
+            assertEquals(new Point2D.Double(10.0, 30.0), af.getCoordinate());
+
+            settings.setValue(SettingType.PIPELINE_RASTER_SIZE, 4);
+            assertEquals(new Point2D.Double(16.0, 28.0), af.getCoordinate());
+
+            af.getUnrasteredCoordinate().setLocation(21.0, 7.0);
+            assertEquals(new Point2D.Double(20.0, 8.0), af.getCoordinate());
+
+            af.setCoordinate(new Point2D.Double(1.0, 1.0));
+            assertEquals(new Point2D.Double(0.0, 0.0), af.getCoordinate());
+        } finally {
+            settings.setValue(SettingType.PIPELINE_RASTER_SIZE, rasterSize);
+        }
+    }
+
     /**
      * Test method for {@link de.osmembrane.model.pipeline.Pipeline#isSaved()}.
      * 
@@ -211,6 +211,21 @@ public class TestFunction extends AbstractFunction {
         contained.setCoordinate(coordinate);
     }
 
+    @Override
+    public long getInstanceId() {
+        return contained.getInstanceId();
+    }
+
+    @Override
+    public boolean isResultCached() {
+        return contained.isResultCached();
+    }
+
+    @Override
+    public void setResultCached(boolean resultCached) {
+        contained.setResultCached(resultCached);
+    }
+
     @Override
     public AbstractConnector[] getInConnectors() {
         return contained.getInConnectors();
@@ -0,0 +1,229 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.osmembrane.Application;
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.ConnectorException;
+import de.osmembrane.model.settings.RuntimeSample;
+import de.osmembrane.model.settings.SettingsSnapshot;
+
+/**
+ * Tests the {@link PipelineEstimator} and the topological order it walks
+ * the pipeline in.
+ * 
+ * @author agent
+ */
+public class PipelineEstimatorTest {
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private static AbstractPipeline pl;
+
+    /**
+     * A pbf file of 100000 bytes, which holds about 10000 entities.
+     */
+    private static File source;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Application a = new Application();
+        a.createModels();
+        a.initiate();
+
+        pl = ModelProxy.getInstance().getPipeline();
+
+        source = File.createTempFile("osmembrane-estimate", ".osm.pbf");
+        source.deleteOnExit();
+        RandomAccessFile file = new RandomAccessFile(source, "rw");
+        try {
+            file.setLength(100000);
+        } finally {
+            file.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        pl.clear();
+    }
+
+    /**
+     * The entities of the source are propagated with the selectivity of
+     * every task.
+     */
+    @Test
+    public void testEntities() throws ConnectorException {
+        AbstractFunction read = createFunction("read-pbf",
+                source.getAbsolutePath());
+        AbstractFunction filter = createFunction("node-key", null);
+        AbstractFunction write = createFunction("write-pbf", "out.osm.pbf");
+
+        read.addConnectionTo(filter);
+        filter.addConnectionTo(write);
+
+        PipelineEstimate estimate = estimate();
+
+        assertEquals(10000, estimate.getOutputEntities(read));
+        assertEquals(10000, estimate.getInputEntities(filter));
+        assertEquals(5000, estimate.getOutputEntities(filter));
+        assertEquals(5000, estimate.getInputEntities(write));
+        assertEquals(0, estimate.getOutputEntities(write));
+        assertTrue(estimate.getUnknownSources().isEmpty());
+
+        /* read-pbf 1.0, node-key 0.2 and write-pbf 1.5 per entity */
+        assertEquals(10000 * 1.0 + 10000 * 0.2 + 5000 * 1.5,
+                estimate.getCost(), 1e-6);
+    }
+
+    /**
+     * Memory and temporary disk space of a sort, together with the memory
+     * of osmosis itself and of the automatically inserted buffers.
+     */
+    @Test
+    public void testResources() throws ConnectorException {
+        AbstractFunction read = createFunction("read-pbf",
+                source.getAbsolutePath());
+        AbstractFunction sort = createFunction("sort", null);
+        AbstractFunction write = createFunction("write-null", null);
+
+        read.addConnectionTo(sort);
+        sort.addConnectionTo(write);
+
+        PipelineEstimate estimate = estimate();
+
+        assertEquals(50 * MEGABYTE, estimate.getMemory(sort));
+        assertEquals(10000 * 60, estimate.getTempDisk());
+
+        SettingsSnapshot settings = ModelProxy.getInstance().getSettings()
+                .getSnapshot();
+        long buffers = settings.isAutomaticBufferInsertion() ? settings
+                .getBufferMemoryBudget() * MEGABYTE : 0;
+        assertEquals(64 * MEGABYTE + MEGABYTE + 50 * MEGABYTE + MEGABYTE
+                + buffers, estimate.getPeakMemory());
+    }
+
+    /**
+     * A merge receives the entities of all its inputs, whatever order the
+     * functions have in the pipeline.
+     */
+    @Test
+    public void testMerge() throws ConnectorException {
+        AbstractFunction write = createFunction("write-null", null);
+        AbstractFunction merge = createFunction("merge", null);
+        AbstractFunction read1 = createFunction("read-pbf",
+                source.getAbsolutePath());
+        AbstractFunction read2 = createFunction("read-pbf",
+                source.getAbsolutePath());
+
+        read1.addConnectionTo(merge);
+        read2.addConnectionTo(merge);
+        merge.addConnectionTo(write);
+
+        PipelineEstimate estimate = estimate();
+
+        assertEquals(20000, estimate.getInputEntities(merge));
+        assertEquals(20000, estimate.getInputEntities(write));
+    }
+
+    /**
+     * A source without a readable file is reported and counts no entities.
+     */
+    @Test
+    public void testUnknownSource() throws ConnectorException {
+        File missing = new File(source.getAbsolutePath() + ".missing");
+        AbstractFunction read = createFunction("read-xml",
+                missing.getAbsolutePath());
+        AbstractFunction write = createFunction("write-null", null);
+
+        read.addConnectionTo(write);
+
+        PipelineEstimate estimate = estimate();
+
+        assertEquals(Arrays.asList(read), estimate.getUnknownSources());
+        assertEquals(0, estimate.getInputEntities(write));
+    }
+
+    @Test
+    public void testSecondsPerCost() {
+        assertEquals(1e-6, PipelineEstimator
+                .getSecondsPerCost(new RuntimeSample[0]), 1e-12);
+        assertEquals(2.0, PipelineEstimator
+                .getSecondsPerCost(new RuntimeSample[] {
+                        new RuntimeSample(1.0, 2.0),
+                        new RuntimeSample(3.0, 6.0) }), 1e-12);
+    }
+
+    /**
+     * Every function comes after all its predecessors.
+     */
+    @Test
+    public void testTopologicalOrder() throws ConnectorException {
+        AbstractFunction write = createFunction("write-null", null);
+        AbstractFunction merge = createFunction("merge", null);
+        AbstractFunction sort = createFunction("sort", null);
+        AbstractFunction read1 = createFunction("read-pbf", "1.osm.pbf");
+        AbstractFunction read2 = createFunction("read-pbf", "2.osm.pbf");
+
+        read1.addConnectionTo(sort);
+        sort.addConnectionTo(merge);
+        read2.addConnectionTo(merge);
+        merge.addConnectionTo(write);
+
+        List<AbstractFunction> order = PipelineCopier.getTopologicalOrder(Arrays
+                .asList(pl.getFunctions()));
+
+        assertEquals(5, order.size());
+        assertTrue(order.indexOf(read1) < order.indexOf(sort));
+        assertTrue(order.indexOf(sort) < order.indexOf(merge));
+        assertTrue(order.indexOf(read2) < order.indexOf(merge));
+        assertTrue(order.indexOf(merge) < order.indexOf(write));
+    }
+
+    private PipelineEstimate estimate() {
+        return new PipelineEstimator(Arrays.asList(pl.getFunctions()))
+                .estimate();
+    }
+
+    private AbstractFunction createFunction(String taskName, String file) {
+        AbstractFunction function = ModelProxy.getInstance().getFunctions()
+                .getMatchingFunctionForTaskName(taskName);
+        assertNotNull(taskName + " not found", function);
+        pl.addFunction(function);
+
+        if (file != null) {
+            for (AbstractParameter param : function.getActiveTask()
+                    .getParameters()) {
+                if (param.getName().equals("file")) {
+                    param.setValue(file);
+                }
+            }
+        }
+        return function;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.osmembrane.Application;
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.ConnectorException;
+
+/**
+ * Tests the rules of the {@link PipelineOptimizer}.
+ * 
+ * @author agent
+ */
+public class PipelineOptimizerTest {
+
+    private static AbstractPipeline pl;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Application a = new Application();
+        a.createModels();
+        a.initiate();
+
+        pl = ModelProxy.getInstance().getPipeline();
+    }
+
+    @After
+    public void tearDown() {
+        pl.clear();
+    }
+
+    /**
+     * A branch which does not end in a sink is removed, the rest stays.
+     */
+    @Test
+    public void testRemoveDeadBranch() throws ConnectorException {
+        AbstractFunction read = createFunction("read-xml", "in.osm");
+        AbstractFunction write = createFunction("write-xml", "out.osm");
+        AbstractFunction dead = createFunction("node-key", null);
+
+        read.addConnectionTo(write);
+        read.addConnectionTo(dead);
+
+        List<AbstractFunction> result = optimize(1);
+
+        assertEquals(2, result.size());
+        assertEquals(0, find(result, "node-key").size());
+    }
+
+    /**
+     * Two reads of the same file are merged into one read feeding both
+     * writes, reads of different files are kept.
+     */
+    @Test
+    public void testMergeSharedReads() throws ConnectorException {
+        AbstractFunction read1 = createFunction("read-xml", "in.osm");
+        AbstractFunction read2 = createFunction("read-xml", "in.osm");
+        AbstractFunction read3 = createFunction("read-xml", "other.osm");
+        AbstractFunction write1 = createFunction("write-xml", "out1.osm");
+        AbstractFunction write2 = createFunction("write-xml", "out2.osm");
+        AbstractFunction write3 = createFunction("write-xml", "out3.osm");
+
+        read1.addConnectionTo(write1);
+        read2.addConnectionTo(write2);
+        read3.addConnectionTo(write3);
+
+        List<AbstractFunction> result = optimize(1);
+
+        List<AbstractFunction> reads = find(result, "read-xml");
+        assertEquals(2, reads.size());
+        assertEquals(2, PipelineCopier.getSuccessors(reads.get(0)).size());
+        assertEquals(1, PipelineCopier.getSuccessors(reads.get(1)).size());
+    }
+
+    /**
+     * An entity filter behind a sort is moved in front of it.
+     */
+    @Test
+    public void testPushEntityFilterBeforeSort() throws ConnectorException {
+        assertPushedDown("node-key", "sort", "read-xml");
+    }
+
+    /**
+     * An entity filter behind a buffer is moved in front of it.
+     */
+    @Test
+    public void testPushEntityFilterBeforeBuffer() throws ConnectorException {
+        assertPushedDown("tag-filter", "buffer", "read-xml");
+    }
+
+    /**
+     * A bounding-box behind a buffer is moved in front of it.
+     */
+    @Test
+    public void testPushBoundingBoxBeforeBuffer() throws ConnectorException {
+        assertPushedDown("bounding-box", "buffer", "read-xml");
+    }
+
+    /**
+     * A bounding-box behind a sort which reads directly from a file is moved
+     * in front of it.
+     */
+    @Test
+    public void testPushBoundingBoxBeforeSortOfRead()
+            throws ConnectorException {
+        assertPushedDown("bounding-box", "sort", "read-xml");
+    }
+
+    /**
+     * A bounding-box behind a sort which does not read from a file stays
+     * where it is, the input of the sort might not be ordered.
+     */
+    @Test
+    public void testKeepBoundingBoxBehindSortOfFilter()
+            throws ConnectorException {
+        AbstractFunction read = createFunction("read-xml", "in.osm");
+        AbstractFunction filter = createFunction("way-key", null);
+        AbstractFunction sort = createFunction("sort", null);
+        AbstractFunction bbox = createFunction("bounding-box", null);
+        AbstractFunction write = createFunction("write-xml", "out.osm");
+
+        read.addConnectionTo(filter);
+        filter.addConnectionTo(sort);
+        sort.addConnectionTo(bbox);
+        bbox.addConnectionTo(write);
+
+        List<AbstractFunction> result = optimize(0);
+
+        assertEquals(single(result, "sort"), single(
+                PipelineCopier.getPredecessors(single(result,
+                        "bounding-box")), "sort"));
+    }
+
+    /**
+     * A merge keeps the newest version of every entity, an entity filter
+     * behind it must not be moved in front of it.
+     */
+    @Test
+    public void testKeepEntityFilterBehindMerge() throws ConnectorException {
+        AbstractFunction read1 = createFunction("read-xml", "in1.osm");
+        AbstractFunction read2 = createFunction("read-xml", "in2.osm");
+        AbstractFunction merge = createFunction("merge", null);
+        AbstractFunction filter = createFunction("node-key", null);
+        AbstractFunction write = createFunction("write-xml", "out.osm");
+
+        read1.addConnectionTo(merge);
+        read2.addConnectionTo(merge);
+        merge.addConnectionTo(filter);
+        filter.addConnectionTo(write);
+
+        List<AbstractFunction> result = optimize(0);
+
+        assertEquals(5, result.size());
+        AbstractFunction resultMerge = single(result, "merge");
+        assertEquals(2, PipelineCopier.getPredecessors(resultMerge).size());
+        assertEquals(single(result, "node-key"), PipelineCopier
+                .getSuccessors(resultMerge).get(0));
+    }
+
+    /**
+     * Builds "source -> stage -> filter -> write-xml" and checks that the
+     * optimizer turns it into "source -> filter -> stage -> write-xml".
+     */
+    private void assertPushedDown(String filterTask, String stageTask,
+            String sourceTask) throws ConnectorException {
+        AbstractFunction source = createFunction(sourceTask, "in.osm");
+        AbstractFunction stage = createFunction(stageTask, null);
+        AbstractFunction filter = createFunction(filterTask, null);
+        AbstractFunction write = createFunction("write-xml", "out.osm");
+
+        source.addConnectionTo(stage);
+        stage.addConnectionTo(filter);
+        filter.addConnectionTo(write);
+
+        List<AbstractFunction> result = optimize(1);
+
+        AbstractFunction resultFilter = single(result, filterTask);
+        AbstractFunction resultStage = single(result, stageTask);
+        assertEquals(single(result, sourceTask), PipelineCopier
+                .getPredecessors(resultFilter).get(0));
+        assertEquals(resultStage, PipelineCopier.getSuccessors(resultFilter)
+                .get(0));
+        assertEquals(single(result, "write-xml"), PipelineCopier
+                .getSuccessors(resultStage).get(0));
+
+        /* the pipeline of the user stays untouched */
+        assertEquals(filter, PipelineCopier.getSuccessors(stage).get(0));
+    }
+
+    private List<AbstractFunction> optimize(int expectedChanges)
+            throws ConnectorException {
+        PipelineOptimizer optimizer = new PipelineOptimizer(
+                Arrays.asList(pl.getFunctions()));
+        optimizer.optimize();
+        assertEquals(optimizer.getChanges().toString(), expectedChanges,
+                optimizer.getChanges().size());
+        return optimizer.getFunctions();
+    }
+
+    private AbstractFunction single(List<AbstractFunction> functions,
+            String taskName) {
+        List<AbstractFunction> found = find(functions, taskName);
+        assertEquals(taskName, 1, found.size());
+        return found.get(0);
+    }
+
+    private List<AbstractFunction> find(List<AbstractFunction> functions,
+            String taskName) {
+        List<AbstractFunction> found = new ArrayList<AbstractFunction>();
+        for (AbstractFunction function : functions) {
+            if (function.getActiveTask().getName().equals(taskName)) {
+                found.add(function);
+            }
+        }
+        return found;
+    }
+
+    private AbstractFunction createFunction(String taskName, String file) {
+        AbstractFunction function = ModelProxy.getInstance().getFunctions()
+                .getMatchingFunctionForTaskName(taskName);
+        assertNotNull(taskName + " not found", function);
+        pl.addFunction(function);
+
+        if (file != null) {
+            for (AbstractParameter param : function.getActiveTask()
+                    .getParameters()) {
+                if (param.getName().equals("file")) {
+                    param.setValue(file);
+                }
+            }
+        }
+        return function;
+    }
+}
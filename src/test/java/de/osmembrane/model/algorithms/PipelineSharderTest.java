@@ -0,0 +1,321 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.osmembrane.Application;
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.pipeline.AbstractConnector;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+import de.osmembrane.model.pipeline.ConnectorException;
+
+/**
+ * Tests the shards and the merge pipeline the {@link PipelineSharder}
+ * creates, and its static helpers.
+ * 
+ * @author agent
+ */
+public class PipelineSharderTest {
+
+    private static AbstractPipeline pl;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Application a = new Application();
+        a.createModels();
+        a.initiate();
+
+        pl = ModelProxy.getInstance().getPipeline();
+    }
+
+    @After
+    public void tearDown() {
+        pl.clear();
+    }
+
+    /**
+     * Every shard gets a bounding-box filter with its tile behind the source
+     * and writes into its own file.
+     */
+    @Test
+    public void testShardByTiles() throws Exception {
+        createPipeline();
+
+        List<List<AbstractFunction>> shards = createSharder().shardByTiles(
+                0.0, 0.0, 4.0, 2.0, 4);
+        List<String> tiles = PipelineSharder.splitIntoTiles(0.0, 0.0, 4.0,
+                2.0, 4);
+
+        assertEquals(4, shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            List<AbstractFunction> shard = shards.get(i);
+            assertEquals(4, shard.size());
+
+            AbstractFunction bbox = getSuccessor(find(shard, "read-pbf"));
+            assertEquals("bounding-box", bbox.getActiveTask().getName());
+            assertEquals(tiles.get(i), bbox.getActiveTask().getBBox());
+            assertEquals(find(shard, "sort"), getSuccessor(bbox));
+            assertEquals(find(shard, "write-pbf"), getSuccessor(find(shard,
+                    "sort")));
+            assertEquals("out.shard" + (i + 1) + ".osm.pbf", getParameter(
+                    find(shard, "write-pbf"), "file"));
+        }
+    }
+
+    /**
+     * The merge pipeline reads the outputs of all shards and merges them one
+     * after the other into the file of the original sink.
+     */
+    @Test
+    public void testCreateMergePipeline() throws Exception {
+        createPipeline();
+
+        List<AbstractFunction> merge = createSharder().createMergePipeline(3);
+
+        List<AbstractFunction> readers = findAll(merge, "read-pbf");
+        assertEquals(3, readers.size());
+        for (int i = 0; i < readers.size(); i++) {
+            assertEquals("out.shard" + (i + 1) + ".osm.pbf", getParameter(
+                    readers.get(i), "file"));
+        }
+        assertEquals(2, findAll(merge, "merge").size());
+        assertEquals(6, merge.size());
+
+        /* write <- merge(merge(shard1, shard2), shard3) */
+        AbstractFunction write = find(merge, "write-pbf");
+        assertEquals("out.osm.pbf", getParameter(write, "file"));
+
+        List<AbstractFunction> last = getPredecessors(write);
+        assertEquals(1, last.size());
+        List<AbstractFunction> lastInputs = getPredecessors(last.get(0));
+        assertEquals("merge", lastInputs.get(0).getActiveTask().getName());
+        assertEquals(readers.get(2), lastInputs.get(1));
+        assertEquals(Arrays.asList(readers.get(0), readers.get(1)),
+                getPredecessors(lastInputs.get(0)));
+    }
+
+    /**
+     * A single shard needs no merge.
+     */
+    @Test
+    public void testCreateMergePipelineSingle() throws Exception {
+        createPipeline();
+
+        List<AbstractFunction> merge = createSharder().createMergePipeline(1);
+
+        assertEquals(2, merge.size());
+        assertEquals(find(merge, "write-pbf"), getSuccessor(find(merge,
+                "read-pbf")));
+    }
+
+    /**
+     * Every shard gets a bounding-polygon filter with its own polygon file
+     * behind the source and writes into its own file.
+     */
+    @Test
+    public void testShardByPolygons() throws Exception {
+        createPipeline();
+
+        List<List<AbstractFunction>> shards = createSharder().shardByPolygons(
+                Arrays.asList("north.poly", "south.poly"));
+
+        assertEquals(2, shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            List<AbstractFunction> shard = shards.get(i);
+            assertEquals(4, shard.size());
+
+            AbstractFunction polygon = getSuccessor(find(shard, "read-pbf"));
+            assertEquals("bounding-polygon", polygon.getActiveTask()
+                    .getName());
+            assertEquals(Arrays.asList("north.poly", "south.poly").get(i),
+                    getParameter(polygon, "file"));
+            assertEquals(find(shard, "sort"), getSuccessor(polygon));
+            assertEquals("out.shard" + (i + 1) + ".osm.pbf", getParameter(
+                    find(shard, "write-pbf"), "file"));
+        }
+
+        /* the original pipeline stays untouched */
+        assertEquals(3, pl.getFunctions().length);
+        assertEquals("out.osm.pbf", getParameter(find(Arrays.asList(pl
+                .getFunctions()), "write-pbf"), "file"));
+    }
+
+    /**
+     * Polygon sharding needs at least one polygon file.
+     */
+    @Test(expected = ShardingException.class)
+    public void testShardByNoPolygons() throws Exception {
+        createPipeline();
+
+        createSharder().shardByPolygons(new ArrayList<String>());
+    }
+
+    /**
+     * The tiles must cover the working area without gaps, in rows from the
+     * south-west corner.
+     */
+    @Test
+    public void testSplitIntoTiles() throws ShardingException {
+        List<String> tiles = PipelineSharder.splitIntoTiles(0.0, 0.0, 4.0,
+                2.0, 4);
+        assertEquals(4, tiles.size());
+        assertEquals("0.0000000;0.0000000;1.0000000;2.0000000", tiles.get(0));
+        assertEquals("0.0000000;2.0000000;1.0000000;4.0000000", tiles.get(1));
+        assertEquals("1.0000000;0.0000000;2.0000000;2.0000000", tiles.get(2));
+        assertEquals("1.0000000;2.0000000;2.0000000;4.0000000", tiles.get(3));
+    }
+
+    /**
+     * Counts without a square grid are split into the squarest grid, prime
+     * counts into columns. The outer edges are the exact ones.
+     */
+    @Test
+    public void testSplitIntoTilesGrid() throws ShardingException {
+        List<String> tiles = PipelineSharder.splitIntoTiles(0.0, 0.0, 6.0,
+                2.0, 6);
+        assertEquals(6, tiles.size());
+        assertEquals("0.0000000;0.0000000;1.0000000;2.0000000", tiles.get(0));
+        assertEquals("1.0000000;4.0000000;2.0000000;6.0000000", tiles.get(5));
+
+        tiles = PipelineSharder.splitIntoTiles(0.0, 0.0, 1.0, 1.0, 3);
+        assertEquals(3, tiles.size());
+        assertEquals("0.0000000;0.6666667;1.0000000;1.0000000", tiles.get(2));
+
+        tiles = PipelineSharder.splitIntoTiles(-1.5, 50.0, 2.5, 51.0, 1);
+        assertEquals(1, tiles.size());
+        assertEquals("50.0000000;-1.5000000;51.0000000;2.5000000",
+                tiles.get(0));
+    }
+
+    /**
+     * Less than one shard is refused.
+     */
+    @Test(expected = ShardingException.class)
+    public void testSplitIntoNoTiles() throws ShardingException {
+        PipelineSharder.splitIntoTiles(0.0, 0.0, 1.0, 1.0, 0);
+    }
+
+    /**
+     * The shard index is put in front of all extensions of the filename,
+     * dots in directories are ignored.
+     */
+    @Test
+    public void testGetShardFilename() {
+        assertEquals("/tmp/out.shard1.osm.pbf",
+                PipelineSharder.getShardFilename("/tmp/out.osm.pbf", 0));
+        assertEquals("out.shard3", PipelineSharder.getShardFilename("out", 2));
+        assertEquals("/tmp/dir.d/out.shard2",
+                PipelineSharder.getShardFilename("/tmp/dir.d/out", 1));
+        assertEquals("C:\\dir.d\\out.shard2.osm",
+                PipelineSharder.getShardFilename("C:\\dir.d\\out.osm", 1));
+    }
+
+    /**
+     * Creates "read-pbf -> sort -> write-pbf".
+     */
+    private void createPipeline() throws ConnectorException {
+        AbstractFunction read = createFunction("read-pbf", "in.osm.pbf");
+        AbstractFunction sort = createFunction("sort", null);
+        AbstractFunction write = createFunction("write-pbf", "out.osm.pbf");
+
+        read.addConnectionTo(sort);
+        sort.addConnectionTo(write);
+    }
+
+    private PipelineSharder createSharder() throws ShardingException {
+        return new PipelineSharder(Arrays.asList(pl.getFunctions()));
+    }
+
+    private AbstractFunction createFunction(String taskName, String file) {
+        AbstractFunction function = ModelProxy.getInstance().getFunctions()
+                .getMatchingFunctionForTaskName(taskName);
+        assertNotNull(taskName + " not found", function);
+        pl.addFunction(function);
+
+        if (file != null) {
+            for (AbstractParameter param : function.getActiveTask()
+                    .getParameters()) {
+                if (param.getName().equals("file")) {
+                    param.setValue(file);
+                }
+            }
+        }
+        return function;
+    }
+
+    /**
+     * Returns the only function of the given task.
+     */
+    private AbstractFunction find(List<AbstractFunction> functions,
+            String taskName) {
+        List<AbstractFunction> found = findAll(functions, taskName);
+        assertEquals(taskName, 1, found.size());
+        return found.get(0);
+    }
+
+    private List<AbstractFunction> findAll(List<AbstractFunction> functions,
+            String taskName) {
+        List<AbstractFunction> found = new ArrayList<AbstractFunction>();
+        for (AbstractFunction function : functions) {
+            if (function.getActiveTask().getName().equals(taskName)) {
+                found.add(function);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the only function the given one is connected to.
+     */
+    private AbstractFunction getSuccessor(AbstractFunction function) {
+        assertEquals(1, function.getOutConnectors().length);
+        assertEquals(1, function.getOutConnectors()[0].getConnections().length);
+        return function.getOutConnectors()[0].getConnections()[0].getParent();
+    }
+
+    /**
+     * Returns the functions connected to the given one, in the order of its
+     * in-connectors.
+     */
+    private List<AbstractFunction> getPredecessors(AbstractFunction function) {
+        List<AbstractFunction> predecessors = new ArrayList<AbstractFunction>();
+        for (AbstractConnector inConnector : function.getInConnectors()) {
+            for (AbstractConnector outConnector : inConnector
+                    .getConnections()) {
+                predecessors.add(outConnector.getParent());
+            }
+        }
+        return predecessors;
+    }
+
+    private String getParameter(AbstractFunction function, String parameter) {
+        for (AbstractParameter param : function.getActiveTask()
+                .getParameters()) {
+            if (param.getName().equals(parameter)) {
+                return param.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.osmembrane.Application;
+import de.osmembrane.model.ModelProxy;
+import de.osmembrane.model.pipeline.AbstractFunction;
+import de.osmembrane.model.pipeline.AbstractParameter;
+import de.osmembrane.model.pipeline.AbstractPipeline;
+
+/**
+ * Tests the fingerprints of the {@link ResultCache} and the reuse of cached
+ * results.
+ * 
+ * @author agent
+ */
+public class ResultCacheTest {
+
+    private static AbstractPipeline pl;
+
+    private File directory;
+    private File source;
+
+    private AbstractFunction read;
+    private AbstractFunction filter;
+    private AbstractFunction sort;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Application a = new Application();
+        a.createModels();
+        a.initiate();
+
+        pl = ModelProxy.getInstance().getPipeline();
+    }
+
+    /**
+     * Creates "read-pbf -> node-key -> sort -> write-null" with a cached
+     * sort.
+     */
+    @Before
+    public void setUp() throws Exception {
+        directory = File.createTempFile("osmembrane-cache", "");
+        directory.delete();
+        directory.mkdirs();
+
+        source = new File(directory, "source.pbf");
+        resize(source, 1000);
+
+        read = createFunction("read-pbf", "file", source.getAbsolutePath());
+        filter = createFunction("node-key", "keyList", "amenity");
+        sort = createFunction("sort", null, null);
+        AbstractFunction write = createFunction("write-null", null, null);
+
+        read.addConnectionTo(filter);
+        filter.addConnectionTo(sort);
+        sort.addConnectionTo(write);
+        sort.setResultCached(true);
+    }
+
+    @After
+    public void tearDown() {
+        pl.clear();
+
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    /**
+     * The same pipeline gets the same fingerprints in every cache.
+     */
+    @Test
+    public void testFingerprintStable() throws Exception {
+        assertEquals(getSortFingerprint(), getSortFingerprint());
+    }
+
+    /**
+     * A changed parameter in front of a cached function invalidates its
+     * result.
+     */
+    @Test
+    public void testParameterChanged() throws Exception {
+        String before = getSortFingerprint();
+
+        setParameter(filter, "keyList", "highway");
+
+        assertFalse(before.equals(getSortFingerprint()));
+    }
+
+    /**
+     * A changed input file invalidates all results derived from it.
+     */
+    @Test
+    public void testInputFileChanged() throws Exception {
+        String before = getSortFingerprint();
+
+        resize(source, 2000);
+        String resized = getSortFingerprint();
+        assertFalse(before.equals(resized));
+
+        source.setLastModified(source.lastModified() - 60000);
+        assertFalse(resized.equals(getSortFingerprint()));
+    }
+
+    /**
+     * A file replaced by one of the same size and modification time, like
+     * "cp -p" or "rsync -t" do, is told apart by its content once its hash
+     * is not known any more.
+     */
+    @Test
+    public void testInputFileReplaced() throws Exception {
+        long modified = source.lastModified();
+        String before = getSortFingerprint();
+
+        RandomAccessFile out = new RandomAccessFile(source, "rw");
+        try {
+            out.write(1);
+        } finally {
+            out.close();
+        }
+        source.setLastModified(modified);
+        new File(directory, "hashes.properties").delete();
+
+        assertFalse(before.equals(getSortFingerprint()));
+    }
+
+    /**
+     * The hash of an input is kept until the file changes, then it is
+     * replaced; hashes of removed files are dropped.
+     */
+    @Test
+    public void testHashes() throws Exception {
+        getSortFingerprint();
+        Properties hashes = loadHashes();
+        String path = source.getAbsolutePath();
+        String hash = hashes.getProperty(path);
+        assertNotNull(hash);
+        assertTrue(hash.startsWith(source.length() + "|"
+                + source.lastModified() + "|"));
+
+        resize(source, 3000);
+        getSortFingerprint();
+        assertEquals(1, loadHashes().size());
+        assertFalse(hash.equals(loadHashes().getProperty(path)));
+
+        File other = new File(directory, "other.pbf");
+        resize(other, 10);
+        setParameter(read, "file", other.getAbsolutePath());
+        getSortFingerprint();
+        source.delete();
+        getSortFingerprint();
+        assertEquals(1, loadHashes().size());
+        assertNotNull(loadHashes().getProperty(other.getAbsolutePath()));
+    }
+
+    /**
+     * A committed result replaces its sub-pipeline on the next execution, an
+     * aborted one does not.
+     */
+    @Test
+    public void testReuse() throws Exception {
+        ResultCache cache = new ResultCache(directory, 100);
+        writeResult(cache);
+        cache.abort();
+        assertEquals(4, reuse().size());
+
+        cache = new ResultCache(directory, 100);
+        File result = writeResult(cache);
+        cache.commit();
+        assertTrue(result.isFile());
+
+        List<AbstractFunction> reused = reuse();
+        assertEquals(2, reused.size());
+        assertEquals(result.getAbsolutePath(), getParameter(find(reused,
+                "read-pbf").get(0), "file"));
+        assertEquals(1, find(reused, "write-null").size());
+    }
+
+    /**
+     * The least recently used results are removed when the cache exceeds its
+     * size.
+     */
+    @Test
+    public void testEvict() throws Exception {
+        File old = new File(directory, "old.osm.pbf");
+        File recent = new File(directory, "recent.osm.pbf");
+        resize(old, 600 * 1024);
+        resize(recent, 600 * 1024);
+        old.setLastModified(recent.lastModified() - 60000);
+
+        new ResultCache(directory, 1).commit();
+
+        assertFalse(old.exists());
+        assertTrue(recent.exists());
+    }
+
+    /**
+     * Temporary results of another, still running execution are kept, the
+     * ones left over by an execution that never finished are removed.
+     */
+    @Test
+    public void testEvictParts() throws Exception {
+        File running = new File(directory, "running.osm.pbf.part");
+        File forgotten = new File(directory, "forgotten.osm.pbf.part");
+        resize(running, 10);
+        resize(forgotten, 10);
+        forgotten.setLastModified(System.currentTimeMillis() - 2 * 24 * 60
+                * 60 * 1000L);
+
+        new ResultCache(directory, 100).commit();
+
+        assertTrue(running.exists());
+        assertFalse(forgotten.exists());
+    }
+
+    /**
+     * Prepares the pipeline and creates the additionally written result of
+     * the sort like osmosis does.
+     *
+     * @return the file the result has after a commit
+     */
+    private File writeResult(ResultCache cache) throws Exception {
+        List<AbstractFunction> functions = cache.prepare(Arrays.asList(pl
+                .getFunctions()));
+        String fingerprint = cache.getFingerprint(find(functions, "sort")
+                .get(0));
+
+        List<AbstractFunction> writes = find(functions, "write-pbf");
+        assertEquals(1, writes.size());
+        resize(new File(getParameter(writes.get(0), "file")), 100);
+
+        return new File(directory, fingerprint + ".osm.pbf");
+    }
+
+    /**
+     * Prepares the pipeline again and returns the functions without the
+     * writes of new results.
+     */
+    private List<AbstractFunction> reuse() throws Exception {
+        List<AbstractFunction> functions = new ResultCache(directory, 100)
+                .prepare(Arrays.asList(pl.getFunctions()));
+        functions.removeAll(find(functions, "write-pbf"));
+        return functions;
+    }
+
+    private String getSortFingerprint() throws Exception {
+        ResultCache cache = new ResultCache(directory, 100);
+        List<AbstractFunction> functions = cache.prepare(Arrays.asList(pl
+                .getFunctions()));
+        String fingerprint = cache.getFingerprint(find(functions, "sort")
+                .get(0));
+        assertNotNull(fingerprint);
+        return fingerprint;
+    }
+
+    private List<AbstractFunction> find(List<AbstractFunction> functions,
+            String taskName) {
+        List<AbstractFunction> found = new ArrayList<AbstractFunction>();
+        for (AbstractFunction function : functions) {
+            if (function.getActiveTask().getName().equals(taskName)) {
+                found.add(function);
+            }
+        }
+        return found;
+    }
+
+    private Properties loadHashes() throws IOException {
+        Properties hashes = new Properties();
+        InputStream in = new FileInputStream(new File(directory,
+                "hashes.properties"));
+        try {
+            hashes.load(in);
+        } finally {
+            in.close();
+        }
+        return hashes;
+    }
+
+    private void resize(File file, long length) throws IOException {
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.setLength(length);
+        } finally {
+            out.close();
+        }
+    }
+
+    private AbstractFunction createFunction(String taskName,
+            String parameter, String value) {
+        AbstractFunction function = ModelProxy.getInstance().getFunctions()
+                .getMatchingFunctionForTaskName(taskName);
+        assertNotNull(taskName + " not found", function);
+        pl.addFunction(function);
+
+        if (parameter != null) {
+            setParameter(function, parameter, value);
+        }
+        return function;
+    }
+
+    private void setParameter(AbstractFunction function, String parameter,
+            String value) {
+        for (AbstractParameter param : function.getActiveTask()
+                .getParameters()) {
+            if (param.getName().equals(parameter)) {
+                param.setValue(value);
+            }
+        }
+    }
+
+    private String getParameter(AbstractFunction function, String parameter) {
+        for (AbstractParameter param : function.getActiveTask()
+                .getParameters()) {
+            if (param.getName().equals(parameter)) {
+                return param.getValue();
+            }
+        }
+        return null;
+    }
+}
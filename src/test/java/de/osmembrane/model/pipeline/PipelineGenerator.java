@@ -0,0 +1,302 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.model.pipeline;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import de.osmembrane.model.ModelProxy;
+
+/**
+ * Generates random, loop free pipelines out of the real osmosis functions of
+ * the {@link ModelProxy}, which have to be initiated before. Every in-connector
+ * of a generated function may be connected to an out-connector of the same type
+ * of a function generated earlier, if there is one left which is not full.
+ * 
+ * The shape of the pipelines can be changed with the setters:
+ * <ul>
+ * <li>{@link #setMaximumFanOut(int)}, the connections per out-connector</li>
+ * <li>{@link #setFanIn(double)}, the share of connected in-connectors</li>
+ * <li>{@link #setConnectorTypes(ConnectorType...)}, the allowed types</li>
+ * <li>{@link #setParameterShare(double)}, the share of set parameters</li>
+ * </ul>
+ * 
+ * The connections are made directly on the connectors, so generating a
+ * pipeline does not run the loop check of
+ * {@link AbstractFunction#addConnectionTo(AbstractFunction)} for every
+ * connection.
+ * 
+ * @author agent
+ */
+public class PipelineGenerator {
+
+    /**
+     * Seed used by the benchmarks and tests, so they all work on the same
+     * pipelines.
+     */
+    public static final long DEFAULT_SEED = 42L;
+
+    /**
+     * Distance between two functions on the generated grid.
+     */
+    private static final double GRID_SPACING = 300.0;
+
+    /**
+     * Functions in a row of the generated grid.
+     */
+    private static final int GRID_WIDTH = 100;
+
+    /**
+     * Tries to find an out-connector of a function which is not yet connected
+     * to the function generated.
+     */
+    private static final int CONNECT_ATTEMPTS = 5;
+
+    private Random random;
+
+    private int maximumFanOut = 3;
+
+    private double fanIn = 1.0;
+
+    private Set<ConnectorType> connectorTypes = EnumSet
+            .allOf(ConnectorType.class);
+
+    private double parameterShare = 0.0;
+
+    /**
+     * Creates a new generator.
+     * 
+     * @param seed
+     *            seed of the random numbers, the same seed and settings
+     *            generate the same pipelines
+     */
+    public PipelineGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Sets the maximum of connections per out-connector, each out-connector
+     * takes between 1 and this many (but not more than its type allows).
+     * Default is 3.
+     */
+    public PipelineGenerator setMaximumFanOut(int maximumFanOut) {
+        this.maximumFanOut = maximumFanOut;
+        return this;
+    }
+
+    /**
+     * Sets the probability for an in-connector to be connected, if there is an
+     * out-connector to connect it to. Default is 1.0.
+     */
+    public PipelineGenerator setFanIn(double fanIn) {
+        this.fanIn = fanIn;
+        return this;
+    }
+
+    /**
+     * Sets the connector types the generated functions may have, functions
+     * with any other connector are not used. Default are all types.
+     */
+    public PipelineGenerator setConnectorTypes(ConnectorType... types) {
+        this.connectorTypes = EnumSet.noneOf(ConnectorType.class);
+        this.connectorTypes.addAll(Arrays.asList(types));
+        return this;
+    }
+
+    /**
+     * Sets the share of parameters of the active tasks which get a valid
+     * value. Default is 0.0, all parameters keep their default value.
+     */
+    public PipelineGenerator setParameterShare(double parameterShare) {
+        this.parameterShare = parameterShare;
+        return this;
+    }
+
+    /**
+     * Generates the functions of a new pipeline.
+     * 
+     * @param size
+     *            number of functions
+     * @return the connected functions, in the order they were generated
+     */
+    public List<AbstractFunction> generate(int size) {
+        List<AbstractFunction> prototypes = getPrototypes();
+        List<AbstractFunction> functions = new ArrayList<AbstractFunction>(
+                size);
+
+        /* out-connectors which can take further connections, per type */
+        Map<ConnectorType, List<OpenConnector>> open = new EnumMap<ConnectorType, List<OpenConnector>>(
+                ConnectorType.class);
+        for (ConnectorType type : ConnectorType.values()) {
+            open.put(type, new ArrayList<OpenConnector>());
+        }
+
+        for (int i = 0; i < size; i++) {
+            AbstractFunction function = prototypes.get(
+                    random.nextInt(prototypes.size())).copy(
+                    CopyType.WITHOUT_VALUES_AND_POSITION);
+            function.setCoordinate(new Point2D.Double((i % GRID_WIDTH)
+                    * GRID_SPACING, (i / GRID_WIDTH) * GRID_SPACING));
+
+            for (AbstractConnector in : function.getInConnectors()) {
+                if (random.nextDouble() < fanIn) {
+                    connect(open.get(in.getType()), in);
+                }
+            }
+
+            for (AbstractConnector out : function.getOutConnectors()) {
+                int capacity = Math.min(out.getMaxConnections(),
+                        1 + random.nextInt(maximumFanOut));
+                open.get(out.getType()).add(new OpenConnector(out, capacity));
+            }
+
+            for (AbstractParameter parameter : function.getActiveTask()
+                    .getParameters()) {
+                if (random.nextDouble() < parameterShare) {
+                    parameter.setValue(createValue(parameter));
+                }
+            }
+
+            functions.add(function);
+        }
+
+        return functions;
+    }
+
+    /**
+     * Generates a new pipeline.
+     * 
+     * @param size
+     *            number of functions
+     * @return a silent pipeline without undo steps containing the generated
+     *         functions
+     */
+    public Pipeline generatePipeline(int size) {
+        Pipeline pipeline = new Pipeline(true, true);
+        pipeline.replaceFunctions(generate(size));
+        return pipeline;
+    }
+
+    /**
+     * Returns the functions which only have connectors of the allowed types.
+     */
+    private List<AbstractFunction> getPrototypes() {
+        List<AbstractFunction> prototypes = new ArrayList<AbstractFunction>();
+        for (AbstractFunctionGroup group : ModelProxy.getInstance()
+                .getFunctions().getFunctionGroups()) {
+            for (AbstractFunction function : group.getFunctions()) {
+                if (hasAllowedTypes(function.getInConnectors())
+                        && hasAllowedTypes(function.getOutConnectors())) {
+                    prototypes.add(function);
+                }
+            }
+        }
+        return prototypes;
+    }
+
+    private boolean hasAllowedTypes(AbstractConnector[] connectors) {
+        for (AbstractConnector connector : connectors) {
+            if (!connectorTypes.contains(connector.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Connects an in-connector to a random open out-connector, which does not
+     * belong to a function already connected to the in-connector's function.
+     */
+    private void connect(List<OpenConnector> candidates, AbstractConnector in) {
+        for (int attempt = 0; attempt < CONNECT_ATTEMPTS
+                && !candidates.isEmpty(); attempt++) {
+            int index = random.nextInt(candidates.size());
+            OpenConnector out = candidates.get(index);
+            if (isConnected(out.connector.getParent(), in.getParent())) {
+                continue;
+            }
+
+            in.addConnection(out.connector);
+            out.connector.addConnection(in);
+
+            if (--out.capacity == 0) {
+                /* swap with the last one, keeps removing O(1) */
+                candidates.set(index, candidates.get(candidates.size() - 1));
+                candidates.remove(candidates.size() - 1);
+            }
+            return;
+        }
+    }
+
+    private boolean isConnected(AbstractFunction from, AbstractFunction to) {
+        for (AbstractConnector in : to.getInConnectors()) {
+            for (AbstractConnector out : in.getConnections()) {
+                if (out.getParent() == from) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a valid value for a parameter.
+     */
+    private String createValue(AbstractParameter parameter) {
+        switch (parameter.getType()) {
+        case INT:
+            return String.valueOf(random.nextInt(1000));
+        case BOOLEAN:
+            return String.valueOf(random.nextBoolean());
+        case ENUM:
+            AbstractEnumValue[] values = parameter.getEnumValue();
+            return values[random.nextInt(values.length)].getValue();
+        case FILENAME:
+            return "file" + random.nextInt(1000) + ".osm";
+        case DIRECTORY:
+            return "directory" + random.nextInt(1000);
+        case URI:
+            return "http://localhost/" + random.nextInt(1000);
+        case INSTANT:
+            return String.format("2011-03-%02d_12:00:00",
+                    1 + random.nextInt(28));
+        case BBOX:
+            return String.format(Locale.US, "%.4f",
+                    random.nextDouble() * 90.0);
+        case LIST:
+            return "a" + random.nextInt(1000) + ",b" + random.nextInt(1000);
+        default:
+            return "value" + random.nextInt(1000);
+        }
+    }
+
+    /**
+     * An out-connector with the number of connections it still takes.
+     */
+    private static class OpenConnector {
+        private AbstractConnector connector;
+        private int capacity;
+
+        public OpenConnector(AbstractConnector connector, int capacity) {
+            this.connector = connector;
+            this.capacity = capacity;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Simple test for {@link Histogram}.
+ * 
+ * @author agent
+ */
+public class HistogramTest {
+
+    /**
+     * Every value has to fall into a bucket whose upper bound is at most
+     * 12.5% above it, for the whole long range.
+     */
+    @Test
+    public void testBuckets() {
+        for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 17, 1000,
+                123456789, Long.MAX_VALUE / 3, Long.MAX_VALUE }) {
+            long highest = Histogram.highestValueOf(Histogram.indexOf(value));
+            assertTrue(value + " above " + highest, value <= highest);
+            assertTrue(value + " far below " + highest,
+                    highest - value <= value / 8);
+        }
+        for (int shift = 0; shift < Long.SIZE - 1; shift++) {
+            long value = 1L << shift;
+            assertTrue(Histogram.indexOf(value - 1) < Histogram.indexOf(value)
+                    || value == 1);
+        }
+    }
+
+    /**
+     * Test the percentiles of the values 1 to 1000.
+     */
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMean(), 0.001);
+        assertEquals(1000, histogram.getMax());
+        assertEquals(1, histogram.getValueAtPercentile(0.0));
+        assertEquals(1000, histogram.getValueAtPercentile(100.0));
+
+        long median = histogram.getValueAtPercentile(50.0);
+        assertTrue("median " + median, median >= 500 && median <= 500 * 9 / 8);
+        long p99 = histogram.getValueAtPercentile(99.0);
+        assertTrue("p99 " + p99, p99 >= 990 && p99 <= 1000);
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50.0));
+    }
+}
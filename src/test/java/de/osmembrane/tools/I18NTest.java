@@ -53,4 +53,22 @@ public class I18NTest {
         assertEquals("1 in 2", testString);
     }
 
+    /**
+     * Test that the cached messages follow a change of the locale.
+     */
+    @Test
+    public void testCachedFormat() {
+        I18N.getInstance().setLocale(Locale.ENGLISH);
+        assertEquals("Edit Tasks List",
+                I18N.getInstance().getString("View.ListDialog", "Tasks"));
+        assertEquals("Edit Tasks List",
+                I18N.getInstance().getString("View.ListDialog", "Tasks"));
+
+        I18N.getInstance().setLocale(Locale.GERMAN);
+        assertEquals("Tasks-Liste bearbeiten",
+                I18N.getInstance().getString("View.ListDialog", "Tasks"));
+
+        I18N.getInstance().setLocale(Locale.ENGLISH);
+    }
+
 }
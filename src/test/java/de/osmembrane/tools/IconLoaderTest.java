@@ -0,0 +1,60 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+package de.osmembrane.tools;
+
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.junit.Test;
+
+import de.osmembrane.tools.IconLoader.Size;
+
+/**
+ * Simple test for {@link IconLoader}.
+ * 
+ * @author agent
+ */
+public class IconLoaderTest {
+
+    /**
+     * A file no image reader understands leaves the loader without an image.
+     */
+    @Test
+    public void testUnreadableImage() throws IOException {
+        File file = File.createTempFile("osmembrane-icon", ".png");
+        file.deleteOnExit();
+        Writer out = new FileWriter(file);
+        try {
+            out.write("not an image");
+        } finally {
+            out.close();
+        }
+
+        for (Size size : new Size[] { Size.SMALL, Size.ORIGINAL }) {
+            IconLoader loader = new IconLoader(file.toURI().toURL(), size,
+                    true);
+            assertNull(loader.getImage());
+            assertNull(loader.get());
+        }
+    }
+
+    @Test
+    public void testMissingFile() {
+        IconLoader loader = new IconLoader(null, Size.SMALL, true);
+        assertNull(loader.getImage());
+        assertNull(loader.get());
+    }
+}
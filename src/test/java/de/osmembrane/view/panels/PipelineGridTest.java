@@ -0,0 +1,80 @@
+/*
+ * This file is part of the OSMembrane project.
+ * More informations under www.osmembrane.de
+ * 
+ * The project is licensed under the GNU GENERAL PUBLIC LICENSE 3.0.
+ * for more details about the license see http://www.osmembrane.de/license/
+ * 
+ * Source: $HeadURL$ ($Revision$)
+ * Last changed: $Date$
+ */
+
+
+package de.osmembrane.view.panels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+/**
+ * Simple test for {@link PipelineGrid}.
+ * 
+ * @author agent
+ */
+public class PipelineGridTest {
+
+    /**
+     * Small areas look at the cells they cover, large ones at the occupied
+     * cells, both have to find the same objects.
+     */
+    @Test
+    public void testQuery() {
+        PipelineGrid<String> grid = new PipelineGrid<String>(100.0);
+        grid.put("a", new Rectangle2D.Double(10, 10, 50, 50));
+        grid.put("b", new Rectangle2D.Double(-250, 120, 200, 50));
+        grid.put("c", new Rectangle2D.Double(1000, -1000, 50, 50));
+
+        assertEquals(new HashSet<String>(Arrays.asList("a")),
+                grid.query(new Rectangle2D.Double(0, 0, 20, 20)));
+        assertEquals(new HashSet<String>(Arrays.asList("b")),
+                grid.query(new Rectangle2D.Double(-100, 150, 10, 10)));
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b")),
+                grid.query(new Rectangle2D.Double(-1e6, 0, 2e6, 1e6)));
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b", "c")),
+                grid.query(new Rectangle2D.Double(-1e9, -1e9, 2e9, 2e9)));
+        assertTrue(grid.query(new Rectangle2D.Double(2000, 2000, 10, 10))
+                .isEmpty());
+    }
+
+    /**
+     * Moved and removed objects are found at their new place only.
+     */
+    @Test
+    public void testMoveAndRemove() {
+        PipelineGrid<String> grid = new PipelineGrid<String>(100.0);
+        grid.put("a", new Rectangle2D.Double(10, 10, 50, 50));
+        grid.put("b", new Rectangle2D.Double(500, 500, 50, 50));
+        grid.put("a", new Rectangle2D.Double(510, 10, 50, 50));
+
+        assertTrue(grid.query(new Rectangle2D.Double(0, 0, 100, 100))
+                .isEmpty());
+        assertEquals(new HashSet<String>(Arrays.asList("a")),
+                grid.query(new Rectangle2D.Double(500, 0, 100, 100)));
+
+        grid.remove("a");
+        assertTrue(grid.query(new Rectangle2D.Double(500, 0, 100, 100))
+                .isEmpty());
+        assertEquals(new HashSet<String>(Arrays.asList("b")),
+                grid.query(new Rectangle2D.Double(-1e9, -1e9, 2e9, 2e9)));
+
+        grid.remove("b");
+        assertTrue(grid.query(new Rectangle2D.Double(-1e9, -1e9, 2e9, 2e9))
+                .isEmpty());
+        assertEquals(50.0, grid.getMaxWidth(), 0.0);
+    }
+}